@@ -357,7 +357,7 @@ public class M3ToJavaGenerator
                         "\n" +
                         "    private static final SetIterable<String> KEYS = Sets.immutable.with(" + properties.collect(CoreInstance::getName, Lists.mutable.empty()).sortThis().makeString("\"", "\",\"", "\"") + ");\n" +
                         "\n" +
-                        "    private _State state;\n" +
+                        "    private volatile _State state;\n" +
                         "\n" +
                         createClassConstructors(className) +
                         "\n" +
@@ -406,9 +406,17 @@ public class M3ToJavaGenerator
                         "    public void prepareForWrite()\n" +
                         "    {\n" +
                         "        ModelRepositoryTransaction transaction = this.getRepository().getTransaction();\n" +
-                        "        if (transaction != null && !transaction.isRegistered(this))\n" +
+                        "        if (transaction == null)\n" +
                         "        {\n" +
-                        "            transaction.registerModified(this, this.state.copy());\n" +
+                        "            if (this.isPersistent())\n" +
+                        "            {\n" +
+                        "                this.getRepository().getVersions().recordNonTransactionalWrite();\n" +
+                        "            }\n" +
+                        "        }\n" +
+                        "        else if (!transaction.isRegistered(this))\n" +
+                        "        {\n" +
+                        "            _State committedState = this.state;\n" +
+                        "            transaction.registerModified(this, committedState, committedState.copy());\n" +
                         "        }\n" +
                         "    }\n" +
                         "\n" +
@@ -423,7 +431,7 @@ public class M3ToJavaGenerator
                         "                return transactionState;\n" +
                         "            }\n" +
                         "        }\n" +
-                        "        return this.state;\n" +
+                        "        return this.getRepository().getCommittedState(this, this.state);\n" +
                         "    }\n" +
                         "\n" +
                         "    @Override\n" +
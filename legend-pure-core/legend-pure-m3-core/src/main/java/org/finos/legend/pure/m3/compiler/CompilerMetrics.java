@@ -0,0 +1,192 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.compiler;
+
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
+import org.eclipse.collections.api.map.MapIterable;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cumulative compiler metrics: time spent and instances handled in each compiler phase, by repository,
+ * and (optionally) time spent in each match runner, by runner class. Phase metrics are always recorded,
+ * as they are only recorded a few times per repository compilation. Runner metrics are recorded on every
+ * match, so they must be enabled explicitly with {@link #setRunnerTimingEnabled}.
+ *
+ * <p>All methods are thread-safe. Metrics accumulate until {@link #reset} is called.
+ */
+public class CompilerMetrics
+{
+    public enum Phase
+    {
+        PARSE,
+        REGISTER,
+        POST_PROCESS,
+        VALIDATE,
+        UNLOAD,
+        UNBIND
+    }
+
+    /**
+     * Repository name used for phases which are not specific to a repository.
+     */
+    public static final String NO_REPOSITORY = "";
+
+    private final ConcurrentMutableMap<Phase, ConcurrentMutableMap<String, Statistics>> phaseStatistics = ConcurrentHashMap.newMap();
+    private final ConcurrentMutableMap<Class<?>, Statistics> runnerStatistics = ConcurrentHashMap.newMap();
+    private volatile boolean runnerTimingEnabled = false;
+
+    /**
+     * Record the completion of a phase.
+     *
+     * @param phase         compiler phase
+     * @param repository    repository name (or null if the phase is not specific to a repository)
+     * @param instanceCount number of instances handled
+     * @param durationNanos duration of the phase in nanoseconds
+     */
+    public void recordPhase(Phase phase, String repository, int instanceCount, long durationNanos)
+    {
+        this.phaseStatistics.getIfAbsentPut(phase, ConcurrentHashMap::newMap)
+                .getIfAbsentPut((repository == null) ? NO_REPOSITORY : repository, Statistics::new)
+                .record(instanceCount, durationNanos);
+    }
+
+    /**
+     * Record one run of a match runner (i.e., a processor, validator, unload walker, or unbinder). The
+     * duration includes the time of any matches run recursively by the runner.
+     *
+     * @param runnerClass   match runner class
+     * @param durationNanos duration of the run in nanoseconds
+     */
+    public void recordRunner(Class<?> runnerClass, long durationNanos)
+    {
+        this.runnerStatistics.getIfAbsentPut(runnerClass, Statistics::new).record(1, durationNanos);
+    }
+
+    public boolean isRunnerTimingEnabled()
+    {
+        return this.runnerTimingEnabled;
+    }
+
+    public void setRunnerTimingEnabled(boolean enabled)
+    {
+        this.runnerTimingEnabled = enabled;
+    }
+
+    /**
+     * Get a snapshot of the statistics for a phase, by repository.
+     *
+     * @param phase compiler phase
+     * @return statistics by repository
+     */
+    public MapIterable<String, Statistics> getPhaseStatistics(Phase phase)
+    {
+        ConcurrentMutableMap<String, Statistics> byRepo = this.phaseStatistics.get(phase);
+        MutableMap<String, Statistics> snapshot = Maps.mutable.empty();
+        if (byRepo != null)
+        {
+            byRepo.forEachKeyValue((repo, stats) -> snapshot.put(repo, stats.copy()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get a snapshot of the statistics for match runners, by runner class. In these statistics, the
+     * count is the number of runs.
+     *
+     * @return statistics by runner class
+     */
+    public MapIterable<Class<?>, Statistics> getRunnerStatistics()
+    {
+        MutableMap<Class<?>, Statistics> snapshot = Maps.mutable.empty();
+        this.runnerStatistics.forEachKeyValue((cls, stats) -> snapshot.put(cls, stats.copy()));
+        return snapshot;
+    }
+
+    public void reset()
+    {
+        this.phaseStatistics.clear();
+        this.runnerStatistics.clear();
+    }
+
+    public static class Statistics
+    {
+        private final AtomicLong invocations = new AtomicLong();
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+
+        private Statistics()
+        {
+        }
+
+        private Statistics(long invocations, long count, long nanos)
+        {
+            this.invocations.set(invocations);
+            this.count.set(count);
+            this.nanos.set(nanos);
+        }
+
+        private void record(int count, long nanos)
+        {
+            this.invocations.incrementAndGet();
+            this.count.addAndGet(count);
+            this.nanos.addAndGet(nanos);
+        }
+
+        private Statistics copy()
+        {
+            return new Statistics(this.invocations.get(), this.count.get(), this.nanos.get());
+        }
+
+        /**
+         * Number of times the phase or runner was recorded.
+         *
+         * @return number of recordings
+         */
+        public long getInvocations()
+        {
+            return this.invocations.get();
+        }
+
+        /**
+         * Total number of instances handled.
+         *
+         * @return instance count
+         */
+        public long getCount()
+        {
+            return this.count.get();
+        }
+
+        /**
+         * Total time in nanoseconds.
+         *
+         * @return total time
+         */
+        public long getNanos()
+        {
+            return this.nanos.get();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "<Statistics invocations=" + getInvocations() + " count=" + getCount() + " nanos=" + getNanos() + ">";
+        }
+    }
+}
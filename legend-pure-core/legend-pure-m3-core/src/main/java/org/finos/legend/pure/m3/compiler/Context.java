@@ -27,15 +27,19 @@ import org.eclipse.collections.api.set.ImmutableSet;
 import org.eclipse.collections.api.set.MutableSet;
 import org.eclipse.collections.api.set.SetIterable;
 import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+import org.finos.legend.pure.m3.compiler.postprocessing.functionmatch.FunctionMatchCache;
 import org.finos.legend.pure.m3.compiler.visibility.AccessLevel;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.type.Type;
 import org.finos.legend.pure.m3.navigation.M3Paths;
 import org.finos.legend.pure.m3.navigation.M3Properties;
 import org.finos.legend.pure.m3.navigation.M3PropertyPaths;
 import org.finos.legend.pure.m3.navigation.PackageableElement.PackageableElement;
 import org.finos.legend.pure.m3.navigation.PrimitiveUtilities;
+import org.finos.legend.pure.m3.navigation.generictype.GenericTypeValueCache;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.m4.tools.ConcurrentHashSet;
 
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class Context
@@ -49,6 +53,11 @@ public class Context
     private final ConcurrentMutableMap<CoreInstance, MutableSet<CoreInstance>> instancesByClassifier = ConcurrentHashMap.newMap();
     private final ConcurrentMutableMap<String, MutableSet<CoreInstance>> functionsByName = ConcurrentHashMap.newMap();
     private final ConcurrentMutableMap<CoreInstance, ImmutableSet<CoreInstance>> typeGeneralizationSets = ConcurrentHashMap.newMap();
+    private final TypeGeneralizationIndex typeGeneralizationIndex = new TypeGeneralizationIndex();
+    private final FunctionMatchCache functionMatchCache = new FunctionMatchCache();
+    private final GenericTypeValueCache genericTypeValueCache = new GenericTypeValueCache();
+    private volatile CompilerMetrics compilerMetrics;
+    private volatile Predicate<? super String> elementLoader;
 
     private CoreInstance anyType;
     private CoreInstance nilType;
@@ -112,11 +121,14 @@ public class Context
     /**
      * Get a Pure element by its path.  If this is not stored in the context,
      * find it by evaluating function on the path, store it in the context if
-     * non-null, and return it.  This is an atomic operation.
+     * non-null, and return it.  This is an atomic operation.  If the element
+     * cannot be found and there is an element loader, the loader is given the
+     * chance to load it, after which the function is evaluated again.
      *
      * @param path    element path
      * @param factory function to find the element
      * @return element with the given path
+     * @see #setElementLoader
      */
     public CoreInstance getIfAbsentPutElementByPath(String path, Supplier<? extends CoreInstance> factory)
     {
@@ -124,6 +136,14 @@ public class Context
         if (instance == null)
         {
             CoreInstance newInstance = factory.get();
+            if (newInstance == null)
+            {
+                Predicate<? super String> loader = this.elementLoader;
+                if ((loader != null) && loader.test(path))
+                {
+                    newInstance = factory.get();
+                }
+            }
             if (newInstance != null)
             {
                 instance = this.coreInstanceByPath.getIfAbsentPut(path, newInstance);
@@ -132,6 +152,19 @@ public class Context
         return instance;
     }
 
+    /**
+     * Set a loader for elements which are not yet in the graph, for on-demand
+     * loading.  The loader is called with the path of an element which could
+     * not be found, and should return whether it loaded anything.  Pass null
+     * to remove the loader.
+     *
+     * @param elementLoader element loader, or null
+     */
+    public void setElementLoader(Predicate<? super String> elementLoader)
+    {
+        this.elementLoader = elementLoader;
+    }
+
     /**
      * Get the type of a function.  If this is not stored in the context,
      * calculate it by evaluating generator on function, store it in the
@@ -146,6 +179,22 @@ public class Context
         return function.isPersistent() ? this.functionTypes.getIfAbsentPutWithKey(function, generator) : generator.valueOf(function);
     }
 
+    /**
+     * Return whether type is a subtype of possibleSuperType, using the
+     * generalization closure index.  If the closure of type is not
+     * currently indexed, then compute it by evaluating generator on
+     * type and index it (if type is persistent).
+     *
+     * @param type              type
+     * @param possibleSuperType possible super type
+     * @param generator         function to compute all generalizations of a type, including itself
+     * @return whether type is a subtype of possibleSuperType
+     */
+    public boolean typeSubTypeOf(CoreInstance type, CoreInstance possibleSuperType, Function<? super CoreInstance, ? extends Iterable<? extends CoreInstance>> generator)
+    {
+        return this.typeGeneralizationIndex.subTypeOf(type, possibleSuperType, generator);
+    }
+
     public ImmutableSet<CoreInstance> getIfAbsentPutTypeGeneralizationSet(CoreInstance type, Function<CoreInstance, ? extends ImmutableSet<CoreInstance>> generator)
     {
         return type.isPersistent() ? this.typeGeneralizationSets.getIfAbsentPutWithKey(type, generator) : generator.valueOf(type);
@@ -223,6 +272,7 @@ public class Context
         if (functionName != null)
         {
             this.functionsByName.getIfAbsentPut(functionName, ConcurrentHashSet::newSet).add(function);
+            this.functionMatchCache.invalidate(functionName);
         }
     }
 
@@ -261,6 +311,42 @@ public class Context
         return this.functionsByName.keysView();
     }
 
+    /**
+     * Get the cache of functions matching function expressions.
+     *
+     * @return function match cache
+     */
+    public FunctionMatchCache getFunctionMatchCache()
+    {
+        return this.functionMatchCache;
+    }
+
+    /**
+     * Get the cache of interned generic type values.
+     *
+     * @return generic type value cache
+     */
+    public GenericTypeValueCache getGenericTypeValueCache()
+    {
+        return this.genericTypeValueCache;
+    }
+
+    /**
+     * Get the metrics of the compiler using this context. This may be null. Unlike the
+     * rest of the context, the metrics are not reset by {@link #clear}.
+     *
+     * @return compiler metrics or null
+     */
+    public CompilerMetrics getCompilerMetrics()
+    {
+        return this.compilerMetrics;
+    }
+
+    public void setCompilerMetrics(CompilerMetrics compilerMetrics)
+    {
+        this.compilerMetrics = compilerMetrics;
+    }
+
     public CoreInstance getIfAbsentPutAny(Supplier<? extends CoreInstance> factory)
     {
         if (this.anyType == null)
@@ -294,12 +380,14 @@ public class Context
             {
                 functions.remove(coreInstance);
             }
+            this.functionMatchCache.invalidate(funcName.getName());
         }
         MutableSet<CoreInstance> instances = this.instancesByClassifier.get(coreInstance.getClassifier());
         if (instances != null)
         {
             instances.remove(coreInstance);
         }
+        this.typeGeneralizationIndex.remove(coreInstance);
         this.update(coreInstance);
     }
 
@@ -314,6 +402,7 @@ public class Context
         this.coreInstanceByPath.remove(PackageableElement.getUserPathForPackageableElement(coreInstance));
         this.functionTypes.remove(coreInstance);
         this.accessLevels.remove(coreInstance);
+        this.typeGeneralizationIndex.invalidate(coreInstance);
         // If there is a change to the generalization hierarchy, then we have to invalidate everything depending on the hierarchy.
         if (this.generalizations.containsKey(coreInstance))
         {
@@ -322,6 +411,20 @@ public class Context
             this.propertyPaths.clear();
             this.typeGeneralizationSets.clear();
         }
+        // Function matches and generic type results depend on the parameters of functions and on types, so we invalidate those that might be affected.
+        if (coreInstance instanceof Type)
+        {
+            this.functionMatchCache.invalidate(coreInstance);
+            this.genericTypeValueCache.invalidate(coreInstance);
+        }
+        else
+        {
+            CoreInstance funcName = coreInstance.getValueForMetaPropertyToOne(M3Properties.functionName);
+            if (funcName != null)
+            {
+                this.functionMatchCache.invalidate(funcName.getName());
+            }
+        }
         if (this.anyType == coreInstance)
         {
             this.anyType = null;
@@ -346,6 +449,9 @@ public class Context
         this.propertyPaths.clear();
         this.instancesByClassifier.clear();
         this.typeGeneralizationSets.clear();
+        this.typeGeneralizationIndex.clear();
+        this.functionMatchCache.clear();
+        this.genericTypeValueCache.clear();
         this.anyType = null;
         this.nilType = null;
     }
@@ -96,7 +96,11 @@ public class ReferenceUsage
     {
         CoreInstance usageReference = createReferenceUsage(user, propertyName, offset, repository, processorSupport);
         usageReference.setSourceInformation(sourceInformationForUsage);
-        Instance.addValueToProperty(used, M3Properties.referenceUsages, usageReference, processorSupport);
+        // the used instance may be shared between elements being post-processed in parallel
+        synchronized (used)
+        {
+            Instance.addValueToProperty(used, M3Properties.referenceUsages, usageReference, processorSupport);
+        }
     }
 
     /**
@@ -109,6 +113,15 @@ public class ReferenceUsage
      * @return number of ReferenceUsages removed from instanceBeingUsed
      */
     public static int removeReferenceUsagesForUser(CoreInstance used, CoreInstance user, ProcessorSupport processorSupport)
+    {
+        // synchronized on the used instance, as for addReferenceUsage
+        synchronized (used)
+        {
+            return removeReferenceUsagesForUser_internal(used, user, processorSupport);
+        }
+    }
+
+    private static int removeReferenceUsagesForUser_internal(CoreInstance used, CoreInstance user, ProcessorSupport processorSupport)
     {
         ListIterable<? extends CoreInstance> userReferenceUsages = used.getValueInValueForMetaPropertyToManyByIndex(M3Properties.referenceUsages, IndexSpecifications.getPropertyValueIndexSpec(M3Properties.owner), user);
         int size = userReferenceUsages.size();
@@ -322,7 +335,11 @@ public class ReferenceUsage
     {
         // TODO we should be able to use an ID index here, but there are cases of duplicate reference usages.
         ReferenceUsageIndexKey key = new ReferenceUsageIndexKey(owner, propertyName, offset);
-        return reference.getValueInValueForMetaPropertyToManyByIndex(M3Properties.referenceUsages, REF_USAGE_INDEX_SPEC, key).notEmpty();
+        // synchronized on the reference, as for addReferenceUsage
+        synchronized (reference)
+        {
+            return reference.getValueInValueForMetaPropertyToManyByIndex(M3Properties.referenceUsages, REF_USAGE_INDEX_SPEC, key).notEmpty();
+        }
     }
 
     public static String printReferenceUsage(CoreInstance referenceUsage)
@@ -0,0 +1,249 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.compiler;
+
+import org.eclipse.collections.api.block.function.Function;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+import org.eclipse.collections.impl.utility.Iterate;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+
+import java.util.BitSet;
+
+/**
+ * Index of the generalization closure of types. Each type in a closure is given a dense integer id, and
+ * the closure of a type is stored as a bit set of those ids. Checking whether one type is a subtype of
+ * another is then a lookup of the closure of the first, a lookup of the id of the second, and a bit test.
+ * Pure allows multiple generalizations, so the closure cannot be encoded as a single interval.
+ *
+ * <p>The index is maintained incrementally: for each id, it records the types whose closures include it,
+ * so when a type changes only the closures of the type itself and its subtypes are invalidated. The ids
+ * of removed types are reused, which keeps the bit sets small; this is safe because every closure which
+ * includes an id is invalidated before the id is freed.
+ *
+ * <p>Reads are lock free. Updates of the index are synchronized, and each invalidation which removes
+ * closures increments a version. A read is retried if one happened while it was in progress, so a stale
+ * closure is never used. Invalidating a type which is in no closure (the common case, as the context
+ * invalidates every instance it updates) only increments a separate store version, which does not disturb
+ * reads. A closure is only stored if neither version changed while it was being computed, so a stale
+ * closure is never stored.
+ *
+ * <p>Each closure also remembers the result of its last check, so repeated checks against the same super
+ * type take a single lookup. The result stays valid as long as the closure does.
+ */
+public class TypeGeneralizationIndex
+{
+    private final ConcurrentMutableMap<CoreInstance, Integer> typeIds = ConcurrentHashMap.newMap();
+    private final ConcurrentMutableMap<CoreInstance, Closure> closures = ConcurrentHashMap.newMap();
+    private final MutableList<MutableSet<CoreInstance>> dependentsById = Lists.mutable.empty();
+    private final BitSet freeIds = new BitSet();
+    private volatile long version = 0L;
+    private volatile long storeVersion = 0L;
+
+    /**
+     * Return whether type is a subtype of possibleSuperType (including the case where they are the same).
+     * If the closure of type is not in the index, it is computed by evaluating generator on type, which
+     * must return all the generalizations of type (including type itself). Closures of non-persistent
+     * types are not indexed.
+     *
+     * @param type              type
+     * @param possibleSuperType possible super type
+     * @param generator         function to compute all generalizations of a type
+     * @return whether type is a subtype of possibleSuperType
+     */
+    public boolean subTypeOf(CoreInstance type, CoreInstance possibleSuperType, Function<? super CoreInstance, ? extends Iterable<? extends CoreInstance>> generator)
+    {
+        if (!type.isPersistent())
+        {
+            return Iterate.contains(generator.valueOf(type), possibleSuperType);
+        }
+
+        while (true)
+        {
+            long startVersion = this.version;
+            Closure closure = this.closures.get(type);
+            if (closure == null)
+            {
+                long startStoreVersion = this.storeVersion;
+                Iterable<? extends CoreInstance> generalizations = generator.valueOf(type);
+                if (!storeClosure(type, generalizations, startVersion, startStoreVersion))
+                {
+                    // The hierarchy changed while computing: the freshly computed generalizations are still correct
+                    return Iterate.contains(generalizations, possibleSuperType);
+                }
+                continue;
+            }
+            boolean result = closure.includes(possibleSuperType, this.typeIds);
+            if (this.version == startVersion)
+            {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Invalidate the closures which include the given type. This should be called
+     * whenever the generalizations of the type may have changed.
+     *
+     * @param type type
+     */
+    public synchronized void invalidate(CoreInstance type)
+    {
+        Integer id = this.typeIds.get(type);
+        if (id == null)
+        {
+            // No closure includes the type (not even its own, which would include it), but one may be being computed
+            this.storeVersion++;
+            return;
+        }
+        this.version++;
+        MutableSet<CoreInstance> dependents = this.dependentsById.get(id);
+        for (CoreInstance dependent : dependents.toList())
+        {
+            removeClosure(dependent);
+        }
+        removeClosure(type);
+    }
+
+    /**
+     * Remove the given type from the index, invalidating all closures which
+     * include it and freeing its id for reuse.
+     *
+     * @param type type
+     */
+    public synchronized void remove(CoreInstance type)
+    {
+        invalidate(type);
+        Integer id = this.typeIds.remove(type);
+        if (id != null)
+        {
+            this.freeIds.set(id);
+        }
+    }
+
+    public synchronized void clear()
+    {
+        this.version++;
+        this.storeVersion++;
+        this.closures.clear();
+        this.typeIds.clear();
+        this.dependentsById.clear();
+        this.freeIds.clear();
+    }
+
+    /**
+     * Number of ids currently allocated, including free ones. This bounds the size of the closure bit sets.
+     *
+     * @return id capacity
+     */
+    public synchronized int getIdCapacity()
+    {
+        return this.dependentsById.size();
+    }
+
+    private synchronized boolean storeClosure(CoreInstance type, Iterable<? extends CoreInstance> generalizations, long startVersion, long startStoreVersion)
+    {
+        if ((this.version != startVersion) || (this.storeVersion != startStoreVersion))
+        {
+            return false;
+        }
+        if (this.closures.containsKey(type))
+        {
+            return true;
+        }
+        BitSet ids = new BitSet();
+        for (CoreInstance generalization : generalizations)
+        {
+            int id = getIfAbsentPutId(generalization);
+            ids.set(id);
+            this.dependentsById.get(id).add(type);
+        }
+        this.closures.put(type, new Closure(ids));
+        return true;
+    }
+
+    private int getIfAbsentPutId(CoreInstance type)
+    {
+        Integer id = this.typeIds.get(type);
+        if (id != null)
+        {
+            return id;
+        }
+        int newId = this.freeIds.nextSetBit(0);
+        if (newId == -1)
+        {
+            newId = this.dependentsById.size();
+            this.dependentsById.add(Sets.mutable.empty());
+        }
+        else
+        {
+            this.freeIds.clear(newId);
+        }
+        this.typeIds.put(type, newId);
+        return newId;
+    }
+
+    private void removeClosure(CoreInstance type)
+    {
+        Closure closure = this.closures.remove(type);
+        if (closure != null)
+        {
+            for (int id = closure.ids.nextSetBit(0); id >= 0; id = closure.ids.nextSetBit(id + 1))
+            {
+                this.dependentsById.get(id).remove(type);
+            }
+        }
+    }
+
+    private static class Closure
+    {
+        private final BitSet ids;
+        private volatile Check lastCheck;
+
+        private Closure(BitSet ids)
+        {
+            this.ids = ids;
+        }
+
+        private boolean includes(CoreInstance superType, ConcurrentMutableMap<CoreInstance, Integer> typeIds)
+        {
+            Check check = this.lastCheck;
+            if ((check != null) && (check.superType == superType))
+            {
+                return check.result;
+            }
+            Integer superTypeId = typeIds.get(superType);
+            boolean result = (superTypeId != null) && this.ids.get(superTypeId);
+            this.lastCheck = new Check(superType, result);
+            return result;
+        }
+    }
+
+    private static class Check
+    {
+        private final CoreInstance superType;
+        private final boolean result;
+
+        private Check(CoreInstance superType, boolean result)
+        {
+            this.superType = superType;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.compiler.postprocessing;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+import org.finos.legend.pure.m3.compiler.Context;
+import org.finos.legend.pure.m3.compiler.postprocessing.observer.PostProcessorObserver;
+import org.finos.legend.pure.m3.compiler.unload.Unbinder;
+import org.finos.legend.pure.m3.compiler.unload.unbind.UnbindState;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m3.tools.forkjoin.ForkJoinTools;
+import org.finos.legend.pure.m3.tools.matcher.Matcher;
+import org.finos.legend.pure.m4.ModelRepository;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.exception.PureCompilationException;
+import org.finos.legend.pure.m4.transaction.framework.ThreadLocalTransactionContext;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Post-processes top-level functions in parallel. Functions are processed after all other elements
+ * (classes, associations, enumerations, etc.) have been processed sequentially, at which point each
+ * function body can be processed independently of the others.
+ *
+ * <p>Each function is processed with its own {@link ProcessorState}. All states share a set of claims,
+ * so that an instance is only ever processed by one state. If a function needs an instance which has
+ * been claimed by another function, the conflict is noted. Once the parallel phase is finished, any
+ * function with a conflict is unbound and processed again sequentially, in the original order. This
+ * makes the result independent of the scheduling of the parallel phase.
+ *
+ * <p>If processing fails, the exception thrown is the one for the first failing function in the original
+ * order, as for sequential processing.
+ */
+public class ParallelPostProcessor
+{
+    private final ForkJoinPool forkJoinPool;
+    private final int threshold;
+    private final Supplier<? extends ThreadLocalTransactionContext> threadContextSupplier;
+
+    /**
+     * Parallel post-processor.
+     *
+     * @param forkJoinPool          fork join pool to process functions in
+     * @param threshold             minimum number of functions for parallel processing (and size of sequential chunks)
+     * @param threadContextSupplier optional supplier of a context to open in each worker thread (e.g., the current transaction)
+     */
+    public ParallelPostProcessor(ForkJoinPool forkJoinPool, int threshold, Supplier<? extends ThreadLocalTransactionContext> threadContextSupplier)
+    {
+        this.forkJoinPool = forkJoinPool;
+        this.threshold = threshold;
+        this.threadContextSupplier = threadContextSupplier;
+    }
+
+    boolean shouldParallelize(int functionCount)
+    {
+        return (this.forkJoinPool != null) && (functionCount > this.threshold);
+    }
+
+    void processFunctions(ListIterable<? extends CoreInstance> functions, Matcher matcher, ProcessorState state, ModelRepository modelRepository, Context context, ProcessorSupport processorSupport, PostProcessorObserver observer) throws PureCompilationException
+    {
+        ConcurrentMutableMap<CoreInstance, ProcessorState> claims = ConcurrentHashMap.newMap();
+        ListIterable<FunctionResult> results = ForkJoinTools.collect(this.forkJoinPool, functions, f -> processFunction(f, matcher, state, claims, processorSupport, observer), this.threshold);
+
+        int errorIndex = results.detectIndex(r -> (r.error != null) && !r.state.hasClaimConflict());
+        MutableList<CoreInstance> conflicted = Lists.mutable.empty();
+        results.forEachWithIndex((result, i) ->
+        {
+            if (result.state.hasClaimConflict())
+            {
+                if ((errorIndex == -1) || (i < errorIndex))
+                {
+                    conflicted.add(result.function);
+                }
+            }
+            else if (result.error == null)
+            {
+                state.merge(result.state);
+            }
+        });
+
+        if (conflicted.notEmpty())
+        {
+            Unbinder.process(Sets.mutable.withAll(conflicted), modelRepository, state.getParserLibrary(), state.getInlineDSLLibrary(), context, processorSupport, new UnbindState(context, state.getURLPatternLibrary(), state.getInlineDSLLibrary(), processorSupport), state.getMessage());
+            conflicted.forEach(function ->
+            {
+                state.resetVariableContext();
+                PostProcessor.processElement(matcher, function, state, processorSupport);
+            });
+        }
+
+        if (errorIndex != -1)
+        {
+            throw results.get(errorIndex).error;
+        }
+    }
+
+    private FunctionResult processFunction(CoreInstance function, Matcher matcher, ProcessorState mainState, ConcurrentMutableMap<CoreInstance, ProcessorState> claims, ProcessorSupport processorSupport, PostProcessorObserver observer)
+    {
+        ProcessorState functionState = new ProcessorState(VariableContext.newVariableContext(), mainState.getParserLibrary(), mainState.getInlineDSLLibrary(), processorSupport, mainState.getURLPatternLibrary(), mainState.getCodeStorage(), mainState.getMessage(), observer);
+        functionState.setClaims(claims);
+        try (ThreadLocalTransactionContext ignore = (this.threadContextSupplier == null) ? null : this.threadContextSupplier.get())
+        {
+            PostProcessor.processElement(matcher, function, functionState, processorSupport);
+            return new FunctionResult(function, functionState, null);
+        }
+        catch (RuntimeException e)
+        {
+            return new FunctionResult(function, functionState, e);
+        }
+    }
+
+    private static class FunctionResult
+    {
+        private final CoreInstance function;
+        private final ProcessorState state;
+        private final RuntimeException error;
+
+        private FunctionResult(CoreInstance function, ProcessorState state, RuntimeException error)
+        {
+            this.function = function;
+            this.state = state;
+            this.error = error;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.finos.legend.pure.m3.compiler.postprocessing.processor.milestoning.Mi
 import org.finos.legend.pure.m3.compiler.postprocessing.processor.milestoning.MilestoningPropertyProcessor;
 import org.finos.legend.pure.m3.compiler.validation.validator.GenericTypeValidator;
 import org.finos.legend.pure.m3.coreinstance.Package;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.ConcreteFunctionDefinition;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.FunctionDefinition;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.PackageableFunction;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.property.AbstractProperty;
@@ -55,6 +56,11 @@ public class PostProcessor
     }
 
     public static SourceMutation process(Iterable<? extends CoreInstance> newInstancesConsolidated, ModelRepository modelRepository, ParserLibrary parserLibrary, InlineDSLLibrary inlineDSLLibrary, RepositoryCodeStorage codeStorage, Context context, ProcessorSupport processorSupport, URLPatternLibrary URLPatternLibrary, Message message, PostProcessorObserver observer) throws PureCompilationException
+    {
+        return process(newInstancesConsolidated, modelRepository, parserLibrary, inlineDSLLibrary, codeStorage, context, processorSupport, URLPatternLibrary, message, observer, null);
+    }
+
+    public static SourceMutation process(Iterable<? extends CoreInstance> newInstancesConsolidated, ModelRepository modelRepository, ParserLibrary parserLibrary, InlineDSLLibrary inlineDSLLibrary, RepositoryCodeStorage codeStorage, Context context, ProcessorSupport processorSupport, URLPatternLibrary URLPatternLibrary, Message message, PostProcessorObserver observer, ParallelPostProcessor parallelPostProcessor) throws PureCompilationException
     {
         CoreInstance concreteFunctionDefinition = processorSupport.package_getByUserPath(M3Paths.ConcreteFunctionDefinition);
         CoreInstance nativeFunction = processorSupport.package_getByUserPath(M3Paths.NativeFunction);
@@ -76,11 +82,28 @@ public class PostProcessor
         inlineDSLLibrary.getInlineDSLs().forEach(dsl -> dsl.getProcessors().forEach(matcher::addMatchIfTypeIsKnown));
 
         ProcessorState state = new ProcessorState(VariableContext.newVariableContext(), parserLibrary, inlineDSLLibrary, processorSupport, URLPatternLibrary, codeStorage, message, observer);
-        allInstancesConsolidated.forEach(coreInstance ->
+        MutableList<CoreInstance> functions = (parallelPostProcessor == null) ? Lists.mutable.empty() : allInstancesConsolidated.select(i -> i instanceof ConcreteFunctionDefinition);
+        if ((parallelPostProcessor != null) && parallelPostProcessor.shouldParallelize(functions.size()))
         {
-            state.resetVariableContext();
-            processElement(matcher, coreInstance, state, processorSupport);
-        });
+            // Process everything other than functions first, then the functions in parallel
+            allInstancesConsolidated.forEach(coreInstance ->
+            {
+                if (!(coreInstance instanceof ConcreteFunctionDefinition))
+                {
+                    state.resetVariableContext();
+                    processElement(matcher, coreInstance, state, processorSupport);
+                }
+            });
+            parallelPostProcessor.processFunctions(functions, matcher, state, modelRepository, context, processorSupport, observer);
+        }
+        else
+        {
+            allInstancesConsolidated.forEach(coreInstance ->
+            {
+                state.resetVariableContext();
+                processElement(matcher, coreInstance, state, processorSupport);
+            });
+        }
 
         state.getFunctionDefinitions().forEach(functionDef -> GenericTypeTraceability.addTraceForFunctionDefinition((FunctionDefinition<?>) functionDef, modelRepository, processorSupport));
 
@@ -162,7 +185,7 @@ public class PostProcessor
 
     public static void processElement(Matcher matcher, CoreInstance instance, ProcessorState state, ProcessorSupport processorSupport) throws PureCompilationException
     {
-        if (!instance.hasBeenProcessed())
+        if (state.claimForProcessing(instance) && !instance.hasBeenProcessed())
         {
             state.startProcessing(instance);
             try (ProcessorState.VariableContextScope ignore = state.withNewVariableContext())
@@ -16,6 +16,7 @@ package org.finos.legend.pure.m3.compiler.postprocessing;
 
 import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.factory.Stacks;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
 import org.eclipse.collections.api.set.MutableSet;
 import org.eclipse.collections.api.set.SetIterable;
 import org.eclipse.collections.api.stack.MutableStack;
@@ -53,6 +54,8 @@ public class ProcessorState extends MatcherState
     private final URLPatternLibrary URLPatternLibrary;
     private final SourceMutation sourceMutation = new SourceMutation();
     private final RepositoryCodeStorage codeStorage;
+    private ConcurrentMutableMap<CoreInstance, ProcessorState> claims;
+    private volatile boolean claimConflict = false;
 
     public ProcessorState(VariableContext variableContext, ParserLibrary parserLibrary, InlineDSLLibrary inlineDSLLibrary, ProcessorSupport processorSupport, URLPatternLibrary URLPatternLibrary, RepositoryCodeStorage codeStorage, Message message, PostProcessorObserver observer)
     {
@@ -137,6 +140,57 @@ public class ProcessorState extends MatcherState
         noteProcessed(instance);
     }
 
+    /**
+     * Claim an instance for processing by this state. This always succeeds unless the state
+     * is taking part in parallel processing (see {@link ParallelPostProcessor}) and the instance
+     * has already been claimed by another state. In that case, the conflict is noted and false
+     * is returned: the instance must not be processed (or relied on) by this state.
+     *
+     * @param instance instance to be processed
+     * @return whether this state may process the instance
+     */
+    boolean claimForProcessing(CoreInstance instance)
+    {
+        if (this.claims == null)
+        {
+            return true;
+        }
+        // instances processed before parallel processing started are never claimed
+        ProcessorState owner = instance.hasBeenProcessed() ? this.claims.get(instance) : this.claims.putIfAbsent(instance, this);
+        if ((owner == null) || (owner == this))
+        {
+            return true;
+        }
+        this.claimConflict = true;
+        return false;
+    }
+
+    void setClaims(ConcurrentMutableMap<CoreInstance, ProcessorState> claims)
+    {
+        this.claims = claims;
+    }
+
+    boolean hasClaimConflict()
+    {
+        return this.claimConflict;
+    }
+
+    /**
+     * Merge the results of another state into this one, after the other state has processed a function in
+     * parallel. This carries over the visited instances, the function definitions (for traceability) and the
+     * source mutation. The rest of the state (variable context, variables, type inference and milestoning
+     * contexts) is scoped to the processing of a single element: it is reset or popped before processing the
+     * next element, so it is not carried over.
+     *
+     * @param other state to merge
+     */
+    void merge(ProcessorState other)
+    {
+        addAllVisited(other);
+        this.functionDefinitions.addAll(other.functionDefinitions);
+        this.sourceMutation.merge(other.sourceMutation);
+    }
+
     public void finishProcessing(CoreInstance instance, Exception e)
     {
         this.postProcessorObserver.finishProcessing(instance, e);
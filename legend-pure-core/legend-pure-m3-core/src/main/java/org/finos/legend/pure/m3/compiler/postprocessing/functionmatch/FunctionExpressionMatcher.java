@@ -24,6 +24,7 @@ import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.set.MutableSet;
 import org.eclipse.collections.api.set.SetIterable;
 import org.eclipse.collections.api.tuple.Pair;
+import org.finos.legend.pure.m3.compiler.Context;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.Function;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.PackageableFunction;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.valuespecification.FunctionExpression;
@@ -39,6 +40,16 @@ import org.finos.legend.pure.m4.exception.PureCompilationException;
 
 public class FunctionExpressionMatcher
 {
+    public static ListIterable<Function<?>> findMatchingFunctionsInTheRepository(FunctionExpression functionExpression, boolean lenient, Context context, ProcessorSupport processorSupport) throws PureCompilationException
+    {
+        if (context == null)
+        {
+            return findMatchingFunctionsInTheRepository(functionExpression, lenient, processorSupport);
+        }
+        ListIterable<String> splitFunctionPath = PackageableElement.splitUserPath(functionExpression._functionName());
+        return context.getFunctionMatchCache().getIfAbsentPutMatches(functionExpression, splitFunctionPath.getLast(), lenient, processorSupport, () -> findMatchingFunctionsInTheRepository(functionExpression, lenient, processorSupport));
+    }
+
     public static ListIterable<Function<?>> findMatchingFunctionsInTheRepository(FunctionExpression functionExpression, boolean lenient, ProcessorSupport processorSupport) throws PureCompilationException
     {
         RichIterable<? extends ValueSpecification> parametersValues = functionExpression._parametersValues();
@@ -0,0 +1,197 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.compiler.postprocessing.functionmatch;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.PackageableElement;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.Function;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.valuespecification.FunctionExpression;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.valuespecification.ValueSpecification;
+import org.finos.legend.pure.m3.navigation.Instance;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m3.navigation.multiplicity.Multiplicity;
+import org.finos.legend.pure.m3.navigation.type.Type;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.tools.ConcurrentHashSet;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the functions matching a function expression. Entries are keyed by the function name, the
+ * import group, and the raw type and multiplicity bounds of each parameter value. Only expressions
+ * whose parameter values all have simple concrete types (a packageable raw type with no type or
+ * multiplicity arguments) and concrete multiplicities are cached, as matches for anything else
+ * depend on more than the key.
+ *
+ * <p>Entries are grouped by the simple function name, so that they can be invalidated when a function
+ * with that name is added or removed. Each entry is also registered with every generalization of the
+ * raw types in its key, so that when a type changes only the entries whose parameter value types are
+ * the type or one of its subtypes are invalidated. These are the only entries whose matches can depend
+ * on the type: the parameter types of the functions themselves are covered by the function name.
+ */
+public class FunctionMatchCache
+{
+    private final ConcurrentMutableMap<String, ConcurrentMutableMap<ImmutableList<Object>, ListIterable<Function<?>>>> matchesByName = ConcurrentHashMap.newMap();
+    private final ConcurrentMutableMap<CoreInstance, MutableSet<Pair<String, ImmutableList<Object>>>> entriesByType = ConcurrentHashMap.newMap();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Get the functions matching the given function expression. If the expression cannot be cached,
+     * or there is no entry for it, the matches are computed by evaluating finder.
+     *
+     * @param functionExpression function expression
+     * @param functionName       simple name of the function to find
+     * @param lenient            whether matching is lenient
+     * @param processorSupport   processor support
+     * @param finder             function to find the matches if they are not cached
+     * @return matching functions
+     */
+    ListIterable<Function<?>> getIfAbsentPutMatches(FunctionExpression functionExpression, String functionName, boolean lenient, ProcessorSupport processorSupport, Supplier<? extends ListIterable<Function<?>>> finder)
+    {
+        ImmutableList<Object> key = buildKey(functionExpression, lenient, processorSupport);
+        if (key == null)
+        {
+            return finder.get();
+        }
+
+        ConcurrentMutableMap<ImmutableList<Object>, ListIterable<Function<?>>> matches = this.matchesByName.getIfAbsentPut(functionName, ConcurrentHashMap::newMap);
+        ListIterable<Function<?>> result = matches.get(key);
+        if (result != null)
+        {
+            this.hitCount.incrementAndGet();
+            return result;
+        }
+
+        this.missCount.incrementAndGet();
+        ListIterable<Function<?>> newResult = finder.get().toImmutable();
+        ListIterable<Function<?>> oldResult = matches.putIfAbsent(key, newResult);
+        if (oldResult != null)
+        {
+            return oldResult;
+        }
+        registerEntry(functionName, key, processorSupport);
+        return newResult;
+    }
+
+    /**
+     * Invalidate all entries for functions with the given simple name.
+     *
+     * @param functionName simple function name
+     */
+    public void invalidate(String functionName)
+    {
+        this.matchesByName.remove(functionName);
+    }
+
+    /**
+     * Invalidate all entries whose parameter value types are the given type or one of its subtypes. This
+     * should be called whenever the type changes.
+     *
+     * @param type type
+     */
+    public void invalidate(CoreInstance type)
+    {
+        MutableSet<Pair<String, ImmutableList<Object>>> entries = this.entriesByType.remove(type);
+        if (entries != null)
+        {
+            entries.forEach(entry ->
+            {
+                ConcurrentMutableMap<ImmutableList<Object>, ListIterable<Function<?>>> matches = this.matchesByName.get(entry.getOne());
+                if (matches != null)
+                {
+                    matches.remove(entry.getTwo());
+                }
+            });
+        }
+    }
+
+    /**
+     * Invalidate all entries.
+     */
+    public void clear()
+    {
+        this.matchesByName.clear();
+        this.entriesByType.clear();
+    }
+
+    public long getHitCount()
+    {
+        return this.hitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return this.missCount.get();
+    }
+
+    private void registerEntry(String functionName, ImmutableList<Object> key, ProcessorSupport processorSupport)
+    {
+        Pair<String, ImmutableList<Object>> entry = Tuples.pair(functionName, key);
+        // the raw types are at 3, 6, 9, ...: see buildKey
+        for (int i = 3; i < key.size(); i += 3)
+        {
+            for (CoreInstance generalization : Type.getGeneralizationResolutionOrder((CoreInstance) key.get(i), processorSupport))
+            {
+                this.entriesByType.getIfAbsentPut(generalization, ConcurrentHashSet::newSet).add(entry);
+            }
+        }
+    }
+
+    private static ImmutableList<Object> buildKey(FunctionExpression functionExpression, boolean lenient, ProcessorSupport processorSupport)
+    {
+        ListIterable<? extends ValueSpecification> parametersValues = functionExpression._parametersValues().toList();
+        MutableList<Object> key = Lists.mutable.ofInitialCapacity(3 + (3 * parametersValues.size()));
+        key.add(functionExpression._functionName());
+        key.add(lenient);
+        key.add(functionExpression._importGroup());
+        for (ValueSpecification value : parametersValues)
+        {
+            CoreInstance genericType = Instance.getValueForMetaPropertyToOneResolved(value, M3Properties.genericType, processorSupport);
+            if ((genericType == null) ||
+                    (genericType.getValueForMetaPropertyToOne(M3Properties.typeParameter) != null) ||
+                    genericType.getValueForMetaPropertyToMany(M3Properties.typeArguments).notEmpty() ||
+                    genericType.getValueForMetaPropertyToMany(M3Properties.multiplicityArguments).notEmpty() ||
+                    genericType.getValueForMetaPropertyToMany(M3Properties.typeVariableValues).notEmpty())
+            {
+                return null;
+            }
+            CoreInstance rawType = Instance.getValueForMetaPropertyToOneResolved(genericType, M3Properties.rawType, processorSupport);
+            if (!(rawType instanceof PackageableElement))
+            {
+                return null;
+            }
+            CoreInstance multiplicity = Instance.getValueForMetaPropertyToOneResolved(value, M3Properties.multiplicity, processorSupport);
+            if (!Multiplicity.isMultiplicityConcrete(multiplicity))
+            {
+                return null;
+            }
+            key.add(rawType);
+            key.add(Multiplicity.multiplicityLowerBoundToInt(multiplicity));
+            key.add(Multiplicity.multiplicityUpperBoundToInt(multiplicity));
+        }
+        return key.toImmutable();
+    }
+}
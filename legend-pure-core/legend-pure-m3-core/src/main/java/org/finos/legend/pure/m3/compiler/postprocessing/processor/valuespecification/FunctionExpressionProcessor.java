@@ -231,7 +231,10 @@ public class FunctionExpressionProcessor extends Processor<FunctionExpression>
 
         if (finalFunction != null)
         {
-            finalFunction._applications(Lists.immutable.<FunctionExpression>withAll(finalFunction._applications()).newWith(functionExpression));
+            synchronized (finalFunction)
+            {
+                finalFunction._applications(Lists.immutable.<FunctionExpression>withAll(finalFunction._applications()).newWith(functionExpression));
+            }
 
             // Update the function in the function expression in the reverse
             if ("new_Class_1__String_1__KeyExpression_MANY__T_1_".equals(finalFunction.getName()) || "new_Class_1__String_1__T_1_".equals(finalFunction.getName()))
@@ -371,7 +374,7 @@ public class FunctionExpressionProcessor extends Processor<FunctionExpression>
             if (foundFunctions.isEmpty())
             {
                 // Match the functionExpression with the Function library (may still need to do it even if the function is a property because it may have been reprocessed as a Collect!)
-                foundFunctions.addAllIterable(FunctionExpressionMatcher.findMatchingFunctionsInTheRepository(functionExpression, true, processorSupport));
+                foundFunctions.addAllIterable(FunctionExpressionMatcher.findMatchingFunctionsInTheRepository(functionExpression, true, context, processorSupport));
                 functionName = getFunctionName(functionExpression);
             }
         }
@@ -52,10 +52,14 @@ public class SimpleFunctionExpressionUnbind implements MatchRunner<SimpleFunctio
         Function<?> function = (Function<?>) ImportStub.withImportStubByPass(functionExpression._funcCoreInstance(), processorSupport);
         if (function != null)
         {
-            function._applicationsRemove(functionExpression);
-            if (function._applications().isEmpty())
+            // synchronized on the function, as applications are added in FunctionExpressionProcessor
+            synchronized (function)
             {
-                function._applicationsRemove();
+                function._applicationsRemove(functionExpression);
+                if (function._applications().isEmpty())
+                {
+                    function._applicationsRemove();
+                }
             }
         }
 
@@ -14,6 +14,7 @@
 
 package org.finos.legend.pure.m3.compiler.unload.walk;
 
+import org.eclipse.collections.api.RichIterable;
 import org.finos.legend.pure.m3.compiler.Context;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.ReferenceUsage;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.type.FunctionType;
@@ -35,7 +36,13 @@ public class FunctionTypeUnloaderWalk implements MatchRunner<FunctionType>
     @Override
     public void run(FunctionType type, MatcherState state, Matcher matcher, ModelRepository modelRepository, Context context) throws PureCompilationException
     {
-        for (ReferenceUsage referenceUsage : type._referenceUsages())
+        // reference usages are updated under the function type's lock (see ReferenceUsage)
+        RichIterable<? extends ReferenceUsage> referenceUsages;
+        synchronized (type)
+        {
+            referenceUsages = type._referenceUsages().toList();
+        }
+        for (ReferenceUsage referenceUsage : referenceUsages)
         {
             matcher.fullMatch(referenceUsage._ownerCoreInstance(), state);
         }
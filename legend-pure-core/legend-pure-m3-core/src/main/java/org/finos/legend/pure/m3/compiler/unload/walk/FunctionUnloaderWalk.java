@@ -14,8 +14,10 @@
 
 package org.finos.legend.pure.m3.compiler.unload.walk;
 
+import org.eclipse.collections.api.RichIterable;
 import org.finos.legend.pure.m3.compiler.Context;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.Function;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.valuespecification.FunctionExpression;
 import org.finos.legend.pure.m3.navigation.M3Paths;
 import org.finos.legend.pure.m3.tools.matcher.MatchRunner;
 import org.finos.legend.pure.m3.tools.matcher.Matcher;
@@ -34,6 +36,12 @@ public class FunctionUnloaderWalk implements MatchRunner<Function<?>>
     @Override
     public void run(Function<?> function, MatcherState state, Matcher matcher, ModelRepository modelRepository, Context context) throws PureCompilationException
     {
-        function._applications().forEach(app -> matcher.fullMatch(app, state));
+        // applications are updated under the function's lock (see FunctionExpressionProcessor)
+        RichIterable<? extends FunctionExpression> applications;
+        synchronized (function)
+        {
+            applications = function._applications().toList();
+        }
+        applications.forEach(app -> matcher.fullMatch(app, state));
     }
 }
@@ -14,7 +14,9 @@
 
 package org.finos.legend.pure.m3.compiler.unload.walk;
 
+import org.eclipse.collections.api.RichIterable;
 import org.finos.legend.pure.m3.compiler.Context;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.ReferenceUsage;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.Referenceable;
 import org.finos.legend.pure.m3.navigation.M3Paths;
 import org.finos.legend.pure.m3.tools.matcher.MatchRunner;
@@ -34,6 +36,12 @@ public class ReferenceableUnloaderWalk implements MatchRunner<Referenceable>
     @Override
     public void run(Referenceable referenceable, MatcherState state, Matcher matcher, ModelRepository modelRepository, Context context) throws PureCompilationException
     {
-        referenceable._referenceUsages().forEach(r -> matcher.fullMatch(r._ownerCoreInstance(), state));
+        // reference usages are updated under the referenceable's lock (see ReferenceUsage)
+        RichIterable<? extends ReferenceUsage> referenceUsages;
+        synchronized (referenceable)
+        {
+            referenceUsages = referenceable._referenceUsages().toList();
+        }
+        referenceUsages.forEach(r -> matcher.fullMatch(r._ownerCoreInstance(), state));
     }
 }
@@ -23,15 +23,28 @@ import org.finos.legend.pure.m3.navigation._package._Package;
 import org.finos.legend.pure.m3.serialization.grammar.m3parser.inlinedsl.InlineDSLLibrary;
 import org.finos.legend.pure.m3.tools.matcher.MatcherState;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.tools.ConcurrentHashSet;
 
 public class WalkerState extends MatcherState
 {
-    private final MutableSet<CoreInstance> instances = Sets.mutable.with();
+    private final MutableSet<CoreInstance> instances;
     private final CoreInstance mappingClassClass;
 
     public WalkerState(M3ProcessorSupport processorSupport)
     {
-        super(processorSupport);
+        this(processorSupport, false);
+    }
+
+    /**
+     * If concurrent is true, the state may be shared by unload walks running in multiple threads.
+     *
+     * @param processorSupport processor support
+     * @param concurrent       whether the state may be used concurrently
+     */
+    public WalkerState(M3ProcessorSupport processorSupport, boolean concurrent)
+    {
+        super(processorSupport, concurrent);
+        this.instances = concurrent ? ConcurrentHashSet.newSet() : Sets.mutable.empty();
         this.mappingClassClass = _Package.getByUserPath("meta::pure::mapping::MappingClass", processorSupport);
     }
 
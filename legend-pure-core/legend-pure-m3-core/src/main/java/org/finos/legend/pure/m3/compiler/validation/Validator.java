@@ -30,12 +30,18 @@ import org.finos.legend.pure.m3.navigation._class._Class;
 import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.RepositoryCodeStorage;
 import org.finos.legend.pure.m3.serialization.grammar.ParserLibrary;
 import org.finos.legend.pure.m3.serialization.grammar.m3parser.inlinedsl.InlineDSLLibrary;
+import org.finos.legend.pure.m3.tools.forkjoin.ForkJoinTools;
 import org.finos.legend.pure.m3.tools.matcher.MatchRunner;
 import org.finos.legend.pure.m3.tools.matcher.Matcher;
 import org.finos.legend.pure.m4.ModelRepository;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.m4.coreinstance.SourceInformation;
 import org.finos.legend.pure.m4.exception.PureCompilationException;
+import org.finos.legend.pure.m4.transaction.framework.ThreadLocalTransactionContext;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 
 public class Validator
 {
@@ -50,15 +56,51 @@ public class Validator
 
     public static void validateM3(Iterable<? extends CoreInstance> newInstancesConsolidated, ValidationType validationType, ParserLibrary parserLibrary, InlineDSLLibrary inlineDSLLibrary, Iterable<? extends MatchRunner> additionalValidators, RepositoryCodeStorage codeStorage, ModelRepository modelRepository, Context context, ProcessorSupport processorSupport) throws PureCompilationException
     {
-        // Post Process
-        Matcher matcher = new Matcher(modelRepository, context, processorSupport);
+        Matcher matcher = newValidationMatcher(parserLibrary, inlineDSLLibrary, additionalValidators, modelRepository, context, processorSupport);
+        ValidatorState validatorState = new ValidatorState(validationType, codeStorage, inlineDSLLibrary, processorSupport);
+        newInstancesConsolidated.forEach(i -> validate(i, validatorState, matcher, processorSupport));
+    }
+
+    /**
+     * Validate instances in parallel. Validation is read-only with respect to the compiled graph, so
+     * instances are validated independently, each with its own {@link ValidatorState}. All instances
+     * are validated before any error is reported; if there are errors, the one thrown is the one for
+     * the first failing instance in the order of newInstancesConsolidated (which is source order).
+     *
+     * @param newInstancesConsolidated instances to validate
+     * @param forkJoinPool             fork join pool to validate in
+     * @param threshold                size of sequential chunks
+     * @param threadContextSupplier    optional supplier of a context to open in each worker thread (e.g., the current transaction)
+     */
+    public static void validateM3(ListIterable<? extends CoreInstance> newInstancesConsolidated, ValidationType validationType, ParserLibrary parserLibrary, InlineDSLLibrary inlineDSLLibrary, Iterable<? extends MatchRunner> additionalValidators, RepositoryCodeStorage codeStorage, ModelRepository modelRepository, Context context, ProcessorSupport processorSupport, ForkJoinPool forkJoinPool, int threshold, Supplier<? extends ThreadLocalTransactionContext> threadContextSupplier) throws PureCompilationException
+    {
+        Matcher matcher = newValidationMatcher(parserLibrary, inlineDSLLibrary, additionalValidators, modelRepository, context, processorSupport);
+        ListIterable<RuntimeException> errors = ForkJoinTools.collect(forkJoinPool, newInstancesConsolidated, instance ->
+        {
+            try (ThreadLocalTransactionContext ignore = (threadContextSupplier == null) ? null : threadContextSupplier.get())
+            {
+                validate(instance, new ValidatorState(validationType, codeStorage, inlineDSLLibrary, processorSupport), matcher, processorSupport);
+                return null;
+            }
+            catch (RuntimeException e)
+            {
+                return e;
+            }
+        }, threshold);
+        RuntimeException error = errors.detect(Objects::nonNull);
+        if (error != null)
+        {
+            throw error;
+        }
+    }
 
+    private static Matcher newValidationMatcher(ParserLibrary parserLibrary, InlineDSLLibrary inlineDSLLibrary, Iterable<? extends MatchRunner> additionalValidators, ModelRepository modelRepository, Context context, ProcessorSupport processorSupport)
+    {
+        Matcher matcher = new Matcher(modelRepository, context, processorSupport);
         parserLibrary.getParsers().forEach(p -> p.getValidators().forEach(matcher::addMatchIfTypeIsKnown));
         inlineDSLLibrary.getInlineDSLs().forEach(d -> d.getValidators().forEach(matcher::addMatchIfTypeIsKnown));
         additionalValidators.forEach(matcher::addMatchIfTypeIsKnown);
-
-        ValidatorState validatorState = new ValidatorState(validationType, codeStorage, inlineDSLLibrary, processorSupport);
-        newInstancesConsolidated.forEach(i -> validate(i, validatorState, matcher, processorSupport));
+        return matcher;
     }
 
     public static void validate(CoreInstance coreInstance, ValidatorState validatorState, Matcher matcher, ProcessorSupport processorSupport) throws PureCompilationException
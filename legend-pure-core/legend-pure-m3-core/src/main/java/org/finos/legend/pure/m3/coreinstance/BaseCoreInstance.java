@@ -15,12 +15,10 @@
 package org.finos.legend.pure.m3.coreinstance;
 
 import org.eclipse.collections.api.factory.Lists;
-import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.factory.Stacks;
 import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.set.MutableSet;
 import org.eclipse.collections.api.set.SetIterable;
 import org.eclipse.collections.api.stack.MutableStack;
@@ -29,9 +27,8 @@ import org.finos.legend.pure.m4.ModelRepository;
 import org.finos.legend.pure.m4.coreinstance.AbstractCoreInstance;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.m4.coreinstance.SourceInformation;
+import org.finos.legend.pure.m4.coreinstance.indexing.AdaptiveIndexes;
 import org.finos.legend.pure.m4.coreinstance.indexing.IDConflictException;
-import org.finos.legend.pure.m4.coreinstance.indexing.IDIndex;
-import org.finos.legend.pure.m4.coreinstance.indexing.Index;
 import org.finos.legend.pure.m4.coreinstance.indexing.IndexSpecification;
 import org.finos.legend.pure.m4.exception.PureCompilationException;
 import org.finos.legend.pure.m4.exception.PureException;
@@ -445,15 +442,21 @@ public abstract class BaseCoreInstance extends AbstractCoreInstance
 
     protected static class ToManyPropertyValues<V extends CoreInstance>
     {
-        private static final int MAX_NON_INDEXING_SIZE = 10;
-        private static final int MIN_INDEXING_SIZE = 6;
+        private static final int MAX_NON_INDEXING_SIZE = AdaptiveIndexes.INDEXING_THRESHOLD + 1;
+        private static final int MIN_INDEXING_SIZE = AdaptiveIndexes.INDEXING_THRESHOLD - 3;
 
         private ListIterable<V> values;
-        private Indexes<V> indexes;
+        private AdaptiveIndexes<V> indexes;
 
         private ToManyPropertyValues(ImmutableList<V> values)
+        {
+            this(values, null);
+        }
+
+        private ToManyPropertyValues(ImmutableList<V> values, AdaptiveIndexes<V> indexes)
         {
             this.values = values;
+            this.indexes = indexes;
         }
 
         public int size()
@@ -488,7 +491,7 @@ public abstract class BaseCoreInstance extends AbstractCoreInstance
                     {
                         return getValueByIDIndex_small(indexSpec, key);
                     }
-                    this.indexes = new Indexes<>();
+                    this.indexes = new AdaptiveIndexes<>();
                 }
                 return this.indexes.getValueByIDIndex(indexSpec, key, this.values);
             }
@@ -521,9 +524,10 @@ public abstract class BaseCoreInstance extends AbstractCoreInstance
                     {
                         return getValuesByIndex_small(indexSpec, key);
                     }
-                    this.indexes = new Indexes<>();
+                    this.indexes = new AdaptiveIndexes<>();
                 }
-                return this.indexes.getValuesByIndex(indexSpec, key, this.values);
+                // TODO consider whether we should do this
+                return this.indexes.getValuesByIndex(indexSpec, key, this.values).toImmutable();
             }
         }
 
@@ -537,7 +541,18 @@ public abstract class BaseCoreInstance extends AbstractCoreInstance
             synchronized (this)
             {
                 this.values = Lists.immutable.withAll(values);
-                this.indexes = null;
+                if (this.indexes != null)
+                {
+                    if (shouldBuildIndexes())
+                    {
+                        // keep track of which indexes are in use, so they are rebuilt on their next lookup
+                        this.indexes.reset();
+                    }
+                    else
+                    {
+                        this.indexes = null;
+                    }
+                }
             }
         }
 
@@ -695,7 +710,10 @@ public abstract class BaseCoreInstance extends AbstractCoreInstance
 
         public ToManyPropertyValues<V> copy()
         {
-            return new ToManyPropertyValues<>(this.values.toImmutable());
+            synchronized (this)
+            {
+                return new ToManyPropertyValues<>(this.values.toImmutable(), (this.indexes == null) ? null : this.indexes.copy());
+            }
         }
 
         private boolean shouldBuildIndexes()
@@ -708,137 +726,4 @@ public abstract class BaseCoreInstance extends AbstractCoreInstance
             return this.values.size() < MIN_INDEXING_SIZE;
         }
     }
-
-    private static class Indexes<V extends CoreInstance>
-    {
-        private MutableMap<IndexSpecification<?>, IDIndex<?, V>> idIndexes;
-        private MutableMap<IndexSpecification<?>, Index<?, V>> indexes;
-
-        <K> V getValueByIDIndex(IndexSpecification<K> indexSpec, K key, ListIterable<V> values) throws IDConflictException
-        {
-            if (this.idIndexes == null)
-            {
-                this.idIndexes = Maps.mutable.empty();
-            }
-            IDIndex<?, V> idIndex = this.idIndexes.get(indexSpec);
-            if (idIndex == null)
-            {
-                idIndex = IDIndex.newIDIndex(indexSpec, values);
-                this.idIndexes.put(indexSpec, idIndex);
-            }
-            return idIndex.get(key);
-        }
-
-        <K> ListIterable<V> getValuesByIndex(IndexSpecification<K> indexSpec, K key, ListIterable<V> values)
-        {
-            if (this.indexes == null)
-            {
-                this.indexes = Maps.mutable.empty();
-            }
-            Index<?, V> index = this.indexes.getIfAbsentPut(indexSpec, () -> Index.newIndex(indexSpec, values));
-            // TODO consider whether we should do this
-            return index.get(key).toImmutable();
-        }
-
-        void addValue(V value)
-        {
-            if (this.idIndexes != null)
-            {
-                MutableList<IDIndex<?, V>> invalidIdIndexes = Lists.mutable.empty();
-                this.idIndexes.forEachValue(idIndex ->
-                {
-                    try
-                    {
-                        idIndex.add(value);
-                    }
-                    catch (IDConflictException e)
-                    {
-                        invalidIdIndexes.add(idIndex);
-                    }
-                });
-                invalidIdIndexes.forEach(invalidIdIndex -> this.idIndexes.remove(invalidIdIndex.getSpecification()));
-            }
-            if (this.indexes != null)
-            {
-                this.indexes.forEachValue(index -> index.add(value));
-            }
-        }
-
-        void addValues(Iterable<? extends V> values)
-        {
-            if (this.idIndexes != null)
-            {
-                MutableList<IDIndex<?, V>> invalidIdIndexes = Lists.mutable.empty();
-                this.idIndexes.forEachValue(idIndex ->
-                {
-                    try
-                    {
-                        idIndex.add(values);
-                    }
-                    catch (IDConflictException e)
-                    {
-                        invalidIdIndexes.add(idIndex);
-                    }
-                });
-                invalidIdIndexes.forEach(invalidIdIndex -> this.idIndexes.remove(invalidIdIndex.getSpecification()));
-            }
-            if (this.indexes != null)
-            {
-                this.indexes.forEachValue(index -> index.add(values));
-            }
-        }
-
-        void removeValue(V value)
-        {
-            if (this.idIndexes != null)
-            {
-                this.idIndexes.forEachValue(idIndex -> idIndex.remove(value));
-            }
-            if (this.indexes != null)
-            {
-                this.indexes.forEachValue(index -> index.remove(value));
-            }
-        }
-
-        void removeValues(Iterable<? extends V> values)
-        {
-            if (this.idIndexes != null)
-            {
-                this.idIndexes.forEachValue(idIndex -> idIndex.remove(values));
-            }
-            if (this.indexes != null)
-            {
-                this.indexes.forEachValue(index -> index.remove(values));
-            }
-        }
-
-        void replaceValue(V oldValue, V newValue)
-        {
-            if (this.idIndexes != null)
-            {
-                MutableList<IDIndex<?, V>> invalidIdIndexes = Lists.mutable.empty();
-                this.idIndexes.forEachValue(idIndex ->
-                {
-                    idIndex.remove(oldValue);
-                    try
-                    {
-                        idIndex.add(newValue);
-                    }
-                    catch (IDConflictException e)
-                    {
-                        invalidIdIndexes.add(idIndex);
-                    }
-                });
-                invalidIdIndexes.forEach(invalidIdIndex -> this.idIndexes.remove(invalidIdIndex.getSpecification()));
-            }
-            if (this.indexes != null)
-            {
-                this.indexes.forEachValue(index ->
-                {
-                    index.remove(oldValue);
-                    index.add(newValue);
-                });
-            }
-        }
-    }
 }
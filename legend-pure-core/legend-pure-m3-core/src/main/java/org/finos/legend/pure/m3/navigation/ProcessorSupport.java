@@ -20,6 +20,7 @@ import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.set.SetIterable;
+import org.finos.legend.pure.m3.navigation.generictype.GenericTypeValueCache;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.m4.coreinstance.SourceInformation;
 
@@ -113,6 +114,17 @@ public interface ProcessorSupport
      */
     CoreInstance type_TopType();
 
+    /**
+     * Return the cache of interned generic type values, or null if there is
+     * none.
+     *
+     * @return generic type value cache (or null)
+     */
+    default GenericTypeValueCache genericType_getValueCache()
+    {
+        return null;
+    }
+
     default void instance_addValueToProperty(CoreInstance owner, ListIterable<String> path, Iterable<? extends CoreInstance> values)
     {
         values.forEach(v -> owner.addKeyValue(path, v));
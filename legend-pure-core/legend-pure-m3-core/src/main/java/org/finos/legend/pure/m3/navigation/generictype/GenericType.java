@@ -413,6 +413,22 @@ public class GenericType
     }
 
     public static boolean isGenericCompatibleWith(CoreInstance genericType, CoreInstance otherGenericType, boolean covariant, ProcessorSupport processorSupport)
+    {
+        // Fully concrete generic types: compatibility depends only on their values
+        GenericTypeValueCache valueCache = processorSupport.genericType_getValueCache();
+        if (valueCache != null)
+        {
+            GenericTypeValue value = valueCache.getValue(genericType, processorSupport);
+            GenericTypeValue otherValue = (value == null) ? null : valueCache.getValue(otherGenericType, processorSupport);
+            if (otherValue != null)
+            {
+                return valueCache.<Boolean>getIfAbsentPutResult(Lists.immutable.with(GenericType.class, value, otherValue, covariant), () -> computeGenericCompatibleWith(genericType, otherGenericType, covariant, processorSupport), processorSupport);
+            }
+        }
+        return computeGenericCompatibleWith(genericType, otherGenericType, covariant, processorSupport);
+    }
+
+    private static boolean computeGenericCompatibleWith(CoreInstance genericType, CoreInstance otherGenericType, boolean covariant, ProcessorSupport processorSupport)
     {
         if (!ExtendedPrimitiveType.testTypeVariableValuesCompatible(genericType, otherGenericType, processorSupport))
         {
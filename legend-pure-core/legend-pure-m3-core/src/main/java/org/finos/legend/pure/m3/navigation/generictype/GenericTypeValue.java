@@ -0,0 +1,114 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.navigation.generictype;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+
+import java.util.Arrays;
+
+/**
+ * Immutable value representation of a fully concrete generic type: a raw type, with fully concrete type
+ * arguments and concrete multiplicity arguments. Values are interned by {@link GenericTypeValueCache}, so
+ * two values from the same cache are equal if and only if they are identical. Equality of type arguments
+ * is therefore checked by identity, and the hash code is computed once on construction.
+ */
+public final class GenericTypeValue
+{
+    private final CoreInstance rawType;
+    private final ImmutableList<GenericTypeValue> typeArguments;
+    private final int[] multiplicityArgumentBounds;
+    private final int hashCode;
+
+    GenericTypeValue(CoreInstance rawType, ImmutableList<GenericTypeValue> typeArguments, int[] multiplicityArgumentBounds)
+    {
+        this.rawType = rawType;
+        this.typeArguments = typeArguments;
+        this.multiplicityArgumentBounds = multiplicityArgumentBounds;
+        this.hashCode = computeHashCode(rawType, typeArguments, multiplicityArgumentBounds);
+    }
+
+    public CoreInstance getRawType()
+    {
+        return this.rawType;
+    }
+
+    public ImmutableList<GenericTypeValue> getTypeArguments()
+    {
+        return this.typeArguments;
+    }
+
+    public int getMultiplicityArgumentCount()
+    {
+        return this.multiplicityArgumentBounds.length / 2;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if (this == other)
+        {
+            return true;
+        }
+        if (!(other instanceof GenericTypeValue))
+        {
+            return false;
+        }
+
+        GenericTypeValue that = (GenericTypeValue) other;
+        if ((this.hashCode != that.hashCode) ||
+                !this.rawType.equals(that.rawType) ||
+                (this.typeArguments.size() != that.typeArguments.size()) ||
+                !Arrays.equals(this.multiplicityArgumentBounds, that.multiplicityArgumentBounds))
+        {
+            return false;
+        }
+        for (int i = 0; i < this.typeArguments.size(); i++)
+        {
+            if (this.typeArguments.get(i) != that.typeArguments.get(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.hashCode;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder("<GenericTypeValue ").append(this.rawType);
+        if (this.typeArguments.notEmpty())
+        {
+            this.typeArguments.appendString(builder, "<", ", ", ">");
+        }
+        return builder.append('>').toString();
+    }
+
+    private static int computeHashCode(CoreInstance rawType, ImmutableList<GenericTypeValue> typeArguments, int[] multiplicityArgumentBounds)
+    {
+        int hash = rawType.hashCode();
+        for (GenericTypeValue typeArgument : typeArguments)
+        {
+            hash = (31 * hash) + System.identityHashCode(typeArgument);
+        }
+        return (31 * hash) + Arrays.hashCode(multiplicityArgumentBounds);
+    }
+}
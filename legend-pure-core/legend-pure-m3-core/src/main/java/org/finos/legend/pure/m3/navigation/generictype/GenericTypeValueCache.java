@@ -0,0 +1,210 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.navigation.generictype;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.PackageableElement;
+import org.finos.legend.pure.m3.navigation.Instance;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m3.navigation.multiplicity.Multiplicity;
+import org.finos.legend.pure.m3.navigation.type.Type;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.tools.ConcurrentHashSet;
+
+import java.util.function.Supplier;
+
+/**
+ * Interns {@link GenericTypeValue}s and memoizes results computed from them. Results may depend on
+ * the type hierarchy, so each result is registered with every generalization of the raw types in its
+ * key (including those of type arguments), and is invalidated when any of those types changes.
+ *
+ * <p>The cache is bounded: when the number of values or results reaches the maximum size, it is
+ * cleared. Clearing is always safe, as it only loses memoized work.
+ */
+public class GenericTypeValueCache
+{
+    private static final Object NULL_RESULT = new Object();
+    private static final int DEFAULT_MAX_SIZE = 65_536;
+
+    private final ConcurrentMutableMap<GenericTypeValue, GenericTypeValue> values = ConcurrentHashMap.newMap();
+    private final ConcurrentMutableMap<ImmutableList<Object>, Object> results = ConcurrentHashMap.newMap();
+    private final ConcurrentMutableMap<CoreInstance, MutableSet<ImmutableList<Object>>> resultKeysByType = ConcurrentHashMap.newMap();
+    private final int maxSize;
+
+    public GenericTypeValueCache(int maxSize)
+    {
+        if (maxSize <= 0)
+        {
+            throw new IllegalArgumentException("Max size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    public GenericTypeValueCache()
+    {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Get the interned value for a generic type. Returns null if the generic type is not fully concrete
+     * or cannot otherwise be represented as a value (e.g., a generic type operation, or a function,
+     * relation or extended primitive type).
+     *
+     * @param genericType      generic type
+     * @param processorSupport processor support
+     * @return interned value or null
+     */
+    public GenericTypeValue getValue(CoreInstance genericType, ProcessorSupport processorSupport)
+    {
+        if ((genericType == null) ||
+                GenericType.isGenericTypeOperation(genericType, processorSupport) ||
+                genericType.getValueForMetaPropertyToMany(M3Properties.typeVariableValues).notEmpty())
+        {
+            return null;
+        }
+
+        CoreInstance rawType = Instance.getValueForMetaPropertyToOneResolved(genericType, M3Properties.rawType, processorSupport);
+        if (!(rawType instanceof PackageableElement))
+        {
+            return null;
+        }
+
+        ListIterable<? extends CoreInstance> typeArguments = genericType.getValueForMetaPropertyToMany(M3Properties.typeArguments);
+        GenericTypeValue[] typeArgumentValues = new GenericTypeValue[typeArguments.size()];
+        for (int i = 0; i < typeArgumentValues.length; i++)
+        {
+            GenericTypeValue typeArgumentValue = getValue(typeArguments.get(i), processorSupport);
+            if (typeArgumentValue == null)
+            {
+                return null;
+            }
+            typeArgumentValues[i] = typeArgumentValue;
+        }
+
+        ListIterable<? extends CoreInstance> multiplicityArguments = Instance.getValueForMetaPropertyToManyResolved(genericType, M3Properties.multiplicityArguments, processorSupport);
+        int[] multiplicityArgumentBounds = new int[2 * multiplicityArguments.size()];
+        for (int i = 0; i < multiplicityArguments.size(); i++)
+        {
+            CoreInstance multiplicity = multiplicityArguments.get(i);
+            if (!Multiplicity.isMultiplicityConcrete(multiplicity))
+            {
+                return null;
+            }
+            multiplicityArgumentBounds[2 * i] = Multiplicity.multiplicityLowerBoundToInt(multiplicity);
+            multiplicityArgumentBounds[(2 * i) + 1] = Multiplicity.multiplicityUpperBoundToInt(multiplicity);
+        }
+
+        GenericTypeValue value = new GenericTypeValue(rawType, Lists.immutable.with(typeArgumentValues), multiplicityArgumentBounds);
+        if (this.values.size() >= this.maxSize)
+        {
+            clear();
+        }
+        GenericTypeValue interned = this.values.putIfAbsent(value, value);
+        return (interned == null) ? value : interned;
+    }
+
+    /**
+     * Get a memoized result computed from a list of interned values and other immutable arguments. If
+     * no result is memoized for the key, evaluate the function and memoize the result (which may be
+     * null).
+     *
+     * @param key              result key
+     * @param function         function to compute the result
+     * @param processorSupport processor support
+     * @param <T>              result type
+     * @return result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getIfAbsentPutResult(ImmutableList<Object> key, Supplier<? extends T> function, ProcessorSupport processorSupport)
+    {
+        Object result = this.results.get(key);
+        if (result == null)
+        {
+            T newResult = function.get();
+            if (this.results.size() >= this.maxSize)
+            {
+                clearResults();
+            }
+            Object newValue = (newResult == null) ? NULL_RESULT : newResult;
+            result = this.results.putIfAbsent(key, newValue);
+            if (result == null)
+            {
+                result = newValue;
+                registerResultKey(key, processorSupport);
+            }
+        }
+        return (result == NULL_RESULT) ? null : (T) result;
+    }
+
+    /**
+     * Invalidate all results which depend on the given type, i.e., those computed from values whose raw
+     * types (or those of their type arguments) are the type or one of its subtypes. This should be called
+     * whenever the type changes.
+     *
+     * @param type type
+     */
+    public void invalidate(CoreInstance type)
+    {
+        MutableSet<ImmutableList<Object>> keys = this.resultKeysByType.remove(type);
+        if (keys != null)
+        {
+            keys.forEach(this.results::remove);
+        }
+    }
+
+    public int size()
+    {
+        return this.values.size();
+    }
+
+    public void clear()
+    {
+        clearResults();
+        this.values.clear();
+    }
+
+    private void clearResults()
+    {
+        // registrations are cleared first, so that a result stored concurrently is never left unregistered
+        this.resultKeysByType.clear();
+        this.results.clear();
+    }
+
+    private void registerResultKey(ImmutableList<Object> key, ProcessorSupport processorSupport)
+    {
+        key.forEach(element ->
+        {
+            if (element instanceof GenericTypeValue)
+            {
+                registerResultKey(key, (GenericTypeValue) element, processorSupport);
+            }
+        });
+    }
+
+    private void registerResultKey(ImmutableList<Object> key, GenericTypeValue value, ProcessorSupport processorSupport)
+    {
+        for (CoreInstance generalization : Type.getGeneralizationResolutionOrder(value.getRawType(), processorSupport))
+        {
+            this.resultKeysByType.getIfAbsentPut(generalization, ConcurrentHashSet::newSet).add(key);
+        }
+        value.getTypeArguments().forEach(typeArgument -> registerResultKey(key, typeArgument, processorSupport));
+    }
+}
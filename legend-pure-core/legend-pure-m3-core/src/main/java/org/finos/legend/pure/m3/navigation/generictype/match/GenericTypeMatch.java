@@ -24,6 +24,8 @@ import org.finos.legend.pure.m3.navigation.M3Properties;
 import org.finos.legend.pure.m3.navigation.PrimitiveUtilities;
 import org.finos.legend.pure.m3.navigation.ProcessorSupport;
 import org.finos.legend.pure.m3.navigation.generictype.GenericType;
+import org.finos.legend.pure.m3.navigation.generictype.GenericTypeValue;
+import org.finos.legend.pure.m3.navigation.generictype.GenericTypeValueCache;
 import org.finos.legend.pure.m3.navigation.generictype.GenericTypeWithXArguments;
 import org.finos.legend.pure.m3.navigation.multiplicity.MultiplicityMatch;
 import org.finos.legend.pure.m3.navigation.type.ExtendedPrimitiveType;
@@ -158,6 +160,23 @@ public class GenericTypeMatch implements Comparable<GenericTypeMatch>
             }
         }
 
+        // Fully concrete generic types: the match depends only on their values
+        GenericTypeValueCache valueCache = processorSupport.genericType_getValueCache();
+        if (valueCache != null)
+        {
+            GenericTypeValue targetValue = valueCache.getValue(targetGenericType, processorSupport);
+            GenericTypeValue valueValue = (targetValue == null) ? null : valueCache.getValue(valueGenericType, processorSupport);
+            if (valueValue != null)
+            {
+                ImmutableList<Object> key = Lists.immutable.with(GenericTypeMatch.class, targetValue, valueValue, covariant, getNullMatchBehavior(valueNullMatchBehavior), getParameterMatchBehavior(targetParameterMatchBehavior), getParameterMatchBehavior(valueParameterMatchBehavior));
+                return valueCache.getIfAbsentPutResult(key, () -> newNonNullGenericTypeMatch(targetGenericType, valueGenericType, covariant, valueNullMatchBehavior, targetParameterMatchBehavior, valueParameterMatchBehavior, processorSupport), processorSupport);
+            }
+        }
+        return newNonNullGenericTypeMatch(targetGenericType, valueGenericType, covariant, valueNullMatchBehavior, targetParameterMatchBehavior, valueParameterMatchBehavior, processorSupport);
+    }
+
+    private static GenericTypeMatch newNonNullGenericTypeMatch(CoreInstance targetGenericType, CoreInstance valueGenericType, boolean covariant, NullMatchBehavior valueNullMatchBehavior, ParameterMatchBehavior targetParameterMatchBehavior, ParameterMatchBehavior valueParameterMatchBehavior, ProcessorSupport processorSupport)
+    {
         // Identical generic types
         if (GenericType.genericTypesEqual(targetGenericType, valueGenericType, processorSupport))
         {
@@ -15,9 +15,11 @@
 package org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CommonTokenStream;
-import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.eclipse.collections.api.RichIterable;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Sets;
@@ -151,9 +153,29 @@ import org.finos.legend.pure.m4.serialization.grammar.antlr.PureAntlrErrorStrate
 import org.finos.legend.pure.m4.serialization.grammar.antlr.PureParserException;
 
 import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Function;
 
 public class M3AntlrParser implements Parser
 {
+    /**
+     * System property for the maximum number of definition parse trees to cache (see {@link ParseTreeCache}).
+     * The cache is disabled by default.
+     */
+    public static final String PARSE_TREE_CACHE_SIZE_PROPERTY = "pure.parser.parseTreeCacheSize";
+
+    /**
+     * System property for a directory in which to persist definition parse trees, so that they can be reused
+     * across runs and processes (see {@link ParseTreeCache}). Parse trees are not persisted by default.
+     */
+    public static final String PARSE_TREE_CACHE_DIRECTORY_PROPERTY = "pure.parser.parseTreeCacheDirectory";
+
+    private static final ParseTreeCache DEFINITION_PARSE_TREE_CACHE = new ParseTreeCache(
+            Math.max(0, Integer.getInteger(PARSE_TREE_CACHE_SIZE_PROPERTY, 0)),
+            getParseTreeCacheDirectory(),
+            M3Parser._serializedATN,
+            M3Parser.class);
 
     private int offsetLine;
     private final InlineDSLLibrary inlineDSLLibrary;
@@ -198,25 +220,10 @@ public class M3AntlrParser implements Parser
 
     private void parseDefinition(boolean useFastParser, String code, String sourceName, ModelRepository repository, MutableList<CoreInstance> coreInstancesResult, M3M4StateListener listener, Context context, int count, boolean addLines, SourceState oldState)
     {
-        try
-        {
-            AntlrSourceInformation sourceInformation = new AntlrSourceInformation(this.offsetLine, 0, sourceName, addLines);
-            org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr.M3Parser parser = initAntlrParser(useFastParser, code, sourceInformation);
-            final M3AntlrTreeWalker visitor = new M3AntlrTreeWalker(sourceInformation, this.inlineDSLLibrary, repository, coreInstancesResult, listener, context, null, count, this.useImportStubsInInstanceParser, addLines, oldState);
-            visitor.visit(parser.definition());
-        }
-        catch (Exception e)
-        {
-            if (isAntlrRecognitionExceptionUsingFastParser(useFastParser, e))
-            {
-                //System.err.println("Error using fast Antlr Parser: " + ExceptionUtils.getStackTrace(e));
-                this.parseDefinition(false, code, sourceName, repository, coreInstancesResult, listener, context, count, addLines, oldState);
-            }
-            else
-            {
-                throw e;
-            }
-        }
+        AntlrSourceInformation sourceInformation = new AntlrSourceInformation(this.offsetLine, 0, sourceName, addLines);
+        M3Parser.DefinitionContext definition = DEFINITION_PARSE_TREE_CACHE.getIfAbsentParse("definition", code, () -> parse(useFastParser, code, sourceInformation, M3Parser::definition));
+        M3AntlrTreeWalker visitor = new M3AntlrTreeWalker(sourceInformation, this.inlineDSLLibrary, repository, coreInstancesResult, listener, context, null, count, this.useImportStubsInInstanceParser, addLines, oldState);
+        visitor.visit(definition);
     }
 
     public CoreInstance parseType(String code, String fileName, int offsetLine, int offsetColumn, ImportGroup importId, ModelRepository repository, Context context) throws PureParserException
@@ -226,48 +233,16 @@ public class M3AntlrParser implements Parser
 
     public CoreInstance parseType(boolean useFastParser, String code, String fileName, int offsetLine, int offsetColumn, ImportGroup importId, ModelRepository repository, Context context) throws PureParserException
     {
-        try
-        {
-            AntlrSourceInformation sourceInformation = new AntlrSourceInformation(offsetLine - 1, offsetColumn - 1, fileName, true);
-            org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr.M3Parser parser = initAntlrParser(useFastParser, code, sourceInformation);
-            M3AntlrTreeWalker visitor = new M3AntlrTreeWalker(sourceInformation, this.inlineDSLLibrary, repository, null, null, context, importId, 0, null);
-            return visitor.visit(parser.type());
-        }
-        catch (Exception e)
-        {
-            if (isAntlrRecognitionExceptionUsingFastParser(useFastParser, e))
-            {
-                //System.err.println("Error using fast Antlr Parser: " + ExceptionUtils.getStackTrace(e));
-                return this.parseType(false, code, fileName, offsetLine, offsetColumn, importId, repository, context);
-            }
-            else
-            {
-                throw e;
-            }
-        }
+        AntlrSourceInformation sourceInformation = new AntlrSourceInformation(offsetLine - 1, offsetColumn - 1, fileName, true);
+        M3AntlrTreeWalker visitor = new M3AntlrTreeWalker(sourceInformation, this.inlineDSLLibrary, repository, null, null, context, importId, 0, null);
+        return visitor.visit(parse(useFastParser, code, sourceInformation, M3Parser::type));
     }
 
     public CoreInstance parseInstance(boolean useFastParser, String code, String fileName, int offsetLine, int offsetColumn, ImportGroup importId, ModelRepository repository, Context context) throws PureParserException
     {
-        try
-        {
-            AntlrSourceInformation sourceInformation = new AntlrSourceInformation(offsetLine - 1, offsetColumn - 1, fileName, true);
-            org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr.M3Parser parser = initAntlrParser(useFastParser, code, sourceInformation);
-            M3AntlrTreeWalker visitor = new M3AntlrTreeWalker(sourceInformation, this.inlineDSLLibrary, repository, null, null, context, importId, 0, null);
-            return visitor.visit(parser.instance());
-        }
-        catch (Exception e)
-        {
-            if (isAntlrRecognitionExceptionUsingFastParser(useFastParser, e))
-            {
-                //System.err.println("Error using fast Antlr Parser: " + ExceptionUtils.getStackTrace(e));
-                return this.parseInstance(false, code, fileName, offsetLine, offsetColumn, importId, repository, context);
-            }
-            else
-            {
-                throw e;
-            }
-        }
+        AntlrSourceInformation sourceInformation = new AntlrSourceInformation(offsetLine - 1, offsetColumn - 1, fileName, true);
+        M3AntlrTreeWalker visitor = new M3AntlrTreeWalker(sourceInformation, this.inlineDSLLibrary, repository, null, null, context, importId, 0, null);
+        return visitor.visit(parse(useFastParser, code, sourceInformation, M3Parser::instance));
     }
 
     public void parseProperties(String code, String fileName, MutableList<Property<? extends CoreInstance, ?>> properties, MutableList<QualifiedProperty<? extends CoreInstance>> qualifiedProperties, ImportStub typeOwner, ImportGroup importId, boolean addLines, ModelRepository repository, Context context, int startingQualifiedPropertyIndex) throws PureParserException
@@ -277,48 +252,16 @@ public class M3AntlrParser implements Parser
 
     private void parseProperties(boolean useFastParser, String code, String fileName, MutableList<Property<? extends CoreInstance, ?>> properties, MutableList<QualifiedProperty<? extends CoreInstance>> qualifiedProperties, ImportStub typeOwner, ImportGroup importId, boolean addLines, ModelRepository repository, Context context, int startingQualifiedPropertyIndex) throws PureParserException
     {
-        try
-        {
-            AntlrSourceInformation sourceInformation = new AntlrSourceInformation(this.offsetLine, 0, fileName, addLines);
-            org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr.M3Parser parser = initAntlrParser(useFastParser, code, sourceInformation);
-            M3AntlrPropertiesWalker visitor = new M3AntlrPropertiesWalker(sourceInformation, this.inlineDSLLibrary, repository, context, importId, properties, qualifiedProperties, typeOwner, startingQualifiedPropertyIndex);
-            visitor.visit(parser.properties());
-        }
-        catch (Exception e)
-        {
-            if (isAntlrRecognitionExceptionUsingFastParser(useFastParser, e))
-            {
-                //System.err.println("Error using fast Antlr Parser: " + ExceptionUtils.getStackTrace(e));
-                this.parseProperties(false, code, fileName, properties, qualifiedProperties, typeOwner, importId, addLines, repository, context, startingQualifiedPropertyIndex);
-            }
-            else
-            {
-                throw e;
-            }
-        }
+        AntlrSourceInformation sourceInformation = new AntlrSourceInformation(this.offsetLine, 0, fileName, addLines);
+        M3AntlrPropertiesWalker visitor = new M3AntlrPropertiesWalker(sourceInformation, this.inlineDSLLibrary, repository, context, importId, properties, qualifiedProperties, typeOwner, startingQualifiedPropertyIndex);
+        visitor.visit(parse(useFastParser, code, sourceInformation, M3Parser::properties));
     }
 
     private CoreInstance parseTreePath(boolean useFastParser, String code, String fileName, int offsetLine, int offsetColumn, ImportGroup importId, ModelRepository repository, Context context) throws PureParserException
     {
-        try
-        {
-            AntlrSourceInformation sourceInformation = new AntlrSourceInformation(offsetLine - 1, offsetColumn - 1, fileName, true);
-            org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr.M3Parser parser = initAntlrParser(useFastParser, code, sourceInformation);
-            M3AntlrTreeWalker visitor = new M3AntlrTreeWalker(sourceInformation, this.inlineDSLLibrary, repository, null, null, context, importId, 0, null);
-            return visitor.visit(parser.treePath());
-        }
-        catch (Exception e)
-        {
-            if (isAntlrRecognitionExceptionUsingFastParser(useFastParser, e))
-            {
-                //System.err.println("Error using fast Antlr Parser: " + ExceptionUtils.getStackTrace(e));
-                return this.parseTreePath(false, code, fileName, offsetLine, offsetColumn, importId, repository, context);
-            }
-            else
-            {
-                throw e;
-            }
-        }
+        AntlrSourceInformation sourceInformation = new AntlrSourceInformation(offsetLine - 1, offsetColumn - 1, fileName, true);
+        M3AntlrTreeWalker visitor = new M3AntlrTreeWalker(sourceInformation, this.inlineDSLLibrary, repository, null, null, context, importId, 0, null);
+        return visitor.visit(parse(useFastParser, code, sourceInformation, M3Parser::treePath));
     }
 
     public CoreInstance parseTreePath(String code, String fileName, int offsetLine, int offsetColumn, ImportGroup importId, ModelRepository repository, Context context) throws PureParserException
@@ -329,10 +272,9 @@ public class M3AntlrParser implements Parser
     public TemporaryPureSetImplementation parseMappingInfo(String content, String classPath, AntlrContextToM3CoreInstance.LambdaContext lambdaContext, String sourceName, int offset, String importId, ModelRepository repository, ProcessorSupport processorSupport, final Context context)
     {
         AntlrSourceInformation sourceInformation = new AntlrSourceInformation(offset, 0, sourceName, true);
-        org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr.M3Parser parser = initAntlrParser(true, content, sourceInformation);
         ImportGroup grp = (ImportGroup) processorSupport.package_getByUserPath("system::imports::" + importId);
         M3AntlrTreeWalker visitor = new M3AntlrTreeWalker(classPath, sourceInformation, this.inlineDSLLibrary, repository, null, null, context, grp, 0, null);
-        return visitor.walkMapping(parser.mapping(), lambdaContext);
+        return visitor.walkMapping(parse(true, content, sourceInformation, M3Parser::mapping), lambdaContext);
     }
 
     @Override
@@ -371,19 +313,17 @@ public class M3AntlrParser implements Parser
     public TemporaryPureAggregateSpecification parseAggregateSpecification(String content, AntlrContextToM3CoreInstance.LambdaContext lambdaContext, String sourceName, int offset, String importId, int index, ModelRepository repository, ProcessorSupport processorSupport, Context context)
     {
         AntlrSourceInformation sourceInformation = new AntlrSourceInformation(offset, 0, sourceName, true);
-        org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr.M3Parser parser = initAntlrParser(true, content, sourceInformation);
         ImportGroup grp = (ImportGroup) processorSupport.package_getByUserPath("system::imports::" + importId);
         M3AntlrTreeWalker visitor = new M3AntlrTreeWalker(null, sourceInformation, this.inlineDSLLibrary, repository, null, null, context, grp, 0, null);
-        return visitor.walkAggregateSpecification(parser.aggregateSpecification(), lambdaContext, index);
+        return visitor.walkAggregateSpecification(parse(true, content, sourceInformation, M3Parser::aggregateSpecification), lambdaContext, index);
     }
 
     public TemporaryPureMergeOperationFunctionSpecification parseMergeSpecification(String content, AntlrContextToM3CoreInstance.LambdaContext lambdaContext, String sourceName, int offset, String importId, ModelRepository repository, ProcessorSupport processorSupport, Context context)
     {
         AntlrSourceInformation sourceInformation = new AntlrSourceInformation(offset, 0, sourceName, true);
-        org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr.M3Parser parser = initAntlrParser(true, content, sourceInformation);
         ImportGroup grp = (ImportGroup) processorSupport.package_getByUserPath("system::imports::" + importId);
         M3AntlrTreeWalker visitor = new M3AntlrTreeWalker(null, sourceInformation, this.inlineDSLLibrary, repository, null, null, context, grp, 0, null);
-        return visitor.walkMergeOperationSpecification(parser.combinedExpression(), lambdaContext);
+        return visitor.walkMergeOperationSpecification(parse(true, content, sourceInformation, M3Parser::combinedExpression), lambdaContext);
     }
 
     @Deprecated
@@ -611,6 +551,24 @@ public class M3AntlrParser implements Parser
         return Lists.immutable.empty();
     }
 
+    /**
+     * Get the cache of parse trees for Pure definitions. Its size and directory are initialized from the
+     * system properties {@link #PARSE_TREE_CACHE_SIZE_PROPERTY} and {@link #PARSE_TREE_CACHE_DIRECTORY_PROPERTY},
+     * and can be changed with {@link ParseTreeCache#setMaxSize} and {@link ParseTreeCache#setDirectory}.
+     *
+     * @return definition parse tree cache
+     */
+    public static ParseTreeCache getDefinitionParseTreeCache()
+    {
+        return DEFINITION_PARSE_TREE_CACHE;
+    }
+
+    private static Path getParseTreeCacheDirectory()
+    {
+        String directory = System.getProperty(PARSE_TREE_CACHE_DIRECTORY_PROPERTY);
+        return ((directory == null) || directory.isEmpty()) ? null : Paths.get(directory);
+    }
+
     public static org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr.M3Parser initAntlrParser(boolean fastParser, String code, AntlrSourceInformation sourceInformation)
     {
         AntlrDescriptiveErrorListener pureErrorListener = new AntlrDescriptiveErrorListener(sourceInformation);
@@ -627,9 +585,46 @@ public class M3AntlrParser implements Parser
         return parser;
     }
 
-    private static boolean isAntlrRecognitionExceptionUsingFastParser(boolean parseFast, Exception e)
-    {
-        return parseFast && e instanceof PureParserException && e.getCause() instanceof RecognitionException;
-    }
+    /**
+     * Parse code using the given rule. If useFastParser is true, the code is first parsed in SLL prediction
+     * mode with an error strategy which bails out at the first error. This is considerably faster than full
+     * LL prediction, and succeeds for almost all valid code. Only if it fails is the code parsed again in LL
+     * mode (reusing the tokens from the first attempt), which reports errors with full Pure error messages.
+     *
+     * @param useFastParser     whether to try SLL prediction first
+     * @param code              code to parse
+     * @param sourceInformation source information for errors
+     * @param rule              parser rule
+     * @param <T>               parse tree type
+     * @return parse tree
+     */
+    static <T extends ParserRuleContext> T parse(boolean useFastParser, String code, AntlrSourceInformation sourceInformation, Function<? super M3Parser, ? extends T> rule)
+    {
+        if (!useFastParser)
+        {
+            return rule.apply(initAntlrParser(false, code, sourceInformation));
+        }
 
+        AntlrDescriptiveErrorListener pureErrorListener = new AntlrDescriptiveErrorListener(sourceInformation);
+        M3Lexer lexer = new M3Lexer(new ANTLRInputStream(code));
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(pureErrorListener);
+
+        M3Parser parser = new M3Parser(new CommonTokenStream(lexer));
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try
+        {
+            return rule.apply(parser);
+        }
+        catch (ParseCancellationException e)
+        {
+            parser.reset();
+            parser.addErrorListener(pureErrorListener);
+            parser.setErrorHandler(new PureAntlrErrorStrategy(sourceInformation));
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            return rule.apply(parser);
+        }
+    }
 }
@@ -0,0 +1,594 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.misc.Pair;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.antlr.v4.runtime.tree.TerminalNodeImpl;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.map.MapIterable;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
+import org.finos.legend.pure.m3.tools.BinaryUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of ANTLR parse trees, keyed by parser rule and a SHA-256 hash of the source content. When
+ * byte-identical code is parsed again, the parse tree from the previous parse is reused and lexing and
+ * parsing are skipped entirely. Parse trees are only read by the tree walkers which build the graph, so
+ * they can be shared. Only successful parses are cached.
+ *
+ * <p>There are two levels. In memory, entries are evicted in least recently used order when the cache is
+ * full, and are held by soft references so they can be reclaimed under memory pressure; a maximum size
+ * of 0 disables this level. If a directory is set, parse trees are also persisted there, one file per
+ * entry named by its hash, so that they can be reused by later runs and by other processes (e.g., build
+ * agents sharing a directory). Files are written to a temporary file and moved into place, so readers
+ * never see a partial entry. The hash also covers the grammar fingerprint given at construction, so
+ * entries written for a different grammar are never read. An unreadable entry is treated as a miss and
+ * overwritten. Entries name the rule context classes of their nodes, but only the public nested rule
+ * context classes of the parser class given at construction are ever instantiated: classes are never
+ * loaded by a name read from an entry.
+ */
+public class ParseTreeCache
+{
+    static final int MAGIC = 0x50545245; // "PTRE"
+    static final int FORMAT_VERSION = 1;
+    static final String FILE_EXTENSION = ".tree";
+
+    private static final byte RULE_NODE = 0;
+    private static final byte TERMINAL_NODE = 1;
+
+    private final LinkedHashMap<String, SoftReference<ParserRuleContext>> trees = new LinkedHashMap<>(16, 0.75f, true);
+    private final String grammarFingerprint;
+    private final MapIterable<String, Constructor<? extends ParserRuleContext>> ruleContextConstructors;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong diskHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private volatile int maxSize;
+    private volatile Path directory;
+
+    /**
+     * Create a parse tree cache.
+     *
+     * @param maxSize            maximum number of parse trees to hold in memory
+     * @param directory          directory in which to persist parse trees (null for none)
+     * @param grammarFingerprint string which identifies the grammar, e.g., the serialized ATN of the parser
+     * @param parserClass        generated parser class, whose nested rule context classes make up the parse trees
+     */
+    public ParseTreeCache(int maxSize, Path directory, String grammarFingerprint, Class<? extends Parser> parserClass)
+    {
+        this.grammarFingerprint = grammarFingerprint;
+        this.ruleContextConstructors = getRuleContextConstructors(parserClass);
+        setMaxSize(maxSize);
+        setDirectory(directory);
+    }
+
+    /**
+     * Get the cached parse tree for the given rule and code. If there is none in memory, it is read from the
+     * cache directory (if any). If there is none there either, the parser is run and its result is cached.
+     *
+     * @param ruleName name of the parser rule
+     * @param code     code
+     * @param parser   function to parse the code with the given rule
+     * @param <T>      parse tree type
+     * @return parse tree
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends ParserRuleContext> T getIfAbsentParse(String ruleName, String code, Supplier<? extends T> parser)
+    {
+        Path dir = this.directory;
+        if ((this.maxSize <= 0) && (dir == null))
+        {
+            return parser.get();
+        }
+
+        String key = computeKey(ruleName, code);
+        SoftReference<ParserRuleContext> ref;
+        synchronized (this.trees)
+        {
+            ref = this.trees.get(key);
+        }
+        ParserRuleContext tree = (ref == null) ? null : ref.get();
+        if (tree != null)
+        {
+            this.hitCount.incrementAndGet();
+            return (T) tree;
+        }
+
+        if (dir != null)
+        {
+            ParserRuleContext persisted = readTree(dir.resolve(key + FILE_EXTENSION), code, this.ruleContextConstructors);
+            if (persisted != null)
+            {
+                this.diskHitCount.incrementAndGet();
+                cacheInMemory(key, persisted);
+                return (T) persisted;
+            }
+        }
+
+        this.missCount.incrementAndGet();
+        T newTree = parser.get();
+        cacheInMemory(key, newTree);
+        if (dir != null)
+        {
+            writeTree(dir, key, newTree, this.ruleContextConstructors);
+        }
+        return newTree;
+    }
+
+    public int getMaxSize()
+    {
+        return this.maxSize;
+    }
+
+    /**
+     * Set the maximum number of parse trees to cache in memory. Setting it to 0 disables the in-memory
+     * cache.
+     *
+     * @param maxSize maximum number of parse trees
+     */
+    public void setMaxSize(int maxSize)
+    {
+        if (maxSize < 0)
+        {
+            throw new IllegalArgumentException("Invalid maximum size: " + maxSize);
+        }
+        synchronized (this.trees)
+        {
+            this.maxSize = maxSize;
+            evict();
+        }
+    }
+
+    public Path getDirectory()
+    {
+        return this.directory;
+    }
+
+    /**
+     * Set the directory in which parse trees are persisted. It is created if it does not exist. Setting it
+     * to null disables persistence; files already written are left in place.
+     *
+     * @param directory cache directory, or null
+     */
+    public void setDirectory(Path directory)
+    {
+        if (directory != null)
+        {
+            try
+            {
+                Files.createDirectories(directory);
+            }
+            catch (IOException e)
+            {
+                throw new RuntimeException("Error creating parse tree cache directory: " + directory, e);
+            }
+        }
+        this.directory = directory;
+    }
+
+    public int size()
+    {
+        synchronized (this.trees)
+        {
+            return this.trees.size();
+        }
+    }
+
+    /**
+     * Number of parse trees found in memory.
+     *
+     * @return in-memory hit count
+     */
+    public long getHitCount()
+    {
+        return this.hitCount.get();
+    }
+
+    /**
+     * Number of parse trees read from the cache directory.
+     *
+     * @return disk hit count
+     */
+    public long getDiskHitCount()
+    {
+        return this.diskHitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return this.missCount.get();
+    }
+
+    /**
+     * Clear the in-memory cache and the statistics. Persisted parse trees are kept.
+     */
+    public void clear()
+    {
+        synchronized (this.trees)
+        {
+            this.trees.clear();
+        }
+        this.hitCount.set(0);
+        this.diskHitCount.set(0);
+        this.missCount.set(0);
+    }
+
+    private void cacheInMemory(String key, ParserRuleContext tree)
+    {
+        if (this.maxSize > 0)
+        {
+            synchronized (this.trees)
+            {
+                this.trees.put(key, new SoftReference<>(tree));
+                evict();
+            }
+        }
+    }
+
+    private void evict()
+    {
+        if (this.trees.size() <= this.maxSize)
+        {
+            return;
+        }
+        this.trees.values().removeIf(ref -> ref.get() == null);
+        int excess = this.trees.size() - this.maxSize;
+        if (excess > 0)
+        {
+            Iterator<Map.Entry<String, SoftReference<ParserRuleContext>>> iterator = this.trees.entrySet().iterator();
+            for (int i = 0; i < excess; i++)
+            {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    private String computeKey(String ruleName, String code)
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+        digest.update(this.grammarFingerprint.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(code.getBytes(StandardCharsets.UTF_8));
+        return ruleName + "-" + BinaryUtils.encodeHex(digest.digest());
+    }
+
+    // Persistence
+
+    private static MapIterable<String, Constructor<? extends ParserRuleContext>> getRuleContextConstructors(Class<? extends Parser> parserClass)
+    {
+        MutableMap<String, Constructor<? extends ParserRuleContext>> constructors = Maps.mutable.empty();
+        for (Class<?> nestedClass : parserClass.getClasses())
+        {
+            if (ParserRuleContext.class.isAssignableFrom(nestedClass))
+            {
+                try
+                {
+                    constructors.put(nestedClass.getName(), nestedClass.asSubclass(ParserRuleContext.class).getConstructor(ParserRuleContext.class, int.class));
+                }
+                catch (NoSuchMethodException ignore)
+                {
+                    // Not a context the parser creates for a rule (e.g., a labeled alternative): trees which contain it are not persisted
+                }
+            }
+        }
+        return constructors.toImmutable();
+    }
+
+    private static ParserRuleContext readTree(Path file, String code, MapIterable<String, Constructor<? extends ParserRuleContext>> ruleContextConstructors)
+    {
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            return deserialize(stream, code, ruleContextConstructors);
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+        catch (IOException | RuntimeException | ReflectiveOperationException e)
+        {
+            // Unreadable entries (e.g., written by another version) are treated as misses and overwritten
+            return null;
+        }
+    }
+
+    private static void writeTree(Path dir, String key, ParserRuleContext tree, MapIterable<String, Constructor<? extends ParserRuleContext>> ruleContextConstructors)
+    {
+        byte[] bytes;
+        try
+        {
+            bytes = serialize(tree, ruleContextConstructors);
+        }
+        catch (IOException e)
+        {
+            return;
+        }
+        if (bytes == null)
+        {
+            return;
+        }
+
+        Path tmpPath = null;
+        try
+        {
+            tmpPath = Files.createTempFile(dir, key, ".tmp");
+            Files.write(tmpPath, bytes);
+            Files.move(tmpPath, dir.resolve(key + FILE_EXTENSION), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e)
+        {
+            // The cache is best effort: a failed write only means that the tree is parsed again next time
+        }
+        finally
+        {
+            if (tmpPath != null)
+            {
+                try
+                {
+                    Files.deleteIfExists(tmpPath);
+                }
+                catch (IOException ignore)
+                {
+                    // best effort
+                }
+            }
+        }
+    }
+
+    /**
+     * Serialize a parse tree. Tokens are written without their text, which is recovered from the code on
+     * deserialization. Returns null if the tree cannot be persisted (e.g., if it contains error nodes, or
+     * rule contexts which could not be read back).
+     */
+    static byte[] serialize(ParserRuleContext tree, MapIterable<String, Constructor<? extends ParserRuleContext>> ruleContextConstructors) throws IOException
+    {
+        MutableObjectIntMap<String> classIds = ObjectIntMaps.mutable.empty();
+        List<String> classNames = new ArrayList<>();
+        MutableObjectIntMap<Token> tokenIds = ObjectIntMaps.mutable.empty();
+        List<Token> tokens = new ArrayList<>();
+        ByteArrayOutputStream treeBytes = new ByteArrayOutputStream(1024);
+        try (DataOutputStream treeStream = new DataOutputStream(treeBytes))
+        {
+            if (!writeNode(treeStream, tree, ruleContextConstructors, classIds, classNames, tokenIds, tokens))
+            {
+                return null;
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(treeBytes.size() + (tokens.size() * 16) + 64);
+        try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(bytes)))
+        {
+            stream.writeInt(MAGIC);
+            stream.writeInt(FORMAT_VERSION);
+            stream.writeInt(classNames.size());
+            for (String className : classNames)
+            {
+                stream.writeUTF(className);
+            }
+            stream.writeInt(tokens.size());
+            for (Token token : tokens)
+            {
+                stream.writeInt(token.getType());
+                stream.writeInt(token.getChannel());
+                stream.writeInt(token.getStartIndex());
+                stream.writeInt(token.getStopIndex());
+                stream.writeInt(token.getLine());
+                stream.writeInt(token.getCharPositionInLine());
+                stream.writeInt(token.getTokenIndex());
+            }
+            treeBytes.writeTo(stream);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static boolean writeNode(DataOutputStream stream, ParseTree node, MapIterable<String, Constructor<? extends ParserRuleContext>> ruleContextConstructors, MutableObjectIntMap<String> classIds, List<String> classNames, MutableObjectIntMap<Token> tokenIds, List<Token> tokens) throws IOException
+    {
+        if (node instanceof ErrorNode)
+        {
+            return false;
+        }
+        if (node instanceof TerminalNode)
+        {
+            stream.writeByte(TERMINAL_NODE);
+            stream.writeInt(tokenId(((TerminalNode) node).getSymbol(), tokenIds, tokens));
+            return true;
+        }
+        if (!(node instanceof ParserRuleContext))
+        {
+            return false;
+        }
+
+        ParserRuleContext ctx = (ParserRuleContext) node;
+        String className = ctx.getClass().getName();
+        if (!ruleContextConstructors.containsKey(className))
+        {
+            return false;
+        }
+        int classId = classIds.getIfAbsent(className, -1);
+        if (classId == -1)
+        {
+            classId = classNames.size();
+            classIds.put(className, classId);
+            classNames.add(className);
+        }
+        stream.writeByte(RULE_NODE);
+        stream.writeInt(classId);
+        stream.writeInt(ctx.invokingState);
+        stream.writeInt(tokenId(ctx.start, tokenIds, tokens));
+        stream.writeInt(tokenId(ctx.stop, tokenIds, tokens));
+        int childCount = ctx.getChildCount();
+        stream.writeInt(childCount);
+        for (int i = 0; i < childCount; i++)
+        {
+            if (!writeNode(stream, ctx.getChild(i), ruleContextConstructors, classIds, classNames, tokenIds, tokens))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int tokenId(Token token, MutableObjectIntMap<Token> tokenIds, List<Token> tokens)
+    {
+        if (token == null)
+        {
+            return -1;
+        }
+        int id = tokenIds.getIfAbsent(token, -1);
+        if (id == -1)
+        {
+            id = tokens.size();
+            tokenIds.put(token, id);
+            tokens.add(token);
+        }
+        return id;
+    }
+
+    /**
+     * Deserialize a parse tree written by {@link #serialize}, for the given code. The rule context classes
+     * are instantiated with their (parent, invokingState) constructor; only the given rule context classes
+     * are accepted.
+     */
+    static ParserRuleContext deserialize(InputStream inputStream, String code, MapIterable<String, Constructor<? extends ParserRuleContext>> ruleContextConstructors) throws IOException, ReflectiveOperationException
+    {
+        DataInputStream stream = (inputStream instanceof DataInputStream) ? (DataInputStream) inputStream : new DataInputStream(inputStream);
+        if (stream.readInt() != MAGIC)
+        {
+            throw new IOException("Not a parse tree cache entry");
+        }
+        int version = stream.readInt();
+        if (version != FORMAT_VERSION)
+        {
+            throw new IOException("Unsupported parse tree cache format version: " + version);
+        }
+
+        int classCount = stream.readInt();
+        List<Constructor<? extends ParserRuleContext>> constructors = new ArrayList<>(classCount);
+        for (int i = 0; i < classCount; i++)
+        {
+            String className = stream.readUTF();
+            Constructor<? extends ParserRuleContext> constructor = ruleContextConstructors.get(className);
+            if (constructor == null)
+            {
+                throw new IOException("Not a rule context class of the parser: " + className);
+            }
+            constructors.add(constructor);
+        }
+
+        CharStream charStream = new ANTLRInputStream(code);
+        Pair<TokenSource, CharStream> source = new Pair<>(null, charStream);
+        int tokenCount = stream.readInt();
+        Token[] tokens = new Token[tokenCount];
+        for (int i = 0; i < tokenCount; i++)
+        {
+            int type = stream.readInt();
+            int channel = stream.readInt();
+            int start = stream.readInt();
+            int stop = stream.readInt();
+            CommonToken token = new CommonToken(source, type, channel, start, stop);
+            token.setLine(stream.readInt());
+            token.setCharPositionInLine(stream.readInt());
+            token.setTokenIndex(stream.readInt());
+            tokens[i] = token;
+        }
+
+        if (stream.readByte() != RULE_NODE)
+        {
+            throw new IOException("Invalid parse tree: root is not a rule node");
+        }
+        return readRuleNode(stream, null, constructors, tokens);
+    }
+
+    private static ParserRuleContext readRuleNode(DataInputStream stream, ParserRuleContext parent, List<Constructor<? extends ParserRuleContext>> constructors, Token[] tokens) throws IOException, ReflectiveOperationException
+    {
+        int classId = stream.readInt();
+        int invokingState = stream.readInt();
+        ParserRuleContext ctx = constructors.get(classId).newInstance(parent, invokingState);
+        ctx.start = getToken(tokens, stream.readInt());
+        ctx.stop = getToken(tokens, stream.readInt());
+        int childCount = stream.readInt();
+        for (int i = 0; i < childCount; i++)
+        {
+            byte kind = stream.readByte();
+            switch (kind)
+            {
+                case RULE_NODE:
+                {
+                    ctx.addChild(readRuleNode(stream, ctx, constructors, tokens));
+                    break;
+                }
+                case TERMINAL_NODE:
+                {
+                    TerminalNodeImpl terminal = new TerminalNodeImpl(getToken(tokens, stream.readInt()));
+                    terminal.parent = ctx;
+                    ctx.addChild(terminal);
+                    break;
+                }
+                default:
+                {
+                    throw new IOException("Invalid parse tree node kind: " + kind);
+                }
+            }
+        }
+        return ctx;
+    }
+
+    private static Token getToken(Token[] tokens, int id)
+    {
+        return (id == -1) ? null : tokens[id];
+    }
+}
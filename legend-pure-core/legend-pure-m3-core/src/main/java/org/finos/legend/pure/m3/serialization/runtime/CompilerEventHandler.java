@@ -15,6 +15,7 @@
 package org.finos.legend.pure.m3.serialization.runtime;
 
 import org.eclipse.collections.api.RichIterable;
+import org.finos.legend.pure.m3.compiler.CompilerMetrics;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 
 import java.util.SortedMap;
@@ -29,5 +30,18 @@ public interface CompilerEventHandler
 
     boolean isInitialized();
 
+    /**
+     * Called when the compiler finishes a phase (see {@link CompilerMetrics}).
+     *
+     * @param phase         compiler phase
+     * @param repository    repository name ({@link CompilerMetrics#NO_REPOSITORY} if the phase is not specific to a repository)
+     * @param instanceCount number of instances handled
+     * @param durationNanos duration of the phase in nanoseconds
+     */
+    default void phaseFinished(CompilerMetrics.Phase phase, String repository, int instanceCount, long durationNanos)
+    {
+        // Do nothing by default
+    }
+
     void reset();
 }
@@ -17,9 +17,9 @@ package org.finos.legend.pure.m3.serialization.runtime;
 import org.eclipse.collections.api.RichIterable;
 import org.eclipse.collections.api.block.function.Function;
 import org.eclipse.collections.api.block.procedure.Procedure;
+import org.eclipse.collections.api.block.procedure.Procedure2;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
-import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.MapIterable;
@@ -69,14 +69,22 @@ import org.finos.legend.pure.m4.ModelRepository;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.m4.coreinstance.SourceInformation;
 import org.finos.legend.pure.m4.serialization.binary.BinaryReaders;
+import org.finos.legend.pure.m4.tools.ConcurrentHashSet;
 
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class GraphLoader
 {
-    private static final int DESERIALIZE_FILES_THRESHOLD = 1000;
+    private static final int DESERIALIZE_FILES_IN_FLIGHT_PER_THREAD = 4;
     private static final int INITIALIZE_NODES_THRESHOLD = 10_000;
     private static final int RESOLVE_REFERENCES_THRESHOLD = 1000;
     private static final int POPULATE_BACK_REFERENCES_THRESHOLD = 1000;
@@ -90,8 +98,11 @@ public class GraphLoader
     private final SourceRegistry sourceRegistry;
     private final URLPatternLibrary patternLibrary;
     private final PureRepositoryJarLibrary jarLibrary;
-    private final MutableSet<String> loadedFiles = Sets.mutable.empty();
+    private final MutableSet<String> loadedFiles = ConcurrentHashSet.newSet();
     private final ForkJoinPool forkJoinPool;
+    private final ReentrantLock loadLock = new ReentrantLock();
+    // set while a thread does work for a load, in the loading thread and in the pool tasks the load submits
+    private final ThreadLocal<Boolean> loading = new ThreadLocal<>();
 
     public GraphLoader(ModelRepository repository, Context context, ParserLibrary parserLibrary, InlineDSLLibrary inlineDSLLibrary, SourceRegistry sourceRegistry, URLPatternLibrary patternLibrary, PureRepositoryJarLibrary jarLibrary, ForkJoinPool forkJoinPool)
     {
@@ -122,12 +133,22 @@ public class GraphLoader
         {
             message.setMessage("    Reading all files ...");
         }
-        MapIterable<String, byte[]> fileBytes = this.loadedFiles.isEmpty() ? this.jarLibrary.readAllFiles() : this.jarLibrary.readFiles(this.jarLibrary.getAllFiles().reject(this::fileIsLoaded));
-        if (message != null)
+        this.loadLock.lock();
+        try
+        {
+            if (this.loadedFiles.isEmpty())
+            {
+                loadFileBuffers(this.jarLibrary::forEachFileBuffer, message);
+            }
+            else
+            {
+                loadFileBuffers(procedure -> this.jarLibrary.forEachFileBuffer(this.jarLibrary.getAllFiles().reject(this::fileIsLoaded), procedure), message);
+            }
+        }
+        finally
         {
-            message.setMessage(String.format("    Reading all (%,d) files ...", fileBytes.size()));
+            this.loadLock.unlock();
         }
-        loadFileBytes(fileBytes, message);
     }
 
     public boolean isKnownRepository(String repositoryName)
@@ -221,6 +242,33 @@ public class GraphLoader
         loadFiles_internal(this.jarLibrary.getRequiredFiles(instancePaths), message);
     }
 
+    /**
+     * Enable on-demand loading. While enabled, looking up an element by path
+     * through the context (e.g., via {@link ProcessorSupport#package_getByUserPath})
+     * which is not yet in the graph loads the file which defines it, together
+     * with its dependencies, if that element is known to the PAR library.
+     * The same applies to top level elements looked up through the
+     * repository (see {@link ModelRepository#getTopLevel}). Lookups made by a
+     * load in progress are not faulted in; lookups from other threads wait
+     * for it to finish.
+     */
+    public void enableOnDemandLoading()
+    {
+        this.context.setElementLoader(this::loadOnDemand);
+        this.repository.setTopLevelLoader(this::loadOnDemand);
+    }
+
+    /**
+     * Disable on-demand loading.
+     *
+     * @see #enableOnDemandLoading()
+     */
+    public void disableOnDemandLoading()
+    {
+        this.context.setElementLoader(null);
+        this.repository.setTopLevelLoader(null);
+    }
+
     public SetIterable<String> getLoadedFiles()
     {
         return this.loadedFiles.asUnmodifiable();
@@ -237,38 +285,128 @@ public class GraphLoader
         {
             message.setMessage(String.format("    Reading %,d files ...", +files.size()));
         }
-        MapIterable<String, byte[]> fileBytes = this.jarLibrary.readFiles(LazyIterate.reject(files, this::fileIsLoaded));
-        loadFileBytes(fileBytes, message);
+        loadFileBuffers(procedure -> this.jarLibrary.forEachFileBuffer(LazyIterate.reject(files, this::fileIsLoaded), procedure), message);
     }
 
-    private void loadFileBytes(MapIterable<String, byte[]> fileBytes, Message message)
+    private void loadFileBuffers(FileBufferSource fileBuffers, Message message)
     {
-        if (fileBytes.notEmpty())
+        // loads are serialized: files are filtered against loadedFiles inside the lock
+        this.loadLock.lock();
+        try
         {
-            ListIterable<SourceDeserializationResult> results = deserializeFiles(fileBytes, message);
-            loadDeserializationResults(results, message);
-            this.loadedFiles.addAllIterable(fileBytes.keysView());
+            runInLoad(() ->
+            {
+                MutableList<String> filePaths = Lists.mutable.empty();
+                ListIterable<SourceDeserializationResult> results = deserializeFiles(fileBuffers, filePaths, message);
+                if (filePaths.notEmpty())
+                {
+                    loadDeserializationResults(results, message);
+                    this.loadedFiles.addAll(filePaths);
+                }
+            });
+        }
+        finally
+        {
+            this.loadLock.unlock();
         }
     }
 
-    private ListIterable<SourceDeserializationResult> deserializeFiles(MapIterable<String, byte[]> fileBytes, Message message)
+    private boolean loadOnDemand(String instancePath)
     {
-        int fileCount = fileBytes.size();
-        if (message != null)
+        // lookups made by a load (e.g., while resolving references) must not trigger another load
+        if ((this.loading.get() != null) || !this.jarLibrary.isKnownInstance(instancePath))
+        {
+            return false;
+        }
+        SetIterable<String> files = this.jarLibrary.getRequiredFiles(instancePath);
+        if (files.allSatisfy(this::fileIsLoaded))
+        {
+            return false;
+        }
+        // wait for any load in progress in another thread, which may load the files
+        this.loadLock.lock();
+        try
+        {
+            if (files.allSatisfy(this::fileIsLoaded))
+            {
+                return false;
+            }
+            loadFiles_internal(files, null);
+            return true;
+        }
+        finally
         {
-            message.setMessage(String.format("    Deserializing %,d files ...", fileCount));
+            this.loadLock.unlock();
         }
+    }
+
+    private void runInLoad(Runnable runnable)
+    {
+        callInLoad(this.loading, () ->
+        {
+            runnable.run();
+            return null;
+        });
+    }
+
+    private <T> Consumer<T> inLoad(Consumer<? super T> consumer)
+    {
+        // the pool may be shared, so pool threads are marked only while they work for the load
+        return each -> runInLoad(() -> consumer.accept(each));
+    }
+
+    private static <T> T callInLoad(ThreadLocal<Boolean> loading, Supplier<? extends T> supplier)
+    {
+        if (loading.get() != null)
+        {
+            return supplier.get();
+        }
+        loading.set(Boolean.TRUE);
+        try
+        {
+            return supplier.get();
+        }
+        finally
+        {
+            loading.remove();
+        }
+    }
+
+    private ListIterable<SourceDeserializationResult> deserializeFiles(FileBufferSource fileBuffers, MutableList<String> filePaths, Message message)
+    {
         ExternalReferenceSerializerLibrary serializerLibrary = ExternalReferenceSerializerLibrary.newLibrary(this.parserLibrary);
         ReferenceFactory referenceFactory = CachedReferenceFactory.wrap(new SimpleReferenceFactory());
-        Function<byte[], SourceDeserializationResult> deserialize = sourceBytes -> BinaryModelSourceDeserializer.deserialize(BinaryReaders.newBinaryReader(sourceBytes), serializerLibrary, referenceFactory, true, false, false);
-        ListIterable<SourceDeserializationResult> results;
-        if (shouldParallelize(fileCount, DESERIALIZE_FILES_THRESHOLD))
+        // buffers may be mapped from the jars rather than copied into the heap
+        Function<ByteBuffer, SourceDeserializationResult> deserialize = sourceBuffer -> BinaryModelSourceDeserializer.deserialize(BinaryReaders.newBinaryReader(sourceBuffer), serializerLibrary, referenceFactory, true, false, false);
+        MutableList<SourceDeserializationResult> results = Lists.mutable.empty();
+        if (this.forkJoinPool == null)
         {
-            results = ForkJoinTools.collect(this.forkJoinPool, Lists.mutable.<byte[]>withInitialCapacity(fileCount).withAll(fileBytes.valuesView()), deserialize, DESERIALIZE_FILES_THRESHOLD);
+            fileBuffers.forEachFileBuffer((filePath, fileBuffer) ->
+            {
+                filePaths.add(filePath);
+                results.add(deserialize.valueOf(fileBuffer));
+            });
         }
         else
         {
-            results = fileBytes.valuesView().collect(deserialize, Lists.mutable.withInitialCapacity(fileCount));
+            // Each file is deserialized in the pool as soon as it is read, while later files are still being read.
+            // The number of files in flight is bounded, so that files read ahead of deserialization do not pile up.
+            int maxInFlight = this.forkJoinPool.getParallelism() * DESERIALIZE_FILES_IN_FLIGHT_PER_THREAD;
+            Deque<ForkJoinTask<SourceDeserializationResult>> inFlight = new ArrayDeque<>(maxInFlight);
+            fileBuffers.forEachFileBuffer((filePath, fileBuffer) ->
+            {
+                filePaths.add(filePath);
+                if (inFlight.size() >= maxInFlight)
+                {
+                    results.add(inFlight.removeFirst().join());
+                }
+                inFlight.addLast(this.forkJoinPool.submit(() -> callInLoad(this.loading, () -> deserialize.valueOf(fileBuffer))));
+            });
+            inFlight.forEach(task -> results.add(task.join()));
+        }
+        if (message != null)
+        {
+            message.setMessage(String.format("    Deserialized %,d files ...", filePaths.size()));
         }
         return results;
     }
@@ -295,7 +433,7 @@ public class GraphLoader
         nodes.forEach(this::initializeTopLevelNode);
         if (shouldParallelize(nodes.size(), INITIALIZE_NODES_THRESHOLD))
         {
-            ForkJoinTools.forEach(this.forkJoinPool, nodes, this::initializeNonTopLevelNode, INITIALIZE_NODES_THRESHOLD);
+            ForkJoinTools.forEach(this.forkJoinPool, nodes, inLoad(this::initializeNonTopLevelNode), INITIALIZE_NODES_THRESHOLD);
         }
         else
         {
@@ -319,36 +457,41 @@ public class GraphLoader
         }
     }
 
-    private void resolveReferences(ListIterable<DeserializationNode> nodes, Message message)
+    private void resolveReferences(ListIterable<DeserializationNode> allNodes, Message message)
     {
+        // Each pass only revisits the nodes which were left with unresolved references by the previous one
+        ListIterable<DeserializationNode> nodes = allNodes;
         for (int passCount = 1; true; passCount++)
         {
             if (message != null)
             {
-                message.setMessage("    Resolving references, pass " + passCount + " ...");
+                message.setMessage("    Resolving references, pass " + passCount + " (" + nodes.size() + " nodes) ...");
             }
             int newlyResolvedCount;
             int unresolvedCount;
+            int[] unresolvedByNode = new int[nodes.size()];
             if (shouldParallelize(nodes.size(), RESOLVE_REFERENCES_THRESHOLD))
             {
-                ReferenceResolutionResult resolutionResult = this.forkJoinPool.invoke(new RecursiveResolveReferencesTask(nodes, this.repository, this.processorSupport));
+                ReferenceResolutionResult resolutionResult = this.forkJoinPool.invoke(new RecursiveResolveReferencesTask(nodes, unresolvedByNode, this.repository, this.processorSupport, this.loading));
                 newlyResolvedCount = resolutionResult.getNewlyResolved();
                 unresolvedCount = resolutionResult.getUnresolved();
                 if (newlyResolvedCount > 0)
                 {
-                    ForkJoinTools.forEach(this.forkJoinPool, nodes, DeserializationNode::populateResolvedProperties, RESOLVE_REFERENCES_THRESHOLD);
+                    ForkJoinTools.forEach(this.forkJoinPool, nodes, inLoad(DeserializationNode::populateResolvedProperties), RESOLVE_REFERENCES_THRESHOLD);
                 }
             }
             else
             {
                 newlyResolvedCount = 0;
                 unresolvedCount = 0;
-                for (DeserializationNode node : nodes)
+                for (int i = 0; i < unresolvedByNode.length; i++)
                 {
+                    DeserializationNode node = nodes.get(i);
                     ReferenceResolutionResult resolutionResult = node.resolveReferences(this.repository, this.processorSupport);
                     node.populateResolvedProperties();
                     newlyResolvedCount += resolutionResult.getNewlyResolved();
                     unresolvedCount += resolutionResult.getUnresolved();
+                    unresolvedByNode[i] = resolutionResult.getUnresolved();
                 }
             }
             if (unresolvedCount == 0)
@@ -399,6 +542,15 @@ public class GraphLoader
                 }
                 throw new RuntimeException(errorMessage.toString());
             }
+            MutableList<DeserializationNode> unresolvedNodes = Lists.mutable.empty();
+            for (int i = 0; i < unresolvedByNode.length; i++)
+            {
+                if (unresolvedByNode[i] > 0)
+                {
+                    unresolvedNodes.add(nodes.get(i));
+                }
+            }
+            nodes = unresolvedNodes;
         }
     }
 
@@ -422,7 +574,7 @@ public class GraphLoader
         BackReferencePopulator backReferencePopulator = new BackReferencePopulator(this.repository, this.context, this.processorSupport, processorsByType, annotatedElementClass, associationClass, functionDefinitionClass, functionExpressionClass, newPropertyRouteNodeFunctionDefinition, typeClass);
         if (shouldParallelize(instances.size(), POPULATE_BACK_REFERENCES_THRESHOLD))
         {
-            ForkJoinTools.forEach(this.forkJoinPool, instances, backReferencePopulator, POPULATE_BACK_REFERENCES_THRESHOLD);
+            ForkJoinTools.forEach(this.forkJoinPool, instances, inLoad(backReferencePopulator), POPULATE_BACK_REFERENCES_THRESHOLD);
         }
         else
         {
@@ -458,7 +610,7 @@ public class GraphLoader
         }
         if (shouldParallelize(instances.size(), UPDATE_CONTEXT_THRESHOLD))
         {
-            ForkJoinTools.forEach(this.forkJoinPool, instances, this::updateContext, UPDATE_CONTEXT_THRESHOLD);
+            ForkJoinTools.forEach(this.forkJoinPool, instances, inLoad(this::updateContext), UPDATE_CONTEXT_THRESHOLD);
         }
         else
         {
@@ -570,21 +722,25 @@ public class GraphLoader
         private final int start;
         private final int end;
         private final ListIterable<DeserializationNode> nodes;
+        private final int[] unresolvedByNode;
         private final ModelRepository repository;
         private final ProcessorSupport processorSupport;
+        private final ThreadLocal<Boolean> loading;
 
-        private RecursiveResolveReferencesTask(int start, int end, ListIterable<DeserializationNode> nodes, ModelRepository repository, ProcessorSupport processorSupport)
+        private RecursiveResolveReferencesTask(int start, int end, ListIterable<DeserializationNode> nodes, int[] unresolvedByNode, ModelRepository repository, ProcessorSupport processorSupport, ThreadLocal<Boolean> loading)
         {
             this.start = start;
             this.end = end;
             this.nodes = nodes;
+            this.unresolvedByNode = unresolvedByNode;
             this.repository = repository;
             this.processorSupport = processorSupport;
+            this.loading = loading;
         }
 
-        private RecursiveResolveReferencesTask(ListIterable<DeserializationNode> nodes, ModelRepository repository, ProcessorSupport processorSupport)
+        private RecursiveResolveReferencesTask(ListIterable<DeserializationNode> nodes, int[] unresolvedByNode, ModelRepository repository, ProcessorSupport processorSupport, ThreadLocal<Boolean> loading)
         {
-            this(0, nodes.size(), nodes, repository, processorSupport);
+            this(0, nodes.size(), nodes, unresolvedByNode, repository, processorSupport, loading);
         }
 
         @Override
@@ -593,27 +749,33 @@ public class GraphLoader
             int size = this.end - this.start;
             if (size <= RESOLVE_REFERENCES_THRESHOLD)
             {
-                int newlyResolvedCount = 0;
-                int unresolvedCount = 0;
-                for (int i = this.start; i < this.end; i++)
-                {
-                    ReferenceResolutionResult result = this.nodes.get(i).resolveReferences(this.repository, this.processorSupport);
-                    newlyResolvedCount += result.getNewlyResolved();
-                    unresolvedCount += result.getUnresolved();
-                }
-                return new ReferenceResolutionResult(newlyResolvedCount, unresolvedCount);
+                return callInLoad(this.loading, this::resolveReferences);
             }
             else
             {
                 int midPoint = this.start + (size / 2);
-                RecursiveResolveReferencesTask task1 = new RecursiveResolveReferencesTask(this.start, midPoint, this.nodes, this.repository, this.processorSupport);
-                RecursiveResolveReferencesTask task2 = new RecursiveResolveReferencesTask(midPoint, this.end, this.nodes, this.repository, this.processorSupport);
+                RecursiveResolveReferencesTask task1 = new RecursiveResolveReferencesTask(this.start, midPoint, this.nodes, this.unresolvedByNode, this.repository, this.processorSupport, this.loading);
+                RecursiveResolveReferencesTask task2 = new RecursiveResolveReferencesTask(midPoint, this.end, this.nodes, this.unresolvedByNode, this.repository, this.processorSupport, this.loading);
                 invokeAll(task1, task2);
                 ReferenceResolutionResult result1 = task1.getRawResult();
                 ReferenceResolutionResult result2 = task2.getRawResult();
                 return result1.join(result2);
             }
         }
+
+        private ReferenceResolutionResult resolveReferences()
+        {
+            int newlyResolvedCount = 0;
+            int unresolvedCount = 0;
+            for (int i = this.start; i < this.end; i++)
+            {
+                ReferenceResolutionResult result = this.nodes.get(i).resolveReferences(this.repository, this.processorSupport);
+                newlyResolvedCount += result.getNewlyResolved();
+                unresolvedCount += result.getUnresolved();
+                this.unresolvedByNode[i] = result.getUnresolved();
+            }
+            return new ReferenceResolutionResult(newlyResolvedCount, unresolvedCount);
+        }
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -721,6 +883,11 @@ public class GraphLoader
         }
     }
 
+    private interface FileBufferSource
+    {
+        void forEachFileBuffer(Procedure2<? super String, ? super ByteBuffer> procedure);
+    }
+
     public static MutableList<PureRepositoryJar> findJars(Iterable<String> repoNames, ClassLoader classLoader, Message message)
     {
         return findJars(repoNames, classLoader, message, true);
@@ -26,7 +26,9 @@ import org.eclipse.collections.api.set.SetIterable;
 import org.eclipse.collections.impl.list.fixed.ArrayAdapter;
 import org.eclipse.collections.impl.map.sorted.mutable.TreeSortedMap;
 import org.finos.legend.pure.m3.SourceMutation;
+import org.finos.legend.pure.m3.compiler.CompilerMetrics;
 import org.finos.legend.pure.m3.compiler.Context;
+import org.finos.legend.pure.m3.compiler.postprocessing.ParallelPostProcessor;
 import org.finos.legend.pure.m3.compiler.postprocessing.PostProcessor;
 import org.finos.legend.pure.m3.compiler.postprocessing.observer.PostProcessorObserver;
 import org.finos.legend.pure.m3.compiler.validation.ValidationType;
@@ -61,14 +63,34 @@ import org.finos.legend.pure.m4.tools.ConcurrentHashSet;
 import org.finos.legend.pure.m4.transaction.ModelRepositoryTransaction;
 import org.finos.legend.pure.m4.transaction.framework.MultiTransaction;
 import org.finos.legend.pure.m4.transaction.framework.MultiTransactionManager;
+import org.finos.legend.pure.m4.transaction.framework.ThreadLocalTransactionContext;
 
 import java.util.SortedMap;
 import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 public abstract class IncrementalCompiler implements SourceEventHandler
 {
     static final int PARSE_SOURCES_THRESHOLD = 100;
     static final int CONTEXT_REGISTRATION_THRESHOLD = 100;
+    static final int POST_PROCESS_FUNCTIONS_THRESHOLD = 100;
+    static final int VALIDATION_THRESHOLD = 100;
+    static final int UNLOAD_THRESHOLD = 100;
+
+    /**
+     * Option to post-process functions in parallel (see {@link ParallelPostProcessor}).
+     */
+    public static final String PARALLEL_POST_PROCESSING_OPTION = "ParallelPostProcessing";
+
+    /**
+     * Option to validate instances in parallel.
+     */
+    public static final String PARALLEL_VALIDATION_OPTION = "ParallelValidation";
+
+    /**
+     * Option to record the time spent in each match runner in the compiler metrics (see {@link CompilerMetrics}).
+     */
+    public static final String RUNNER_TIMING_OPTION = "CompilerRunnerTiming";
 
     static final Function<CoreInstance, String> GET_COREINSTANCE_REPO_NAME = object ->
     {
@@ -85,9 +107,11 @@ public abstract class IncrementalCompiler implements SourceEventHandler
     final RepositoryCodeStorage codeStorage;
     final ModelRepository modelRepository;
     final Context context = new Context();
+    final CompilerMetrics metrics = new CompilerMetrics();
     M3ProcessorSupport processorSupport;
     final ForkJoinPool forkJoinPool;
     final boolean isTransactionalByDefault;
+    final RuntimeOptions options;
 
 
     final IncrementalCompilerTransactionManager transactionManager = new IncrementalCompilerTransactionManager();
@@ -103,7 +127,7 @@ public abstract class IncrementalCompiler implements SourceEventHandler
     final Message message;
     final URLPatternLibrary urlPatternLibrary;
 
-    IncrementalCompiler(RichIterable<? extends Parser> parsers, RichIterable<? extends InlineDSL> inlineDSLs, RepositoryCodeStorage codeStorage, URLPatternLibrary urlPatternLibrary, Message message, CoreInstanceFactoryRegistry factoryRegistryOverride, ForkJoinPool forkJoinPool, boolean isTransactionalByDefault)
+    IncrementalCompiler(RichIterable<? extends Parser> parsers, RichIterable<? extends InlineDSL> inlineDSLs, RepositoryCodeStorage codeStorage, URLPatternLibrary urlPatternLibrary, Message message, CoreInstanceFactoryRegistry factoryRegistryOverride, ForkJoinPool forkJoinPool, boolean isTransactionalByDefault, RuntimeOptions options)
     {
         this.message = message;
         this.urlPatternLibrary = urlPatternLibrary;
@@ -131,6 +155,9 @@ public abstract class IncrementalCompiler implements SourceEventHandler
         this.codeStorage = codeStorage;
         this.forkJoinPool = forkJoinPool;
         this.isTransactionalByDefault = isTransactionalByDefault;
+        this.options = (options == null) ? RuntimeOptions.noOptionsSet() : options;
+        this.metrics.setRunnerTimingEnabled(this.options.isOptionSet(RUNNER_TIMING_OPTION));
+        this.context.setCompilerMetrics(this.metrics);
     }
 
     public void addCompilerEventHandler(CompilerEventHandler compilerEventHandler)
@@ -219,6 +246,7 @@ public abstract class IncrementalCompiler implements SourceEventHandler
 
     SourceMutation finishRepoCompilation(String repoName, MutableList<CoreInstance> newInstancesConsolidated, ValidationType validationType, PostProcessorObserver postProcessorObserver) throws PureCompilationException
     {
+        long registerStart = System.nanoTime();
         if (shouldParallelize(newInstancesConsolidated.size(), CONTEXT_REGISTRATION_THRESHOLD))
         {
             ForkJoinTools.forEach(this.forkJoinPool, newInstancesConsolidated, this::registerInstanceInContext, CONTEXT_REGISTRATION_THRESHOLD);
@@ -227,8 +255,11 @@ public abstract class IncrementalCompiler implements SourceEventHandler
         {
             newInstancesConsolidated.forEach(this::registerInstanceInContext);
         }
+        notePhaseFinished(CompilerMetrics.Phase.REGISTER, repoName, newInstancesConsolidated.size(), registerStart);
 
-        SourceMutation sourceMutation = PostProcessor.process(newInstancesConsolidated, this.modelRepository, this.library, this.dslLibrary, this.codeStorage, this.context, this.processorSupport, this.urlPatternLibrary, this.message, postProcessorObserver);
+        long postProcessStart = System.nanoTime();
+        SourceMutation sourceMutation = PostProcessor.process(newInstancesConsolidated, this.modelRepository, this.library, this.dslLibrary, this.codeStorage, this.context, this.processorSupport, this.urlPatternLibrary, this.message, postProcessorObserver, getParallelPostProcessor());
+        notePhaseFinished(CompilerMetrics.Phase.POST_PROCESS, repoName, newInstancesConsolidated.size(), postProcessStart);
 
         if (validationType == ValidationType.DEEP)
         {
@@ -238,7 +269,9 @@ public abstract class IncrementalCompiler implements SourceEventHandler
         newInstancesConsolidated.removeIf(SourceMutation::isMarkedForDeletion);
 
         this.message.setMessage("Validating " + repoName + "...");
-        Validator.validateM3(newInstancesConsolidated, validationType, this.library, this.dslLibrary, this.additionalValidators.asUnmodifiable(), this.codeStorage, this.modelRepository, this.context, this.processorSupport);
+        long validateStart = System.nanoTime();
+        validate(newInstancesConsolidated, validationType);
+        notePhaseFinished(CompilerMetrics.Phase.VALIDATE, repoName, newInstancesConsolidated.size(), validateStart);
 
         rebuildExclusionSet(this.modelRepository, this.processorSupport);
 
@@ -249,6 +282,27 @@ public abstract class IncrementalCompiler implements SourceEventHandler
         return sourceMutation;
     }
 
+    /**
+     * Record the completion of a compiler phase in the metrics, and notify the compiler event handlers.
+     *
+     * @param phase         compiler phase
+     * @param repoName      repository name (may be null)
+     * @param instanceCount number of instances handled
+     * @param startNanoTime start time of the phase (from {@link System#nanoTime})
+     */
+    void notePhaseFinished(CompilerMetrics.Phase phase, String repoName, int instanceCount, long startNanoTime)
+    {
+        long durationNanos = System.nanoTime() - startNanoTime;
+        String repository = (repoName == null) ? CompilerMetrics.NO_REPOSITORY : repoName;
+        this.metrics.recordPhase(phase, repository, instanceCount, durationNanos);
+        this.compilerEventHandlers.forEach(eh -> eh.phaseFinished(phase, repository, instanceCount, durationNanos));
+    }
+
+    public CompilerMetrics getCompilerMetrics()
+    {
+        return this.metrics;
+    }
+
     protected void registerInstanceInContext(CoreInstance instance)
     {
         if (instance instanceof org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.Function)
@@ -303,6 +357,29 @@ public abstract class IncrementalCompiler implements SourceEventHandler
         return (this.forkJoinPool != null) && (size > threshold);
     }
 
+    void validate(MutableList<CoreInstance> newInstancesConsolidated, ValidationType validationType) throws PureCompilationException
+    {
+        if (this.options.isOptionSet(PARALLEL_VALIDATION_OPTION) && shouldParallelize(newInstancesConsolidated.size(), VALIDATION_THRESHOLD))
+        {
+            IncrementalCompilerTransaction transaction = this.transactionManager.getThreadLocalTransaction();
+            Validator.validateM3(newInstancesConsolidated, validationType, this.library, this.dslLibrary, this.additionalValidators.asUnmodifiable(), this.codeStorage, this.modelRepository, this.context, this.processorSupport, this.forkJoinPool, VALIDATION_THRESHOLD, (transaction == null) ? null : transaction::openInCurrentThread);
+        }
+        else
+        {
+            Validator.validateM3(newInstancesConsolidated, validationType, this.library, this.dslLibrary, this.additionalValidators.asUnmodifiable(), this.codeStorage, this.modelRepository, this.context, this.processorSupport);
+        }
+    }
+
+    ParallelPostProcessor getParallelPostProcessor()
+    {
+        if ((this.forkJoinPool == null) || !this.options.isOptionSet(PARALLEL_POST_PROCESSING_OPTION))
+        {
+            return null;
+        }
+        IncrementalCompilerTransaction transaction = this.transactionManager.getThreadLocalTransaction();
+        return new ParallelPostProcessor(this.forkJoinPool, POST_PROCESS_FUNCTIONS_THRESHOLD, (transaction == null) ? null : transaction::openInCurrentThread);
+    }
+
     //------------------
     //  UnLoadFromGraph
     //------------------
@@ -320,6 +397,33 @@ public abstract class IncrementalCompiler implements SourceEventHandler
     abstract void unload();
 
     void removeInstance(CoreInstance instance)
+    {
+        removeInstances(Lists.immutable.with(instance));
+    }
+
+    /**
+     * Remove instances from their packages (also removing packages left empty), from the set of instances
+     * to process, and from the context. Package and to process updates are not thread-safe, so they are done
+     * first in the current thread; removal from the context is thread-safe, so it is done in parallel for
+     * large numbers of instances.
+     *
+     * @param instances instances to remove
+     */
+    void removeInstances(Iterable<? extends CoreInstance> instances)
+    {
+        MutableList<CoreInstance> removed = Lists.mutable.empty();
+        instances.forEach(instance -> detachInstance(instance, removed));
+        if (shouldParallelize(removed.size(), UNLOAD_THRESHOLD))
+        {
+            ForkJoinTools.forEach(this.forkJoinPool, removed, inCurrentTransaction(this.context::remove), UNLOAD_THRESHOLD);
+        }
+        else
+        {
+            removed.forEach(this.context::remove);
+        }
+    }
+
+    private void detachInstance(CoreInstance instance, MutableList<CoreInstance> removed)
     {
         if (instance instanceof PackageableElement)
         {
@@ -330,12 +434,36 @@ public abstract class IncrementalCompiler implements SourceEventHandler
                 pkg._childrenRemove(element);
                 if (pkg._children().isEmpty() && (pkg.getSourceInformation() == null))
                 {
-                    removeInstance(pkg);
+                    detachInstance(pkg, removed);
                 }
             }
         }
         this.toProcess.remove(instance);
-        this.context.remove(instance);
+        removed.add(instance);
+    }
+
+    /**
+     * Wrap a procedure so that it runs in the current thread's transaction (if any), so that it can be
+     * run in fork join pool threads.
+     *
+     * @param procedure procedure
+     * @param <T>       argument type
+     * @return procedure that runs in the current transaction
+     */
+    <T> Consumer<T> inCurrentTransaction(Consumer<T> procedure)
+    {
+        IncrementalCompilerTransaction transaction = this.transactionManager.getThreadLocalTransaction();
+        if (transaction == null)
+        {
+            return procedure;
+        }
+        return t ->
+        {
+            try (ThreadLocalTransactionContext ignore = transaction.openInCurrentThread())
+            {
+                procedure.accept(t);
+            }
+        };
     }
 
     void cleanUpImportGroups(String sourceId)
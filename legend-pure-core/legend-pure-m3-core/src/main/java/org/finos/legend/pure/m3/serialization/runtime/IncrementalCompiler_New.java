@@ -27,13 +27,13 @@ import org.eclipse.collections.api.multimap.list.MutableListMultimap;
 import org.eclipse.collections.api.set.MutableSet;
 import org.eclipse.collections.impl.factory.Multimaps;
 import org.finos.legend.pure.m3.SourceMutation;
+import org.finos.legend.pure.m3.compiler.CompilerMetrics;
 import org.finos.legend.pure.m3.compiler.postprocessing.PostProcessor;
 import org.finos.legend.pure.m3.compiler.postprocessing.observer.PostProcessorObserver;
 import org.finos.legend.pure.m3.compiler.unload.Unbinder;
 import org.finos.legend.pure.m3.compiler.unload.unbind.UnbindState;
 import org.finos.legend.pure.m3.compiler.unload.walk.WalkerState;
 import org.finos.legend.pure.m3.compiler.validation.ValidationType;
-import org.finos.legend.pure.m3.compiler.validation.Validator;
 import org.finos.legend.pure.m3.coreinstance.CoreInstanceFactoryRegistry;
 import org.finos.legend.pure.m3.coreinstance.Package;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.PackageableElement;
@@ -64,9 +64,9 @@ public class IncrementalCompiler_New extends IncrementalCompiler
     private final MutableSet<CoreInstance> toUnbind = Sets.mutable.with();
     private final MutableSet<CoreInstance> processed = Sets.mutable.with();
 
-    IncrementalCompiler_New(RichIterable<? extends Parser> parsers, RichIterable<? extends InlineDSL> inlineDSLs, RepositoryCodeStorage codeStorage, URLPatternLibrary urlPatternLibrary, Message message, CoreInstanceFactoryRegistry factoryRegistryOverride, ForkJoinPool forkJoinPool, boolean isTransactionalByDefault)
+    IncrementalCompiler_New(RichIterable<? extends Parser> parsers, RichIterable<? extends InlineDSL> inlineDSLs, RepositoryCodeStorage codeStorage, URLPatternLibrary urlPatternLibrary, Message message, CoreInstanceFactoryRegistry factoryRegistryOverride, ForkJoinPool forkJoinPool, boolean isTransactionalByDefault, RuntimeOptions options)
     {
-        super(parsers, inlineDSLs, codeStorage, urlPatternLibrary, message, factoryRegistryOverride, forkJoinPool, isTransactionalByDefault);
+        super(parsers, inlineDSLs, codeStorage, urlPatternLibrary, message, factoryRegistryOverride, forkJoinPool, isTransactionalByDefault, options);
     }
 
     //----------
@@ -76,10 +76,13 @@ public class IncrementalCompiler_New extends IncrementalCompiler
     @Override
     SourceMutation compile(RichIterable<? extends Source> sources, Iterable<? extends CompilerEventHandler> compilerEventHandlers, PostProcessorObserver postProcessorObserver) throws PureCompilationException, PureParserException
     {
+        long unloadStart = System.nanoTime();
         MutableSet<CoreInstance> potentialToProcess = this.walkTheGraphForUnload(this.toUnload).withAll(this.toProcess).withAll(this.toUnbind);
 
+        int unloadCount = this.toUnload.size();
         this.unload();
         this.toProcess = this.removeNodesFromRemovedSources(this.toProcess);
+        this.notePhaseFinished(CompilerMetrics.Phase.UNLOAD, null, unloadCount, unloadStart);
 
         IncrementalCompilerTransaction threadLocalTransaction = this.transactionManager.getThreadLocalTransaction();
 
@@ -168,6 +171,7 @@ public class IncrementalCompiler_New extends IncrementalCompiler
         {
             AtomicInteger sourceNum = this.message == null ? null : new AtomicInteger(0);
             int sourceTotalCount = sources.size();
+            long parseStart = System.nanoTime();
             Procedure<Source> parseSource = source ->
             {
                 try (ThreadLocalTransactionContext ignored1 = transaction != null ? transaction.openInCurrentThread() : null)
@@ -214,6 +218,7 @@ public class IncrementalCompiler_New extends IncrementalCompiler
 
 
             MutableSet<CoreInstance> newInstances = sources.flatCollect(Source::getNewInstances, Sets.mutable.empty()); // New Instances in the sources from the repo
+            this.notePhaseFinished(CompilerMetrics.Phase.PARSE, repoName, newInstances.size(), parseStart);
             MutableSet<CoreInstance> oldInstances = sourceStates.flatCollect(SourceState::getInstances, Sets.mutable.empty()); // Old Instances in the sources from repo
 
             MutableSet<CoreInstance> newButNotOld = newInstances.difference(oldInstances); // Instances which are newly created (added or modified)
@@ -225,14 +230,18 @@ public class IncrementalCompiler_New extends IncrementalCompiler
 
 
             // Unload Walk on only instances which are not retained and generate toUnbindGenerated (There can be instances from following repos as well)
+            long unloadStart = System.nanoTime();
             MutableSet<CoreInstance> toUnbindGenerated = this.walkTheGraphForUnload(oldButNotNew);
+            this.notePhaseFinished(CompilerMetrics.Phase.UNLOAD, repoName, oldButNotNew.size(), unloadStart);
 
             // Filter the instances which are within the repo
             MutableSet<CoreInstance> toUnbindWithinRepo = toUnbindGenerated.selectWith(IncrementalCompiler_New::coreInstanceIsFromRepo, repoName);
 
             // Total Unbind set is ( generated here + obtained through call - non retained )
             MutableSet<CoreInstance> hereUnbind = toUnbindWithinRepo.union(oldButNotNew).union(instancesToUnbind.toSet());
+            long unbindStart = System.nanoTime();
             Unbinder.process(hereUnbind, this.modelRepository, this.library, this.dslLibrary, this.context, this.processorSupport, new UnbindState(this.context, this.urlPatternLibrary, this.dslLibrary, this.processorSupport), this.message);
+            this.notePhaseFinished(CompilerMetrics.Phase.UNBIND, repoName, hereUnbind.size(), unbindStart);
 
             // Invalidate the unbound instances
             if (hereUnbind.notEmpty())
@@ -297,6 +306,7 @@ public class IncrementalCompiler_New extends IncrementalCompiler
 
     private SourceMutation finishRepoCompilation(String repoName, MutableList<CoreInstance> allInstances, MutableList<CoreInstance> newInstancesConsolidated, ValidationType validationType, PostProcessorObserver observer) throws PureCompilationException
     {
+        long registerStart = System.nanoTime();
         if (shouldParallelize(allInstances.size(), CONTEXT_REGISTRATION_THRESHOLD))
         {
             ForkJoinTools.forEach(this.forkJoinPool, allInstances, this::registerInstanceInContext, CONTEXT_REGISTRATION_THRESHOLD);
@@ -305,8 +315,11 @@ public class IncrementalCompiler_New extends IncrementalCompiler
         {
             allInstances.forEach(this::registerInstanceInContext);
         }
+        this.notePhaseFinished(CompilerMetrics.Phase.REGISTER, repoName, allInstances.size(), registerStart);
 
-        SourceMutation sourceMutation = PostProcessor.process(newInstancesConsolidated, this.modelRepository, this.library, this.dslLibrary, this.codeStorage, this.context, this.processorSupport, this.urlPatternLibrary, this.message, observer);
+        long postProcessStart = System.nanoTime();
+        SourceMutation sourceMutation = PostProcessor.process(newInstancesConsolidated, this.modelRepository, this.library, this.dslLibrary, this.codeStorage, this.context, this.processorSupport, this.urlPatternLibrary, this.message, observer, getParallelPostProcessor());
+        this.notePhaseFinished(CompilerMetrics.Phase.POST_PROCESS, repoName, newInstancesConsolidated.size(), postProcessStart);
 
         if (validationType == ValidationType.DEEP)
         {
@@ -316,7 +329,9 @@ public class IncrementalCompiler_New extends IncrementalCompiler
         newInstancesConsolidated.removeIf(SourceMutation::isMarkedForDeletion);
 
         this.message.setMessage("Validating " + repoName + "...");
-        Validator.validateM3(newInstancesConsolidated, validationType, this.library, this.dslLibrary, this.additionalValidators.asUnmodifiable(), this.codeStorage, this.modelRepository, this.context, this.processorSupport);
+        long validateStart = System.nanoTime();
+        validate(newInstancesConsolidated, validationType);
+        this.notePhaseFinished(CompilerMetrics.Phase.VALIDATE, repoName, newInstancesConsolidated.size(), validateStart);
 
         rebuildExclusionSet(this.modelRepository, this.processorSupport);
 
@@ -352,10 +367,7 @@ public class IncrementalCompiler_New extends IncrementalCompiler
             this.toUnbind.addAllIterable(toUnbindGeneratedFromRemovedSources);
 
             // Remove CIs in changed sources
-            for (CoreInstance instance : instancesInRemovedSources)
-            {
-                this.removeInstance(instance);
-            }
+            this.removeInstances(instancesInRemovedSources);
 
             for (CoreInstance instance : this.toUnload.difference(instancesInRemovedSources))
             {
@@ -367,13 +379,26 @@ public class IncrementalCompiler_New extends IncrementalCompiler
         }
     }
 
+    /**
+     * Run the unload walkers over instances. The walkers only read the graph, so for large numbers of
+     * instances they are run in parallel, sharing a concurrent walker state. Instances reachable from
+     * instances walked in different threads are walked only once, as the visited set is shared.
+     */
     private MutableSet<CoreInstance> walkTheGraphForUnload(MutableSet<CoreInstance> instances)
     {
-        WalkerState walkerState = new WalkerState(this.processorSupport);
+        boolean parallel = this.shouldParallelize(instances.size(), UNLOAD_THRESHOLD);
+        WalkerState walkerState = new WalkerState(this.processorSupport, parallel);
         Matcher walkerMatcher = new Matcher(this.modelRepository, this.context, this.processorSupport);
 
         this.library.getParsers().asLazy().flatCollect(Parser::getUnLoadWalkers).concatenate(this.dslLibrary.getInlineDSLs().asLazy().flatCollect(InlineDSL::getUnLoadWalkers)).forEach(walkerMatcher::addMatchIfTypeIsKnown);
-        instances.forEach(i -> walkerMatcher.match(i, walkerState));
+        if (parallel)
+        {
+            ForkJoinTools.forEach(this.forkJoinPool, instances.toList(), this.inCurrentTransaction((CoreInstance i) -> walkerMatcher.match(i, walkerState)), UNLOAD_THRESHOLD);
+        }
+        else
+        {
+            instances.forEach(i -> walkerMatcher.match(i, walkerState));
+        }
         return walkerState.getInstances().toSet();
     }
 
@@ -30,6 +30,7 @@ import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
 import org.eclipse.collections.impl.list.fixed.ArrayAdapter;
 import org.eclipse.collections.impl.utility.LazyIterate;
 import org.finos.legend.pure.m3.SourceMutation;
+import org.finos.legend.pure.m3.compiler.CompilerMetrics;
 import org.finos.legend.pure.m3.compiler.Context;
 import org.finos.legend.pure.m3.compiler.postprocessing.observer.PostProcessorObserver;
 import org.finos.legend.pure.m3.coreinstance.CoreInstanceFactoryRegistry;
@@ -104,8 +105,8 @@ public class PureRuntime
 
         this.incrementalCompiler =
                 useFastCompiler ?
-                        new IncrementalCompiler_New(parsers, inlineDSLs, codeStorage, this.patternLibrary, message, factoryRegistryOverride, incrementalCompilerForkJoinPool, isTransactionByDefault) :
-                        new IncrementalCompiler_Old(parsers, inlineDSLs, codeStorage, this.patternLibrary, message, factoryRegistryOverride, incrementalCompilerForkJoinPool, isTransactionByDefault);
+                        new IncrementalCompiler_New(parsers, inlineDSLs, codeStorage, this.patternLibrary, message, factoryRegistryOverride, incrementalCompilerForkJoinPool, isTransactionByDefault, options) :
+                        new IncrementalCompiler_Old(parsers, inlineDSLs, codeStorage, this.patternLibrary, message, factoryRegistryOverride, incrementalCompilerForkJoinPool, isTransactionByDefault, options);
 
         this.sourceRegistry = new SourceRegistry(codeStorage, this.incrementalCompiler.getParserLibrary(), Lists.fixedSize.<SourceEventHandler>of(this.incrementalCompiler));
 
@@ -222,6 +223,11 @@ public class PureRuntime
         return this.incrementalCompiler.getProcessorSupport();
     }
 
+    public CompilerMetrics getCompilerMetrics()
+    {
+        return this.incrementalCompiler.getCompilerMetrics();
+    }
+
     //--------
     //  Load
     //--------
@@ -14,6 +14,7 @@
 
 package org.finos.legend.pure.m3.serialization.runtime.binary;
 
+import org.eclipse.collections.api.block.procedure.Procedure2;
 import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.set.ImmutableSet;
@@ -24,6 +25,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
 
@@ -63,6 +65,37 @@ abstract class AbstractJarPureRepositoryJar extends AbstractPureRepositoryJar
         }
     }
 
+    @Override
+    public void forEachFileBuffer(Iterable<String> filePaths, Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        SetIterable<String> filePathSet = Sets.mutable.withAll(filePaths);
+        if (filePathSet.isEmpty())
+        {
+            return;
+        }
+        try (JarInputStream jarStream = getJarInputStream())
+        {
+            readFilesFromJarInputStream(filePathSet, jarStream, (filePath, bytes) -> procedure.value(filePath, ByteBuffer.wrap(bytes)));
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(filePathSet.toSortedList().makeString("Error reading files: ", ", ", ""), e);
+        }
+    }
+
+    @Override
+    public void forEachFileBuffer(Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        try (JarInputStream jarStream = getJarInputStream())
+        {
+            readAllFilesFromJarInputStream(jarStream, (filePath, bytes) -> procedure.value(filePath, ByteBuffer.wrap(bytes)));
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Error reading all files", e);
+        }
+    }
+
     @Override
     protected void readFilesFromNonEmptySet(SetIterable<String> filePaths, MutableMap<String, byte[]> fileBytes)
     {
@@ -93,6 +126,11 @@ abstract class AbstractJarPureRepositoryJar extends AbstractPureRepositoryJar
     }
 
     protected void readFilesFromJarInputStream(SetIterable<String> filePaths, JarInputStream jarStream, MutableMap<String, byte[]> fileBytes) throws IOException
+    {
+        readFilesFromJarInputStream(filePaths, jarStream, fileBytes::put);
+    }
+
+    protected void readFilesFromJarInputStream(SetIterable<String> filePaths, JarInputStream jarStream, Procedure2<? super String, ? super byte[]> procedure) throws IOException
     {
         ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
         byte[] buffer = new byte[DEFAULT_READ_BUFFER_SIZE];
@@ -104,12 +142,17 @@ abstract class AbstractJarPureRepositoryJar extends AbstractPureRepositoryJar
             {
                 bytes.reset();
                 writeToOutputStream(jarStream, bytes, buffer);
-                fileBytes.put(filePath, bytes.toByteArray());
+                procedure.value(filePath, bytes.toByteArray());
             }
         }
     }
 
     protected void readAllFilesFromJarInputStream(JarInputStream jarStream, MutableMap<String, byte[]> fileBytes) throws IOException
+    {
+        readAllFilesFromJarInputStream(jarStream, fileBytes::put);
+    }
+
+    protected void readAllFilesFromJarInputStream(JarInputStream jarStream, Procedure2<? super String, ? super byte[]> procedure) throws IOException
     {
         ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
         byte[] buffer = new byte[DEFAULT_READ_BUFFER_SIZE];
@@ -120,7 +163,7 @@ abstract class AbstractJarPureRepositoryJar extends AbstractPureRepositoryJar
             {
                 bytes.reset();
                 writeToOutputStream(jarStream, bytes, buffer);
-                fileBytes.put(filePath, bytes.toByteArray());
+                procedure.value(filePath, bytes.toByteArray());
             }
         }
     }
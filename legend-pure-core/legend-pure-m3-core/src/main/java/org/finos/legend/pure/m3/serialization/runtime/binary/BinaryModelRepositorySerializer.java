@@ -18,6 +18,7 @@ import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.SetIterable;
 import org.eclipse.collections.api.tuple.Pair;
 import org.eclipse.collections.impl.tuple.Tuples;
 import org.finos.legend.pure.m3.serialization.filesystem.repository.CodeRepositoryProviderHelper;
@@ -26,12 +27,18 @@ import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.classpa
 import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.composite.CompositeCodeStorage;
 import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.vcs.VersionControlledCodeStorage;
 import org.finos.legend.pure.m3.serialization.runtime.PureRuntime;
+import org.finos.legend.pure.m3.tools.BinaryUtils;
 import org.finos.legend.pure.m4.serialization.Writer;
 import org.finos.legend.pure.m4.serialization.binary.BinaryWriters;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
 
 public class BinaryModelRepositorySerializer
@@ -40,10 +47,11 @@ public class BinaryModelRepositorySerializer
     private final String modelVersion;
     private final String repositoryName;
     private final PureRuntime runtime;
+    private final boolean storeUncompressed;
     private final MutableList<SourceSerializationResult> serializationResults = Lists.mutable.empty();
     private final MutableMap<String, byte[]> sourceSerializations = Maps.mutable.empty();
 
-    private BinaryModelRepositorySerializer(String platformVersion, String modelVersion, String repositoryName, PureRuntime runtime)
+    private BinaryModelRepositorySerializer(String platformVersion, String modelVersion, String repositoryName, PureRuntime runtime, boolean storeUncompressed)
     {
         if ((repositoryName != null) && runtime.getCodeStorage().getRepository(repositoryName) == null)
         {
@@ -53,6 +61,7 @@ public class BinaryModelRepositorySerializer
         this.modelVersion = modelVersion;
         this.repositoryName = repositoryName;
         this.runtime = runtime;
+        this.storeUncompressed = storeUncompressed;
     }
 
     private void serialize(OutputStream stream) throws IOException
@@ -61,6 +70,68 @@ public class BinaryModelRepositorySerializer
         writeToJar(stream);
     }
 
+    private SetIterable<String> serializeContentAddressed(Path manifestPath, Path objectDirectory) throws IOException
+    {
+        serializeSources();
+        MessageDigest digest = newContentDigest();
+        MutableMap<String, String> sourceHashIndex = Maps.mutable.withInitialCapacity(this.sourceSerializations.size());
+        for (String path : this.sourceSerializations.keysView().toSortedListBy(BinaryModelRepositorySerializer::getFilePathSortKey))
+        {
+            byte[] bytes = this.sourceSerializations.get(path);
+            String hash = BinaryUtils.encodeHex(digest.digest(bytes));
+            writeObjectIfAbsent(PureRepositoryJarTools.getContentAddressedPath(objectDirectory, hash), bytes);
+            sourceHashIndex.put(PureRepositoryJarTools.purePathToBinaryPath(path), hash);
+        }
+        // the manifest replaces the previous one atomically, so that readers see either the old or the new one
+        Path tmpPath = Files.createTempFile(manifestPath.toAbsolutePath().getParent(), manifestPath.getFileName().toString(), PureRepositoryJarTools.TEMP_FILE_EXTENSION);
+        try
+        {
+            try (OutputStream stream = Files.newOutputStream(tmpPath);
+                 PureRepositoryJarBuilder jarBuilder = PureRepositoryJarBuilder.newBuilder(stream, getPlatformVersion(), getModelVersion(), this.repositoryName, this.serializationResults))
+            {
+                jarBuilder.addSourceHashIndex(sourceHashIndex);
+            }
+            Files.move(tmpPath, manifestPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            Files.deleteIfExists(tmpPath);
+        }
+        return sourceHashIndex.valuesView().toSet();
+    }
+
+    private static void writeObjectIfAbsent(Path objectPath, byte[] bytes) throws IOException
+    {
+        if (Files.exists(objectPath))
+        {
+            // same hash, same content: nothing to write
+            return;
+        }
+        Path directory = Files.createDirectories(objectPath.getParent());
+        Path tmpPath = Files.createTempFile(directory, objectPath.getFileName().toString(), PureRepositoryJarTools.TEMP_FILE_EXTENSION);
+        try
+        {
+            Files.write(tmpPath, bytes);
+            Files.move(tmpPath, objectPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            Files.deleteIfExists(tmpPath);
+        }
+    }
+
+    private static MessageDigest newContentDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+
     private void serializeSources()
     {
         ByteArrayOutputStream stream = new ByteArrayOutputStream(1024);
@@ -81,7 +152,7 @@ public class BinaryModelRepositorySerializer
 
     private void writeToJar(OutputStream stream) throws IOException
     {
-        try (PureRepositoryJarBuilder jarBuilder = PureRepositoryJarBuilder.newBuilder(stream, getPlatformVersion(), getModelVersion(), this.repositoryName, this.serializationResults))
+        try (PureRepositoryJarBuilder jarBuilder = PureRepositoryJarBuilder.newBuilder(stream, getPlatformVersion(), getModelVersion(), this.repositoryName, this.serializationResults, this.storeUncompressed))
         {
             for (String path : this.sourceSerializations.keysView().toSortedListBy(BinaryModelRepositorySerializer::getFilePathSortKey))
             {
@@ -122,11 +193,40 @@ public class BinaryModelRepositorySerializer
 
     public static void serialize(OutputStream stream, String platformVersion, String modelVersion, String repositoryName, PureRuntime runtime) throws IOException
     {
-        new BinaryModelRepositorySerializer(platformVersion, modelVersion, repositoryName, runtime).serialize(stream);
+        serialize(stream, platformVersion, modelVersion, repositoryName, runtime, false);
+    }
+
+    /**
+     * Serialize a repository to a Pure repository jar, optionally storing the binary files uncompressed. Jars
+     * with uncompressed files are larger, but can be loaded from memory-mapped jars (see
+     * {@link PureRepositoryJars#getMapped}) without copying the files into the heap.
+     */
+    public static void serialize(OutputStream stream, String platformVersion, String modelVersion, String repositoryName, PureRuntime runtime, boolean storeUncompressed) throws IOException
+    {
+        new BinaryModelRepositorySerializer(platformVersion, modelVersion, repositoryName, runtime, storeUncompressed).serialize(stream);
     }
 
     public static void serialize(OutputStream stream, String repository, PureRuntime runtime) throws IOException
     {
         serialize(stream, null, null, repository, runtime);
     }
+
+    /**
+     * Serialize a repository in content-addressed form: each source's binary file is written to the object
+     * directory under the hash of its content, unless a file with that hash is already there, and a manifest
+     * jar with the repository's metadata and the hash of each file is written to the manifest path. Sources
+     * which are unchanged since a previous serialization to the same object directory are therefore not
+     * written again. The result may be read with {@link PureRepositoryJars#getContentAddressed}.
+     *
+     * @return hashes of the repository's files
+     */
+    public static SetIterable<String> serializeContentAddressed(Path manifestPath, Path objectDirectory, String platformVersion, String modelVersion, String repositoryName, PureRuntime runtime) throws IOException
+    {
+        return new BinaryModelRepositorySerializer(platformVersion, modelVersion, repositoryName, runtime, false).serializeContentAddressed(manifestPath, objectDirectory);
+    }
+
+    public static SetIterable<String> serializeContentAddressed(Path manifestPath, Path objectDirectory, String repositoryName, PureRuntime runtime) throws IOException
+    {
+        return serializeContentAddressed(manifestPath, objectDirectory, null, null, repositoryName, runtime);
+    }
 }
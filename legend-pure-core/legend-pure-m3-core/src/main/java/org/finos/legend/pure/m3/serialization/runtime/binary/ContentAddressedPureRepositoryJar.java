@@ -0,0 +1,123 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.runtime.binary;
+
+import org.eclipse.collections.api.block.procedure.Procedure2;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.map.ImmutableMap;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.SetIterable;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.ParseException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+
+/**
+ * A Pure repository jar whose binary files are stored outside the jar, in an object directory, under their
+ * content hashes. The jar itself (the manifest) holds only the usual metadata and an index from binary file
+ * path to content hash. Since unchanged files keep their hashes, successive snapshots of a repository share
+ * their unchanged files.
+ */
+class ContentAddressedPureRepositoryJar extends AbstractPureRepositoryJar
+{
+    private final Path manifestPath;
+    private final Path objectDirectory;
+    private final ImmutableMap<String, String> sourceHashIndex;
+
+    ContentAddressedPureRepositoryJar(Path manifestPath, Path objectDirectory) throws IOException
+    {
+        super(PureRepositoryJarMetadata.getPureMetadata(manifestPath));
+        this.manifestPath = manifestPath;
+        this.objectDirectory = objectDirectory;
+        this.sourceHashIndex = readSourceHashIndex(manifestPath);
+    }
+
+    @Override
+    public byte[] readFile(String filePath)
+    {
+        String hash = this.sourceHashIndex.get(filePath);
+        if (hash == null)
+        {
+            throw new IllegalArgumentException("Could not find file: " + filePath);
+        }
+        Path objectPath = PureRepositoryJarTools.getContentAddressedPath(this.objectDirectory, hash);
+        try
+        {
+            return Files.readAllBytes(objectPath);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Error reading " + filePath + " (" + objectPath + ") for " + this.manifestPath, e);
+        }
+    }
+
+    @Override
+    public void readAllFiles(MutableMap<String, byte[]> fileBytes)
+    {
+        this.sourceHashIndex.forEachKey(filePath -> fileBytes.put(filePath, readFile(filePath)));
+    }
+
+    @Override
+    public void forEachFileBuffer(Iterable<String> filePaths, Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        filePaths.forEach(filePath -> procedure.value(filePath, ByteBuffer.wrap(readFile(filePath))));
+    }
+
+    @Override
+    public void forEachFileBuffer(Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        this.sourceHashIndex.forEachKey(filePath -> procedure.value(filePath, ByteBuffer.wrap(readFile(filePath))));
+    }
+
+    @Override
+    protected void readFilesFromNonEmptySet(SetIterable<String> filePaths, MutableMap<String, byte[]> fileBytes)
+    {
+        filePaths.forEach(filePath -> fileBytes.put(filePath, readFile(filePath)));
+    }
+
+    private static ImmutableMap<String, String> readSourceHashIndex(Path manifestPath) throws IOException
+    {
+        try (JarInputStream stream = new JarInputStream(new BufferedInputStream(Files.newInputStream(manifestPath))))
+        {
+            for (JarEntry entry = stream.getNextJarEntry(); entry != null; entry = stream.getNextJarEntry())
+            {
+                if (PureRepositoryJarTools.SOURCE_HASH_INDEX_NAME.equals(entry.getName()))
+                {
+                    Map<String, String> rawIndex;
+                    try
+                    {
+                        rawIndex = (Map<String, String>) JSONValue.parseWithException(new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8)));
+                    }
+                    catch (ParseException e)
+                    {
+                        throw new RuntimeException("Invalid Pure manifest: could not parse source hash index (" + PureRepositoryJarTools.SOURCE_HASH_INDEX_NAME + ") in " + manifestPath, e);
+                    }
+                    return Maps.immutable.withAll(rawIndex);
+                }
+            }
+        }
+        throw new RuntimeException("Invalid Pure manifest: could not find " + PureRepositoryJarTools.SOURCE_HASH_INDEX_NAME + " in " + manifestPath);
+    }
+}
@@ -0,0 +1,296 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.runtime.binary;
+
+import org.eclipse.collections.api.block.procedure.Procedure2;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.map.ImmutableMap;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.SetIterable;
+import org.finos.legend.pure.m4.serialization.binary.MappedFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * A Pure repository jar which is memory-mapped rather than read through a stream. Uncompressed (stored)
+ * entries are read directly from the mapping, so {@link #readFileBuffer} and friends do not copy them into the
+ * heap; compressed entries are inflated from the mapping.
+ */
+class MappedPureRepositoryJar extends AbstractPureRepositoryJar
+{
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    private final Path path;
+    private final MappedFile file;
+    private final ImmutableMap<String, Entry> entries;
+
+    MappedPureRepositoryJar(Path path) throws IOException
+    {
+        super(PureRepositoryJarMetadata.getPureMetadata(path));
+        this.path = path;
+        this.file = MappedFile.map(path);
+        try
+        {
+            this.entries = readEntries(this.file);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            this.file.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public byte[] readFile(String filePath)
+    {
+        ByteBuffer buffer = readFileBuffer(filePath);
+        if (buffer.hasArray() && (buffer.arrayOffset() == 0) && (buffer.remaining() == buffer.array().length))
+        {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public ByteBuffer readFileBuffer(String filePath)
+    {
+        Entry entry = this.entries.get(filePath);
+        if (entry == null)
+        {
+            throw new IllegalArgumentException("Could not find file: " + filePath);
+        }
+        try
+        {
+            return entry.read(this.file);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Error reading " + filePath + " from " + this.path, e);
+        }
+    }
+
+    @Override
+    public void readFileBuffers(Iterable<String> filePaths, MutableMap<String, ByteBuffer> fileBuffers)
+    {
+        filePaths.forEach(filePath -> fileBuffers.put(filePath, readFileBuffer(filePath)));
+    }
+
+    @Override
+    public void readAllFileBuffers(MutableMap<String, ByteBuffer> fileBuffers)
+    {
+        this.entries.forEachKey(filePath ->
+        {
+            if (isPureFile(filePath))
+            {
+                fileBuffers.put(filePath, readFileBuffer(filePath));
+            }
+        });
+    }
+
+    @Override
+    public void forEachFileBuffer(Iterable<String> filePaths, Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        filePaths.forEach(filePath -> procedure.value(filePath, readFileBuffer(filePath)));
+    }
+
+    @Override
+    public void forEachFileBuffer(Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        this.entries.forEachKey(filePath ->
+        {
+            if (isPureFile(filePath))
+            {
+                procedure.value(filePath, readFileBuffer(filePath));
+            }
+        });
+    }
+
+    @Override
+    public void readAllFiles(MutableMap<String, byte[]> fileBytes)
+    {
+        this.entries.forEachKey(filePath ->
+        {
+            if (isPureFile(filePath))
+            {
+                fileBytes.put(filePath, readFile(filePath));
+            }
+        });
+    }
+
+    @Override
+    protected void readFilesFromNonEmptySet(SetIterable<String> filePaths, MutableMap<String, byte[]> fileBytes)
+    {
+        filePaths.forEach(filePath -> fileBytes.put(filePath, readFile(filePath)));
+    }
+
+    private static boolean isPureFile(String filePath)
+    {
+        return !filePath.endsWith("/") && !filePath.startsWith(PureRepositoryJarTools.META_INF_DIR_NAME + "/");
+    }
+
+    private static ImmutableMap<String, Entry> readEntries(MappedFile file) throws IOException
+    {
+        long size = file.size();
+        if (size < END_OF_CENTRAL_DIRECTORY_SIZE)
+        {
+            throw new IOException("Not a valid jar: too short");
+        }
+
+        // find the end of central directory record: it is at the end, after an optional comment
+        int tailSize = (int) Math.min(size, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = file.slice(size - tailSize, tailSize).order(ByteOrder.LITTLE_ENDIAN);
+        int end = -1;
+        for (int i = tailSize - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--)
+        {
+            if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+            {
+                end = i;
+                break;
+            }
+        }
+        if (end == -1)
+        {
+            throw new IOException("Not a valid jar: could not find end of central directory");
+        }
+        int entryCount = Short.toUnsignedInt(tail.getShort(end + 10));
+        long directorySize = Integer.toUnsignedLong(tail.getInt(end + 12));
+        long directoryOffset = Integer.toUnsignedLong(tail.getInt(end + 16));
+        if ((entryCount == 0xFFFF) || (directorySize == 0xFFFFFFFFL) || (directoryOffset == 0xFFFFFFFFL))
+        {
+            throw new IOException("ZIP64 jars are not supported");
+        }
+
+        ByteBuffer directory = file.slice(directoryOffset, (int) directorySize).order(ByteOrder.LITTLE_ENDIAN);
+        MutableMap<String, Entry> entries = Maps.mutable.withInitialCapacity(entryCount);
+        int position = 0;
+        for (int i = 0; i < entryCount; i++)
+        {
+            if (directory.getInt(position) != CENTRAL_HEADER_SIGNATURE)
+            {
+                throw new IOException("Not a valid jar: invalid central directory entry at " + (directoryOffset + position));
+            }
+            int method = Short.toUnsignedInt(directory.getShort(position + 10));
+            long compressedSize = Integer.toUnsignedLong(directory.getInt(position + 20));
+            long uncompressedSize = Integer.toUnsignedLong(directory.getInt(position + 24));
+            int nameLength = Short.toUnsignedInt(directory.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(directory.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(directory.getShort(position + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(directory.getInt(position + 42));
+            byte[] nameBytes = new byte[nameLength];
+            ((ByteBuffer) directory.duplicate().position(position + 46)).get(nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+            if ((compressedSize > Integer.MAX_VALUE) || (uncompressedSize > Integer.MAX_VALUE))
+            {
+                throw new IOException("Jar entry too large: " + name);
+            }
+            entries.put(name, new Entry(name, method, localHeaderOffset, (int) compressedSize, (int) uncompressedSize));
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+        return entries.toImmutable();
+    }
+
+    private static class Entry
+    {
+        private final String name;
+        private final int method;
+        private final long localHeaderOffset;
+        private final int compressedSize;
+        private final int uncompressedSize;
+
+        private Entry(String name, int method, long localHeaderOffset, int compressedSize, int uncompressedSize)
+        {
+            this.name = name;
+            this.method = method;
+            this.localHeaderOffset = localHeaderOffset;
+            this.compressedSize = compressedSize;
+            this.uncompressedSize = uncompressedSize;
+        }
+
+        private ByteBuffer read(MappedFile file) throws IOException
+        {
+            ByteBuffer data = file.slice(getDataOffset(file), this.compressedSize);
+            switch (this.method)
+            {
+                case ZipEntry.STORED:
+                {
+                    return data;
+                }
+                case ZipEntry.DEFLATED:
+                {
+                    return ByteBuffer.wrap(inflate(data));
+                }
+                default:
+                {
+                    throw new IOException("Unsupported compression method (" + this.method + ") for " + this.name);
+                }
+            }
+        }
+
+        private long getDataOffset(MappedFile file) throws IOException
+        {
+            // the local header's extra field may differ from the central directory's
+            ByteBuffer header = file.slice(this.localHeaderOffset, 30).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != LOCAL_HEADER_SIGNATURE)
+            {
+                throw new IOException("Not a valid jar: invalid local header for " + this.name);
+            }
+            return this.localHeaderOffset + 30 + Short.toUnsignedInt(header.getShort(26)) + Short.toUnsignedInt(header.getShort(28));
+        }
+
+        private byte[] inflate(ByteBuffer data) throws IOException
+        {
+            byte[] compressed = new byte[data.remaining()];
+            data.get(compressed);
+            byte[] bytes = new byte[this.uncompressedSize];
+            Inflater inflater = new Inflater(true);
+            try
+            {
+                inflater.setInput(compressed);
+                int total = 0;
+                while (total < bytes.length)
+                {
+                    int inflated = inflater.inflate(bytes, total, bytes.length - total);
+                    if ((inflated == 0) && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+                    {
+                        throw new IOException("Error inflating " + this.name + ": expected " + bytes.length + " bytes, got " + total);
+                    }
+                    total += inflated;
+                }
+                return bytes;
+            }
+            catch (DataFormatException e)
+            {
+                throw new IOException("Error inflating " + this.name, e);
+            }
+            finally
+            {
+                inflater.end();
+            }
+        }
+    }
+}
@@ -14,9 +14,12 @@
 
 package org.finos.legend.pure.m3.serialization.runtime.binary;
 
+import org.eclipse.collections.api.block.procedure.Procedure2;
 import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.map.MutableMap;
 
+import java.nio.ByteBuffer;
+
 public interface PureRepositoryJar
 {
     PureRepositoryJarMetadata getMetadata();
@@ -30,4 +33,49 @@ public interface PureRepositoryJar
     MapIterable<String, byte[]> readAllFiles();
 
     void readAllFiles(MutableMap<String, byte[]> fileBytes);
+
+    /**
+     * Read a file as a buffer. Implementations which can give access to the file without copying it into the
+     * heap, such as memory-mapped jars, do so; otherwise this wraps {@link #readFile}.
+     *
+     * @param filePath file path
+     * @return buffer of the file's bytes
+     */
+    default ByteBuffer readFileBuffer(String filePath)
+    {
+        return ByteBuffer.wrap(readFile(filePath));
+    }
+
+    default void readFileBuffers(Iterable<String> filePaths, MutableMap<String, ByteBuffer> fileBuffers)
+    {
+        readFiles(filePaths).forEachKeyValue((filePath, bytes) -> fileBuffers.put(filePath, ByteBuffer.wrap(bytes)));
+    }
+
+    default void readAllFileBuffers(MutableMap<String, ByteBuffer> fileBuffers)
+    {
+        readAllFiles().forEachKeyValue((filePath, bytes) -> fileBuffers.put(filePath, ByteBuffer.wrap(bytes)));
+    }
+
+    /**
+     * Read the given files, passing each to the procedure as it is read. Implementations which can read files
+     * one at a time do so, so that the caller need not hold all the files in memory at once.
+     *
+     * @param filePaths file paths
+     * @param procedure procedure to receive each file path and buffer
+     */
+    default void forEachFileBuffer(Iterable<String> filePaths, Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        readFiles(filePaths).forEachKeyValue((filePath, bytes) -> procedure.value(filePath, ByteBuffer.wrap(bytes)));
+    }
+
+    /**
+     * Read all files, passing each to the procedure as it is read.
+     *
+     * @param procedure procedure to receive each file path and buffer
+     * @see #forEachFileBuffer(Iterable, Procedure2)
+     */
+    default void forEachFileBuffer(Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        readAllFiles().forEachKeyValue((filePath, bytes) -> procedure.value(filePath, ByteBuffer.wrap(bytes)));
+    }
 }
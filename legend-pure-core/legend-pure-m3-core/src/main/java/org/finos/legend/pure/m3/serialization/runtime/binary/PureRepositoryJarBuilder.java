@@ -32,15 +32,19 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
 
 class PureRepositoryJarBuilder implements Closeable
 {
     private final String repositoryName;
+    private final boolean storeUncompressed;
     private final JarOutputStream jarStream;
 
-    private PureRepositoryJarBuilder(OutputStream stream, String platformVersion, String modelVersion, String repositoryName, Iterable<? extends SourceSerializationResult> serializationResults) throws IOException
+    private PureRepositoryJarBuilder(OutputStream stream, String platformVersion, String modelVersion, String repositoryName, Iterable<? extends SourceSerializationResult> serializationResults, boolean storeUncompressed) throws IOException
     {
         this.repositoryName = repositoryName;
+        this.storeUncompressed = storeUncompressed;
         this.jarStream = new JarOutputStream(stream, PureManifest.create(platformVersion, modelVersion, (this.repositoryName == null) ? "root" : this.repositoryName));
         writeIndexes(serializationResults);
     }
@@ -56,11 +60,33 @@ class PureRepositoryJarBuilder implements Closeable
             throw new IllegalArgumentException("File bytes must be non-null");
         }
         validatePath(path);
-        this.jarStream.putNextEntry(new JarEntry(canonicalizePath(path)));
+        JarEntry entry = new JarEntry(canonicalizePath(path));
+        if (this.storeUncompressed)
+        {
+            // stored entries can be read straight from a memory-mapped jar
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(bytes.length);
+            entry.setCompressedSize(bytes.length);
+            entry.setCrc(crc.getValue());
+        }
+        this.jarStream.putNextEntry(entry);
         this.jarStream.write(bytes);
         this.jarStream.closeEntry();
     }
 
+    /**
+     * Add an index of the content hashes of the repository's binary files, for jars whose files are stored
+     * separately by content hash (see {@link ContentAddressedPureRepositoryJar}).
+     *
+     * @param sourceHashIndex content hashes by binary file path
+     */
+    void addSourceHashIndex(MapIterable<String, String> sourceHashIndex) throws IOException
+    {
+        writeStringIndex(PureRepositoryJarTools.SOURCE_HASH_INDEX_NAME, sourceHashIndex);
+    }
+
     @Override
     public void close() throws IOException
     {
@@ -93,17 +119,17 @@ class PureRepositoryJarBuilder implements Closeable
         binPaths.sortThis();
 
         // Write indexes
-        writeInstanceDefinitionIndex(instanceDefinitionIndex);
+        writeStringIndex(PureRepositoryJarTools.DEFINITION_INDEX_NAME, instanceDefinitionIndex);
         writeExternalReferenceIndex(binPaths, externalReferenceIndex);
     }
 
-    private void writeInstanceDefinitionIndex(MapIterable<String, String> instanceDefinitionIndex) throws IOException
+    private void writeStringIndex(String entryName, MapIterable<String, String> index) throws IOException
     {
-        this.jarStream.putNextEntry(new JarEntry(PureRepositoryJarTools.DEFINITION_INDEX_NAME));
+        this.jarStream.putNextEntry(new JarEntry(entryName));
         BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(this.jarStream), 256);
         writer.append("{\n");
         boolean first = true;
-        for (String instancePath : instanceDefinitionIndex.keysView().toSortedList())
+        for (String key : index.keysView().toSortedList())
         {
             if (first)
             {
@@ -114,9 +140,9 @@ class PureRepositoryJarBuilder implements Closeable
                 writer.append(",\n");
             }
             writer.append("\t\"");
-            writer.append(instancePath);
+            writer.append(key);
             writer.append("\" : \"");
-            writer.append(instanceDefinitionIndex.get(instancePath));
+            writer.append(index.get(key));
             writer.append("\"");
         }
         writer.append("\n}");
@@ -197,6 +223,11 @@ class PureRepositoryJarBuilder implements Closeable
 
     static PureRepositoryJarBuilder newBuilder(OutputStream stream, String platformVersion, String modelVersion, String repositoryName, Iterable<? extends SourceSerializationResult> serializationResults) throws IOException
     {
-        return new PureRepositoryJarBuilder(stream, platformVersion, modelVersion, repositoryName, serializationResults);
+        return newBuilder(stream, platformVersion, modelVersion, repositoryName, serializationResults, false);
+    }
+
+    static PureRepositoryJarBuilder newBuilder(OutputStream stream, String platformVersion, String modelVersion, String repositoryName, Iterable<? extends SourceSerializationResult> serializationResults, boolean storeUncompressed) throws IOException
+    {
+        return new PureRepositoryJarBuilder(stream, platformVersion, modelVersion, repositoryName, serializationResults, storeUncompressed);
     }
 }
@@ -15,9 +15,12 @@
 package org.finos.legend.pure.m3.serialization.runtime.binary;
 
 import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.block.procedure.Procedure2;
 import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.set.SetIterable;
 
+import java.nio.ByteBuffer;
+
 public interface PureRepositoryJarLibrary
 {
     String getPlatformVersion();
@@ -44,6 +47,40 @@ public interface PureRepositoryJarLibrary
 
     MapIterable<String, byte[]> readAllFiles();
 
+    /**
+     * Read files as buffers. Where the underlying jars allow it, as memory-mapped jars do, the buffers give
+     * access to the files without copying them into the heap.
+     *
+     * @param filePaths file paths
+     * @return buffers by file path
+     */
+    default MapIterable<String, ByteBuffer> readFileBuffers(Iterable<String> filePaths)
+    {
+        return readFiles(filePaths).collectValues((filePath, bytes) -> ByteBuffer.wrap(bytes));
+    }
+
+    default MapIterable<String, ByteBuffer> readAllFileBuffers()
+    {
+        return readAllFiles().collectValues((filePath, bytes) -> ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Read files, passing each to the procedure as it is read. Where the underlying jars allow it, files are
+     * read one at a time, so that they need not all be held in memory at once.
+     *
+     * @param filePaths file paths
+     * @param procedure procedure to receive each file path and buffer
+     */
+    default void forEachFileBuffer(Iterable<String> filePaths, Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        readFileBuffers(filePaths).forEachKeyValue(procedure::value);
+    }
+
+    default void forEachFileBuffer(Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        readAllFileBuffers().forEachKeyValue(procedure::value);
+    }
+
     RichIterable<String> getAllFiles();
 
     RichIterable<String> getRepositoryFiles(String repositoryName);
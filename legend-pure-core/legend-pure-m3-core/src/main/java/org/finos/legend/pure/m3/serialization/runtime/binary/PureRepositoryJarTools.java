@@ -35,6 +35,9 @@ public class PureRepositoryJarTools
     public static final String REFERENCE_INDEX_FILENAME = "reference-index.json";
     public static final String DEFINITION_INDEX_NAME = META_INF_DIR_NAME + "/" + DEFINITION_INDEX_FILENAME;
     public static final String REFERENCE_INDEX_NAME = META_INF_DIR_NAME + "/" + REFERENCE_INDEX_FILENAME;
+    public static final String SOURCE_HASH_INDEX_FILENAME = "source-hash-index.json";
+    public static final String SOURCE_HASH_INDEX_NAME = META_INF_DIR_NAME + "/" + SOURCE_HASH_INDEX_FILENAME;
+    public static final String TEMP_FILE_EXTENSION = ".tmp";
 
     public static final Function<String, String> PURE_PATH_TO_BINARY_PATH = PureRepositoryJarTools::purePathToBinaryPath;
     public static final Function<String, String> BINARY_PATH_TO_PURE_PATH = PureRepositoryJarTools::binaryPathToPurePath;
@@ -64,6 +67,19 @@ public class PureRepositoryJarTools
         return '/' + binPath.substring(0, binPath.length() - 1) + "ure";
     }
 
+    /**
+     * Get the path of a content-addressed binary file in an object directory. Files are spread over
+     * subdirectories named by the first two characters of their hash.
+     *
+     * @param objectDirectory object directory
+     * @param hash            content hash
+     * @return path of the file with the given hash
+     */
+    public static Path getContentAddressedPath(Path objectDirectory, String hash)
+    {
+        return objectDirectory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
     public static boolean hasPureJarExtension(Path path)
     {
         return (path != null) && hasPureJarExtension(path.getFileName().toString());
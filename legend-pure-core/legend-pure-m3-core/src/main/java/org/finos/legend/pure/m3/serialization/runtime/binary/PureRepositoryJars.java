@@ -114,6 +114,47 @@ public class PureRepositoryJars
         }
     }
 
+    /**
+     * Get a Pure repository jar which is memory-mapped rather than read through a stream. Files stored
+     * uncompressed in the jar are then read without being copied into the heap, if they are read as buffers
+     * (see {@link PureRepositoryJar#readFileBuffer}).
+     *
+     * @param path jar path
+     * @return memory-mapped jar
+     */
+    public static PureRepositoryJar getMapped(Path path)
+    {
+        try
+        {
+            return new MappedPureRepositoryJar(path);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Error mapping PureRepositoryJar from path: " + path, e);
+        }
+    }
+
+    /**
+     * Get a Pure repository jar whose binary files are stored by content hash in an object directory, with
+     * the jar at the manifest path holding only the metadata and the hash of each file (see
+     * {@link BinaryModelRepositorySerializer#serializeContentAddressed}).
+     *
+     * @param manifestPath    manifest path
+     * @param objectDirectory object directory
+     * @return content-addressed jar
+     */
+    public static PureRepositoryJar getContentAddressed(Path manifestPath, Path objectDirectory)
+    {
+        try
+        {
+            return new ContentAddressedPureRepositoryJar(manifestPath, objectDirectory);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Error getting PureRepositoryJar from manifest: " + manifestPath, e);
+        }
+    }
+
     public static PureRepositoryJar fromUnpackedJar(Path directory)
     {
         try
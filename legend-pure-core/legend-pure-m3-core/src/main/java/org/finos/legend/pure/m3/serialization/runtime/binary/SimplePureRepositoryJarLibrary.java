@@ -16,18 +16,22 @@ package org.finos.legend.pure.m3.serialization.runtime.binary;
 
 import org.eclipse.collections.api.LazyIterable;
 import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.block.procedure.Procedure2;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.ImmutableMap;
 import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.multimap.set.SetMultimap;
+import org.eclipse.collections.api.set.MutableSet;
 import org.eclipse.collections.impl.factory.Multimaps;
 import org.eclipse.collections.impl.list.fixed.ArrayAdapter;
 import org.eclipse.collections.impl.utility.Iterate;
 
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -139,6 +143,64 @@ public class SimplePureRepositoryJarLibrary extends AbstractPureRepositoryJarLib
         return result;
     }
 
+    @Override
+    public MapIterable<String, ByteBuffer> readFileBuffers(Iterable<String> filePaths)
+    {
+        SetMultimap<String, String> filesByRepository = Iterate.groupBy(filePaths, AbstractPureRepositoryJarLibrary::getFileRepository, Multimaps.mutable.set.empty());
+        MutableMap<String, ByteBuffer> result = Maps.mutable.withInitialCapacity(filesByRepository.size());
+        filesByRepository.forEachKeyMultiValues((repo, repoFiles) ->
+        {
+            PureRepositoryJar repoJar = this.jarsByRepository.get(repo);
+            if (repoJar == null)
+            {
+                throw new RuntimeException(Iterate.toSortedList(repoFiles).makeString("Could not find files: ", ", ", ""));
+            }
+            repoJar.readFileBuffers(repoFiles, result);
+        });
+        return result;
+    }
+
+    @Override
+    public MapIterable<String, ByteBuffer> readAllFileBuffers()
+    {
+        MutableMap<String, ByteBuffer> result = Maps.mutable.empty();
+        for (PureRepositoryJar jar : this.jarsByRepository.valuesView())
+        {
+            jar.readAllFileBuffers(result);
+        }
+        return result;
+    }
+
+    @Override
+    public void forEachFileBuffer(Iterable<String> filePaths, Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        SetMultimap<String, String> filesByRepository = Iterate.groupBy(filePaths, AbstractPureRepositoryJarLibrary::getFileRepository, Multimaps.mutable.set.empty());
+        filesByRepository.forEachKeyMultiValues((repo, repoFiles) ->
+        {
+            PureRepositoryJar repoJar = this.jarsByRepository.get(repo);
+            if (repoJar == null)
+            {
+                throw new RuntimeException(Iterate.toSortedList(repoFiles).makeString("Could not find files: ", ", ", ""));
+            }
+            MutableSet<String> remaining = Sets.mutable.withAll(repoFiles);
+            repoJar.forEachFileBuffer(repoFiles, (filePath, buffer) ->
+            {
+                remaining.remove(filePath);
+                procedure.value(filePath, buffer);
+            });
+            if (remaining.notEmpty())
+            {
+                throw new RuntimeException(remaining.toSortedList().makeString("Could not find files: ", ", ", ""));
+            }
+        });
+    }
+
+    @Override
+    public void forEachFileBuffer(Procedure2<? super String, ? super ByteBuffer> procedure)
+    {
+        this.jarsByRepository.forEachValue(jar -> jar.forEachFileBuffer(procedure));
+    }
+
     @Override
     public RichIterable<String> getRepositoryFiles(String repositoryName)
     {
@@ -53,7 +53,7 @@ abstract class AbstractPureGraphCache implements PureGraphCache
     {
         try
         {
-            clearCaches();
+            prepareToWriteCaches();
             this.cacheState.update(true, -1L, true, null);
             writeCaches();
             updateCacheState();
@@ -108,6 +108,17 @@ abstract class AbstractPureGraphCache implements PureGraphCache
 
     protected abstract void writeCaches();
 
+    /**
+     * Prepare to write the caches. By default, this clears
+     * them, so that they are written from scratch. Caches
+     * which can be updated incrementally may override this
+     * to keep what can be reused.
+     */
+    protected void prepareToWriteCaches()
+    {
+        clearCaches();
+    }
+
     protected abstract boolean buildFromCaches(ModelRepository modelRepository, SourceRegistry sources, ParserLibrary library, Context context, ProcessorSupport processorSupport, Message message) throws Exception;
 
     /**
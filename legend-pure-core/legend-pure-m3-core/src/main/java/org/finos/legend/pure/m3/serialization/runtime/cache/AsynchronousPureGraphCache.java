@@ -22,6 +22,7 @@ import org.finos.legend.pure.m3.serialization.runtime.PureRuntime;
 import org.finos.legend.pure.m3.serialization.runtime.SourceRegistry;
 import org.finos.legend.pure.m4.ModelRepository;
 import org.finos.legend.pure.m4.logs.PureLogger;
+import org.finos.legend.pure.m4.transaction.ModelRepositoryVersions;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
@@ -32,20 +33,62 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * A graph cache which writes its delegate in the background, so that callers (such as the IDE server after a
+ * compile) never wait for the cache to be written.
+ * <p>
+ * Requests to write the cache are coalesced: while a write is scheduled but not yet started, further requests
+ * are folded into it. A write only starts once no request has been received for the coalescing delay, so a burst
+ * of edits results in a single write. The graph is not locked while it is written; if a request is received
+ * while a write is in progress (i.e., the graph may have changed under it), another write is scheduled which
+ * supersedes it. Delegates which write only what has changed (such as {@link FSContentAddressedPureGraphCache})
+ * make these follow-up writes cheap.
+ * <p>
+ * Since the graph is not locked, a write is checked against the modification count of the model repository (see
+ * {@link ModelRepositoryVersions#getModificationCount()}). If the graph was modified or a commit was in progress
+ * while it was written, the cache written may be inconsistent. If the delegate can stage a cache (see
+ * {@link StagedPureGraphCache}), the staged cache is discarded and the last good cache is kept; otherwise, the
+ * cache written is deleted. The write is tried again once the graph has not been modified for the retry delay
+ * (unless a later request supersedes it), up to {@value #MAX_WRITE_ATTEMPTS} times in all. This also covers
+ * compiles which fail, and so never request a write. A repository snapshot (see
+ * {@link ModelRepository#openSnapshot()}) would only pin the graph, not the sources which are written with it,
+ * so it would not make the check unnecessary.
+ * <p>
+ * The progress of background writes is reported through {@link CacheState#isWriteInProgress()} and
+ * {@link CacheState#getPendingWriteRequests()}.
+ */
 public class AsynchronousPureGraphCache implements PureGraphCache
 {
+    private static final long MIN_RETRY_DELAY_MILLIS = 1000L;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
     private final BlockingQueue<Runnable> queue;
     private final ExecutorService executor;
     private final AtomicBoolean isShutDown = new AtomicBoolean(false);
     private final PureLogger logger;
+    private final long coalescingDelayMillis;
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+    private final AtomicLong writeRequests = new AtomicLong(0L);
+    private final AtomicLong handledWriteRequests = new AtomicLong(0L);
+    private final ModelRepository modelRepository;
+    private volatile PureRuntime pureRuntime;
+    private volatile long lastWriteRequestNanos;
+    private volatile boolean writeInProgress = false;
     protected final PureGraphCache delegate;
 
-    private AsynchronousPureGraphCache(PureGraphCache delegate, PureLogger logger)
+    private AsynchronousPureGraphCache(PureGraphCache delegate, PureLogger logger, long coalescingDelayMillis, ModelRepository modelRepository)
     {
+        if (coalescingDelayMillis < 0L)
+        {
+            throw new IllegalArgumentException("Invalid coalescing delay: " + coalescingDelayMillis);
+        }
         this.delegate = delegate;
         this.queue = new LinkedBlockingQueue<>();
         this.logger = logger;
+        this.coalescingDelayMillis = coalescingDelayMillis;
+        this.modelRepository = modelRepository;
         this.executor = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS, this.queue, new MyThreadFactory());
     }
 
@@ -67,6 +110,7 @@ public class AsynchronousPureGraphCache implements PureGraphCache
     public void setPureRuntime(PureRuntime pureRuntime)
     {
         checkIsShutDown();
+        this.pureRuntime = pureRuntime;
         this.delegate.setPureRuntime(pureRuntime);
     }
 
@@ -75,13 +119,14 @@ public class AsynchronousPureGraphCache implements PureGraphCache
     {
         logger.log("Create cache request received");
         checkIsShutDown();
-        submitCacheRepoAndSources();
+        requestCacheRepoAndSources();
     }
 
     public void cacheRepoAndSourcesSynchronously() throws ExecutionException, InterruptedException
     {
         checkIsShutDown();
-        submitCacheRepoAndSources().get();
+        long request = this.writeRequests.incrementAndGet();
+        this.executor.submit(() -> writeCache(request)).get();
     }
 
     @Override
@@ -95,7 +140,9 @@ public class AsynchronousPureGraphCache implements PureGraphCache
     public CacheState getCacheState()
     {
         checkIsShutDown();
-        return this.delegate.getCacheState();
+        CacheState state = this.delegate.getCacheState();
+        state.updateWriteStatus(this.writeInProgress, Math.max(0L, this.writeRequests.get() - this.handledWriteRequests.get()));
+        return state;
     }
 
     public PureGraphCache getDelegate()
@@ -103,10 +150,16 @@ public class AsynchronousPureGraphCache implements PureGraphCache
         return this.delegate;
     }
 
+    /**
+     * Clear the queue of pending tasks. Pending write requests are dropped, and no longer reported as pending.
+     */
     public void clearQueue()
     {
         checkIsShutDown();
+        long requests = this.writeRequests.get();
         this.queue.clear();
+        this.writeScheduled.set(false);
+        markHandled(requests);
     }
 
     public void shutDown()
@@ -120,6 +173,8 @@ public class AsynchronousPureGraphCache implements PureGraphCache
 
     private Future<?> submitDelete()
     {
+        // write requests received before the delete are superseded by it
+        long requests = this.writeRequests.get();
         return this.executor.submit(new Runnable()
         {
             @Override
@@ -127,23 +182,184 @@ public class AsynchronousPureGraphCache implements PureGraphCache
             {
                 logger.log("Start deleting graph cache");
                 AsynchronousPureGraphCache.this.delegate.deleteCache();
+                markHandled(requests);
                 logger.log("Finished deleting graph cache");
             }
         });
     }
 
-    private Future<?> submitCacheRepoAndSources()
+    private void requestCacheRepoAndSources()
     {
-        return this.executor.submit(new Runnable()
+        this.lastWriteRequestNanos = System.nanoTime();
+        this.writeRequests.incrementAndGet();
+        if (this.writeScheduled.compareAndSet(false, true))
         {
-            @Override
-            public void run()
+            this.executor.submit(this::writeCoalescedRequests);
+        }
+        else
+        {
+            logger.log("Create cache request coalesced with pending request");
+        }
+    }
+
+    private void writeCoalescedRequests()
+    {
+        if (awaitQuietPeriod())
+        {
+            // requests received from here on schedule another write, since this one may not see their changes
+            this.writeScheduled.set(false);
+            writeCache(this.writeRequests.get());
+        }
+    }
+
+    private boolean awaitQuietPeriod()
+    {
+        long delayNanos = TimeUnit.MILLISECONDS.toNanos(this.coalescingDelayMillis);
+        long remainingNanos;
+        while ((remainingNanos = (this.lastWriteRequestNanos + delayNanos) - System.nanoTime()) > 0L)
+        {
+            if (!sleep(remainingNanos))
             {
-                logger.log("Start creating graph cache");
-                AsynchronousPureGraphCache.this.delegate.cacheRepoAndSources();
-                logger.log("Finished creating graph cache");
+                return false;
             }
-        });
+        }
+        return true;
+    }
+
+    private boolean sleep(long nanos)
+    {
+        try
+        {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void writeCache(long requests)
+    {
+        if (requests <= this.handledWriteRequests.get())
+        {
+            // already covered by an earlier write, or superseded by a delete
+            return;
+        }
+
+        this.writeInProgress = true;
+        try
+        {
+            int attempts = 1;
+            while (!writeCacheIfUnmodified(requests))
+            {
+                if (this.writeRequests.get() > requests)
+                {
+                    // a later request will write the cache again
+                    return;
+                }
+                if (attempts++ >= MAX_WRITE_ATTEMPTS)
+                {
+                    // the next request will try again
+                    logger.log("Graph kept being modified while creating graph cache; giving up after " + MAX_WRITE_ATTEMPTS + " attempts");
+                    break;
+                }
+                if (!sleep(TimeUnit.MILLISECONDS.toNanos(getRetryDelayMillis())))
+                {
+                    return;
+                }
+            }
+            markHandled(requests);
+        }
+        finally
+        {
+            this.writeInProgress = false;
+        }
+    }
+
+    /**
+     * Write the cache, and check that the graph was not modified while it was written. If it was, the cache
+     * written is discarded if it was staged, and deleted otherwise.
+     *
+     * @param requests write requests covered by the write
+     * @return whether the cache was written from an unmodified graph
+     */
+    private boolean writeCacheIfUnmodified(long requests)
+    {
+        StagedPureGraphCache stagedDelegate = (this.delegate instanceof StagedPureGraphCache) ? (StagedPureGraphCache) this.delegate : null;
+        ModelRepositoryVersions versions = getModelRepositoryVersions();
+        long modificationCount = (versions == null) ? 0L : versions.getModificationCount();
+        try
+        {
+            logger.log("Start creating graph cache");
+            if (stagedDelegate == null)
+            {
+                this.delegate.cacheRepoAndSources();
+            }
+            else
+            {
+                stagedDelegate.stageRepoAndSources();
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // the caller of an asynchronous write never sees the exception, so it is always logged
+            logger.log(e, "Error creating graph cache");
+            if ((this.writeRequests.get() <= requests) && ((versions == null) || versions.isUnmodifiedSince(modificationCount)))
+            {
+                throw e;
+            }
+            // the graph changed while it was being written: the write is retried or superseded
+            discardWrittenCache(stagedDelegate);
+            return false;
+        }
+        if ((versions != null) && !versions.isUnmodifiedSince(modificationCount))
+        {
+            logger.log("Graph was modified while creating graph cache; discarding it");
+            discardWrittenCache(stagedDelegate);
+            return false;
+        }
+        if (stagedDelegate != null)
+        {
+            stagedDelegate.commitStagedCache();
+        }
+        logger.log("Finished creating graph cache");
+        return true;
+    }
+
+    private void discardWrittenCache(StagedPureGraphCache stagedDelegate)
+    {
+        if (stagedDelegate == null)
+        {
+            this.delegate.deleteCache();
+        }
+        else
+        {
+            // the last good cache is kept
+            stagedDelegate.discardStagedCache();
+        }
+    }
+
+    private ModelRepositoryVersions getModelRepositoryVersions()
+    {
+        ModelRepository repository = this.modelRepository;
+        if (repository == null)
+        {
+            PureRuntime runtime = this.pureRuntime;
+            repository = (runtime == null) ? null : runtime.getModelRepository();
+        }
+        return (repository == null) ? null : repository.getVersions();
+    }
+
+    private long getRetryDelayMillis()
+    {
+        return Math.max(this.coalescingDelayMillis, MIN_RETRY_DELAY_MILLIS);
+    }
+
+    private void markHandled(long requests)
+    {
+        this.handledWriteRequests.accumulateAndGet(requests, Math::max);
     }
 
     private void checkIsShutDown()
@@ -156,7 +372,30 @@ public class AsynchronousPureGraphCache implements PureGraphCache
 
     public static AsynchronousPureGraphCache wrap(PureGraphCache cache, PureLogger logger)
     {
-        return new AsynchronousPureGraphCache(cache, logger);
+        return wrap(cache, logger, 0L);
+    }
+
+    /**
+     * Wrap a cache so that it is written in the background, coalescing requests to write it which are received
+     * within the given delay of each other.
+     *
+     * @param cache                 cache to write in the background
+     * @param logger                logger
+     * @param coalescingDelayMillis time (in milliseconds) without requests to wait for before writing
+     * @return asynchronous cache
+     */
+    public static AsynchronousPureGraphCache wrap(PureGraphCache cache, PureLogger logger, long coalescingDelayMillis)
+    {
+        return new AsynchronousPureGraphCache(cache, logger, coalescingDelayMillis, null);
+    }
+
+    /**
+     * As {@link #wrap(PureGraphCache, PureLogger, long)}, but checking writes against the given model repository
+     * rather than that of the Pure runtime.
+     */
+    static AsynchronousPureGraphCache wrap(PureGraphCache cache, PureLogger logger, long coalescingDelayMillis, ModelRepository modelRepository)
+    {
+        return new AsynchronousPureGraphCache(cache, logger, coalescingDelayMillis, modelRepository);
     }
 
     private static class MyThreadFactory implements ThreadFactory
@@ -23,6 +23,8 @@ public class CacheState
     private boolean lastOperationSuccessful;
     private String lastStackTrace;
     private long currentCacheSize;
+    private boolean writeInProgress;
+    private long pendingWriteRequests;
 
     private CacheState(boolean cached, long currentCacheSize, boolean lastOperationSuccessful, String lastStackTrace)
     {
@@ -67,6 +69,33 @@ public class CacheState
         return this.currentCacheSize;
     }
 
+    /**
+     * Whether the cache is being written in the background.
+     *
+     * @return whether a background write is in progress
+     */
+    public boolean isWriteInProgress()
+    {
+        return this.writeInProgress;
+    }
+
+    /**
+     * Number of requests to write the cache which have been received but are not yet reflected in the cache. For
+     * caches written in the background, these are coalesced so that a burst of requests results in one write.
+     *
+     * @return number of pending write requests
+     */
+    public long getPendingWriteRequests()
+    {
+        return this.pendingWriteRequests;
+    }
+
+    public void updateWriteStatus(boolean writeInProgress, long pendingWriteRequests)
+    {
+        this.writeInProgress = writeInProgress;
+        this.pendingWriteRequests = pendingWriteRequests;
+    }
+
     public void update(boolean cached, long currentCacheSize, boolean lastOperationSuccessful, Throwable lastError)
     {
         this.cached = cached;
@@ -19,34 +19,84 @@ import org.finos.legend.pure.m4.serialization.Reader;
 import org.finos.legend.pure.m4.serialization.Writer;
 import org.finos.legend.pure.m4.serialization.binary.BinaryReaders;
 import org.finos.legend.pure.m4.serialization.binary.BinaryWriters;
+import org.finos.legend.pure.m4.serialization.binary.MappedFile;
+import org.finos.legend.pure.m4.serialization.compression.CompressionCodec;
+import org.finos.legend.pure.m4.serialization.compression.CompressionCodecs;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.Arrays;
+import java.util.Objects;
 
+/**
+ * A file system graph cache whose files are compressed with a {@link CompressionCodec} (GZIP by default). The
+ * codec is recorded at the start of each file, so files written with any codec can be read. Files written with
+ * {@link CompressionCodecs#NONE} are read from memory-mapped files.
+ */
 public class CompressedFSPureGraphCache extends SimpleFSPureGraphCache
 {
-    public CompressedFSPureGraphCache(Path cacheDirectory, Message message)
+    private final CompressionCodec codec;
+
+    public CompressedFSPureGraphCache(Path cacheDirectory, CompressionCodec codec, Message message)
     {
         super(cacheDirectory, message);
+        this.codec = Objects.requireNonNull(codec, "codec");
+    }
+
+    public CompressedFSPureGraphCache(Path cacheDirectory, CompressionCodec codec)
+    {
+        this(cacheDirectory, codec, null);
+    }
+
+    public CompressedFSPureGraphCache(Path cacheDirectory, Message message)
+    {
+        this(cacheDirectory, CompressionCodecs.GZIP, message);
     }
 
     public CompressedFSPureGraphCache(Path cacheDirectory)
     {
-        super(cacheDirectory);
+        this(cacheDirectory, CompressionCodecs.GZIP, null);
+    }
+
+    public CompressionCodec getCodec()
+    {
+        return this.codec;
     }
 
     @Override
     protected Writer newWriter(Path cacheFile) throws IOException
     {
-        return BinaryWriters.newBinaryWriter(new GZIPOutputStream(Files.newOutputStream(cacheFile)));
+        return BinaryWriters.newBinaryWriter(CompressionCodecs.newCompressingStream(new BufferedOutputStream(Files.newOutputStream(cacheFile)), this.codec));
     }
 
     @Override
     protected Reader newReader(Path cacheFile) throws IOException
     {
-        return BinaryReaders.newBinaryReader(new GZIPInputStream(Files.newInputStream(cacheFile)));
+        if (readCodec(cacheFile) == CompressionCodecs.NONE)
+        {
+            Reader reader = BinaryReaders.newBinaryReader(MappedFile.map(cacheFile), true);
+            reader.skipBytes(CompressionCodecs.HEADER_SIZE);
+            return reader;
+        }
+        return BinaryReaders.newBinaryReader(CompressionCodecs.newDecompressingStream(new BufferedInputStream(Files.newInputStream(cacheFile))));
+    }
+
+    private static CompressionCodec readCodec(Path cacheFile) throws IOException
+    {
+        byte[] header = new byte[CompressionCodecs.HEADER_SIZE];
+        int length = 0;
+        try (InputStream stream = Files.newInputStream(cacheFile))
+        {
+            int read;
+            while ((length < header.length) && ((read = stream.read(header, length, header.length - length)) != -1))
+            {
+                length += read;
+            }
+        }
+        return CompressionCodecs.readCodec((length == header.length) ? header : Arrays.copyOf(header, length));
     }
 }
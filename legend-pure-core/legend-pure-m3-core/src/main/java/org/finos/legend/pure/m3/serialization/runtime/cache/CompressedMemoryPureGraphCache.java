@@ -16,19 +16,33 @@ package org.finos.legend.pure.m3.serialization.runtime.cache;
 
 import org.finos.legend.pure.m4.serialization.Reader;
 import org.finos.legend.pure.m4.serialization.binary.BinaryReaders;
+import org.finos.legend.pure.m4.serialization.compression.CompressionCodec;
+import org.finos.legend.pure.m4.serialization.compression.CompressionCodecs;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.Objects;
 
 public class CompressedMemoryPureGraphCache extends MemoryPureGraphCache
 {
+    private final CompressionCodec codec;
+
+    public CompressedMemoryPureGraphCache(CompressionCodec codec)
+    {
+        this.codec = Objects.requireNonNull(codec, "codec");
+    }
+
     public CompressedMemoryPureGraphCache()
     {
+        this(CompressionCodecs.GZIP);
+    }
+
+    public CompressionCodec getCodec()
+    {
+        return this.codec;
     }
 
     @Override
@@ -36,7 +50,7 @@ public class CompressedMemoryPureGraphCache extends MemoryPureGraphCache
     {
         try
         {
-            return new GZIPOutputStream(stream);
+            return CompressionCodecs.newCompressingStream(stream, this.codec);
         }
         catch (IOException e)
         {
@@ -47,9 +61,15 @@ public class CompressedMemoryPureGraphCache extends MemoryPureGraphCache
     @Override
     protected Reader newReader(byte[] bytes)
     {
+        if (CompressionCodecs.readCodec(bytes) == CompressionCodecs.NONE)
+        {
+            Reader reader = BinaryReaders.newBinaryReader(bytes);
+            reader.skipBytes(CompressionCodecs.HEADER_SIZE);
+            return reader;
+        }
         try
         {
-            return BinaryReaders.newBinaryReader(new GZIPInputStream(new ByteArrayInputStream(bytes)));
+            return BinaryReaders.newBinaryReader(CompressionCodecs.newDecompressingStream(new ByteArrayInputStream(bytes)));
         }
         catch (IOException e)
         {
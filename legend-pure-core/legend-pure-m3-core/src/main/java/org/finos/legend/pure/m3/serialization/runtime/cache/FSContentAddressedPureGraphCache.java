@@ -0,0 +1,413 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.runtime.cache;
+
+import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.block.procedure.Procedure;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+import org.finos.legend.pure.m3.compiler.Context;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m3.serialization.filesystem.repository.CodeRepository;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.RepositoryCodeStorage;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.welcome.WelcomeCodeStorage;
+import org.finos.legend.pure.m3.serialization.grammar.ParserLibrary;
+import org.finos.legend.pure.m3.serialization.runtime.GraphLoader;
+import org.finos.legend.pure.m3.serialization.runtime.Message;
+import org.finos.legend.pure.m3.serialization.runtime.RepositoryComparator;
+import org.finos.legend.pure.m3.serialization.runtime.SourceRegistry;
+import org.finos.legend.pure.m3.serialization.runtime.binary.BinaryModelRepositorySerializer;
+import org.finos.legend.pure.m3.serialization.runtime.binary.PureRepositoryJarLibrary;
+import org.finos.legend.pure.m3.serialization.runtime.binary.PureRepositoryJarTools;
+import org.finos.legend.pure.m3.serialization.runtime.binary.PureRepositoryJars;
+import org.finos.legend.pure.m3.serialization.runtime.binary.SimplePureRepositoryJarLibrary;
+import org.finos.legend.pure.m3.tools.ListHelper;
+import org.finos.legend.pure.m3.tools.forkjoin.ForkJoinTools;
+import org.finos.legend.pure.m4.ModelRepository;
+import org.finos.legend.pure.m4.tools.ConcurrentHashSet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A file system graph cache which stores the serialized form of each source under its content hash, plus a
+ * small manifest per repository recording the hash of each of its sources. Writing the cache only writes the
+ * sources whose serialized form has changed since it was last written; sources which are no longer referenced
+ * by any manifest are then deleted.
+ *
+ * <p>Objects and manifests are written to temporary files which are then moved into place atomically, so the
+ * cache is never left with a truncated file. Manifests are replaced rather than deleted up front; manifests of
+ * repositories which no longer exist are deleted once all the others are written. Temporary files are left
+ * alone while they may belong to a write in progress, and deleted once they are older than an hour, as they
+ * can then only be left over from a write which was interrupted.
+ *
+ * <p>A new cache can also be staged (see {@link StagedPureGraphCache}): its objects are written, but its manifests
+ * are written beside the current ones, which they only replace when the staged cache is committed. Objects are
+ * only deleted on commit, so the current cache stays complete while a new one is staged.
+ */
+public class FSContentAddressedPureGraphCache extends AbstractFSDirectoryPureGraphCache implements StagedPureGraphCache
+{
+    private static final String ROOT_REPOSITORY_NAME = "root";
+    private static final String MANIFEST_EXTENSION = ".manifest";
+    private static final String STAGED_MANIFEST_EXTENSION = MANIFEST_EXTENSION + ".staged";
+    private static final String OBJECT_DIRECTORY_NAME = "objects";
+    private static final long STALE_TEMP_FILE_AGE_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final ForkJoinPool forkJoinPool;
+    private MutableMap<Path, Path> stagedManifests;
+    private MutableSet<String> stagedHashes;
+
+    public FSContentAddressedPureGraphCache(Path cacheDirectory, ForkJoinPool forkJoinPool, Message message)
+    {
+        super(cacheDirectory);
+        this.forkJoinPool = forkJoinPool;
+        initializeCacheState(message);
+    }
+
+    public FSContentAddressedPureGraphCache(Path cacheDirectory, Message message)
+    {
+        this(cacheDirectory, null, message);
+    }
+
+    public FSContentAddressedPureGraphCache(Path cacheDirectory)
+    {
+        this(cacheDirectory, null, null);
+    }
+
+    @Override
+    protected boolean buildFromCaches(ModelRepository modelRepository, SourceRegistry sources, ParserLibrary library, Context context, ProcessorSupport processorSupport, Message message)
+    {
+        RepositoryCodeStorage codeStorage = this.pureRuntime.getCodeStorage();
+        MutableList<String> repoNames = codeStorage.getAllRepositories().collect(CodeRepository::getName).toSortedList(new RepositoryComparator(codeStorage.getAllRepositories()));
+        if (shouldAddRootRepo())
+        {
+            repoNames.add(ROOT_REPOSITORY_NAME);
+        }
+        PureRepositoryJarLibrary jarLibrary = SimplePureRepositoryJarLibrary.newLibrary(repoNames.collect(repoName -> PureRepositoryJars.getContentAddressed(getManifestPath(repoName), getObjectDirectory())));
+        GraphLoader loader = new GraphLoader(modelRepository, context, library, this.pureRuntime.getIncrementalCompiler().getDslLibrary(), sources, null, jarLibrary, this.forkJoinPool);
+        repoNames.forEach(repoName -> loader.loadRepository(repoName, message));
+        updateCacheState();
+        return true;
+    }
+
+    @Override
+    public synchronized void clearCaches()
+    {
+        // the staged manifests are deleted with everything else
+        this.stagedManifests = null;
+        this.stagedHashes = null;
+        super.clearCaches();
+    }
+
+    @Override
+    protected void prepareToWriteCaches()
+    {
+        // keep the objects so that unchanged sources need not be written again, and the manifests until they are
+        // replaced
+    }
+
+    @Override
+    protected synchronized void writeCaches()
+    {
+        stageCaches();
+        commitStagedCaches();
+    }
+
+    @Override
+    public synchronized void stageRepoAndSources()
+    {
+        try
+        {
+            stageCaches();
+        }
+        catch (RuntimeException | Error e)
+        {
+            try
+            {
+                discardStagedCaches();
+            }
+            catch (Exception ee)
+            {
+                // Ignore
+            }
+            updateCacheState(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void commitStagedCache()
+    {
+        if (this.stagedManifests == null)
+        {
+            throw new IllegalStateException("No cache has been staged");
+        }
+        try
+        {
+            commitStagedCaches();
+            updateCacheState();
+        }
+        catch (RuntimeException | Error e)
+        {
+            updateCacheState(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void discardStagedCache()
+    {
+        discardStagedCaches();
+    }
+
+    private void stageCaches()
+    {
+        discardStagedCaches();
+        RichIterable<String> repoNames = this.pureRuntime.getCodeStorage().getAllRepositories().collect(CodeRepository::getName);
+        if (shouldAddRootRepo())
+        {
+            repoNames = repoNames.toList().with(null);
+        }
+        Path objectDirectory = getObjectDirectory();
+        MutableMap<Path, Path> manifests = ConcurrentHashMap.newMap();
+        MutableSet<String> hashes = ConcurrentHashSet.newSet();
+        Procedure<String> serializeRepo = repoName ->
+        {
+            try
+            {
+                String resolvedName = resolveRepositoryName(repoName);
+                Path stagedManifestPath = getStagedManifestPath(resolvedName);
+                manifests.put(stagedManifestPath, getManifestPath(resolvedName));
+                hashes.addAllIterable(BinaryModelRepositorySerializer.serializeContentAddressed(stagedManifestPath, objectDirectory, repoName, this.pureRuntime));
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException("Error writing cache for " + repoName, e);
+            }
+        };
+        this.stagedManifests = manifests;
+        this.stagedHashes = hashes;
+        if (this.forkJoinPool == null)
+        {
+            repoNames.forEach(serializeRepo);
+        }
+        else
+        {
+            ForkJoinTools.forEach(this.forkJoinPool, ListHelper.wrapListIterable(repoNames), serializeRepo, 1);
+        }
+    }
+
+    private void commitStagedCaches()
+    {
+        try
+        {
+            for (Pair<Path, Path> pair : this.stagedManifests.keyValuesView())
+            {
+                Files.move(pair.getOne(), pair.getTwo(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Error committing staged cache manifests", e);
+        }
+        MutableSet<Path> manifests = this.stagedManifests.valuesView().toSet();
+        MutableSet<String> hashes = this.stagedHashes;
+        this.stagedManifests = null;
+        this.stagedHashes = null;
+        deleteStaleManifests(manifests);
+        deleteUnreferencedObjects(getObjectDirectory(), hashes);
+    }
+
+    private void discardStagedCaches()
+    {
+        MutableMap<Path, Path> manifests = this.stagedManifests;
+        this.stagedManifests = null;
+        this.stagedHashes = null;
+        if (manifests != null)
+        {
+            // objects written for the staged cache are deleted with the next commit, unless it uses them
+            manifests.forEachKey(path ->
+            {
+                try
+                {
+                    Files.deleteIfExists(path);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException("Error discarding staged cache manifest " + path, e);
+                }
+            });
+        }
+    }
+
+    @Override
+    protected boolean cacheExists()
+    {
+        if (Files.notExists(getCacheLocation()))
+        {
+            return false;
+        }
+
+        try (DirectoryStream<Path> dirStream = Files.newDirectoryStream(getCacheLocation(), this::isManifest))
+        {
+            return dirStream.iterator().hasNext();
+        }
+        catch (Exception e)
+        {
+            return false;
+        }
+    }
+
+    @Override
+    protected long getCacheSize()
+    {
+        if (Files.notExists(getCacheLocation()))
+        {
+            return -1L;
+        }
+
+        try (Stream<Path> paths = Files.walk(getCacheLocation()))
+        {
+            return paths.filter(Files::isRegularFile).mapToLong(path ->
+            {
+                try
+                {
+                    return Files.size(path);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }).sum();
+        }
+        catch (Exception e)
+        {
+            return -1L;
+        }
+    }
+
+    private void deleteStaleManifests(MutableSet<Path> manifests)
+    {
+        long staleBefore = System.currentTimeMillis() - STALE_TEMP_FILE_AGE_MILLIS;
+        try (DirectoryStream<Path> dirStream = Files.newDirectoryStream(getCacheLocation(), path -> isManifest(path) || isStagedManifest(path) || isStaleTempFile(path, staleBefore)))
+        {
+            for (Path path : dirStream)
+            {
+                if (!manifests.contains(path))
+                {
+                    Files.delete(path);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Error deleting stale cache manifests", e);
+        }
+    }
+
+    private void deleteUnreferencedObjects(Path objectDirectory, MutableSet<String> hashes)
+    {
+        if (Files.notExists(objectDirectory))
+        {
+            return;
+        }
+
+        long staleBefore = System.currentTimeMillis() - STALE_TEMP_FILE_AGE_MILLIS;
+        try (Stream<Path> paths = Files.walk(objectDirectory))
+        {
+            // recent temporary files may belong to writes in progress
+            paths.filter(Files::isRegularFile)
+                    .filter(path -> isTempFile(path) ? isStaleTempFile(path, staleBefore) : !hashes.contains(path.getFileName().toString()))
+                    .forEach(path ->
+                    {
+                        try
+                        {
+                            Files.delete(path);
+                        }
+                        catch (IOException e)
+                        {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }
+        catch (IOException | UncheckedIOException e)
+        {
+            throw new RuntimeException("Error deleting unreferenced objects from " + objectDirectory, e);
+        }
+    }
+
+    private boolean isManifest(Path path)
+    {
+        return path.getFileName().toString().endsWith(MANIFEST_EXTENSION) && Files.isRegularFile(path);
+    }
+
+    private boolean isStagedManifest(Path path)
+    {
+        return path.getFileName().toString().endsWith(STAGED_MANIFEST_EXTENSION) && Files.isRegularFile(path);
+    }
+
+    private boolean isTempFile(Path path)
+    {
+        return path.getFileName().toString().endsWith(PureRepositoryJarTools.TEMP_FILE_EXTENSION);
+    }
+
+    private boolean isStaleTempFile(Path path, long staleBefore)
+    {
+        try
+        {
+            return isTempFile(path) && Files.isRegularFile(path) && (Files.getLastModifiedTime(path).toMillis() < staleBefore);
+        }
+        catch (IOException e)
+        {
+            // most likely deleted by the write it belongs to
+            return false;
+        }
+    }
+
+    private boolean shouldAddRootRepo()
+    {
+        return this.pureRuntime.getCodeStorage().isFile(WelcomeCodeStorage.WELCOME_FILE_PATH);
+    }
+
+    private Path getObjectDirectory()
+    {
+        return getCacheLocation().resolve(OBJECT_DIRECTORY_NAME);
+    }
+
+    private Path getManifestPath(String repositoryName)
+    {
+        return getCacheLocation().resolve(repositoryName + MANIFEST_EXTENSION);
+    }
+
+    private Path getStagedManifestPath(String repositoryName)
+    {
+        return getCacheLocation().resolve(repositoryName + STAGED_MANIFEST_EXTENSION);
+    }
+
+    private String resolveRepositoryName(String repositoryName)
+    {
+        return (repositoryName == null) ? ROOT_REPOSITORY_NAME : repositoryName;
+    }
+}
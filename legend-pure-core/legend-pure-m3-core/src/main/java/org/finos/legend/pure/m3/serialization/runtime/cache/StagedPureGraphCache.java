@@ -0,0 +1,39 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.runtime.cache;
+
+/**
+ * A graph cache which can write a new cache beside the current one, and only replace the current one once the
+ * new one is known to be good. {@link AsynchronousPureGraphCache} uses this to keep the last good cache when the
+ * graph is modified while a new one is written.
+ */
+public interface StagedPureGraphCache extends PureGraphCache
+{
+    /**
+     * Write a new cache beside the current one, replacing any cache staged before. The current cache is left
+     * as it is.
+     */
+    void stageRepoAndSources();
+
+    /**
+     * Replace the current cache with the staged one.
+     */
+    void commitStagedCache();
+
+    /**
+     * Discard the staged cache, keeping the current one.
+     */
+    void discardStagedCache();
+}
@@ -0,0 +1,71 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.tools;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import org.finos.legend.pure.m3.compiler.CompilerMetrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prometheus collector exporting {@link CompilerMetrics}. Register it alongside the {@link MetricsRecorder}
+ * metrics with {@link #register()}.
+ */
+public class CompilerMetricsCollector extends Collector
+{
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final CompilerMetrics metrics;
+
+    public CompilerMetricsCollector(CompilerMetrics metrics)
+    {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect()
+    {
+        List<String> phaseLabels = Arrays.asList("phase", "repository");
+        CounterMetricFamily phaseSeconds = new CounterMetricFamily("pure_compiler_phase_seconds_total", "Time spent in compiler phases", phaseLabels);
+        CounterMetricFamily phaseRuns = new CounterMetricFamily("pure_compiler_phase_runs_total", "Number of runs of compiler phases", phaseLabels);
+        CounterMetricFamily phaseInstances = new CounterMetricFamily("pure_compiler_phase_instances_total", "Number of instances handled by compiler phases", phaseLabels);
+        for (CompilerMetrics.Phase phase : CompilerMetrics.Phase.values())
+        {
+            String phaseName = phase.name().toLowerCase();
+            this.metrics.getPhaseStatistics(phase).forEachKeyValue((repository, stats) ->
+            {
+                List<String> labelValues = Arrays.asList(phaseName, repository);
+                phaseSeconds.addMetric(labelValues, stats.getNanos() / NANOS_PER_SECOND);
+                phaseRuns.addMetric(labelValues, stats.getInvocations());
+                phaseInstances.addMetric(labelValues, stats.getCount());
+            });
+        }
+
+        List<String> runnerLabels = Collections.singletonList("runner");
+        CounterMetricFamily runnerSeconds = new CounterMetricFamily("pure_compiler_runner_seconds_total", "Time spent in compiler match runners, including nested matches", runnerLabels);
+        CounterMetricFamily runnerRuns = new CounterMetricFamily("pure_compiler_runner_runs_total", "Number of runs of compiler match runners", runnerLabels);
+        this.metrics.getRunnerStatistics().forEachKeyValue((runnerClass, stats) ->
+        {
+            List<String> labelValues = Collections.singletonList(runnerClass.getName());
+            runnerSeconds.addMetric(labelValues, stats.getNanos() / NANOS_PER_SECOND);
+            runnerRuns.addMetric(labelValues, stats.getInvocations());
+        });
+
+        return Arrays.asList(phaseSeconds, phaseRuns, phaseInstances, runnerSeconds, runnerRuns);
+    }
+}
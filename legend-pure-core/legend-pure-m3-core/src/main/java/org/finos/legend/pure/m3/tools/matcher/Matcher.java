@@ -17,6 +17,7 @@ package org.finos.legend.pure.m3.tools.matcher;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.multimap.list.MutableListMultimap;
 import org.eclipse.collections.impl.multimap.list.FastListMultimap;
+import org.finos.legend.pure.m3.compiler.CompilerMetrics;
 import org.finos.legend.pure.m3.compiler.Context;
 import org.finos.legend.pure.m3.navigation.M3Paths;
 import org.finos.legend.pure.m3.navigation.ProcessorSupport;
@@ -85,9 +86,28 @@ public class Matcher
                     ListIterable<MatchRunner> typeRunners = this.runnersByType.get(type);
                     if (typeRunners.notEmpty())
                     {
-                        for (MatchRunner runner : typeRunners)
+                        CompilerMetrics metrics = (this.context == null) ? null : this.context.getCompilerMetrics();
+                        if ((metrics != null) && metrics.isRunnerTimingEnabled())
                         {
-                            runner.run(instance, state, this, this.modelRepository, this.context);
+                            for (MatchRunner runner : typeRunners)
+                            {
+                                long start = System.nanoTime();
+                                try
+                                {
+                                    runner.run(instance, state, this, this.modelRepository, this.context);
+                                }
+                                finally
+                                {
+                                    metrics.recordRunner(runner.getClass(), System.nanoTime() - start);
+                                }
+                            }
+                        }
+                        else
+                        {
+                            for (MatchRunner runner : typeRunners)
+                            {
+                                runner.run(instance, state, this, this.modelRepository, this.context);
+                            }
                         }
                         nonAnyRunnersExecuted = nonAnyRunnersExecuted || (type != this.anyType);
                     }
@@ -19,15 +19,29 @@ import org.eclipse.collections.impl.set.mutable.UnifiedSet;
 import org.finos.legend.pure.m3.navigation.ProcessorSupport;
 import org.finos.legend.pure.m3.serialization.grammar.m3parser.inlinedsl.InlineDSLLibrary;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.tools.ConcurrentHashSet;
 
 public abstract class MatcherState
 {
     protected final ProcessorSupport processorSupport;
-    private final MutableSet<CoreInstance> visited = UnifiedSet.newSet();
+    private final MutableSet<CoreInstance> visited;
 
     protected MatcherState(ProcessorSupport processorSupport)
+    {
+        this(processorSupport, false);
+    }
+
+    /**
+     * If concurrent is true, the state may be shared by matches running in multiple threads. Note that
+     * this only makes the visited set thread-safe: subclasses are responsible for any other state.
+     *
+     * @param processorSupport processor support
+     * @param concurrent       whether the state may be used concurrently
+     */
+    protected MatcherState(ProcessorSupport processorSupport, boolean concurrent)
     {
         this.processorSupport = processorSupport;
+        this.visited = concurrent ? ConcurrentHashSet.newSet() : UnifiedSet.newSet();
     }
 
     /**
@@ -49,6 +63,16 @@ public abstract class MatcherState
         this.visited.remove(instance);
     }
 
+    /**
+     * Note that all instances visited by another state have been visited by this one.
+     *
+     * @param other other state
+     */
+    protected void addAllVisited(MatcherState other)
+    {
+        this.visited.addAll(other.visited);
+    }
+
     public ProcessorSupport getProcessorSupport()
     {
         return this.processorSupport;
@@ -0,0 +1,108 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr;
+
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.finos.legend.pure.m4.coreinstance.SourceInformation;
+import org.finos.legend.pure.m4.serialization.grammar.antlr.AntlrSourceInformation;
+import org.finos.legend.pure.m4.serialization.grammar.antlr.PureAntlrErrorStrategy;
+import org.finos.legend.pure.m4.serialization.grammar.antlr.PureParserException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestM3AntlrParserPrediction
+{
+    private static final String CODE = "Class test::model::Person\n" +
+            "{\n" +
+            "   name: String[1];\n" +
+            "   age(){ $this.name->length() }: Integer[1];\n" +
+            "}\n" +
+            "\n" +
+            "function test::model::f(p:test::model::Person[1]):String[1]\n" +
+            "{\n" +
+            "   if($p.age() > 1, |$p.name, |'none')\n" +
+            "}\n";
+
+    @Test
+    public void testFailedFastParseIsReparsedWithLL()
+    {
+        AtomicInteger attempts = new AtomicInteger();
+        M3Parser.DefinitionContext tree = M3AntlrParser.parse(true, CODE, newSourceInformation(), parser ->
+        {
+            if (attempts.incrementAndGet() == 1)
+            {
+                Assert.assertEquals(PredictionMode.SLL, parser.getInterpreter().getPredictionMode());
+                Assert.assertTrue(parser.getErrorHandler() instanceof BailErrorStrategy);
+                // consume the input, then fail as SLL prediction would
+                parser.definition();
+                throw new ParseCancellationException("SLL prediction failed");
+            }
+            Assert.assertEquals(PredictionMode.LL, parser.getInterpreter().getPredictionMode());
+            Assert.assertTrue(parser.getErrorHandler() instanceof PureAntlrErrorStrategy);
+            return parser.definition();
+        });
+        Assert.assertEquals(2, attempts.get());
+
+        M3Parser.DefinitionContext expected = M3AntlrParser.parse(false, CODE, newSourceInformation(), M3Parser::definition);
+        Assert.assertEquals(expected.toStringTree(), tree.toStringTree());
+        Assert.assertEquals(expected.getStart().getStartIndex(), tree.getStart().getStartIndex());
+        Assert.assertEquals(expected.getStop().getStopIndex(), tree.getStop().getStopIndex());
+    }
+
+    @Test
+    public void testFastParseOfValidCode()
+    {
+        M3Parser.DefinitionContext expected = M3AntlrParser.parse(false, CODE, newSourceInformation(), M3Parser::definition);
+        M3Parser.DefinitionContext tree = M3AntlrParser.parse(true, CODE, newSourceInformation(), M3Parser::definition);
+        Assert.assertEquals(expected.toStringTree(), tree.toStringTree());
+    }
+
+    @Test
+    public void testSyntaxErrorsAreReportedAsWithLL()
+    {
+        ListIterable<String> invalidCodes = Lists.immutable.with(
+                "Class test::model::Person\n{\n   name String[1];\n}\n",
+                "Class test::model::Person\n{\n   name: String[1];\n",
+                "Clas test::model::Person {}\n",
+                "function test::model::f():Integer[1]\n{\n   1 +\n}\n",
+                "function test::model::f():Integer[1]\n{\n   [1, 2->at(0)\n}\n",
+                "Class test::model::Person\n{\n   name: String[1..];\n}\n");
+        invalidCodes.forEach(code ->
+        {
+            PureParserException expected = Assert.assertThrows(code, PureParserException.class, () -> M3AntlrParser.parse(false, code, newSourceInformation(), M3Parser::definition));
+            PureParserException actual = Assert.assertThrows(code, PureParserException.class, () -> M3AntlrParser.parse(true, code, newSourceInformation(), M3Parser::definition));
+            Assert.assertEquals(code, expected.getInfo(), actual.getInfo());
+            Assert.assertEquals(code, describe(expected.getSourceInformation()), describe(actual.getSourceInformation()));
+        });
+    }
+
+    private static AntlrSourceInformation newSourceInformation()
+    {
+        return new AntlrSourceInformation(0, 0, "/test/source.pure", true);
+    }
+
+    private static String describe(SourceInformation sourceInformation)
+    {
+        return (sourceInformation == null) ?
+               "null" :
+               sourceInformation.getSourceId() + ":" + sourceInformation.getStartLine() + ":" + sourceInformation.getStartColumn() + "-" + sourceInformation.getEndLine() + ":" + sourceInformation.getEndColumn();
+    }
+}
@@ -0,0 +1,242 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+import org.finos.legend.pure.m4.serialization.grammar.antlr.AntlrSourceInformation;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TestParseTreeCache
+{
+    private static final String CODE = "Class test::model::Person\n" +
+            "{\n" +
+            "   firstName: String[1];\n" +
+            "   lastName: String[0..1];\n" +
+            "}\n";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException
+    {
+        Path directory = this.tempFolder.newFolder("parseTrees").toPath();
+        ParserRuleContext original = newCache(directory, M3Parser._serializedATN).getIfAbsentParse("definition", CODE, TestParseTreeCache::parse);
+
+        ParseTreeCache cache = newCache(directory, M3Parser._serializedATN);
+        ParserRuleContext persisted = cache.getIfAbsentParse("definition", CODE, failingParser("Expected the persisted tree"));
+        Assert.assertEquals(1, cache.getDiskHitCount());
+        Assert.assertEquals(0, cache.getMissCount());
+        Assert.assertNotSame(original, persisted);
+        Assert.assertSame(original.getClass(), persisted.getClass());
+        Assert.assertEquals(describe(original), describe(persisted));
+    }
+
+    @Test
+    public void testCorruptEntryIsReparsedAndOverwritten() throws IOException
+    {
+        Path directory = this.tempFolder.newFolder("parseTrees").toPath();
+        ParserRuleContext original = newCache(directory, M3Parser._serializedATN).getIfAbsentParse("definition", CODE, TestParseTreeCache::parse);
+        Path entry = getEntries(directory).get(0);
+        Files.write(entry, new byte[]{1, 2, 3, 4, 5});
+
+        AtomicInteger parses = new AtomicInteger();
+        ParseTreeCache cache = newCache(directory, M3Parser._serializedATN);
+        ParserRuleContext reparsed = cache.getIfAbsentParse("definition", CODE, () ->
+        {
+            parses.incrementAndGet();
+            return parse();
+        });
+        Assert.assertEquals(1, parses.get());
+        Assert.assertEquals(0, cache.getDiskHitCount());
+        Assert.assertEquals(describe(original), describe(reparsed));
+
+        ParseTreeCache otherCache = newCache(directory, M3Parser._serializedATN);
+        otherCache.getIfAbsentParse("definition", CODE, failingParser("Expected the overwritten tree"));
+        Assert.assertEquals(1, otherCache.getDiskHitCount());
+    }
+
+    @Test
+    public void testEntryNamingOtherClassIsNotRead() throws IOException
+    {
+        Path directory = this.tempFolder.newFolder("parseTrees").toPath();
+        newCache(directory, M3Parser._serializedATN).getIfAbsentParse("definition", CODE, TestParseTreeCache::parse);
+        Path entry = getEntries(directory).get(0);
+
+        // a well formed entry whose root is a class with the right constructor, but not a rule context of the parser
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream stream = new DataOutputStream(bytes))
+        {
+            stream.writeInt(ParseTreeCache.MAGIC);
+            stream.writeInt(ParseTreeCache.FORMAT_VERSION);
+            stream.writeInt(1);
+            stream.writeUTF(ParserRuleContext.class.getName());
+            stream.writeInt(0);
+            stream.writeByte(0);
+            stream.writeInt(0);
+            stream.writeInt(-1);
+            stream.writeInt(-1);
+            stream.writeInt(-1);
+            stream.writeInt(0);
+        }
+        Files.write(entry, bytes.toByteArray());
+
+        AtomicInteger parses = new AtomicInteger();
+        ParseTreeCache cache = newCache(directory, M3Parser._serializedATN);
+        ParserRuleContext tree = cache.getIfAbsentParse("definition", CODE, () ->
+        {
+            parses.incrementAndGet();
+            return parse();
+        });
+        Assert.assertEquals(1, parses.get());
+        Assert.assertEquals(0, cache.getDiskHitCount());
+        Assert.assertTrue(tree instanceof M3Parser.DefinitionContext);
+    }
+
+    @Test
+    public void testGrammarFingerprintMismatch() throws IOException
+    {
+        Path directory = this.tempFolder.newFolder("parseTrees").toPath();
+        newCache(directory, M3Parser._serializedATN).getIfAbsentParse("definition", CODE, TestParseTreeCache::parse);
+
+        AtomicInteger parses = new AtomicInteger();
+        ParseTreeCache cache = newCache(directory, "another grammar");
+        cache.getIfAbsentParse("definition", CODE, () ->
+        {
+            parses.incrementAndGet();
+            return parse();
+        });
+        Assert.assertEquals(1, parses.get());
+        Assert.assertEquals(0, cache.getDiskHitCount());
+        Assert.assertEquals(2, getEntries(directory).size());
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception
+    {
+        Path directory = this.tempFolder.newFolder("parseTrees").toPath();
+        int writerCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(writerCount);
+        try
+        {
+            CountDownLatch start = new CountDownLatch(1);
+            MutableList<Future<String>> futures = Lists.mutable.empty();
+            for (int i = 0; i < writerCount; i++)
+            {
+                // each writer has its own cache, as separate processes sharing a directory would
+                ParseTreeCache cache = newCache(directory, M3Parser._serializedATN);
+                futures.add(executor.submit(() ->
+                {
+                    start.await();
+                    return describe(cache.getIfAbsentParse("definition", CODE, TestParseTreeCache::parse));
+                }));
+            }
+            start.countDown();
+            String expected = describe(parse());
+            for (Future<String> future : futures)
+            {
+                Assert.assertEquals(expected, future.get());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        try (Stream<Path> files = Files.list(directory))
+        {
+            Assert.assertEquals(Lists.mutable.empty(), files.map(Path::toString).filter(f -> f.endsWith(".tmp")).collect(Collectors.toList()));
+        }
+        Assert.assertEquals(1, getEntries(directory).size());
+        ParseTreeCache cache = newCache(directory, M3Parser._serializedATN);
+        Assert.assertEquals(describe(parse()), describe(cache.getIfAbsentParse("definition", CODE, failingParser("Expected the persisted tree"))));
+        Assert.assertEquals(1, cache.getDiskHitCount());
+    }
+
+    private static ParseTreeCache newCache(Path directory, String grammarFingerprint)
+    {
+        return new ParseTreeCache(0, directory, grammarFingerprint, M3Parser.class);
+    }
+
+    private static M3Parser.DefinitionContext parse()
+    {
+        return M3AntlrParser.initAntlrParser(true, CODE, new AntlrSourceInformation(0, 0, "test.pure", true)).definition();
+    }
+
+    private static Supplier<M3Parser.DefinitionContext> failingParser(String message)
+    {
+        return () ->
+        {
+            throw new AssertionError(message);
+        };
+    }
+
+    private static List<Path> getEntries(Path directory) throws IOException
+    {
+        try (Stream<Path> files = Files.list(directory))
+        {
+            return files.filter(f -> f.getFileName().toString().endsWith(ParseTreeCache.FILE_EXTENSION)).collect(Collectors.toList());
+        }
+    }
+
+    private static String describe(ParserRuleContext tree)
+    {
+        StringBuilder builder = new StringBuilder();
+        describe(tree, builder);
+        return builder.toString();
+    }
+
+    private static void describe(ParseTree node, StringBuilder builder)
+    {
+        if (node instanceof ParserRuleContext)
+        {
+            ParserRuleContext ctx = (ParserRuleContext) node;
+            builder.append('(').append(ctx.getClass().getSimpleName())
+                    .append(' ').append(ctx.start.getLine()).append(':').append(ctx.start.getCharPositionInLine())
+                    .append('-').append(ctx.stop.getLine()).append(':').append(ctx.stop.getCharPositionInLine());
+            for (int i = 0; i < ctx.getChildCount(); i++)
+            {
+                builder.append(' ');
+                describe(ctx.getChild(i), builder);
+            }
+            builder.append(')');
+        }
+        else
+        {
+            builder.append('\'').append(node.getText()).append('\'');
+        }
+    }
+}
@@ -18,6 +18,7 @@ import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.list.MutableList;
 import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.NativeFunctionInstance;
 import org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr.M3AntlrParser;
+import org.finos.legend.pure.m3.serialization.grammar.m3parser.antlr.ParseTreeCache;
 import org.finos.legend.pure.m3.statelistener.M3M4StateListener;
 import org.finos.legend.pure.m3.statelistener.VoidM3M4StateListener;
 import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiledPlatform;
@@ -25,7 +26,14 @@ import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
 
 public class TestM3AntlrParser extends AbstractPureTestWithCoreCompiledPlatform
 {
@@ -33,6 +41,9 @@ public class TestM3AntlrParser extends AbstractPureTestWithCoreCompiledPlatform
     M3M4StateListener stateListener = VoidM3M4StateListener.VOID_M3_M4_STATE_LISTENER;//new StatsStateListener();
     static int i = 1;
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @BeforeClass
     public static void setUp()
     {
@@ -734,4 +745,92 @@ public class TestM3AntlrParser extends AbstractPureTestWithCoreCompiledPlatform
         String code = "^meta::pure::functions::lang::KeyValue(key='pkg', value=::)";
         new M3AntlrParser(null).parse(code, "test" + i++, true, 0, repository, this.newInstances, this.stateListener, context, 0, null);
     }
+
+    @Test
+    public void testParseTreeCache()
+    {
+        String code = "Class test::model::Person\n" +
+                "{\n" +
+                "   firstName: String[1];\n" +
+                "   lastName: String[1];\n" +
+                "}\n";
+        ParseTreeCache cache = M3AntlrParser.getDefinitionParseTreeCache();
+        int oldMaxSize = cache.getMaxSize();
+        try
+        {
+            cache.clear();
+            cache.setMaxSize(10);
+
+            MutableList<CoreInstance> firstInstances = Lists.mutable.empty();
+            new M3AntlrParser(null).parse(code, "test" + i++, true, 0, repository, firstInstances, this.stateListener, context, 0, null);
+            Assert.assertEquals(0, cache.getHitCount());
+            Assert.assertEquals(1, cache.getMissCount());
+            Assert.assertEquals(1, cache.size());
+
+            MutableList<CoreInstance> secondInstances = Lists.mutable.empty();
+            new M3AntlrParser(null).parse(code, "test" + i++, true, 0, repository, secondInstances, this.stateListener, context, 0, null);
+            Assert.assertEquals(1, cache.getHitCount());
+            Assert.assertEquals(1, cache.getMissCount());
+            Assert.assertEquals(firstInstances.size(), secondInstances.size());
+            Assert.assertEquals(firstInstances.collect(CoreInstance::getName), secondInstances.collect(CoreInstance::getName));
+
+            new M3AntlrParser(null).parse(code + "Class test::model::Firm {}\n", "test" + i++, true, 0, repository, Lists.mutable.empty(), this.stateListener, context, 0, null);
+            Assert.assertEquals(1, cache.getHitCount());
+            Assert.assertEquals(2, cache.getMissCount());
+            Assert.assertEquals(2, cache.size());
+
+            cache.setMaxSize(1);
+            Assert.assertEquals(1, cache.size());
+        }
+        finally
+        {
+            cache.setMaxSize(oldMaxSize);
+            cache.clear();
+        }
+    }
+
+    @Test
+    public void testPersistentParseTreeCache() throws IOException
+    {
+        String code = "Class test::model::Address\n" +
+                "{\n" +
+                "   street: String[1];\n" +
+                "   city: String[0..1];\n" +
+                "}\n";
+        ParseTreeCache cache = M3AntlrParser.getDefinitionParseTreeCache();
+        int oldMaxSize = cache.getMaxSize();
+        Path oldDirectory = cache.getDirectory();
+        Path directory = this.tempFolder.newFolder("parseTrees").toPath();
+        try
+        {
+            cache.clear();
+            cache.setMaxSize(0);
+            cache.setDirectory(directory);
+
+            MutableList<CoreInstance> firstInstances = Lists.mutable.empty();
+            new M3AntlrParser(null).parse(code, "test" + i++, true, 0, repository, firstInstances, this.stateListener, context, 0, null);
+            Assert.assertEquals(1, cache.getMissCount());
+            Assert.assertEquals(0, cache.getDiskHitCount());
+            try (Stream<Path> files = Files.list(directory))
+            {
+                Assert.assertEquals(1, files.filter(f -> f.getFileName().toString().endsWith(".tree")).count());
+            }
+
+            // a fresh in-memory state (as in a new process) reads the persisted tree
+            cache.clear();
+            MutableList<CoreInstance> secondInstances = Lists.mutable.empty();
+            new M3AntlrParser(null).parse(code, "test" + i++, true, 0, repository, secondInstances, this.stateListener, context, 0, null);
+            Assert.assertEquals(0, cache.getMissCount());
+            Assert.assertEquals(1, cache.getDiskHitCount());
+            Assert.assertEquals(firstInstances.collect(CoreInstance::getName), secondInstances.collect(CoreInstance::getName));
+            Assert.assertEquals(firstInstances.collect(CoreInstance::getSourceInformation).collect(s -> s.getStartLine() + ":" + s.getStartColumn() + "-" + s.getEndLine() + ":" + s.getEndColumn()),
+                    secondInstances.collect(CoreInstance::getSourceInformation).collect(s -> s.getStartLine() + ":" + s.getStartColumn() + "-" + s.getEndLine() + ":" + s.getEndColumn()));
+        }
+        finally
+        {
+            cache.setDirectory(oldDirectory);
+            cache.setMaxSize(oldMaxSize);
+            cache.clear();
+        }
+    }
 }
@@ -0,0 +1,153 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.runtime;
+
+import io.prometheus.client.Collector;
+import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.finos.legend.pure.m3.compiler.CompilerMetrics;
+import org.finos.legend.pure.m3.compiler.postprocessing.processor.FunctionDefinitionProcessor;
+import org.finos.legend.pure.m3.serialization.filesystem.repository.CodeRepositoryProviderHelper;
+import org.finos.legend.pure.m3.serialization.filesystem.repository.CodeRepositorySet;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.classpath.ClassLoaderCodeStorage;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.composite.CompositeCodeStorage;
+import org.finos.legend.pure.m3.tools.CompilerMetricsCollector;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.SortedMap;
+
+public class TestCompilerMetrics
+{
+    private static final MutableList<String> phaseEvents = Lists.mutable.<String>empty().asSynchronized();
+    private static PureRuntime runtime;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        CodeRepositorySet repos = CodeRepositorySet.newBuilder()
+                .withCodeRepositories(CodeRepositoryProviderHelper.findCodeRepositories())
+                .subset("platform")
+                .build();
+        runtime = new PureRuntimeBuilder(new CompositeCodeStorage(new ClassLoaderCodeStorage(repos.getRepositories())))
+                .withOptions(IncrementalCompiler.RUNNER_TIMING_OPTION::equals)
+                .withCompilerEventHandler(r -> new PhaseRecordingEventHandler())
+                .buildAndInitialize();
+    }
+
+    @AfterClass
+    public static void cleanUp()
+    {
+        if (runtime != null)
+        {
+            runtime.reset();
+        }
+        runtime = null;
+    }
+
+    @Test
+    public void testPhaseAndRunnerMetrics()
+    {
+        CompilerMetrics metrics = runtime.getCompilerMetrics();
+        Assert.assertTrue(metrics.isRunnerTimingEnabled());
+
+        CompilerMetrics.Statistics parse = metrics.getPhaseStatistics(CompilerMetrics.Phase.PARSE).get("platform");
+        Assert.assertNotNull(parse);
+        Assert.assertTrue(parse.getCount() > 0);
+        Assert.assertTrue(parse.getNanos() > 0);
+
+        CompilerMetrics.Statistics postProcess = metrics.getPhaseStatistics(CompilerMetrics.Phase.POST_PROCESS).get("platform");
+        Assert.assertNotNull(postProcess);
+        Assert.assertTrue(postProcess.getCount() > 0);
+
+        CompilerMetrics.Statistics functionDefinitionProcessor = metrics.getRunnerStatistics().get(FunctionDefinitionProcessor.class);
+        Assert.assertNotNull(functionDefinitionProcessor);
+        Assert.assertTrue(functionDefinitionProcessor.getInvocations() > 0);
+    }
+
+    @Test
+    public void testPhaseEvents()
+    {
+        phaseEvents.clear();
+        runtime.createInMemoryAndCompile(Tuples.pair("/test/metrics.pure", "function test::f(x:Integer[1]):Integer[1]\n{\n  $x + 1\n}\n"));
+        try
+        {
+            Assert.assertTrue(phaseEvents.toString(), phaseEvents.contains("PARSE"));
+            Assert.assertTrue(phaseEvents.toString(), phaseEvents.contains("REGISTER"));
+            Assert.assertTrue(phaseEvents.toString(), phaseEvents.contains("POST_PROCESS"));
+            Assert.assertTrue(phaseEvents.toString(), phaseEvents.contains("VALIDATE"));
+        }
+        finally
+        {
+            runtime.delete("/test/metrics.pure");
+            runtime.compile();
+        }
+        Assert.assertTrue(phaseEvents.toString(), phaseEvents.contains("UNLOAD"));
+        Assert.assertTrue(phaseEvents.toString(), phaseEvents.contains("UNBIND"));
+    }
+
+    @Test
+    public void testPrometheusCollector()
+    {
+        List<Collector.MetricFamilySamples> samples = new CompilerMetricsCollector(runtime.getCompilerMetrics()).collect();
+        Collector.MetricFamilySamples phaseSeconds = Lists.adapt(samples).detect(s -> "pure_compiler_phase_seconds_total".equals(s.name));
+        Assert.assertNotNull(phaseSeconds);
+        Assert.assertTrue(Lists.adapt(phaseSeconds.samples).anySatisfy(s -> s.labelValues.equals(Lists.fixedSize.with("parse", "platform"))));
+        Collector.MetricFamilySamples runnerRuns = Lists.adapt(samples).detect(s -> "pure_compiler_runner_runs_total".equals(s.name));
+        Assert.assertNotNull(runnerRuns);
+        Assert.assertTrue(Lists.adapt(runnerRuns.samples).anySatisfy(s -> s.labelValues.equals(Lists.fixedSize.with(FunctionDefinitionProcessor.class.getName()))));
+    }
+
+    private static class PhaseRecordingEventHandler implements CompilerEventHandler
+    {
+        @Override
+        public void finishedCompilingCore(RichIterable<? extends Source> compiledSources)
+        {
+        }
+
+        @Override
+        public void compiled(SortedMap<String, RichIterable<? extends Source>> compiledSourcesByRepo, RichIterable<? extends CoreInstance> consolidatedCoreInstances)
+        {
+        }
+
+        @Override
+        public void invalidate(RichIterable<? extends CoreInstance> consolidatedCoreInstances)
+        {
+        }
+
+        @Override
+        public boolean isInitialized()
+        {
+            return true;
+        }
+
+        @Override
+        public void reset()
+        {
+        }
+
+        @Override
+        public void phaseFinished(CompilerMetrics.Phase phase, String repository, int instanceCount, long durationNanos)
+        {
+            phaseEvents.add(phase.name());
+        }
+    }
+}
@@ -60,6 +60,10 @@ import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public abstract class TestGraphLoader extends AbstractPureTestWithCoreCompiledPlatform
 {
@@ -237,6 +241,63 @@ public abstract class TestGraphLoader extends AbstractPureTestWithCoreCompiledPl
         assertAllOfRuntimeLoaded(repos);
     }
 
+    @Test
+    public void testOnDemandLoading()
+    {
+        assertInitialState();
+
+        String m3SourceId = "/platform/pure/grammar/m3.pure";
+        String collectionSourceId = "/platform/pure/anonymousCollections.pure";
+        String pairPath = "meta::pure::functions::collection::Pair";
+
+        this.loader.loadFile(m3SourceId);
+        Assert.assertNull(this.processorSupport2.package_getByUserPath(pairPath));
+
+        this.loader.enableOnDemandLoading();
+        try
+        {
+            CoreInstance pair = this.processorSupport2.package_getByUserPath(pairPath);
+            Assert.assertNotNull(pair);
+            Assert.assertEquals(pairPath, PackageableElement.getUserPathForPackageableElement(pair));
+            Verify.assertContains(collectionSourceId, this.loader.getLoadedFiles().collect(PureRepositoryJarTools::binaryPathToPurePath, Sets.mutable.empty()));
+            assertSourcesEqual(collectionSourceId);
+
+            // unknown elements do not load anything
+            SetIterable<String> loadedFiles = this.loader.getLoadedFiles().toSet();
+            Assert.assertNull(this.processorSupport2.package_getByUserPath("meta::pure::functions::collection::NotAPair"));
+            Assert.assertEquals(loadedFiles, this.loader.getLoadedFiles());
+        }
+        finally
+        {
+            this.loader.disableOnDemandLoading();
+        }
+    }
+
+    @Test
+    public void testOnDemandLoadingDuringConcurrentLoad() throws Exception
+    {
+        assertInitialState();
+
+        String pairPath = "meta::pure::functions::collection::Pair";
+        this.loader.loadFile("/platform/pure/grammar/m3.pure");
+        this.loader.enableOnDemandLoading();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            // a lookup while another thread loads waits for that load, rather than reporting the element missing
+            Future<?> load = executor.submit(() -> this.loader.loadRepository("platform"));
+            CoreInstance pair = this.processorSupport2.package_getByUserPath(pairPath);
+            load.get(5, TimeUnit.MINUTES);
+            Assert.assertNotNull(pair);
+            Assert.assertEquals(pairPath, PackageableElement.getUserPathForPackageableElement(pair));
+        }
+        finally
+        {
+            this.loader.disableOnDemandLoading();
+            executor.shutdownNow();
+        }
+    }
+
     private void assertInitialState()
     {
         Assert.assertEquals(Sets.immutable.empty(), this.loader.getLoadedFiles());
@@ -0,0 +1,174 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.runtime;
+
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.Function;
+import org.finos.legend.pure.m3.serialization.filesystem.repository.CodeRepositoryProviderHelper;
+import org.finos.legend.pure.m3.serialization.filesystem.repository.CodeRepositorySet;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.classpath.ClassLoaderCodeStorage;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.composite.CompositeCodeStorage;
+import org.finos.legend.pure.m4.exception.PureCompilationException;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class TestParallelCompilation
+{
+    private static final int FUNCTION_COUNT = 250;
+
+    private static ForkJoinPool forkJoinPool;
+    private static PureRuntime runtime;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        forkJoinPool = new ForkJoinPool(4);
+        CodeRepositorySet repos = CodeRepositorySet.newBuilder()
+                .withCodeRepositories(CodeRepositoryProviderHelper.findCodeRepositories())
+                .subset("platform")
+                .build();
+        runtime = new PureRuntimeBuilder(new CompositeCodeStorage(new ClassLoaderCodeStorage(repos.getRepositories())))
+                .withIncrementalCompilerForkJoinPool(forkJoinPool)
+                .withOptions(name -> IncrementalCompiler.PARALLEL_POST_PROCESSING_OPTION.equals(name) || IncrementalCompiler.PARALLEL_VALIDATION_OPTION.equals(name))
+                .buildAndInitialize();
+    }
+
+    @AfterClass
+    public static void cleanUp()
+    {
+        if (runtime != null)
+        {
+            runtime.reset();
+        }
+        runtime = null;
+        if (forkJoinPool != null)
+        {
+            forkJoinPool.shutdownNow();
+        }
+        forkJoinPool = null;
+    }
+
+    @Test
+    public void testManyFunctions()
+    {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < FUNCTION_COUNT; i++)
+        {
+            code.append("function test::f").append(i).append("(x:Integer[1]):Integer[1]\n{\n  $x + ").append(i).append("\n}\n\n");
+            code.append("function test::g").append(i).append("(x:Integer[1]):String[1]\n{\n  test::f").append(i).append("($x)->toString()\n}\n\n");
+        }
+        compileAndDelete("/test/manyFunctions.pure", code.toString(), () ->
+        {
+            for (int i = 0; i < FUNCTION_COUNT; i++)
+            {
+                Function<?> f = (Function<?>) runtime.getFunction("test::f" + i + "(Integer[1]):Integer[1]");
+                Assert.assertNotNull("f" + i, f);
+                Assert.assertEquals("f" + i, 1, f._applications().size());
+                Function<?> g = (Function<?>) runtime.getFunction("test::g" + i + "(Integer[1]):String[1]");
+                Assert.assertNotNull("g" + i, g);
+                Assert.assertTrue("g" + i, g.hasBeenProcessed());
+            }
+        });
+    }
+
+    @Test
+    public void testFirstErrorInSourceOrderIsReported()
+    {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < FUNCTION_COUNT; i++)
+        {
+            String body = ((i == 100) || (i == 200)) ? "$x + unknownFunction" + i + "()" : ("$x + " + i);
+            code.append("function test::f").append(i).append("(x:Integer[1]):Integer[1]\n{\n  ").append(body).append("\n}\n");
+        }
+        PureCompilationException e = Assert.assertThrows(PureCompilationException.class, () -> runtime.createInMemoryAndCompile(Tuples.pair("/test/errors.pure", code.toString())));
+        Assert.assertEquals("The system can't find a match for the function: unknownFunction100()", e.getInfo());
+        Assert.assertEquals(403, e.getSourceInformation().getLine());
+        runtime.delete("/test/errors.pure");
+        runtime.compile();
+    }
+
+    @Test
+    public void testFirstValidationErrorInSourceOrderIsReported()
+    {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < FUNCTION_COUNT; i++)
+        {
+            String body = ((i == 100) || (i == 200)) ? "'not an integer'" : ("$x + " + i);
+            code.append("function test::f").append(i).append("(x:Integer[1]):Integer[1]\n{\n  ").append(body).append("\n}\n");
+        }
+        PureCompilationException e = Assert.assertThrows(PureCompilationException.class, () -> runtime.createInMemoryAndCompile(Tuples.pair("/test/validationErrors.pure", code.toString())));
+        Assert.assertEquals("Return type error in function 'f100'; found: String; expected: Integer", e.getInfo());
+        runtime.delete("/test/validationErrors.pure");
+        runtime.compile();
+    }
+
+    @Test
+    public void testReplaceLargeSource()
+    {
+        runtime.createInMemorySource("/test/lib.pure", newLibCode(""));
+        runtime.createInMemorySource("/test/user.pure", "function test::user():String[1]\n{\n  test::f0().name + test::f" + (FUNCTION_COUNT - 1) + "().name\n}\n");
+        runtime.compile();
+        try
+        {
+            runtime.modify("/test/lib.pure", newLibCode("// replaced\n"));
+            runtime.compile();
+
+            Function<?> user = (Function<?>) runtime.getFunction("test::user():String[1]");
+            Assert.assertNotNull(user);
+            Assert.assertTrue(user.hasBeenProcessed());
+            for (int i = 0; i < FUNCTION_COUNT; i++)
+            {
+                Assert.assertNotNull("C" + i, runtime.getCoreInstance("test::C" + i));
+            }
+        }
+        finally
+        {
+            runtime.delete("/test/user.pure");
+            runtime.delete("/test/lib.pure");
+            runtime.compile();
+        }
+        Assert.assertNull(runtime.getCoreInstance("test::C0"));
+        Assert.assertNull(runtime.getFunction("test::user():String[1]"));
+    }
+
+    private static String newLibCode(String prefix)
+    {
+        StringBuilder code = new StringBuilder(prefix);
+        for (int i = 0; i < FUNCTION_COUNT; i++)
+        {
+            code.append("Class test::C").append(i).append("\n{\n  name : String[1];\n}\n\n");
+            code.append("function test::f").append(i).append("():test::C").append(i).append("[1]\n{\n  ^test::C").append(i).append("(name='").append(i).append("')\n}\n\n");
+        }
+        return code.toString();
+    }
+
+    private static void compileAndDelete(String sourceId, String code, Runnable assertions)
+    {
+        runtime.createInMemoryAndCompile(Tuples.pair(sourceId, code));
+        try
+        {
+            assertions.run();
+        }
+        finally
+        {
+            runtime.delete(sourceId);
+            runtime.compile();
+        }
+    }
+}
@@ -43,6 +43,7 @@ import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public abstract class AbstractPureRepositoryJarLibraryTest extends AbstractPureTestWithCoreCompiledPlatform
 {
@@ -134,6 +135,28 @@ public abstract class AbstractPureRepositoryJarLibraryTest extends AbstractPureT
         testReadAll(runtime, this.library);
     }
 
+    @Test
+    public void testForEachFileBuffer()
+    {
+        MapIterable<String, byte[]> expected = this.library.readAllFiles();
+
+        MutableMap<String, byte[]> actualAll = Maps.mutable.empty();
+        this.library.forEachFileBuffer((filePath, buffer) -> Assert.assertNull(filePath, actualAll.put(filePath, toBytes(buffer))));
+        assertFileByteMapsEqual(expected, actualAll);
+
+        MutableList<String> filePaths = Lists.mutable.with("platform/pure/grammar/m3.pc", "platform/pure/grammar/functions/lang/all/all.pc");
+        MutableMap<String, byte[]> actualSome = Maps.mutable.empty();
+        this.library.forEachFileBuffer(filePaths, (filePath, buffer) -> Assert.assertNull(filePath, actualSome.put(filePath, toBytes(buffer))));
+        assertFileByteMapsEqual(expected.select((filePath, bytes) -> filePaths.contains(filePath)), actualSome);
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
     @Test
     public void testGetAllFiles()
     {
@@ -0,0 +1,75 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.runtime.binary;
+
+import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MapIterable;
+import org.finos.legend.pure.m3.serialization.runtime.PureRuntime;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TestMappedPureRepositoryJarLibrary extends AbstractPureRepositoryJarLibraryTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testReadFileBuffers()
+    {
+        MapIterable<String, byte[]> fileBytes = this.library.readAllFiles();
+        MapIterable<String, ByteBuffer> fileBuffers = this.library.readAllFileBuffers();
+        Assert.assertEquals(fileBytes.keysView().toSet(), fileBuffers.keysView().toSet());
+        fileBuffers.forEachKeyValue((filePath, buffer) ->
+        {
+            // stored files are read straight from the mapped jar
+            Assert.assertTrue(filePath, buffer.isDirect());
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            Assert.assertArrayEquals(filePath, fileBytes.get(filePath), bytes);
+        });
+    }
+
+    @Override
+    protected PureRepositoryJarLibrary buildLibrary(PureRuntime runtime, String... repositoryNames) throws IOException
+    {
+        MutableList<PureRepositoryJar> jars = Lists.mutable.empty();
+        for (String repositoryName : repositoryNames)
+        {
+            Path jarPath = this.tempFolder.newFile(repositoryName + PureRepositoryJarTools.PURE_JAR_EXTENSION).toPath();
+            try (OutputStream stream = Files.newOutputStream(jarPath))
+            {
+                BinaryModelRepositorySerializer.serialize(stream, null, null, repositoryName, runtime, true);
+            }
+            jars.add(PureRepositoryJars.getMapped(jarPath));
+        }
+        return newLibrary(jars);
+    }
+
+    @Override
+    protected PureRepositoryJarLibrary newLibrary(RichIterable<PureRepositoryJar> jars)
+    {
+        return SimplePureRepositoryJarLibrary.newLibrary(jars);
+    }
+}
@@ -0,0 +1,333 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.runtime.cache;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.finos.legend.pure.m3.compiler.Context;
+import org.finos.legend.pure.m3.navigation.ProcessorSupport;
+import org.finos.legend.pure.m3.serialization.grammar.ParserLibrary;
+import org.finos.legend.pure.m3.serialization.runtime.Message;
+import org.finos.legend.pure.m3.serialization.runtime.PureRuntime;
+import org.finos.legend.pure.m3.serialization.runtime.SourceRegistry;
+import org.finos.legend.pure.m4.ModelRepository;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.logs.AbstractPureLogger;
+import org.finos.legend.pure.m4.logs.PureLogger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestAsynchronousPureGraphCache
+{
+    private static final PureLogger LOGGER = new AbstractPureLogger()
+    {
+        @Override
+        public void log(String message)
+        {
+        }
+
+        @Override
+        public void log(Throwable t, String message)
+        {
+        }
+    };
+
+    private AsynchronousPureGraphCache cache;
+
+    @After
+    public void shutDown()
+    {
+        if (this.cache != null)
+        {
+            this.cache.shutDown();
+        }
+    }
+
+    @Test
+    public void testRequestsDuringWriteAreCoalesced() throws Exception
+    {
+        CountingPureGraphCache delegate = new CountingPureGraphCache();
+        this.cache = AsynchronousPureGraphCache.wrap(delegate, LOGGER);
+
+        this.cache.cacheRepoAndSources();
+        Assert.assertTrue(delegate.writeStarted.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(this.cache.getCacheState().isWriteInProgress());
+
+        this.cache.cacheRepoAndSources();
+        this.cache.cacheRepoAndSources();
+        this.cache.cacheRepoAndSources();
+        Assert.assertEquals(4L, this.cache.getCacheState().getPendingWriteRequests());
+
+        delegate.releaseWrites.countDown();
+        awaitNoPendingWriteRequests();
+        Assert.assertEquals(2, delegate.writeCount.get());
+        Assert.assertFalse(this.cache.getCacheState().isWriteInProgress());
+    }
+
+    @Test
+    public void testRequestsWithinDelayAreCoalesced() throws Exception
+    {
+        CountingPureGraphCache delegate = new CountingPureGraphCache();
+        delegate.releaseWrites.countDown();
+        this.cache = AsynchronousPureGraphCache.wrap(delegate, LOGGER, 200L);
+
+        for (int i = 0; i < 5; i++)
+        {
+            this.cache.cacheRepoAndSources();
+        }
+        awaitNoPendingWriteRequests();
+        Assert.assertEquals(1, delegate.writeCount.get());
+    }
+
+    @Test
+    public void testSynchronousWrite() throws Exception
+    {
+        CountingPureGraphCache delegate = new CountingPureGraphCache();
+        delegate.releaseWrites.countDown();
+        this.cache = AsynchronousPureGraphCache.wrap(delegate, LOGGER);
+
+        this.cache.cacheRepoAndSourcesSynchronously();
+        Assert.assertEquals(1, delegate.writeCount.get());
+        Assert.assertEquals(0L, this.cache.getCacheState().getPendingWriteRequests());
+    }
+
+    @Test
+    public void testWriteIsRedoneWhenGraphIsModified() throws Exception
+    {
+        ModelRepository repository = new ModelRepository();
+        CoreInstance instance = repository.newUnknownTypeCoreInstance("instance", null);
+        CountingPureGraphCache delegate = new CountingPureGraphCache()
+        {
+            @Override
+            public void cacheRepoAndSources()
+            {
+                super.cacheRepoAndSources();
+                if (this.writeCount.get() == 1)
+                {
+                    // simulate a compile modifying the graph while it is written
+                    instance.setKeyValues(Lists.immutable.with("Root", "children", "Type", "properties", "p"), Lists.immutable.with(repository.newIntegerCoreInstance(1)));
+                }
+            }
+        };
+        delegate.releaseWrites.countDown();
+        this.cache = AsynchronousPureGraphCache.wrap(delegate, LOGGER, 0L, repository);
+
+        this.cache.cacheRepoAndSources();
+        awaitNoPendingWriteRequests();
+        Assert.assertEquals(2, delegate.writeCount.get());
+        Assert.assertEquals(1, delegate.deleteCount.get());
+    }
+
+    @Test
+    public void testStagedWriteIsDiscardedWhenGraphIsModified() throws Exception
+    {
+        ModelRepository repository = new ModelRepository();
+        CoreInstance instance = repository.newUnknownTypeCoreInstance("instance", null);
+        StagingPureGraphCache delegate = new StagingPureGraphCache()
+        {
+            @Override
+            public void stageRepoAndSources()
+            {
+                super.stageRepoAndSources();
+                if (this.stageCount.get() == 1)
+                {
+                    instance.setKeyValues(Lists.immutable.with("Root", "children", "Type", "properties", "p"), Lists.immutable.with(repository.newIntegerCoreInstance(1)));
+                }
+            }
+        };
+        this.cache = AsynchronousPureGraphCache.wrap(delegate, LOGGER, 0L, repository);
+
+        this.cache.cacheRepoAndSources();
+        awaitNoPendingWriteRequests();
+        Assert.assertEquals(2, delegate.stageCount.get());
+        Assert.assertEquals(1, delegate.discardCount.get());
+        Assert.assertEquals(1, delegate.commitCount.get());
+        Assert.assertEquals(0, delegate.deleteCount.get());
+    }
+
+    @Test
+    public void testWriteRetriesAreCapped() throws Exception
+    {
+        ModelRepository repository = new ModelRepository();
+        CoreInstance instance = repository.newUnknownTypeCoreInstance("instance", null);
+        StagingPureGraphCache delegate = new StagingPureGraphCache()
+        {
+            @Override
+            public void stageRepoAndSources()
+            {
+                super.stageRepoAndSources();
+                // the graph is modified during every write
+                instance.setKeyValues(Lists.immutable.with("Root", "children", "Type", "properties", "p"), Lists.immutable.with(repository.newIntegerCoreInstance(this.stageCount.get())));
+            }
+        };
+        this.cache = AsynchronousPureGraphCache.wrap(delegate, LOGGER, 0L, repository);
+
+        this.cache.cacheRepoAndSources();
+        awaitNoPendingWriteRequests();
+        Assert.assertEquals(3, delegate.stageCount.get());
+        Assert.assertEquals(3, delegate.discardCount.get());
+        Assert.assertEquals(0, delegate.commitCount.get());
+        Assert.assertEquals(0, delegate.deleteCount.get());
+    }
+
+    @Test
+    public void testFailedWriteIsLogged() throws Exception
+    {
+        CopyOnWriteArrayList<Throwable> logged = new CopyOnWriteArrayList<>();
+        PureLogger logger = new AbstractPureLogger()
+        {
+            @Override
+            public void log(String message)
+            {
+            }
+
+            @Override
+            public void log(Throwable t, String message)
+            {
+                logged.add(t);
+            }
+        };
+        RuntimeException error = new RuntimeException("write failed");
+        CountingPureGraphCache delegate = new CountingPureGraphCache()
+        {
+            @Override
+            public void cacheRepoAndSources()
+            {
+                throw error;
+            }
+        };
+        this.cache = AsynchronousPureGraphCache.wrap(delegate, logger);
+
+        this.cache.cacheRepoAndSources();
+        long end = System.currentTimeMillis() + 10_000L;
+        while (logged.isEmpty() && (System.currentTimeMillis() < end))
+        {
+            Thread.sleep(10L);
+        }
+        Assert.assertEquals(1, logged.size());
+        Assert.assertSame(error, logged.get(0));
+    }
+
+    @Test
+    public void testClearQueueDropsPendingWriteRequests() throws Exception
+    {
+        CountingPureGraphCache delegate = new CountingPureGraphCache();
+        this.cache = AsynchronousPureGraphCache.wrap(delegate, LOGGER);
+
+        this.cache.cacheRepoAndSources();
+        Assert.assertTrue(delegate.writeStarted.await(10, TimeUnit.SECONDS));
+        this.cache.cacheRepoAndSources();
+        this.cache.cacheRepoAndSources();
+        Assert.assertEquals(3L, this.cache.getCacheState().getPendingWriteRequests());
+
+        this.cache.clearQueue();
+        Assert.assertEquals(0L, this.cache.getCacheState().getPendingWriteRequests());
+
+        delegate.releaseWrites.countDown();
+        this.cache.deleteCacheSynchronously();
+        Assert.assertEquals(1, delegate.writeCount.get());
+        Assert.assertEquals(0L, this.cache.getCacheState().getPendingWriteRequests());
+    }
+
+    private void awaitNoPendingWriteRequests() throws InterruptedException
+    {
+        long end = System.currentTimeMillis() + 10_000L;
+        while (this.cache.getCacheState().getPendingWriteRequests() > 0L)
+        {
+            if (System.currentTimeMillis() > end)
+            {
+                Assert.fail("Timed out waiting for cache writes");
+            }
+            Thread.sleep(10L);
+        }
+    }
+
+    private static class StagingPureGraphCache extends CountingPureGraphCache implements StagedPureGraphCache
+    {
+        protected final AtomicInteger stageCount = new AtomicInteger(0);
+        private final AtomicInteger commitCount = new AtomicInteger(0);
+        private final AtomicInteger discardCount = new AtomicInteger(0);
+
+        @Override
+        public void stageRepoAndSources()
+        {
+            this.stageCount.incrementAndGet();
+        }
+
+        @Override
+        public void commitStagedCache()
+        {
+            this.commitCount.incrementAndGet();
+        }
+
+        @Override
+        public void discardStagedCache()
+        {
+            this.discardCount.incrementAndGet();
+        }
+    }
+
+    private static class CountingPureGraphCache implements PureGraphCache
+    {
+        private final CacheState state = new CacheState(false, -1L, true);
+        protected final AtomicInteger writeCount = new AtomicInteger(0);
+        protected final AtomicInteger deleteCount = new AtomicInteger(0);
+        private final CountDownLatch writeStarted = new CountDownLatch(1);
+        private final CountDownLatch releaseWrites = new CountDownLatch(1);
+
+        @Override
+        public void deleteCache()
+        {
+            this.deleteCount.incrementAndGet();
+        }
+
+        @Override
+        public void setPureRuntime(PureRuntime pureRuntime)
+        {
+        }
+
+        @Override
+        public void cacheRepoAndSources()
+        {
+            this.writeStarted.countDown();
+            try
+            {
+                this.releaseWrites.await();
+            }
+            catch (InterruptedException e)
+            {
+                throw new RuntimeException(e);
+            }
+            this.writeCount.incrementAndGet();
+        }
+
+        @Override
+        public boolean buildRepoAndSources(ModelRepository modelRepository, SourceRegistry sources, ParserLibrary library, Context context, ProcessorSupport processorSupport, Message message)
+        {
+            return false;
+        }
+
+        @Override
+        public CacheState getCacheState()
+        {
+            return this.state;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.runtime.cache;
+
+import org.finos.legend.pure.m3.serialization.filesystem.repository.CodeRepositoryProviderHelper;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.MutableRepositoryCodeStorage;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.classpath.ClassLoaderCodeStorage;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.composite.CompositeCodeStorage;
+import org.finos.legend.pure.m3.serialization.runtime.PureRuntime;
+import org.finos.legend.pure.m3.serialization.runtime.PureRuntimeBuilder;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.serialization.compression.CompressionCodec;
+import org.finos.legend.pure.m4.serialization.compression.CompressionCodecs;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class TestCompressedFSPureGraphCache
+{
+    private static MutableRepositoryCodeStorage codeStorage;
+    private static PureRuntime runtime;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUp()
+    {
+        codeStorage = new CompositeCodeStorage(new ClassLoaderCodeStorage(CodeRepositoryProviderHelper.findPlatformCodeRepository()));
+        runtime = new PureRuntimeBuilder(codeStorage).build();
+        runtime.loadAndCompileCore();
+    }
+
+    @Test
+    public void testGZip() throws IOException
+    {
+        testCodec(CompressionCodecs.GZIP);
+    }
+
+    @Test
+    public void testDeflate() throws IOException
+    {
+        testCodec(CompressionCodecs.deflate(1));
+    }
+
+    @Test
+    public void testLZ() throws IOException
+    {
+        testCodec(CompressionCodecs.LZ);
+    }
+
+    @Test
+    public void testUncompressed() throws IOException
+    {
+        testCodec(CompressionCodecs.NONE);
+    }
+
+    @Test
+    public void testReadWithDifferentCodec() throws IOException
+    {
+        // the codec is read from the cache files, not taken from the cache reading them
+        Path cacheDirectory = this.tempFolder.newFolder().toPath();
+        writeCache(new CompressedFSPureGraphCache(cacheDirectory, CompressionCodecs.LZ));
+        assertCacheBuilds(new CompressedFSPureGraphCache(cacheDirectory, CompressionCodecs.GZIP));
+    }
+
+    private void testCodec(CompressionCodec codec) throws IOException
+    {
+        Path cacheDirectory = this.tempFolder.newFolder().toPath();
+        CompressedFSPureGraphCache cache = new CompressedFSPureGraphCache(cacheDirectory, codec);
+        Assert.assertSame(codec, cache.getCodec());
+        writeCache(cache);
+        assertCacheBuilds(cache);
+    }
+
+    private void writeCache(PureGraphCache cache)
+    {
+        cache.setPureRuntime(runtime);
+        cache.cacheRepoAndSources();
+        Assert.assertTrue(cache.getCacheState().isCached());
+    }
+
+    private void assertCacheBuilds(PureGraphCache cache)
+    {
+        PureRuntime newRuntime = new PureRuntimeBuilder(codeStorage).withCache(cache).buildAndTryToInitializeFromCache();
+        Assert.assertTrue(newRuntime.isInitialized());
+        Assert.assertEquals(runtime.getSourceRegistry().getSourceIds().toSortedList(), newRuntime.getSourceRegistry().getSourceIds().toSortedList());
+        Assert.assertEquals(runtime.getContext().getAllInstances().collect(CoreInstance::getName).toSortedList(), newRuntime.getContext().getAllInstances().collect(CoreInstance::getName).toSortedList());
+    }
+}
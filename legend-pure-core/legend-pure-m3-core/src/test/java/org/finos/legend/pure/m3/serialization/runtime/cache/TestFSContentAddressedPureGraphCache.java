@@ -0,0 +1,132 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.serialization.runtime.cache;
+
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.map.MutableMap;
+import org.finos.legend.pure.m3.serialization.filesystem.repository.CodeRepositoryProviderHelper;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.MutableRepositoryCodeStorage;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.classpath.ClassLoaderCodeStorage;
+import org.finos.legend.pure.m3.serialization.filesystem.usercodestorage.composite.CompositeCodeStorage;
+import org.finos.legend.pure.m3.serialization.runtime.PureRuntime;
+import org.finos.legend.pure.m3.serialization.runtime.PureRuntimeBuilder;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class TestFSContentAddressedPureGraphCache
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testCacheAndBuild() throws IOException
+    {
+        MutableRepositoryCodeStorage codeStorage = new CompositeCodeStorage(new ClassLoaderCodeStorage(CodeRepositoryProviderHelper.findPlatformCodeRepository()));
+        PureGraphCache cache = new FSContentAddressedPureGraphCache(this.tempFolder.newFolder().toPath());
+        Assert.assertFalse(cache.getCacheState().isCached());
+
+        PureRuntime runtime = new PureRuntimeBuilder(codeStorage).withCache(cache).buildAndTryToInitializeFromCache();
+        runtime.loadAndCompileCore();
+        cache.cacheRepoAndSources();
+        Assert.assertTrue(cache.getCacheState().isCached());
+        Assert.assertTrue(cache.getCacheState().getCurrentCacheSize() > 0);
+
+        PureRuntime newRuntime = new PureRuntimeBuilder(codeStorage).withCache(cache).buildAndTryToInitializeFromCache();
+        Assert.assertTrue(newRuntime.isInitialized());
+        Assert.assertEquals(runtime.getSourceRegistry().getSourceIds().toSortedList(), newRuntime.getSourceRegistry().getSourceIds().toSortedList());
+        Assert.assertEquals(runtime.getContext().getAllInstances().collect(CoreInstance::getName).toSortedList(), newRuntime.getContext().getAllInstances().collect(CoreInstance::getName).toSortedList());
+    }
+
+    @Test
+    public void testUnchangedSourcesAreNotRewritten() throws IOException
+    {
+        MutableRepositoryCodeStorage codeStorage = new CompositeCodeStorage(new ClassLoaderCodeStorage(CodeRepositoryProviderHelper.findPlatformCodeRepository()));
+        Path cacheDirectory = this.tempFolder.newFolder().toPath();
+        PureGraphCache cache = new FSContentAddressedPureGraphCache(cacheDirectory);
+
+        PureRuntime runtime = new PureRuntimeBuilder(codeStorage).withCache(cache).buildAndTryToInitializeFromCache();
+        runtime.loadAndCompileCore();
+        cache.cacheRepoAndSources();
+        MutableMap<Path, FileTime> objects = getObjects(cacheDirectory);
+        Assert.assertFalse(objects.isEmpty());
+
+        cache.cacheRepoAndSources();
+        Assert.assertTrue(cache.getCacheState().isCached());
+        Assert.assertEquals(objects, getObjects(cacheDirectory));
+
+        cache.deleteCache();
+        Assert.assertFalse(cache.getCacheState().isCached());
+        Assert.assertEquals(Maps.mutable.empty(), getObjects(cacheDirectory));
+    }
+
+    @Test
+    public void testInFlightTempFilesAndStaleManifests() throws IOException
+    {
+        MutableRepositoryCodeStorage codeStorage = new CompositeCodeStorage(new ClassLoaderCodeStorage(CodeRepositoryProviderHelper.findPlatformCodeRepository()));
+        Path cacheDirectory = this.tempFolder.newFolder().toPath();
+        PureGraphCache cache = new FSContentAddressedPureGraphCache(cacheDirectory);
+
+        PureRuntime runtime = new PureRuntimeBuilder(codeStorage).withCache(cache).buildAndTryToInitializeFromCache();
+        runtime.loadAndCompileCore();
+        cache.cacheRepoAndSources();
+        Path tempObject = Files.createTempFile(Files.createDirectories(cacheDirectory.resolve("objects").resolve("00")), "00", ".tmp");
+        Path staleTempObject = Files.createTempFile(cacheDirectory.resolve("objects").resolve("00"), "00", ".tmp");
+        Files.setLastModifiedTime(staleTempObject, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1)));
+        Path staleTempManifest = Files.createTempFile(cacheDirectory, "platform.manifest", ".tmp");
+        Files.setLastModifiedTime(staleTempManifest, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1)));
+        Path staleManifest = Files.createFile(cacheDirectory.resolve("no_such_repo.manifest"));
+        Path platformManifest = cacheDirectory.resolve("platform.manifest");
+        Assert.assertTrue(Files.exists(platformManifest));
+
+        cache.cacheRepoAndSources();
+        Assert.assertTrue(cache.getCacheState().isCached());
+        Assert.assertTrue(Files.exists(tempObject));
+        Assert.assertTrue(Files.notExists(staleTempObject));
+        Assert.assertTrue(Files.notExists(staleTempManifest));
+        Assert.assertTrue(Files.notExists(staleManifest));
+        Assert.assertTrue(Files.exists(platformManifest));
+        try (Stream<Path> paths = Files.list(cacheDirectory))
+        {
+            Assert.assertFalse(paths.anyMatch(path -> path.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    private MutableMap<Path, FileTime> getObjects(Path cacheDirectory) throws IOException
+    {
+        MutableMap<Path, FileTime> objects = Maps.mutable.empty();
+        Path objectDirectory = cacheDirectory.resolve("objects");
+        if (Files.exists(objectDirectory))
+        {
+            try (Stream<Path> paths = Files.walk(objectDirectory))
+            {
+                for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator)
+                {
+                    objects.put(path, Files.getLastModifiedTime(path));
+                }
+            }
+        }
+        return objects;
+    }
+}
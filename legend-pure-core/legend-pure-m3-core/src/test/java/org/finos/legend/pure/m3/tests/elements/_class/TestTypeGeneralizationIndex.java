@@ -0,0 +1,186 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.tests.elements._class;
+
+import org.eclipse.collections.api.block.function.Function;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.map.MutableMap;
+import org.finos.legend.pure.m3.compiler.TypeGeneralizationIndex;
+import org.finos.legend.pure.m3.navigation.M3Paths;
+import org.finos.legend.pure.m4.ModelRepository;
+import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiledPlatform;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestTypeGeneralizationIndex extends AbstractPureTestWithCoreCompiledPlatform
+{
+    @BeforeClass
+    public static void setUp()
+    {
+        setUpRuntime(getExtra());
+    }
+
+    @After
+    public void cleanRuntime()
+    {
+        runtime.delete("/test/types.pure");
+        runtime.compile();
+    }
+
+    @Test
+    public void testMultipleGeneralizations()
+    {
+        compileTestSource("/test/types.pure",
+                "Class test::A {}\n" +
+                        "Class test::B {}\n" +
+                        "Class test::C extends test::A, test::B {}\n" +
+                        "Class test::D extends test::C {}\n");
+        CoreInstance a = runtime.getCoreInstance("test::A");
+        CoreInstance b = runtime.getCoreInstance("test::B");
+        CoreInstance c = runtime.getCoreInstance("test::C");
+        CoreInstance d = runtime.getCoreInstance("test::D");
+        CoreInstance any = runtime.getCoreInstance(M3Paths.Any);
+
+        Assert.assertTrue(processorSupport.type_subTypeOf(d, a));
+        Assert.assertTrue(processorSupport.type_subTypeOf(d, b));
+        Assert.assertTrue(processorSupport.type_subTypeOf(d, c));
+        Assert.assertTrue(processorSupport.type_subTypeOf(d, d));
+        Assert.assertTrue(processorSupport.type_subTypeOf(d, any));
+        Assert.assertTrue(processorSupport.type_subTypeOf(c, a));
+        Assert.assertFalse(processorSupport.type_subTypeOf(c, d));
+        Assert.assertFalse(processorSupport.type_subTypeOf(a, b));
+        Assert.assertFalse(processorSupport.type_subTypeOf(any, a));
+    }
+
+    @Test
+    public void testGeneralizationChange()
+    {
+        runtime.createInMemorySource("/test/types.pure",
+                "Class test::A {}\n" +
+                        "Class test::B extends test::A {}\n" +
+                        "Class test::C extends test::B {}\n");
+        runtime.compile();
+        Assert.assertTrue(processorSupport.type_subTypeOf(runtime.getCoreInstance("test::C"), runtime.getCoreInstance("test::A")));
+
+        runtime.modify("/test/types.pure",
+                "Class test::A {}\n" +
+                        "Class test::B {}\n" +
+                        "Class test::C extends test::B {}\n");
+        runtime.compile();
+        Assert.assertFalse(processorSupport.type_subTypeOf(runtime.getCoreInstance("test::C"), runtime.getCoreInstance("test::A")));
+        Assert.assertTrue(processorSupport.type_subTypeOf(runtime.getCoreInstance("test::C"), runtime.getCoreInstance("test::B")));
+    }
+
+    @Test
+    public void testInvalidateOnlyAffectsSubtypes()
+    {
+        ModelRepository repository = new ModelRepository();
+        CoreInstance a = repository.newUnknownTypeCoreInstance("A", null);
+        CoreInstance b = repository.newUnknownTypeCoreInstance("B", null);
+        CoreInstance c = repository.newUnknownTypeCoreInstance("C", null);
+        CoreInstance d = repository.newUnknownTypeCoreInstance("D", null);
+        MutableMap<CoreInstance, ListIterable<CoreInstance>> generalizations = Maps.mutable.empty();
+        generalizations.put(a, Lists.immutable.with(a));
+        generalizations.put(b, Lists.immutable.with(b, a));
+        generalizations.put(c, Lists.immutable.with(c, b, a));
+        generalizations.put(d, Lists.immutable.with(d));
+        AtomicInteger computations = new AtomicInteger();
+        TypeGeneralizationIndex index = new TypeGeneralizationIndex();
+        generalizations.keysView().forEach(t -> index.subTypeOf(t, a, type ->
+        {
+            computations.incrementAndGet();
+            return generalizations.get(type);
+        }));
+        Assert.assertEquals(4, computations.get());
+
+        index.invalidate(b);
+        generalizations.keysView().forEach(t -> index.subTypeOf(t, a, type ->
+        {
+            computations.incrementAndGet();
+            return generalizations.get(type);
+        }));
+        // only the closures of B and C include B
+        Assert.assertEquals(6, computations.get());
+    }
+
+    @Test
+    public void testInvalidatingUnindexedTypeKeepsClosures()
+    {
+        ModelRepository repository = new ModelRepository();
+        CoreInstance a = repository.newUnknownTypeCoreInstance("A", null);
+        CoreInstance b = repository.newUnknownTypeCoreInstance("B", null);
+        CoreInstance other = repository.newUnknownTypeCoreInstance("Other", null);
+        AtomicInteger computations = new AtomicInteger();
+        Function<CoreInstance, ListIterable<CoreInstance>> generator = type ->
+        {
+            computations.incrementAndGet();
+            return (type == b) ? Lists.immutable.with(b, a) : Lists.immutable.with(type);
+        };
+        TypeGeneralizationIndex index = new TypeGeneralizationIndex();
+        Assert.assertTrue(index.subTypeOf(b, a, generator));
+        Assert.assertEquals(1, computations.get());
+
+        index.invalidate(other);
+        Assert.assertTrue(index.subTypeOf(b, a, generator));
+        Assert.assertEquals(1, computations.get());
+    }
+
+    @Test
+    public void testRepeatedChecksAgainstDifferentSuperTypes()
+    {
+        ModelRepository repository = new ModelRepository();
+        CoreInstance a = repository.newUnknownTypeCoreInstance("A", null);
+        CoreInstance b = repository.newUnknownTypeCoreInstance("B", null);
+        CoreInstance c = repository.newUnknownTypeCoreInstance("C", null);
+        Function<CoreInstance, ListIterable<CoreInstance>> generator = type -> (type == c) ? Lists.immutable.with(c, a) : Lists.immutable.with(type);
+        TypeGeneralizationIndex index = new TypeGeneralizationIndex();
+        for (int i = 0; i < 3; i++)
+        {
+            Assert.assertTrue(index.subTypeOf(c, a, generator));
+            Assert.assertTrue(index.subTypeOf(c, a, generator));
+            Assert.assertFalse(index.subTypeOf(c, b, generator));
+            Assert.assertTrue(index.subTypeOf(c, c, generator));
+        }
+
+        // a new closure does not keep the results of the old one
+        index.invalidate(c);
+        Function<CoreInstance, ListIterable<CoreInstance>> newGenerator = type -> (type == c) ? Lists.immutable.with(c, b) : Lists.immutable.with(type);
+        Assert.assertFalse(index.subTypeOf(c, a, newGenerator));
+        Assert.assertTrue(index.subTypeOf(c, b, newGenerator));
+    }
+
+    @Test
+    public void testRemovedTypeIdsAreReused()
+    {
+        ModelRepository repository = new ModelRepository();
+        CoreInstance root = repository.newUnknownTypeCoreInstance("Root", null);
+        TypeGeneralizationIndex index = new TypeGeneralizationIndex();
+        for (int i = 0; i < 100; i++)
+        {
+            CoreInstance type = repository.newUnknownTypeCoreInstance("Type" + i, null);
+            Assert.assertTrue(index.subTypeOf(type, root, t -> (t == root) ? Lists.immutable.with(root) : Lists.immutable.with(t, root)));
+            Assert.assertFalse(index.subTypeOf(root, type, t -> (t == root) ? Lists.immutable.with(root) : Lists.immutable.with(t, root)));
+            index.remove(type);
+        }
+        Assert.assertEquals(2, index.getIdCapacity());
+    }
+}
@@ -0,0 +1,116 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.tests.function;
+
+import org.finos.legend.pure.m3.compiler.postprocessing.functionmatch.FunctionMatchCache;
+import org.finos.legend.pure.m3.coreinstance.meta.pure.metamodel.function.Function;
+import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiledPlatform;
+import org.finos.legend.pure.m4.exception.PureCompilationException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TestFunctionMatchCache extends AbstractPureTestWithCoreCompiledPlatform
+{
+    @BeforeClass
+    public static void setUp()
+    {
+        setUpRuntime(getExtra());
+    }
+
+    @After
+    public void cleanRuntime()
+    {
+        runtime.delete("/test/definition.pure");
+        runtime.delete("/test/usage.pure");
+        runtime.delete("/test/association.pure");
+        runtime.compile();
+    }
+
+    @Test
+    public void testRepeatedMatchesAreCached()
+    {
+        FunctionMatchCache cache = context.getFunctionMatchCache();
+        long hitsBefore = cache.getHitCount();
+        runtime.createInMemorySource("/test/definition.pure", "function test::f(x:Integer[1]):Integer[1] { $x }\n");
+        runtime.createInMemorySource("/test/usage.pure",
+                "function test::g1():Integer[1] { test::f(1) }\n" +
+                        "function test::g2():Integer[1] { test::f(2) }\n" +
+                        "function test::g3():Integer[1] { test::f(3) }\n");
+        runtime.compile();
+        Assert.assertTrue(cache.getHitCount() >= hitsBefore + 2);
+
+        Function<?> f = (Function<?>) runtime.getFunction("test::f(Integer[1]):Integer[1]");
+        Assert.assertNotNull(f);
+        Assert.assertEquals(3, f._applications().size());
+    }
+
+    @Test
+    public void testMatchesAreInvalidatedWhenFunctionsChange()
+    {
+        runtime.createInMemorySource("/test/definition.pure", "function test::f(x:Integer[1]):Integer[1] { $x }\n");
+        runtime.createInMemorySource("/test/usage.pure", "function test::g():Integer[1] { test::f(1) }\n");
+        runtime.compile();
+
+        runtime.modify("/test/definition.pure", "function test::f(x:String[1]):Integer[1] { 1 }\n");
+        PureCompilationException e = Assert.assertThrows(PureCompilationException.class, runtime::compile);
+        Assert.assertTrue(e.getInfo(), e.getInfo().startsWith("The system can't find a match for the function: "));
+
+        runtime.modify("/test/definition.pure", "function test::f(x:Number[1]):Integer[1] { 1 }\n");
+        runtime.compile();
+        Assert.assertNotNull(runtime.getFunction("test::f(Number[1]):Integer[1]"));
+    }
+
+    @Test
+    public void testMatchesAreKeptWhenUnrelatedTypesChange()
+    {
+        FunctionMatchCache cache = context.getFunctionMatchCache();
+        runtime.createInMemorySource("/test/definition.pure",
+                "Class test::A {}\n" +
+                        "Class test::B {}\n" +
+                        "function test::f(x:Integer[1]):Integer[1] { $x }\n");
+        runtime.createInMemorySource("/test/usage.pure", "function test::g():Integer[1] { test::f(1) }\n");
+        runtime.compile();
+
+        // the association updates A and B, which are unrelated to Integer
+        long hitsBefore = cache.getHitCount();
+        runtime.createInMemorySource("/test/association.pure",
+                "Association test::AB { a : test::A[*]; b : test::B[*]; }\n" +
+                        "function test::h():Integer[1] { test::f(2) }\n");
+        runtime.compile();
+        Assert.assertTrue(cache.getHitCount() > hitsBefore);
+    }
+
+    @Test
+    public void testMatchesAreInvalidatedWhenGeneralizationsChange()
+    {
+        runtime.createInMemorySource("/test/definition.pure",
+                "Class test::A {}\n" +
+                        "Class test::B extends test::A {}\n" +
+                        "Class test::C extends test::B {}\n");
+        runtime.createInMemorySource("/test/usage.pure",
+                "function test::f(x:test::A[1]):Integer[1] { 1 }\n" +
+                        "function test::g():Integer[1] { test::f(^test::C()) }\n");
+        runtime.compile();
+
+        runtime.modify("/test/definition.pure",
+                "Class test::A {}\n" +
+                        "Class test::B {}\n" +
+                        "Class test::C extends test::B {}\n");
+        PureCompilationException e = Assert.assertThrows(PureCompilationException.class, runtime::compile);
+        Assert.assertTrue(e.getInfo(), e.getInfo().startsWith("The system can't find a match for the function: "));
+    }
+}
@@ -0,0 +1,128 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m3.tests.generictype;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.finos.legend.pure.m3.navigation.Instance;
+import org.finos.legend.pure.m3.navigation.M3Paths;
+import org.finos.legend.pure.m3.navigation.M3Properties;
+import org.finos.legend.pure.m3.navigation.generictype.GenericTypeValue;
+import org.finos.legend.pure.m3.navigation.generictype.GenericTypeValueCache;
+import org.finos.legend.pure.m3.navigation.type.Type;
+import org.finos.legend.pure.m3.tests.AbstractPureTestWithCoreCompiledPlatform;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class TestGenericTypeValueCache extends AbstractPureTestWithCoreCompiledPlatform
+{
+    @BeforeClass
+    public static void setUp()
+    {
+        setUpRuntime(getExtra());
+    }
+
+    @Test
+    public void testEqualGenericTypesAreInterned()
+    {
+        GenericTypeValueCache cache = new GenericTypeValueCache();
+        GenericTypeValue listOfString1 = cache.getValue(newListGenericType(M3Paths.String), processorSupport);
+        GenericTypeValue listOfString2 = cache.getValue(newListGenericType(M3Paths.String), processorSupport);
+        GenericTypeValue listOfInteger = cache.getValue(newListGenericType(M3Paths.Integer), processorSupport);
+
+        Assert.assertNotNull(listOfString1);
+        Assert.assertSame(listOfString1, listOfString2);
+        Assert.assertNotSame(listOfString1, listOfInteger);
+        Assert.assertNotEquals(listOfString1, listOfInteger);
+        Assert.assertSame(listOfString1.getTypeArguments().get(0), cache.getValue(Type.wrapGenericType(runtime.getCoreInstance(M3Paths.String), processorSupport), processorSupport));
+        Assert.assertEquals(3, cache.size());
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testNonConcreteGenericTypesHaveNoValue()
+    {
+        GenericTypeValueCache cache = new GenericTypeValueCache();
+
+        CoreInstance typeParameter = repository.newAnonymousCoreInstance(null, runtime.getCoreInstance(M3Paths.TypeParameter));
+        Instance.setValueForProperty(typeParameter, M3Properties.name, repository.newStringCoreInstance_cached("T"), processorSupport);
+        CoreInstance genericType = repository.newAnonymousCoreInstance(null, runtime.getCoreInstance(M3Paths.GenericType));
+        Instance.setValueForProperty(genericType, M3Properties.typeParameter, typeParameter, processorSupport);
+
+        Assert.assertNull(cache.getValue(genericType, processorSupport));
+        Assert.assertNull(cache.getValue(newListGenericType(genericType), processorSupport));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testResultsAreInvalidatedByType()
+    {
+        GenericTypeValueCache cache = new GenericTypeValueCache();
+        GenericTypeValue listOfString = cache.getValue(newListGenericType(M3Paths.String), processorSupport);
+        ImmutableList<Object> key = Lists.immutable.with(TestGenericTypeValueCache.class, listOfString);
+        AtomicInteger computations = new AtomicInteger();
+        Supplier<Integer> function = computations::incrementAndGet;
+
+        Assert.assertEquals(Integer.valueOf(1), cache.getIfAbsentPutResult(key, function, processorSupport));
+        Assert.assertEquals(Integer.valueOf(1), cache.getIfAbsentPutResult(key, function, processorSupport));
+
+        // unrelated type
+        cache.invalidate(runtime.getCoreInstance(M3Paths.Integer));
+        Assert.assertEquals(Integer.valueOf(1), cache.getIfAbsentPutResult(key, function, processorSupport));
+
+        // type argument
+        cache.invalidate(runtime.getCoreInstance(M3Paths.String));
+        Assert.assertEquals(Integer.valueOf(2), cache.getIfAbsentPutResult(key, function, processorSupport));
+
+        // generalization of the type argument
+        cache.invalidate(runtime.getCoreInstance(M3Paths.Any));
+        Assert.assertEquals(Integer.valueOf(3), cache.getIfAbsentPutResult(key, function, processorSupport));
+
+        // raw type
+        cache.invalidate(runtime.getCoreInstance(M3Paths.List));
+        Assert.assertEquals(Integer.valueOf(4), cache.getIfAbsentPutResult(key, function, processorSupport));
+    }
+
+    @Test
+    public void testCacheIsBounded()
+    {
+        GenericTypeValueCache cache = new GenericTypeValueCache(2);
+        Assert.assertNotNull(cache.getValue(Type.wrapGenericType(runtime.getCoreInstance(M3Paths.String), processorSupport), processorSupport));
+        Assert.assertNotNull(cache.getValue(Type.wrapGenericType(runtime.getCoreInstance(M3Paths.Integer), processorSupport), processorSupport));
+        Assert.assertEquals(2, cache.size());
+
+        Assert.assertNotNull(cache.getValue(Type.wrapGenericType(runtime.getCoreInstance(M3Paths.Boolean), processorSupport), processorSupport));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    private static CoreInstance newListGenericType(String typeArgumentPath)
+    {
+        return newListGenericType(Type.wrapGenericType(runtime.getCoreInstance(typeArgumentPath), processorSupport));
+    }
+
+    private static CoreInstance newListGenericType(CoreInstance typeArgument)
+    {
+        CoreInstance genericType = Type.wrapGenericType(runtime.getCoreInstance(M3Paths.List), processorSupport);
+        Instance.setValuesForProperty(genericType, M3Properties.typeArguments, Lists.immutable.with(typeArgument), processorSupport);
+        return genericType;
+    }
+}
@@ -15,7 +15,10 @@
 package org.finos.legend.pure.m4;
 
 import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.ConcurrentMutableMap;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.eclipse.collections.api.set.MutableSet;
@@ -34,6 +37,7 @@ import org.finos.legend.pure.m4.coreinstance.primitive.DecimalCoreInstance;
 import org.finos.legend.pure.m4.coreinstance.primitive.FloatCoreInstance;
 import org.finos.legend.pure.m4.coreinstance.primitive.IntegerCoreInstance;
 import org.finos.legend.pure.m4.coreinstance.primitive.PrimitiveCoreInstance;
+import org.finos.legend.pure.m4.coreinstance.primitive.PrimitiveInterner;
 import org.finos.legend.pure.m4.coreinstance.primitive.StrictTimeCoreInstance;
 import org.finos.legend.pure.m4.coreinstance.primitive.StringCoreInstance;
 import org.finos.legend.pure.m4.coreinstance.primitive.date.DateFunctions;
@@ -41,6 +45,7 @@ import org.finos.legend.pure.m4.coreinstance.primitive.date.LatestDate;
 import org.finos.legend.pure.m4.coreinstance.primitive.date.PureDate;
 import org.finos.legend.pure.m4.coreinstance.primitive.strictTime.PureStrictTime;
 import org.finos.legend.pure.m4.coreinstance.primitive.strictTime.StrictTimeFunctions;
+import org.finos.legend.pure.m4.coreinstance.simple.PropertyLayouts;
 import org.finos.legend.pure.m4.coreinstance.simple.SimpleCoreInstance;
 import org.finos.legend.pure.m4.coreinstance.simple.SimpleCoreInstanceFactory;
 import org.finos.legend.pure.m4.exception.PureCompilationException;
@@ -49,7 +54,9 @@ import org.finos.legend.pure.m4.serialization.binary.BinaryRepositorySerializer;
 import org.finos.legend.pure.m4.serialization.binary.BinaryWriters;
 import org.finos.legend.pure.m4.serialization.grammar.NameSpace;
 import org.finos.legend.pure.m4.statelistener.M4StateListener;
+import org.finos.legend.pure.m4.transaction.ModelRepositorySnapshot;
 import org.finos.legend.pure.m4.transaction.ModelRepositoryTransaction;
+import org.finos.legend.pure.m4.transaction.ModelRepositoryVersions;
 import org.finos.legend.pure.m4.transaction.TransactionObserver;
 import org.finos.legend.pure.m4.transaction.VoidTransactionObserver;
 import org.finos.legend.pure.m4.transaction.framework.TransactionManager;
@@ -62,6 +69,8 @@ import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class ModelRepository
 {
@@ -82,31 +91,96 @@ public class ModelRepository
     public static final String BOOLEAN_TRUE = "true";
     public static final String BOOLEAN_FALSE = "false";
 
+    /**
+     * Reference type for interned persistent primitive instances: strong (default), soft, or weak. Persistent
+     * instances are referenced from the graph for as long as it holds them, so weak or soft references mostly
+     * add reference and queue overhead; they only help when much of the graph is unloaded.
+     */
+    public static final String INTERN_REFERENCE_TYPE_PROPERTY = "pure.repository.intern.referenceType";
+
+    /**
+     * Maximum number of interned persistent instances per primitive type (default 0, i.e., unbounded).
+     */
+    public static final String INTERN_MAX_SIZE_PROPERTY = "pure.repository.intern.maxSize";
+
+    /**
+     * Maximum number of interned ephemeral instances per primitive type (default -1, i.e., ephemeral
+     * instances are not interned). Ephemeral instances are held by soft references.
+     */
+    public static final String EPHEMERAL_INTERN_MAX_SIZE_PROPERTY = "pure.repository.intern.ephemeralMaxSize";
+
+    /**
+     * Maximum value of the cached Integer instances (default 1000). The minimum value is -1.
+     */
+    public static final String INTEGER_CACHE_MAX_PROPERTY = "pure.repository.intern.integerCacheMax";
+
     private static final String ANONYMOUS_NAME_PREFIX = "@_";
     private static final int ANONYMOUS_PADDING_LENGTH = Integer.toString(Integer.MAX_VALUE, 32).length();
     private static final int ANONYMOUS_PADDING_TOTAL_LENGTH = ANONYMOUS_NAME_PREFIX.length() + ANONYMOUS_PADDING_LENGTH;
 
     private final ConcurrentMutableMap<String, CoreInstance> topLevelMap = ConcurrentHashMap.newMap();
     private ImmutableSet<CoreInstance> exclusionSet = Sets.immutable.with();
+    private volatile Predicate<? super String> topLevelLoader;
     private final AtomicInteger idCounter = new AtomicInteger(0);
     private final AtomicInteger anonymousIdCounter = new AtomicInteger(0);
 
     private final ModelRepositoryTransactionManager transactionManager = new ModelRepositoryTransactionManager();
+    private final ModelRepositoryVersions versions = new ModelRepositoryVersions();
 
     private final AtomicReference<BooleanCoreInstance> cachedTrue = new AtomicReference<>();
     private final AtomicReference<BooleanCoreInstance> cachedFalse = new AtomicReference<>();
     private final int integerCacheMin = -1;
-    private final int integerCacheMax = 1000;
-    private final AtomicReferenceArray<IntegerCoreInstance> integerCache = new AtomicReferenceArray<>((this.integerCacheMax - this.integerCacheMin) + 1);
-    private final ConcurrentMutableMap<String, StringCoreInstance> stringCache = ConcurrentHashMap.newMap();
+    private final int integerCacheMax;
+    private final AtomicReferenceArray<IntegerCoreInstance> integerCache;
+    private final PrimitiveInterner<String, StringCoreInstance> stringInterner;
+    private final PrimitiveInterner<String, StringCoreInstance> ephemeralStringInterner;
+    private final PrimitiveInterner<BigDecimal, FloatCoreInstance> floatInterner;
+    private final PrimitiveInterner<BigDecimal, FloatCoreInstance> ephemeralFloatInterner;
+    private final PrimitiveInterner<BigDecimal, DecimalCoreInstance> decimalInterner;
+    private final PrimitiveInterner<BigDecimal, DecimalCoreInstance> ephemeralDecimalInterner;
+    private final PrimitiveInterner<PureDate, DateCoreInstance> dateInterner;
+    private final PrimitiveInterner<PureDate, DateCoreInstance> ephemeralDateInterner;
+
+    private final PropertyLayouts propertyLayouts = new PropertyLayouts();
 
     private final MultipassCoreInstanceFactory coreInstanceFactory;
 
     private TransactionObserver transactionObserver = VoidTransactionObserver.VOID_TRANSACTION_OBSERVER;
 
     public ModelRepository(MultipassCoreInstanceFactory factory)
+    {
+        this(factory,
+                PrimitiveInterner.parseReferenceType(System.getProperty(INTERN_REFERENCE_TYPE_PROPERTY, PrimitiveInterner.ReferenceType.STRONG.name())),
+                Integer.getInteger(INTERN_MAX_SIZE_PROPERTY, PrimitiveInterner.UNBOUNDED),
+                Integer.getInteger(EPHEMERAL_INTERN_MAX_SIZE_PROPERTY, PrimitiveInterner.DISABLED),
+                Integer.getInteger(INTEGER_CACHE_MAX_PROPERTY, 1000));
+    }
+
+    /**
+     * Create a model repository with the given primitive interning settings. Persistent primitive instances
+     * (e.g., literals in the graph) are interned with the given reference type. Ephemeral primitive instances
+     * (e.g., the results of executions) are always looked up among the persistent ones, and are otherwise only
+     * interned if the ephemeral maximum size is not negative. Bounds apply separately to each primitive type.
+     *
+     * @param factory                core instance factory
+     * @param internReferenceType    reference type for interned persistent instances
+     * @param internMaxSize          maximum number of interned persistent instances (0 for unbounded)
+     * @param ephemeralInternMaxSize maximum number of interned ephemeral instances (0 for unbounded, -1 to disable)
+     * @param integerCacheMax        maximum value of the cached Integer instances
+     */
+    public ModelRepository(MultipassCoreInstanceFactory factory, PrimitiveInterner.ReferenceType internReferenceType, int internMaxSize, int ephemeralInternMaxSize, int integerCacheMax)
     {
         this.coreInstanceFactory = factory;
+        this.integerCacheMax = Math.max(integerCacheMax, this.integerCacheMin - 1);
+        this.integerCache = new AtomicReferenceArray<>((this.integerCacheMax - this.integerCacheMin) + 1);
+        this.stringInterner = new PrimitiveInterner<>(STRING_TYPE_NAME, internReferenceType, internMaxSize);
+        this.ephemeralStringInterner = new PrimitiveInterner<>(STRING_TYPE_NAME + " (ephemeral)", PrimitiveInterner.ReferenceType.SOFT, ephemeralInternMaxSize);
+        this.floatInterner = new PrimitiveInterner<>(FLOAT_TYPE_NAME, internReferenceType, internMaxSize);
+        this.ephemeralFloatInterner = new PrimitiveInterner<>(FLOAT_TYPE_NAME + " (ephemeral)", PrimitiveInterner.ReferenceType.SOFT, ephemeralInternMaxSize);
+        this.decimalInterner = new PrimitiveInterner<>(DECIMAL_TYPE_NAME, internReferenceType, internMaxSize);
+        this.ephemeralDecimalInterner = new PrimitiveInterner<>(DECIMAL_TYPE_NAME + " (ephemeral)", PrimitiveInterner.ReferenceType.SOFT, ephemeralInternMaxSize);
+        this.dateInterner = new PrimitiveInterner<>(DATE_TYPE_NAME, internReferenceType, internMaxSize);
+        this.ephemeralDateInterner = new PrimitiveInterner<>(DATE_TYPE_NAME + " (ephemeral)", PrimitiveInterner.ReferenceType.SOFT, ephemeralInternMaxSize);
     }
 
     public ModelRepository()
@@ -123,7 +197,33 @@ public class ModelRepository
     public CoreInstance getTopLevel(String name)
     {
         ModelRepositoryTransaction transaction = getTransaction();
-        return ((transaction != null) && transaction.isOpen()) ? transaction.getTopLevel(name) : this.topLevelMap.get(name);
+        if ((transaction != null) && transaction.isOpen())
+        {
+            return transaction.getTopLevel(name);
+        }
+        CoreInstance topLevel = this.topLevelMap.get(name);
+        if (topLevel == null)
+        {
+            Predicate<? super String> loader = this.topLevelLoader;
+            if ((loader == null) || !loader.test(name))
+            {
+                return null;
+            }
+            topLevel = this.topLevelMap.get(name);
+        }
+        return ((topLevel == null) || this.versions.isTopLevelVisible(name)) ? topLevel : null;
+    }
+
+    /**
+     * Set a loader for top level elements which are not yet in the repository, for on-demand loading.
+     * The loader is called with the name of a top level element which could not be found outside of a
+     * transaction, and should return whether it loaded anything. Pass null to remove the loader.
+     *
+     * @param topLevelLoader top level element loader, or null
+     */
+    public void setTopLevelLoader(Predicate<? super String> topLevelLoader)
+    {
+        this.topLevelLoader = topLevelLoader;
     }
 
     public void addTopLevel(CoreInstance topLevel)
@@ -144,7 +244,16 @@ public class ModelRepository
     public RichIterable<CoreInstance> getTopLevels()
     {
         ModelRepositoryTransaction transaction = getTransaction();
-        return ((transaction != null) && transaction.isOpen()) ? transaction.getTopLevels() : this.topLevelMap.valuesView();
+        if ((transaction != null) && transaction.isOpen())
+        {
+            return transaction.getTopLevels();
+        }
+        if (this.versions.hasHistory())
+        {
+            // select eagerly, so that the result is as of the version read in the current thread
+            return this.topLevelMap.valuesView().select(topLevel -> this.versions.isTopLevelVisible(topLevel.getName()), Lists.mutable.empty());
+        }
+        return this.topLevelMap.valuesView();
     }
 
     public int getIdCounter()
@@ -157,9 +266,26 @@ public class ModelRepository
         return this.anonymousIdCounter.get();
     }
 
+    /**
+     * Get the primitive interners of the repository, e.g., for their hit and eviction statistics.
+     *
+     * @return primitive interners
+     */
+    public ListIterable<PrimitiveInterner<?, ?>> getPrimitiveInterners()
+    {
+        return Lists.immutable.with(this.stringInterner, this.ephemeralStringInterner, this.floatInterner, this.ephemeralFloatInterner,
+                this.decimalInterner, this.ephemeralDecimalInterner, this.dateInterner, this.ephemeralDateInterner);
+    }
+
+    public PropertyLayouts getPropertyLayouts()
+    {
+        return this.propertyLayouts;
+    }
+
     public void clear()
     {
         this.transactionManager.clear();
+        this.versions.clear();
         this.topLevelMap.clear();
         this.exclusionSet = Sets.immutable.empty();
         this.idCounter.set(0);
@@ -171,7 +297,8 @@ public class ModelRepository
     {
         this.cachedTrue.set(null);
         this.cachedFalse.set(null);
-        this.stringCache.clear();
+        getPrimitiveInterners().forEach(PrimitiveInterner::clear);
+        this.propertyLayouts.clear();
         for (int i = 0, size = this.integerCache.length(); i < size; i++)
         {
             this.integerCache.set(i, null);
@@ -252,7 +379,7 @@ public class ModelRepository
             {
                 throw new IllegalArgumentException("Instances of " + DATE_TYPE_NAME + " may not have source information");
             }
-            return newDateCoreInstance(name);
+            return newDateCoreInstance(getPureDate(name), persistent);
         }
         if (classifier.equals(getTopLevel(STRICT_DATE_TYPE_NAME)))
         {
@@ -260,7 +387,7 @@ public class ModelRepository
             {
                 throw new IllegalArgumentException("Instances of " + STRICT_DATE_TYPE_NAME + " may not have source information");
             }
-            return newStrictDateCoreInstance(name);
+            return newStrictDateCoreInstance(getPureDate(name), persistent);
         }
         if (classifier.equals(getTopLevel(DATETIME_TYPE_NAME)))
         {
@@ -268,7 +395,7 @@ public class ModelRepository
             {
                 throw new IllegalArgumentException("Instances of " + DATETIME_TYPE_NAME + " may not have source information");
             }
-            return newDateCoreInstance(name);
+            return newDateCoreInstance(getPureDate(name), persistent);
         }
         if (classifier.equals(getTopLevel(STRICT_TIME_TYPE_NAME)))
         {
@@ -284,7 +411,7 @@ public class ModelRepository
             {
                 throw new IllegalArgumentException("Instances of " + FLOAT_TYPE_NAME + " may not have source information");
             }
-            return newFloatCoreInstance(name);
+            return newFloatCoreInstance(parseFloat(name), persistent);
         }
         if (classifier.equals(getTopLevel(DECIMAL_TYPE_NAME)))
         {
@@ -292,7 +419,7 @@ public class ModelRepository
             {
                 throw new IllegalArgumentException("Instances of " + DECIMAL_TYPE_NAME + " may not have source information");
             }
-            return newDecimalCoreInstance(name);
+            return newDecimalCoreInstance(parseDecimal(name), persistent);
         }
         if (classifier.equals(getTopLevel(INTEGER_TYPE_NAME)))
         {
@@ -427,22 +554,22 @@ public class ModelRepository
 
     public CoreInstance newLatestDateCoreInstance()
     {
-        return newDateCoreInstance(LatestDate.instance, LATEST_DATE_TYPE_NAME);
+        return newDateCoreInstance(LatestDate.instance, LATEST_DATE_TYPE_NAME, true);
     }
 
     public DateCoreInstance newDateCoreInstance(String name)
     {
-        return newDateCoreInstance(getPureDate(name));
+        return newDateCoreInstance(getPureDate(name), true);
     }
 
     public DateCoreInstance newStrictDateCoreInstance(String name)
     {
-        return newStrictDateCoreInstance(getPureDate(name));
+        return newStrictDateCoreInstance(getPureDate(name), true);
     }
 
     public CoreInstance newDateTimeCoreInstance(String name)
     {
-        return newDateTimeCoreInstance(getPureDate(name));
+        return newDateTimeCoreInstance(getPureDate(name), true);
     }
 
     public CoreInstance newStrictTimeCoreInstance(String name)
@@ -470,25 +597,40 @@ public class ModelRepository
 
     public DateCoreInstance newDateCoreInstance(PureDate value)
     {
-        return newDateCoreInstance(value, DateFunctions.datePrimitiveType(value));
+        return newDateCoreInstance(value, false);
     }
 
     public DateCoreInstance newStrictDateCoreInstance(PureDate value)
+    {
+        return newStrictDateCoreInstance(value, false);
+    }
+
+    public DateCoreInstance newDateTimeCoreInstance(PureDate value)
+    {
+        return newDateTimeCoreInstance(value, false);
+    }
+
+    private DateCoreInstance newDateCoreInstance(PureDate value, boolean persistent)
+    {
+        return newDateCoreInstance(value, DateFunctions.datePrimitiveType(value), persistent);
+    }
+
+    private DateCoreInstance newStrictDateCoreInstance(PureDate value, boolean persistent)
     {
         if (!value.hasDay() || value.hasHour())
         {
             throw new PureCompilationException("StrictDate must be a calendar day, got: " + value);
         }
-        return newDateCoreInstance(value, STRICT_DATE_TYPE_NAME);
+        return newDateCoreInstance(value, STRICT_DATE_TYPE_NAME, persistent);
     }
 
-    public DateCoreInstance newDateTimeCoreInstance(PureDate value)
+    private DateCoreInstance newDateTimeCoreInstance(PureDate value, boolean persistent)
     {
         if (!value.hasHour())
         {
             throw new PureCompilationException("DateTime must include time information, got: " + value);
         }
-        return newDateCoreInstance(value, DATETIME_TYPE_NAME);
+        return newDateCoreInstance(value, DATETIME_TYPE_NAME, persistent);
     }
 
     public StrictTimeCoreInstance newStrictTimeCoreInstance(PureStrictTime value)
@@ -500,9 +642,12 @@ public class ModelRepository
         return newStrictTimeCoreInstance(value, STRICT_TIME_TYPE_NAME);
     }
 
-    private DateCoreInstance newDateCoreInstance(PureDate value, String typeName)
+    private DateCoreInstance newDateCoreInstance(PureDate value, String typeName, boolean persistent)
     {
-        return newDateCoreInstance(value, getOrCreateTopLevel(typeName, null), nextId());
+        CoreInstance classifier = getOrCreateTopLevel(typeName, null);
+        DateCoreInstance instance = intern(this.dateInterner, this.ephemeralDateInterner, persistent, value, v -> newDateCoreInstance(v, classifier, nextId()));
+        // the same date value may be requested with different types (e.g., Date and StrictDate)
+        return (instance.getClassifier() == classifier) ? instance : newDateCoreInstance(value, classifier, nextId());
     }
 
     private DateCoreInstance newDateCoreInstance(PureDate value, CoreInstance classifier, int internalSyntheticId)
@@ -546,7 +691,7 @@ public class ModelRepository
 
     public FloatCoreInstance newFloatCoreInstance(String name)
     {
-        return newFloatCoreInstance(new BigDecimal(name.endsWith("F") || name.endsWith("f") ? name.substring(0, name.length() - 1) : name));
+        return newFloatCoreInstance(parseFloat(name), true);
     }
 
     // Should be used only by BinaryRepositorySerializer
@@ -557,7 +702,12 @@ public class ModelRepository
 
     public FloatCoreInstance newFloatCoreInstance(BigDecimal value)
     {
-        return newFloatCoreInstance(value, getOrCreateTopLevel(FLOAT_TYPE_NAME, null), nextId());
+        return newFloatCoreInstance(value, false);
+    }
+
+    private FloatCoreInstance newFloatCoreInstance(BigDecimal value, boolean persistent)
+    {
+        return intern(this.floatInterner, this.ephemeralFloatInterner, persistent, value, v -> newFloatCoreInstance(v, getOrCreateTopLevel(FLOAT_TYPE_NAME, null), nextId()));
     }
 
     private FloatCoreInstance newFloatCoreInstance(BigDecimal value, CoreInstance classifier, int internalSyntheticId)
@@ -567,7 +717,7 @@ public class ModelRepository
 
     public DecimalCoreInstance newDecimalCoreInstance(String name)
     {
-        return newDecimalCoreInstance(new BigDecimal(name.endsWith("D") || name.endsWith("d") ? name.substring(0, name.length() - 1) : name));
+        return newDecimalCoreInstance(parseDecimal(name), true);
     }
 
     // Should be used only by BinaryRepositorySerializer
@@ -578,7 +728,12 @@ public class ModelRepository
 
     public DecimalCoreInstance newDecimalCoreInstance(BigDecimal value)
     {
-        return newDecimalCoreInstance(value, getOrCreateTopLevel(DECIMAL_TYPE_NAME, null), nextId());
+        return newDecimalCoreInstance(value, false);
+    }
+
+    private DecimalCoreInstance newDecimalCoreInstance(BigDecimal value, boolean persistent)
+    {
+        return intern(this.decimalInterner, this.ephemeralDecimalInterner, persistent, value, v -> newDecimalCoreInstance(v, getOrCreateTopLevel(DECIMAL_TYPE_NAME, null), nextId()));
     }
 
     private DecimalCoreInstance newDecimalCoreInstance(BigDecimal value, CoreInstance classifier, int internalSyntheticId)
@@ -586,6 +741,16 @@ public class ModelRepository
         return PrimitiveCoreInstance.newDecimalCoreInstance(value, classifier, internalSyntheticId);
     }
 
+    private static BigDecimal parseFloat(String name)
+    {
+        return new BigDecimal(name.endsWith("F") || name.endsWith("f") ? name.substring(0, name.length() - 1) : name);
+    }
+
+    private static BigDecimal parseDecimal(String name)
+    {
+        return new BigDecimal(name.endsWith("D") || name.endsWith("d") ? name.substring(0, name.length() - 1) : name);
+    }
+
     public IntegerCoreInstance newIntegerCoreInstance(String name)
     {
         return newIntegerCoreInstance(name, getOrCreateTopLevel(INTEGER_TYPE_NAME, null), nextId());
@@ -685,19 +850,18 @@ public class ModelRepository
 
     public StringCoreInstance newStringCoreInstance(String value)
     {
-        StringCoreInstance instance = this.stringCache.get(value);
-        return (instance == null) ? newStringInstance(value) : instance;
+        return intern(this.stringInterner, this.ephemeralStringInterner, false, value, this::newStringInstance);
     }
 
     public StringCoreInstance newStringCoreInstance_cached(String value)
     {
-        return this.stringCache.getIfAbsentPutWithKey(value, this::newStringInstance);
+        return this.stringInterner.getIfAbsentPut(value, this::newStringInstance);
     }
 
     // Should be used only by BinaryRepositorySerializer
     public StringCoreInstance newStringCoreInstance_cached(String value, int internalSyntheticId)
     {
-        return this.stringCache.getIfAbsentPut(value, () -> newStringInstance(value, internalSyntheticId));
+        return this.stringInterner.getIfAbsentPut(value, v -> newStringInstance(v, internalSyntheticId));
     }
 
     private StringCoreInstance newStringInstance(String value)
@@ -740,6 +904,16 @@ public class ModelRepository
         return PrimitiveCoreInstance.newByteCoreInstance(value, classifier, internalSyntheticId);
     }
 
+    private static <K, V> V intern(PrimitiveInterner<K, V> interner, PrimitiveInterner<K, V> ephemeralInterner, boolean persistent, K value, Function<? super K, ? extends V> factory)
+    {
+        if (persistent)
+        {
+            return interner.getIfAbsentPut(value, factory);
+        }
+        V instance = interner.get(value);
+        return (instance == null) ? ephemeralInterner.getIfAbsentPut(value, factory) : instance;
+    }
+
     private void registerNewInstanceInTransaction(CoreInstance newInstance)
     {
         ModelRepositoryTransaction transaction = getTransaction();
@@ -850,6 +1024,43 @@ public class ModelRepository
         return this.transactionManager.getThreadLocalTransaction();
     }
 
+    /**
+     * Get the committed versions of the repository. Readers which need a consistent view of the model across
+     * many reads while transactions may be committed should read in a snapshot (see {@link #openSnapshot()}).
+     *
+     * @return committed versions
+     */
+    public ModelRepositoryVersions getVersions()
+    {
+        return this.versions;
+    }
+
+    /**
+     * Open a snapshot of the latest committed version of the repository in the current thread. Until it is
+     * closed, reads in the current thread outside a transaction see the model as of that version, and are not
+     * affected by transactions committed in the meantime.
+     *
+     * @return snapshot
+     */
+    public ModelRepositorySnapshot openSnapshot()
+    {
+        return this.versions.openSnapshot();
+    }
+
+    /**
+     * Get the committed state of an instance as of the version read in the current thread. The current state
+     * must be read before calling this (see {@link ModelRepositoryVersions#getState}).
+     *
+     * @param instance     instance
+     * @param currentState current committed state of the instance
+     * @param <T>          state type
+     * @return committed state as of the read version
+     */
+    public <T> T getCommittedState(CoreInstance instance, T currentState)
+    {
+        return this.versions.getState(instance, currentState);
+    }
+
     public void commitTransactionTopLevels(ModelRepositoryTransaction transaction)
     {
         if (transaction == null)
@@ -860,8 +1071,22 @@ public class ModelRepository
         {
             throw new IllegalArgumentException("transaction is for a different model repository");
         }
+        MutableList<CoreInstance> newTopLevels = Lists.mutable.empty();
         for (CoreInstance topLevel : transaction.getTopLevels())
         {
+            CoreInstance current = this.topLevelMap.get(topLevel.getName());
+            if (current == null)
+            {
+                newTopLevels.add(topLevel);
+            }
+            else if (current != topLevel)
+            {
+                throw new RuntimeException("A top level element already exists with the name \"" + topLevel.getName() + "\"");
+            }
+        }
+        for (CoreInstance topLevel : newTopLevels)
+        {
+            this.versions.recordAddedTopLevel(topLevel.getName());
             CoreInstance current = this.topLevelMap.getIfAbsentPut(topLevel.getName(), topLevel);
             if (current != topLevel)
             {
@@ -17,26 +17,49 @@ package org.finos.legend.pure.m4.coreinstance;
 import org.finos.legend.pure.m4.tools.SafeAppendable;
 
 import java.io.IOException;
-
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Source information: a source id, and start, main, and end positions in that source. Instances are stored
+ * compactly: the source id is interned (so each source id string is held only once while it is in use), and
+ * each position is packed into a single int. Positions which do not fit in the packed form (lines beyond
+ * 131,070, columns beyond 32,766, or values below -1) are held in an array belonging to the instance.
+ */
 public class SourceInformation implements Comparable<SourceInformation>
 {
+    private static final int COLUMN_BITS = 15;
+    private static final int LINE_BITS = Integer.SIZE - COLUMN_BITS;
+    private static final int COLUMN_MASK = (1 << COLUMN_BITS) - 1;
+
+    // values are stored with an offset of 1, so that -1 (often used for unknown positions) can be packed
+    private static final int MAX_PACKED_LINE = (1 << LINE_BITS) - 2;
+    private static final int MAX_PACKED_COLUMN = COLUMN_MASK - 1;
+
     private final String sourceId;
-    private final int line;
-    private final int column;
-    private final int startLine;
-    private final int startColumn;
-    private final int endLine;
-    private final int endColumn;
+    private final int start;
+    private final int main;
+    private final int end;
+    // only set if some position cannot be packed: start line, start column, line, column, end line, end column
+    private final int[] overflow;
 
     public SourceInformation(String sourceId, int startLine, int startColumn, int line, int column, int endLine, int endColumn)
     {
-        this.sourceId = sourceId;
-        this.line = line;
-        this.column = column;
-        this.startLine = startLine;
-        this.startColumn = startColumn;
-        this.endLine = endLine;
-        this.endColumn = endColumn;
+        this.sourceId = (sourceId == null) ? null : sourceId.intern();
+        if (canPack(startLine, startColumn) && canPack(line, column) && canPack(endLine, endColumn))
+        {
+            this.start = pack(startLine, startColumn);
+            this.main = pack(line, column);
+            this.end = pack(endLine, endColumn);
+            this.overflow = null;
+        }
+        else
+        {
+            this.start = 0;
+            this.main = 0;
+            this.end = 0;
+            this.overflow = new int[]{startLine, startColumn, line, column, endLine, endColumn};
+        }
     }
 
     public SourceInformation(String sourceId, int startLine, int startColumn, int endLine, int endColumn)
@@ -51,32 +74,32 @@ public class SourceInformation implements Comparable<SourceInformation>
 
     public int getLine()
     {
-        return this.line;
+        return (this.overflow == null) ? unpackLine(this.main) : this.overflow[2];
     }
 
     public int getColumn()
     {
-        return this.column;
+        return (this.overflow == null) ? unpackColumn(this.main) : this.overflow[3];
     }
 
     public int getStartLine()
     {
-        return this.startLine;
+        return (this.overflow == null) ? unpackLine(this.start) : this.overflow[0];
     }
 
     public int getStartColumn()
     {
-        return this.startColumn;
+        return (this.overflow == null) ? unpackColumn(this.start) : this.overflow[1];
     }
 
     public int getEndLine()
     {
-        return this.endLine;
+        return (this.overflow == null) ? unpackLine(this.end) : this.overflow[4];
     }
 
     public int getEndColumn()
     {
-        return this.endColumn;
+        return (this.overflow == null) ? unpackColumn(this.end) : this.overflow[5];
     }
 
     /**
@@ -86,7 +109,7 @@ public class SourceInformation implements Comparable<SourceInformation>
      */
     public String getMessage()
     {
-        return appendMessage(new StringBuilder(this.sourceId.length() + 16)).toString();
+        return appendMessage(new StringBuilder(this.getSourceId().length() + 16)).toString();
     }
 
     /**
@@ -126,7 +149,7 @@ public class SourceInformation implements Comparable<SourceInformation>
      */
     public <T extends Appendable> T appendMessage(T appendable)
     {
-        appendInterval(SafeAppendable.wrap(appendable).append(this.sourceId).append(':'));
+        appendInterval(SafeAppendable.wrap(appendable).append(this.getSourceId()).append(':'));
         return appendable;
     }
 
@@ -145,28 +168,28 @@ public class SourceInformation implements Comparable<SourceInformation>
 
     private void appendInterval(SafeAppendable appendable)
     {
-        if (this.startLine == this.endLine)
+        if (this.getStartLine() == this.getEndLine())
         {
-            appendable.append(this.startLine);
-            if (this.startColumn == this.endColumn)
+            appendable.append(this.getStartLine());
+            if (this.getStartColumn() == this.getEndColumn())
             {
-                appendable.append('c').append(this.startColumn);
+                appendable.append('c').append(this.getStartColumn());
             }
             else
             {
-                appendable.append("cc").append(this.startColumn).append('-').append(this.endColumn);
+                appendable.append("cc").append(this.getStartColumn()).append('-').append(this.getEndColumn());
             }
         }
         else
         {
-            appendable.append(this.startLine).append('c').append(this.startColumn).append('-')
-                    .append(this.endLine).append('c').append(this.endColumn);
+            appendable.append(this.getStartLine()).append('c').append(this.getStartColumn()).append('-')
+                    .append(this.getEndLine()).append('c').append(this.getEndColumn());
         }
     }
 
     public String toM4String()
     {
-        return getM4SourceString(this.sourceId, this.startLine, this.startColumn, this.line, this.column, this.endLine, this.endColumn);
+        return getM4SourceString(this.getSourceId(), this.getStartLine(), this.getStartColumn(), this.getLine(), this.getColumn(), this.getEndLine(), this.getEndColumn());
     }
 
     /**
@@ -180,19 +203,19 @@ public class SourceInformation implements Comparable<SourceInformation>
 
     public <T extends Appendable> T appendM4String(T appendable)
     {
-        return appendM4SourceInformation(appendable, this.sourceId, this.startLine, this.startColumn, this.line, this.column, this.endLine, this.endColumn);
+        return appendM4SourceInformation(appendable, this.getSourceId(), this.getStartLine(), this.getStartColumn(), this.getLine(), this.getColumn(), this.getEndLine(), this.getEndColumn());
     }
 
     @Override
     public int hashCode()
     {
-        int result = this.sourceId.hashCode();
-        result = 31 * result + this.line;
-        result = 31 * result + this.column;
-        result = 31 * result + this.startLine;
-        result = 31 * result + this.startColumn;
-        result = 31 * result + this.endLine;
-        result = 31 * result + this.endColumn;
+        int result = this.getSourceId().hashCode();
+        result = 31 * result + this.getLine();
+        result = 31 * result + this.getColumn();
+        result = 31 * result + this.getStartLine();
+        result = 31 * result + this.getStartColumn();
+        result = 31 * result + this.getEndLine();
+        result = 31 * result + this.getEndColumn();
         return result;
     }
 
@@ -208,14 +231,13 @@ public class SourceInformation implements Comparable<SourceInformation>
             return false;
         }
 
+        // the packed (or overflow) representation of positions is canonical
         SourceInformation sourceInfo = (SourceInformation) other;
-        return this.sourceId.equals(sourceInfo.sourceId) &&
-                (this.line == sourceInfo.line) &&
-                (this.column == sourceInfo.column) &&
-                (this.startLine == sourceInfo.startLine) &&
-                (this.startColumn == sourceInfo.startColumn) &&
-                (this.endLine == sourceInfo.endLine) &&
-                (this.endColumn == sourceInfo.endColumn);
+        return (this.start == sourceInfo.start) &&
+                (this.main == sourceInfo.main) &&
+                (this.end == sourceInfo.end) &&
+                Objects.equals(this.sourceId, sourceInfo.sourceId) &&
+                Arrays.equals(this.overflow, sourceInfo.overflow);
     }
 
     @Override
@@ -246,9 +268,9 @@ public class SourceInformation implements Comparable<SourceInformation>
     public boolean subsumes(SourceInformation other)
     {
         return (other != null) &&
-                this.sourceId.equals(other.sourceId) &&
-                isNotAfter(this.startLine, this.startColumn, other.startLine, other.startColumn) &&
-                isNotBefore(this.endLine, this.endColumn, other.endLine, other.endColumn);
+                this.getSourceId().equals(other.getSourceId()) &&
+                isNotAfter(this.getStartLine(), this.getStartColumn(), other.getStartLine(), other.getStartColumn()) &&
+                isNotBefore(this.getEndLine(), this.getEndColumn(), other.getEndLine(), other.getEndColumn());
     }
 
     /**
@@ -261,9 +283,9 @@ public class SourceInformation implements Comparable<SourceInformation>
     public boolean intersects(SourceInformation other)
     {
         return (other != null) &&
-                this.sourceId.equals(other.sourceId) &&
-                isNotAfter(this.startLine, this.startColumn, other.endLine, other.endColumn) &&
-                isNotBefore(this.endLine, this.endColumn, other.startLine, other.startColumn);
+                this.getSourceId().equals(other.getSourceId()) &&
+                isNotAfter(this.getStartLine(), this.getStartColumn(), other.getEndLine(), other.getEndColumn()) &&
+                isNotBefore(this.getEndLine(), this.getEndColumn(), other.getStartLine(), other.getStartColumn());
     }
 
     /**
@@ -276,7 +298,7 @@ public class SourceInformation implements Comparable<SourceInformation>
     public boolean isValid()
     {
         // Source id must not be null
-        if (this.sourceId == null)
+        if (this.getSourceId() == null)
         {
             return false;
         }
@@ -284,22 +306,22 @@ public class SourceInformation implements Comparable<SourceInformation>
         // Source information with 0 for a line or column value occurs with ImportGroups with no Imports. In this case,
         // all column values should be 0 and all line values should be equal (and may be 0). We check for this unusual
         // but valid case by checking if the start column is 0.
-        if (this.startColumn == 0)
+        if (this.getStartColumn() == 0)
         {
-            return (this.startLine >= 0) &&
-                    (this.startLine == this.line) &&
-                    (this.startLine == this.endLine) &&
-                    (this.column == 0) &&
-                    (this.endColumn == 0);
+            return (this.getStartLine() >= 0) &&
+                    (this.getStartLine() == this.getLine()) &&
+                    (this.getStartLine() == this.getEndLine()) &&
+                    (this.getColumn() == 0) &&
+                    (this.getEndColumn() == 0);
         }
 
         // Otherwise, all line and column values must be strictly greater than 0, and the interval must be valid.
-        return (this.startLine > 0) &&
-                (this.startColumn > 0) &&
-                (this.column > 0) &&
-                (this.endColumn > 0) &&
-                isNotBefore(this.line, this.column, this.startLine, this.startColumn) &&
-                isNotBefore(this.endLine, this.endColumn, this.line, this.column);
+        return (this.getStartLine() > 0) &&
+                (this.getStartColumn() > 0) &&
+                (this.getColumn() > 0) &&
+                (this.getEndColumn() > 0) &&
+                isNotBefore(this.getLine(), this.getColumn(), this.getStartLine(), this.getStartColumn()) &&
+                isNotBefore(this.getEndLine(), this.getEndColumn(), this.getLine(), this.getColumn());
     }
 
     @Override
@@ -467,7 +489,7 @@ public class SourceInformation implements Comparable<SourceInformation>
      */
     public static int compareBySourceId(SourceInformation sourceInfo1, SourceInformation sourceInfo2)
     {
-        return sourceInfo1.sourceId.compareTo(sourceInfo2.sourceId);
+        return sourceInfo1.getSourceId().compareTo(sourceInfo2.getSourceId());
     }
 
     /**
@@ -480,7 +502,7 @@ public class SourceInformation implements Comparable<SourceInformation>
      */
     public static int compareByStartPosition(SourceInformation sourceInfo1, SourceInformation sourceInfo2)
     {
-        return comparePositions(sourceInfo1.startLine, sourceInfo1.startColumn, sourceInfo2.startLine, sourceInfo2.startColumn);
+        return comparePositions(sourceInfo1.getStartLine(), sourceInfo1.getStartColumn(), sourceInfo2.getStartLine(), sourceInfo2.getStartColumn());
     }
 
     /**
@@ -493,7 +515,7 @@ public class SourceInformation implements Comparable<SourceInformation>
      */
     public static int compareByMainPosition(SourceInformation sourceInfo1, SourceInformation sourceInfo2)
     {
-        return comparePositions(sourceInfo1.line, sourceInfo1.column, sourceInfo2.line, sourceInfo2.column);
+        return comparePositions(sourceInfo1.getLine(), sourceInfo1.getColumn(), sourceInfo2.getLine(), sourceInfo2.getColumn());
     }
 
     /**
@@ -506,6 +528,26 @@ public class SourceInformation implements Comparable<SourceInformation>
      */
     public static int compareByEndPosition(SourceInformation sourceInfo1, SourceInformation sourceInfo2)
     {
-        return comparePositions(sourceInfo1.endLine, sourceInfo1.endColumn, sourceInfo2.endLine, sourceInfo2.endColumn);
+        return comparePositions(sourceInfo1.getEndLine(), sourceInfo1.getEndColumn(), sourceInfo2.getEndLine(), sourceInfo2.getEndColumn());
+    }
+
+    private static boolean canPack(int line, int column)
+    {
+        return (-1 <= line) && (line <= MAX_PACKED_LINE) && (-1 <= column) && (column <= MAX_PACKED_COLUMN);
+    }
+
+    private static int pack(int line, int column)
+    {
+        return ((line + 1) << COLUMN_BITS) | (column + 1);
+    }
+
+    private static int unpackLine(int packed)
+    {
+        return (packed >>> COLUMN_BITS) - 1;
+    }
+
+    private static int unpackColumn(int packed)
+    {
+        return (packed & COLUMN_MASK) - 1;
     }
 }
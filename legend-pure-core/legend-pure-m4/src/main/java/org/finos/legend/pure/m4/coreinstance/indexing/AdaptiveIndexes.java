@@ -0,0 +1,321 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.coreinstance.indexing;
+
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.impl.block.factory.Comparators;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+
+/**
+ * Indexes over the values of a to-many property, built according to how they are used. Lookups by an index
+ * specification are answered by scanning the values until the specification has been looked up
+ * {@link #LOOKUPS_BEFORE_INDEXING} times, after which an index is built for it. Built indexes are updated
+ * incrementally as values are added and removed; but an index which has had more updates since it was last
+ * looked up than there were values then costs more to maintain than to rebuild, and so is dropped.
+ *
+ * <p>ID lookups report an {@link IDConflictException} if any two values share an id, whether they are
+ * answered by a scan or by an index, and whatever the id looked up.
+ *
+ * <p>This is not thread safe: callers must synchronize access, and must keep the values passed to lookups
+ * consistent with the updates.
+ *
+ * @param <V> value type
+ */
+public final class AdaptiveIndexes<V extends CoreInstance>
+{
+    public static final String INDEXING_THRESHOLD_PROPERTY = "pure.coreinstance.indexing.threshold";
+    public static final String LOOKUPS_BEFORE_INDEXING_PROPERTY = "pure.coreinstance.indexing.lookupsBeforeIndexing";
+
+    /**
+     * Number of values around which to-many property values are worth indexing.
+     */
+    public static final int INDEXING_THRESHOLD = Math.max(5, Integer.getInteger(INDEXING_THRESHOLD_PROPERTY, 9));
+
+    /**
+     * Number of lookups by an index specification after which an index is built for it.
+     */
+    public static final int LOOKUPS_BEFORE_INDEXING = Math.max(1, Integer.getInteger(LOOKUPS_BEFORE_INDEXING_PROPERTY, 2));
+
+    private MutableMap<IndexSpecification<?>, IndexUsage<IDIndex<?, V>>> idIndexes;
+    private MutableMap<IndexSpecification<?>, IndexUsage<Index<?, V>>> indexes;
+
+    public AdaptiveIndexes()
+    {
+    }
+
+    private AdaptiveIndexes(AdaptiveIndexes<V> source)
+    {
+        if (source.idIndexes != null)
+        {
+            this.idIndexes = Maps.mutable.ofInitialCapacity(source.idIndexes.size());
+            source.idIndexes.forEachKeyValue((spec, usage) -> this.idIndexes.put(spec, usage.copy((usage.index == null) ? null : usage.index.copy())));
+        }
+        if (source.indexes != null)
+        {
+            this.indexes = Maps.mutable.ofInitialCapacity(source.indexes.size());
+            source.indexes.forEachKeyValue((spec, usage) -> this.indexes.put(spec, usage.copy((usage.index == null) ? null : usage.index.copy())));
+        }
+    }
+
+    public <K> V getValueByIDIndex(IndexSpecification<K> indexSpec, K key, ListIterable<V> values) throws IDConflictException
+    {
+        if (this.idIndexes == null)
+        {
+            this.idIndexes = Maps.mutable.empty();
+        }
+        IndexUsage<IDIndex<?, V>> usage = this.idIndexes.getIfAbsentPut(indexSpec, IndexUsage::new);
+        if ((usage.index == null) && usage.shouldBuild())
+        {
+            usage.index = IDIndex.newIDIndex(indexSpec, values);
+        }
+        usage.lookedUp(values.size());
+        return (usage.index == null) ? scanForID(indexSpec, key, values) : usage.index.get(key);
+    }
+
+    public <K> ListIterable<V> getValuesByIndex(IndexSpecification<K> indexSpec, K key, ListIterable<V> values)
+    {
+        if (this.indexes == null)
+        {
+            this.indexes = Maps.mutable.empty();
+        }
+        IndexUsage<Index<?, V>> usage = this.indexes.getIfAbsentPut(indexSpec, IndexUsage::new);
+        if ((usage.index == null) && usage.shouldBuild())
+        {
+            usage.index = Index.newIndex(indexSpec, values);
+        }
+        usage.lookedUp(values.size());
+        return (usage.index == null) ? values.select(v -> key.equals(indexSpec.getIndexKey(v)), Lists.mutable.empty()) : usage.index.get(key);
+    }
+
+    /**
+     * Whether there is currently an index for the specification, for either kind of lookup.
+     *
+     * @param indexSpec index specification
+     * @return whether there is an index
+     */
+    public boolean isIndexed(IndexSpecification<?> indexSpec)
+    {
+        return isIndexed(this.idIndexes, indexSpec) || isIndexed(this.indexes, indexSpec);
+    }
+
+    public void addValue(V value)
+    {
+        if (this.idIndexes != null)
+        {
+            MutableList<IndexSpecification<?>> invalidSpecs = Lists.mutable.empty();
+            this.idIndexes.forEachKeyValue((spec, usage) ->
+            {
+                if (usage.index != null)
+                {
+                    try
+                    {
+                        usage.index.add(value);
+                        usage.updated();
+                    }
+                    catch (IDConflictException e)
+                    {
+                        invalidSpecs.add(spec);
+                    }
+                }
+            });
+            invalidSpecs.forEach(this::dropIDIndex);
+        }
+        if (this.indexes != null)
+        {
+            this.indexes.forEachValue(usage ->
+            {
+                if (usage.index != null)
+                {
+                    usage.index.add(value);
+                    usage.updated();
+                }
+            });
+        }
+    }
+
+    public void addValues(Iterable<? extends V> values)
+    {
+        for (V value : values)
+        {
+            addValue(value);
+        }
+    }
+
+    public void removeValue(V value)
+    {
+        if (this.idIndexes != null)
+        {
+            this.idIndexes.forEachValue(usage ->
+            {
+                if (usage.index != null)
+                {
+                    usage.index.remove(value);
+                    usage.updated();
+                }
+            });
+        }
+        if (this.indexes != null)
+        {
+            this.indexes.forEachValue(usage ->
+            {
+                if (usage.index != null)
+                {
+                    usage.index.remove(value);
+                    usage.updated();
+                }
+            });
+        }
+    }
+
+    public void removeValues(Iterable<? extends V> values)
+    {
+        for (V value : values)
+        {
+            removeValue(value);
+        }
+    }
+
+    public void replaceValue(V oldValue, V newValue)
+    {
+        removeValue(oldValue);
+        addValue(newValue);
+    }
+
+    /**
+     * Drop all indexes, for when the values are replaced wholesale. Specifications which were indexed are
+     * indexed again on their next lookup.
+     */
+    public void reset()
+    {
+        if (this.idIndexes != null)
+        {
+            this.idIndexes.forEachValue(IndexUsage::reset);
+        }
+        if (this.indexes != null)
+        {
+            this.indexes.forEachValue(IndexUsage::reset);
+        }
+    }
+
+    /**
+     * Copy these indexes, including any built ones, for a copy of the values.
+     *
+     * @return copy
+     */
+    public AdaptiveIndexes<V> copy()
+    {
+        return new AdaptiveIndexes<>(this);
+    }
+
+    private void dropIDIndex(IndexSpecification<?> indexSpec)
+    {
+        IndexUsage<IDIndex<?, V>> usage = this.idIndexes.get(indexSpec);
+        if (usage != null)
+        {
+            usage.index = null;
+        }
+    }
+
+    private static boolean isIndexed(MutableMap<IndexSpecification<?>, ? extends IndexUsage<?>> usages, IndexSpecification<?> indexSpec)
+    {
+        if (usages == null)
+        {
+            return false;
+        }
+        IndexUsage<?> usage = usages.get(indexSpec);
+        return (usage != null) && (usage.index != null);
+    }
+
+    private static <K, V extends CoreInstance> V scanForID(IndexSpecification<K> indexSpec, K key, ListIterable<V> values) throws IDConflictException
+    {
+        // check all ids, as building an index does
+        MutableMap<K, V> valuesById = Maps.mutable.ofInitialCapacity(values.size());
+        for (V value : values)
+        {
+            K id = indexSpec.getIndexKey(value);
+            V old = valuesById.getIfAbsentPut(id, value);
+            if ((old != value) && !Comparators.nullSafeEquals(old, value))
+            {
+                throw new IDConflictException(id);
+            }
+        }
+        return valuesById.get(key);
+    }
+
+    private static final class IndexUsage<I>
+    {
+        private I index;
+        private int lookups = 0;
+        private int sizeAtLookup = 0;
+        private int updatesSinceLookup = 0;
+
+        private IndexUsage()
+        {
+        }
+
+        private IndexUsage(IndexUsage<I> source, I index)
+        {
+            this.index = index;
+            this.lookups = source.lookups;
+            this.sizeAtLookup = source.sizeAtLookup;
+            this.updatesSinceLookup = source.updatesSinceLookup;
+        }
+
+        private boolean shouldBuild()
+        {
+            return this.lookups + 1 >= LOOKUPS_BEFORE_INDEXING;
+        }
+
+        private void lookedUp(int size)
+        {
+            if (this.lookups < LOOKUPS_BEFORE_INDEXING)
+            {
+                this.lookups++;
+            }
+            this.sizeAtLookup = size;
+            this.updatesSinceLookup = 0;
+        }
+
+        private void updated()
+        {
+            if (++this.updatesSinceLookup > Math.max(this.sizeAtLookup, INDEXING_THRESHOLD))
+            {
+                // not worth maintaining: start counting lookups again
+                this.index = null;
+                this.lookups = 0;
+                this.updatesSinceLookup = 0;
+            }
+        }
+
+        private void reset()
+        {
+            if (this.index != null)
+            {
+                this.index = null;
+                this.lookups = LOOKUPS_BEFORE_INDEXING;
+            }
+            this.updatesSinceLookup = 0;
+        }
+
+        private IndexUsage<I> copy(I indexCopy)
+        {
+            return new IndexUsage<>(this, indexCopy);
+        }
+    }
+}
@@ -80,6 +80,13 @@ public abstract class IDIndex<K, V extends CoreInstance>
 
     public abstract void remove(V value);
 
+    /**
+     * Copy this index, so that the copy can be updated independently.
+     *
+     * @return copy
+     */
+    public abstract IDIndex<K, V> copy();
+
     public static <K, V extends CoreInstance> IDIndex<K, V> newIDIndex(IndexSpecification<K> spec)
     {
         return newIDIndex(spec, false);
@@ -112,6 +119,11 @@ public abstract class IDIndex<K, V extends CoreInstance>
             super(spec, UnifiedMap.<K, V>newMap(IDIndex.getInitialSizeForMap(values)), values);
         }
 
+        private SimpleIDIndex(SimpleIDIndex<K, V> source)
+        {
+            super(source.spec, UnifiedMap.newMap(source.index));
+        }
+
         @Override
         public void remove(V value)
         {
@@ -122,6 +134,12 @@ public abstract class IDIndex<K, V extends CoreInstance>
                 this.index.put(key, removed);
             }
         }
+
+        @Override
+        public IDIndex<K, V> copy()
+        {
+            return new SimpleIDIndex<>(this);
+        }
     }
 
     private static class ConcurrentIDIndex<K, V extends CoreInstance> extends IDIndex<K, V>
@@ -136,12 +154,23 @@ public abstract class IDIndex<K, V extends CoreInstance>
             super(spec, ConcurrentHashMap.<K, V>newMap(IDIndex.getInitialSizeForMap(values)), values);
         }
 
+        private ConcurrentIDIndex(ConcurrentIDIndex<K, V> source)
+        {
+            super(source.spec, ConcurrentHashMap.newMap(source.index));
+        }
+
         @Override
         public void remove(V value)
         {
             K key = this.spec.getIndexKey(value);
             ((ConcurrentMutableMap<K, V>)this.index).remove(key, value);
         }
+
+        @Override
+        public IDIndex<K, V> copy()
+        {
+            return new ConcurrentIDIndex<>(this);
+        }
     }
 
     private static int getInitialSizeForMap(Iterable<?> values)
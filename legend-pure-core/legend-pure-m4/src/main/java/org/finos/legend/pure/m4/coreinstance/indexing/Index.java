@@ -51,6 +51,13 @@ public abstract class Index<K, V extends CoreInstance>
 
     public abstract void remove(V value);
 
+    /**
+     * Copy this index, so that the copy can be updated independently.
+     *
+     * @return copy
+     */
+    public abstract Index<K, V> copy();
+
     public static <K, V extends CoreInstance> Index<K, V> newIndex(IndexSpecification<K> spec)
     {
         return newIndex(spec, false);
@@ -119,6 +126,14 @@ public abstract class Index<K, V extends CoreInstance>
             K key = this.spec.getIndexKey(value);
             this.index.remove(key, value);
         }
+
+        @Override
+        public Index<K, V> copy()
+        {
+            SimpleIndex<K, V> copy = new SimpleIndex<>(this.spec);
+            copy.index.putAll(this.index);
+            return copy;
+        }
     }
 
     private static class ConcurrentIndex<K, V extends CoreInstance> extends Index<K, V>
@@ -222,5 +237,13 @@ public abstract class Index<K, V extends CoreInstance>
                 }
             }
         }
+
+        @Override
+        public Index<K, V> copy()
+        {
+            ConcurrentIndex<K, V> copy = new ConcurrentIndex<>(this.spec);
+            copy.index.putAll(this.index);
+            return copy;
+        }
     }
 }
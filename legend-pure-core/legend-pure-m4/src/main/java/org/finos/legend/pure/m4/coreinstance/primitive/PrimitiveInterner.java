@@ -0,0 +1,313 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.coreinstance.primitive;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Interning cache for primitive core instances, keyed by primitive value. Values may be held strongly, or by
+ * soft or weak references, in which case entries are dropped once their instance has been collected. The
+ * cache may also be bounded, in which case arbitrary entries are evicted when it grows beyond its maximum
+ * size: an evicted instance remains valid, it is just no longer shared with new requests for the same value.
+ * A cache with a maximum size of 0 is unbounded; a cache with a negative maximum size is disabled.
+ *
+ * <p>All methods are thread-safe.
+ *
+ * @param <K> primitive value type
+ * @param <V> core instance type
+ */
+public class PrimitiveInterner<K, V>
+{
+    public enum ReferenceType
+    {
+        STRONG,
+        SOFT,
+        WEAK
+    }
+
+    public static final int UNBOUNDED = 0;
+    public static final int DISABLED = -1;
+
+    private final String name;
+    private final ReferenceType referenceType;
+    private final int maxSize;
+    private final ConcurrentHashMap<K, Object> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public PrimitiveInterner(String name, ReferenceType referenceType, int maxSize)
+    {
+        this.name = name;
+        this.referenceType = referenceType;
+        this.maxSize = maxSize;
+    }
+
+    public String getName()
+    {
+        return this.name;
+    }
+
+    public ReferenceType getReferenceType()
+    {
+        return this.referenceType;
+    }
+
+    public int getMaxSize()
+    {
+        return this.maxSize;
+    }
+
+    public boolean isEnabled()
+    {
+        return this.maxSize != DISABLED;
+    }
+
+    /**
+     * Get the interned instance for the value, if there is one.
+     *
+     * @param key primitive value
+     * @return interned instance or null
+     */
+    public V get(K key)
+    {
+        if (!isEnabled())
+        {
+            return null;
+        }
+        V value = dereference(this.entries.get(key));
+        if (value != null)
+        {
+            this.hitCount.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Get the interned instance for the value, creating and interning one if there is none.
+     *
+     * @param key     primitive value
+     * @param factory function to create a new instance for the value
+     * @return interned instance
+     */
+    public V getIfAbsentPut(K key, Function<? super K, ? extends V> factory)
+    {
+        if (!isEnabled())
+        {
+            return factory.apply(key);
+        }
+
+        V value = dereference(this.entries.get(key));
+        if (value != null)
+        {
+            this.hitCount.incrementAndGet();
+            return value;
+        }
+
+        this.missCount.incrementAndGet();
+        expungeCollected();
+        V newValue = factory.apply(key);
+        Object newEntry = reference(key, newValue);
+        while (true)
+        {
+            Object current = this.entries.putIfAbsent(key, newEntry);
+            if (current == null)
+            {
+                possiblyEvict();
+                return newValue;
+            }
+            V currentValue = dereference(current);
+            if (currentValue != null)
+            {
+                return currentValue;
+            }
+            if (this.entries.replace(key, current, newEntry))
+            {
+                // the entry of the collected instance is removed here rather than when it is expunged
+                this.evictionCount.incrementAndGet();
+                return newValue;
+            }
+        }
+    }
+
+    public int size()
+    {
+        expungeCollected();
+        return this.entries.size();
+    }
+
+    public long getHitCount()
+    {
+        return this.hitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return this.missCount.get();
+    }
+
+    /**
+     * Number of entries removed, either because the cache was over its maximum size or because their instance
+     * was collected.
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount()
+    {
+        return this.evictionCount.get();
+    }
+
+    public void clear()
+    {
+        this.entries.clear();
+        expungeCollected();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "<" + getClass().getSimpleName() + " name=" + this.name + " referenceType=" + this.referenceType + " maxSize=" + this.maxSize +
+                " size=" + this.entries.size() + " hits=" + getHitCount() + " misses=" + getMissCount() + " evictions=" + getEvictionCount() + ">";
+    }
+
+    private Object reference(K key, V value)
+    {
+        switch (this.referenceType)
+        {
+            case SOFT:
+            {
+                return new SoftEntry<>(key, value, this.queue);
+            }
+            case WEAK:
+            {
+                return new WeakEntry<>(key, value, this.queue);
+            }
+            default:
+            {
+                return value;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V dereference(Object entry)
+    {
+        return (entry instanceof Reference) ? ((Reference<V>) entry).get() : (V) entry;
+    }
+
+    private void expungeCollected()
+    {
+        Reference<? extends V> ref;
+        while ((ref = this.queue.poll()) != null)
+        {
+            if (this.entries.remove(((Entry<?>) ref).getKey(), ref))
+            {
+                this.evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    private void possiblyEvict()
+    {
+        if ((this.maxSize <= 0) || (this.entries.size() <= this.maxSize) || !this.evictionLock.tryLock())
+        {
+            return;
+        }
+        try
+        {
+            // evict down to 90% of the maximum size, so that eviction does not run on every subsequent put
+            int target = this.maxSize - (this.maxSize / 10);
+            Iterator<K> iterator = this.entries.keySet().iterator();
+            while ((this.entries.size() > target) && iterator.hasNext())
+            {
+                iterator.next();
+                iterator.remove();
+                this.evictionCount.incrementAndGet();
+            }
+        }
+        finally
+        {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Parse a reference type name, ignoring case.
+     *
+     * @param name reference type name
+     * @return reference type
+     */
+    public static ReferenceType parseReferenceType(String name)
+    {
+        try
+        {
+            return ReferenceType.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("Unknown reference type: '" + name + "'", e);
+        }
+    }
+
+    private interface Entry<K>
+    {
+        K getKey();
+    }
+
+    private static class SoftEntry<K, V> extends SoftReference<V> implements Entry<K>
+    {
+        private final K key;
+
+        private SoftEntry(K key, V value, ReferenceQueue<? super V> queue)
+        {
+            super(value, queue);
+            this.key = key;
+        }
+
+        @Override
+        public K getKey()
+        {
+            return this.key;
+        }
+    }
+
+    private static class WeakEntry<K, V> extends WeakReference<V> implements Entry<K>
+    {
+        private final K key;
+
+        private WeakEntry(K key, V value, ReferenceQueue<? super V> queue)
+        {
+            super(value, queue);
+            this.key = key;
+        }
+
+        @Override
+        public K getKey()
+        {
+            return this.key;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.coreinstance.simple;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Property layout shared by the {@link SimpleCoreInstance}s of one classifier: assigns each key name a slot
+ * in the per-instance value array (see {@link SimpleCoreInstanceMutableState}), and holds one canonical real
+ * key per slot so that instances share their real keys. Slots are assigned on first use and never removed,
+ * so a key name keeps its slot for the lifetime of the layout. Once {@link #MAX_SLOTS} slots are assigned,
+ * further key names get no slot and instances store them in their fallback map.
+ */
+final class PropertyLayout
+{
+    static final int MAX_SLOTS = 64;
+    static final int NO_SLOT = -1;
+
+    private final ConcurrentMutableMap<String, Integer> slotsByName = ConcurrentHashMap.newMap();
+    private volatile String[] names = new String[0];
+    private volatile ImmutableList<String>[] realKeys = newRealKeyArray(0);
+
+    int getSlot(String name)
+    {
+        Integer slot = this.slotsByName.get(name);
+        return (slot == null) ? NO_SLOT : slot;
+    }
+
+    int getOrAddSlot(String name)
+    {
+        Integer slot = this.slotsByName.get(name);
+        if (slot != null)
+        {
+            return slot;
+        }
+        synchronized (this)
+        {
+            slot = this.slotsByName.get(name);
+            if (slot != null)
+            {
+                return slot;
+            }
+            int newSlot = this.names.length;
+            if (newSlot >= MAX_SLOTS)
+            {
+                return NO_SLOT;
+            }
+            String[] newNames = Arrays.copyOf(this.names, newSlot + 1);
+            newNames[newSlot] = name;
+            this.realKeys = Arrays.copyOf(this.realKeys, newSlot + 1);
+            this.names = newNames;
+            this.slotsByName.put(name, newSlot);
+            return newSlot;
+        }
+    }
+
+    int getSlotCount()
+    {
+        return this.names.length;
+    }
+
+    String getName(int slot)
+    {
+        return this.names[slot];
+    }
+
+    /**
+     * Get the canonical real key for a slot: the first real key stored in the slot, if it is equal to the
+     * given one, and otherwise the given one.
+     *
+     * @param slot    slot
+     * @param realKey real key (may be null)
+     * @return canonical real key (may be null)
+     */
+    ImmutableList<String> internRealKey(int slot, ListIterable<String> realKey)
+    {
+        if (realKey == null)
+        {
+            return null;
+        }
+        ImmutableList<String> current = this.realKeys[slot];
+        if (current == null)
+        {
+            synchronized (this)
+            {
+                current = this.realKeys[slot];
+                if (current == null)
+                {
+                    current = realKey.toImmutable();
+                    ImmutableList<String>[] newRealKeys = this.realKeys.clone();
+                    newRealKeys[slot] = current;
+                    this.realKeys = newRealKeys;
+                    return current;
+                }
+            }
+        }
+        return current.equals(realKey) ? current : realKey.toImmutable();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ImmutableList<String>[] newRealKeyArray(int size)
+    {
+        return (ImmutableList<String>[]) new ImmutableList<?>[size];
+    }
+}
@@ -0,0 +1,124 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.coreinstance.simple;
+
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Property layouts of the {@link SimpleCoreInstance}s of a model repository, by classifier. When slot storage
+ * is enabled, new instances with a classifier store the values for the keys of their classifier's layout in a
+ * flat array rather than in a map. Slot storage is disabled by default; it can be enabled with the system
+ * property {@value #SLOT_STORAGE_PROPERTY} or with {@link #setSlotStorageEnabled}. Enabling or disabling it
+ * only affects instances created afterwards.
+ *
+ * <p>Classifiers are held by weak references (and compared by identity), so the layout of an unloaded
+ * classifier is dropped once the classifier and its instances have been collected.
+ */
+public class PropertyLayouts
+{
+    public static final String SLOT_STORAGE_PROPERTY = "pure.coreinstance.slotStorage";
+
+    private final ConcurrentHashMap<ClassifierKey, PropertyLayout> layouts = new ConcurrentHashMap<>();
+    private final ReferenceQueue<CoreInstance> queue = new ReferenceQueue<>();
+    private volatile boolean slotStorageEnabled = Boolean.getBoolean(SLOT_STORAGE_PROPERTY);
+
+    public boolean isSlotStorageEnabled()
+    {
+        return this.slotStorageEnabled;
+    }
+
+    public void setSlotStorageEnabled(boolean enabled)
+    {
+        this.slotStorageEnabled = enabled;
+    }
+
+    /**
+     * Number of classifiers with a layout.
+     *
+     * @return layout count
+     */
+    public int size()
+    {
+        expungeCollected();
+        return this.layouts.size();
+    }
+
+    public void clear()
+    {
+        this.layouts.clear();
+        expungeCollected();
+    }
+
+    PropertyLayout getLayout(CoreInstance classifier)
+    {
+        if ((classifier == null) || !this.slotStorageEnabled)
+        {
+            return null;
+        }
+        PropertyLayout layout = this.layouts.get(new ClassifierKey(classifier, null));
+        if (layout == null)
+        {
+            expungeCollected();
+            layout = this.layouts.computeIfAbsent(new ClassifierKey(classifier, this.queue), k -> new PropertyLayout());
+        }
+        return layout;
+    }
+
+    private void expungeCollected()
+    {
+        Reference<? extends CoreInstance> ref;
+        while ((ref = this.queue.poll()) != null)
+        {
+            this.layouts.remove(ref);
+        }
+    }
+
+    private static class ClassifierKey extends WeakReference<CoreInstance>
+    {
+        private final int hashCode;
+
+        private ClassifierKey(CoreInstance classifier, ReferenceQueue<? super CoreInstance> queue)
+        {
+            super(classifier, queue);
+            this.hashCode = System.identityHashCode(classifier);
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (!(other instanceof ClassifierKey))
+            {
+                return false;
+            }
+            CoreInstance classifier = get();
+            return (classifier != null) && (classifier == ((ClassifierKey) other).get());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hashCode;
+        }
+    }
+}
@@ -45,7 +45,7 @@ public class SimpleCoreInstance extends AbstractCoreInstance
     private CoreInstance classifier;
     private final boolean persistent;
 
-    private SimpleCoreInstanceMutableState state;
+    private volatile SimpleCoreInstanceMutableState state;
 
     protected SimpleCoreInstance(String name, SourceInformation sourceInformation, CoreInstance classifier, int internalSyntheticId, ModelRepository repository, boolean persistent)
     {
@@ -54,7 +54,7 @@ public class SimpleCoreInstance extends AbstractCoreInstance
         this.repository = repository;
         this.internalSyntheticId = internalSyntheticId;
         this.sourceInformation = sourceInformation;
-        this.state = new SimpleCoreInstanceMutableState();
+        this.state = new SimpleCoreInstanceMutableState(getPropertyLayout(repository, classifier));
         this.persistent = persistent;
     }
 
@@ -118,6 +118,7 @@ public class SimpleCoreInstance extends AbstractCoreInstance
     public void setClassifier(CoreInstance classifier)
     {
         this.classifier = classifier;
+        this.state.possiblySetLayout(getPropertyLayout(this.repository, classifier));
     }
 
     @Override
@@ -219,9 +220,17 @@ public class SimpleCoreInstance extends AbstractCoreInstance
     {
         // TODO?: shouldn't this be synchronized?
         ModelRepositoryTransaction transaction = this.repository.getTransaction();
-        if (transaction != null && !transaction.isRegistered(this))
+        if (transaction == null)
         {
-            transaction.registerModified(this, this.state.copy());
+            if (this.persistent)
+            {
+                this.repository.getVersions().recordNonTransactionalWrite();
+            }
+        }
+        else if (!transaction.isRegistered(this))
+        {
+            SimpleCoreInstanceMutableState committedState = this.state;
+            transaction.registerModified(this, committedState, committedState.copy());
         }
     }
 
@@ -390,6 +399,11 @@ public class SimpleCoreInstance extends AbstractCoreInstance
     }
 
 
+    private static PropertyLayout getPropertyLayout(ModelRepository repository, CoreInstance classifier)
+    {
+        return (repository == null) ? null : repository.getPropertyLayouts().getLayout(classifier);
+    }
+
     private SimpleCoreInstanceMutableState getState()
     {
         ModelRepositoryTransaction transaction = this.repository.getTransaction();
@@ -401,7 +415,7 @@ public class SimpleCoreInstance extends AbstractCoreInstance
                 return transactionState;
             }
         }
-        return this.state;
+        return this.repository.getCommittedState(this, this.state);
     }
 
 
@@ -19,123 +19,191 @@ import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.impl.SynchronizedRichIterable;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
 import org.finos.legend.pure.m4.coreinstance.AbstractCoreInstanceMutableState;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
 import org.finos.legend.pure.m4.coreinstance.indexing.IDConflictException;
 import org.finos.legend.pure.m4.coreinstance.indexing.IndexSpecification;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Mutable state of a {@link SimpleCoreInstance}. Writes are serialized on the state. Large (indexed) values lock
+ * themselves, as they are updated in place.
+ *
+ * <p>By default, value holders are stored in a map from key names, and reads lock the state too. When the state
+ * has a {@link PropertyLayout} (see {@link PropertyLayouts#SLOT_STORAGE_PROPERTY}), reads take no lock: value
+ * holders for keys with a slot in the layout are stored in a flat array, and the others in a concurrent map
+ * which is only created when needed. Value holders publish their values through volatile fields, and a new
+ * value holder is fully initialized before it is published, so readers never see a partially written key.
+ * Slots are written in place (the array publishes them like volatile fields); the array is only replaced when
+ * a slot beyond its length is needed, and then grows at least geometrically, so adding k keys copies O(k)
+ * slots. A layout is only set on an empty state, so a key is never stored in both places.
+ */
 class SimpleCoreInstanceMutableState extends AbstractCoreInstanceMutableState
 {
-    private final MutableMap<String, ValueHolder> state = Maps.mutable.empty();
+    private volatile PropertyLayout layout;
+    private volatile AtomicReferenceArray<ValueHolder> slots;
+    // without a layout, all keys (guarded by the lock on this); with a layout, keys without a slot
+    private volatile MutableMap<String, ValueHolder> state;
+
+    SimpleCoreInstanceMutableState()
+    {
+        this(null);
+    }
+
+    SimpleCoreInstanceMutableState(PropertyLayout layout)
+    {
+        this.layout = layout;
+        this.state = (layout == null) ? Maps.mutable.empty() : null;
+    }
+
+    /**
+     * Set the layout of the state, if it has none and has no keys.
+     *
+     * @param newLayout new layout
+     */
+    void possiblySetLayout(PropertyLayout newLayout)
+    {
+        if ((newLayout != null) && (this.layout == null))
+        {
+            synchronized (this)
+            {
+                if ((this.layout == null) && this.state.isEmpty())
+                {
+                    this.layout = newLayout;
+                    this.state = null;
+                }
+            }
+        }
+    }
 
     RichIterable<String> getKeys()
     {
-        synchronized (this.state)
+        if (this.layout == null)
+        {
+            synchronized (this)
+            {
+                if (this.layout == null)
+                {
+                    return SynchronizedRichIterable.of(this.state.keysView(), this);
+                }
+            }
+        }
+
+        PropertyLayout currentLayout = this.layout;
+        MutableMap<String, ValueHolder> map = this.state;
+        AtomicReferenceArray<ValueHolder> currentSlots = this.slots;
+        int slotCount = (currentSlots == null) ? 0 : currentSlots.length();
+        MutableList<String> keys = Lists.mutable.ofInitialCapacity(slotCount);
+        for (int i = 0; i < slotCount; i++)
         {
-            return SynchronizedRichIterable.of(this.state.keysView(), this.state);
+            if (currentSlots.get(i) != null)
+            {
+                keys.add(currentLayout.getName(i));
+            }
         }
+        if (map != null)
+        {
+            keys.addAllIterable(map.keysView());
+        }
+        return keys;
     }
 
     CoreInstance getKeyByName(String name, SimpleCoreInstance owner)
     {
-        synchronized (this.state)
+        ValueHolder valueHolder = getValueHolder(name);
+        if (valueHolder == null)
         {
-            ValueHolder valueHolder = this.state.get(name);
-            if (valueHolder == null)
+            throw new RuntimeException("No real key can be found for '" + name + "' in\n" + owner.getName() + " (" + owner + ")");
+        }
+        if (!valueHolder.hasKey())
+        {
+            if (!valueHolder.hasRealKey())
             {
                 throw new RuntimeException("No real key can be found for '" + name + "' in\n" + owner.getName() + " (" + owner + ")");
             }
+            valueHolder.setKey(owner.getRepository().resolve(valueHolder.getRealKey()));
             if (!valueHolder.hasKey())
             {
-                if (!valueHolder.hasRealKey())
-                {
-                    throw new RuntimeException("No real key can be found for '" + name + "' in\n" + owner.getName() + " (" + owner + ")");
-                }
-                valueHolder.setKey(owner.getRepository().resolve(valueHolder.getRealKey()));
-                if (!valueHolder.hasKey())
-                {
-                    throw new RuntimeException("Error " + name + " has no key - " + owner.getName());
-                }
+                throw new RuntimeException("Error " + name + " has no key - " + owner.getName());
             }
-            return valueHolder.getKey();
         }
+        return valueHolder.getKey();
     }
 
     ImmutableList<String> getRealKeyByName(String keyName)
     {
-        synchronized (this.state)
-        {
-            ValueHolder valueHolder = this.state.get(keyName);
-            return (valueHolder == null) ? null : valueHolder.getRealKey();
-        }
+        ValueHolder valueHolder = getValueHolder(keyName);
+        return (valueHolder == null) ? null : valueHolder.getRealKey();
     }
 
     boolean hasValuesDefined(String keyName)
     {
-        synchronized (this.state)
-        {
-            ValueHolder valueHolder = this.state.get(keyName);
-            return (valueHolder != null) && valueHolder.hasValuesDefined();
-        }
+        ValueHolder valueHolder = getValueHolder(keyName);
+        return (valueHolder != null) && valueHolder.hasValuesDefined();
     }
 
     CoreInstance getOneValue(String keyName) throws OneValueException
     {
-        synchronized (this.state)
-        {
-            ValueHolder valueHolder = this.state.get(keyName);
-            return (valueHolder == null) ? null : valueHolder.getOneValue();
-        }
+        ValueHolder valueHolder = getValueHolder(keyName);
+        return (valueHolder == null) ? null : valueHolder.getOneValue();
     }
 
     ListIterable<CoreInstance> getValues(String keyName)
     {
-        synchronized (this.state)
-        {
-            ValueHolder valueHolder = this.state.get(keyName);
-            return (valueHolder == null) ? null : valueHolder.getValues();
-        }
+        ValueHolder valueHolder = getValueHolder(keyName);
+        return (valueHolder == null) ? null : valueHolder.getValues();
     }
 
     public <K> CoreInstance getValueInValueForMetaPropertyToManyByIDIndex(String keyName, IndexSpecification<K> indexSpec, K keyInIndex) throws IDConflictException
     {
-        synchronized (this.state)
-        {
-            ValueHolder valueHolder = this.state.get(keyName);
-            return (valueHolder == null) ? null : valueHolder.getValueByIDIndex(indexSpec, keyInIndex);
-        }
+        ValueHolder valueHolder = getValueHolder(keyName);
+        return (valueHolder == null) ? null : valueHolder.getValueByIDIndex(indexSpec, keyInIndex);
     }
 
     public <K> ListIterable<CoreInstance> getValueInValueForMetaPropertyToManyByIndex(String keyName, IndexSpecification<K> indexSpec, K keyInIndex)
     {
-        synchronized (this.state)
-        {
-            ValueHolder valueHolder = this.state.get(keyName);
-            return (valueHolder == null) ? Lists.immutable.empty() : valueHolder.getValuesByIndex(indexSpec, keyInIndex);
-        }
+        ValueHolder valueHolder = getValueHolder(keyName);
+        return (valueHolder == null) ? Lists.immutable.empty() : valueHolder.getValuesByIndex(indexSpec, keyInIndex);
     }
 
     void setValues(ListIterable<String> key, CoreInstance value)
     {
         String name = key.getLast();
-        synchronized (this.state)
+        synchronized (this)
         {
-            ValueHolder valueHolder = this.state.getIfAbsentPut(name, SimpleCoreInstanceMutableState::newValueHolder);
-            valueHolder.possiblySetRealKey(key);
-            valueHolder.setValues(value);
+            ValueHolder valueHolder = getValueHolder(name);
+            if (valueHolder == null)
+            {
+                putNewValueHolder(name, key, ValueHolder.newValues(value));
+            }
+            else
+            {
+                valueHolder.possiblySetRealKey(key);
+                valueHolder.setValues(value);
+            }
         }
     }
 
     void setValues(ListIterable<String> key, ListIterable<? extends CoreInstance> values)
     {
         String name = key.getLast();
-        synchronized (this.state)
+        synchronized (this)
         {
-            ValueHolder valueHolder = this.state.getIfAbsentPut(name, SimpleCoreInstanceMutableState::newValueHolder);
-            valueHolder.possiblySetRealKey(key);
-            valueHolder.setValues(values);
+            ValueHolder valueHolder = getValueHolder(name);
+            if (valueHolder == null)
+            {
+                putNewValueHolder(name, key, ValueHolder.<CoreInstance>newValues(values));
+            }
+            else
+            {
+                valueHolder.possiblySetRealKey(key);
+                valueHolder.setValues(values);
+            }
         }
     }
 
@@ -151,11 +219,18 @@ class SimpleCoreInstanceMutableState extends AbstractCoreInstanceMutableState
 
     private void addValue(String keyName, ListIterable<String> key, CoreInstance value)
     {
-        synchronized (this.state)
+        synchronized (this)
         {
-            ValueHolder valueHolder = this.state.getIfAbsentPut(keyName, SimpleCoreInstanceMutableState::newValueHolder);
-            valueHolder.possiblySetRealKey(key);
-            valueHolder.addValue(value);
+            ValueHolder valueHolder = getValueHolder(keyName);
+            if (valueHolder == null)
+            {
+                putNewValueHolder(keyName, key, ValueHolder.newValues(value));
+            }
+            else
+            {
+                valueHolder.possiblySetRealKey(key);
+                valueHolder.addValue(value);
+            }
         }
     }
 
@@ -166,9 +241,9 @@ class SimpleCoreInstanceMutableState extends AbstractCoreInstanceMutableState
 
     void modifyValues(String keyName, int offset, CoreInstance value)
     {
-        synchronized (this.state)
+        synchronized (this)
         {
-            ValueHolder valueHolder = this.state.get(keyName);
+            ValueHolder valueHolder = getValueHolder(keyName);
             if ((valueHolder == null) || !valueHolder.hasValuesDefined())
             {
                 throw new RuntimeException("No values for key: " + keyName);
@@ -179,9 +254,9 @@ class SimpleCoreInstanceMutableState extends AbstractCoreInstanceMutableState
 
     void removeValue(String keyName, CoreInstance value)
     {
-        synchronized (this.state)
+        synchronized (this)
         {
-            ValueHolder valueHolder = this.state.get(keyName);
+            ValueHolder valueHolder = getValueHolder(keyName);
             if (valueHolder != null)
             {
                 valueHolder.removeValue(value);
@@ -191,25 +266,114 @@ class SimpleCoreInstanceMutableState extends AbstractCoreInstanceMutableState
 
     void removeKey(String key)
     {
-        synchronized (this.state)
+        synchronized (this)
         {
-            this.state.remove(key);
+            PropertyLayout currentLayout = this.layout;
+            int slot = (currentLayout == null) ? PropertyLayout.NO_SLOT : currentLayout.getSlot(key);
+            if (slot == PropertyLayout.NO_SLOT)
+            {
+                if (this.state != null)
+                {
+                    this.state.remove(key);
+                }
+            }
+            else if ((this.slots != null) && (slot < this.slots.length()))
+            {
+                this.slots.set(slot, null);
+            }
         }
     }
 
     SimpleCoreInstanceMutableState copy()
     {
-        SimpleCoreInstanceMutableState copy = new SimpleCoreInstanceMutableState();
-        synchronized (this.state)
+        synchronized (this)
         {
-            this.state.forEachKeyValue((key, value) -> copy.state.put(key, value.copy()));
+            SimpleCoreInstanceMutableState copy = new SimpleCoreInstanceMutableState(this.layout);
+            AtomicReferenceArray<ValueHolder> currentSlots = this.slots;
+            if (currentSlots != null)
+            {
+                AtomicReferenceArray<ValueHolder> newSlots = new AtomicReferenceArray<>(currentSlots.length());
+                for (int i = 0; i < currentSlots.length(); i++)
+                {
+                    ValueHolder valueHolder = currentSlots.get(i);
+                    if (valueHolder != null)
+                    {
+                        newSlots.set(i, valueHolder.copy());
+                    }
+                }
+                copy.slots = newSlots;
+            }
+            if (this.state != null)
+            {
+                MutableMap<String, ValueHolder> newState = (this.layout == null) ? Maps.mutable.empty() : ConcurrentHashMap.newMap(this.state.size());
+                this.state.forEachKeyValue((key, value) -> newState.put(key, value.copy()));
+                copy.state = newState;
+            }
             copy.setCompileStateBitSet(getCompileStateBitSet());
+            return copy;
         }
-        return copy;
     }
 
-    private static ValueHolder newValueHolder()
+    private ValueHolder getValueHolder(String keyName)
     {
-        return new ValueHolder(null, null, null);
+        PropertyLayout currentLayout = this.layout;
+        if (currentLayout == null)
+        {
+            synchronized (this)
+            {
+                currentLayout = this.layout;
+                if (currentLayout == null)
+                {
+                    return this.state.get(keyName);
+                }
+            }
+        }
+
+        int slot = currentLayout.getSlot(keyName);
+        if (slot != PropertyLayout.NO_SLOT)
+        {
+            AtomicReferenceArray<ValueHolder> currentSlots = this.slots;
+            return ((currentSlots != null) && (slot < currentSlots.length())) ? currentSlots.get(slot) : null;
+        }
+        MutableMap<String, ValueHolder> map = this.state;
+        return (map == null) ? null : map.get(keyName);
+    }
+
+    // must be called while holding the lock on this
+    private void putNewValueHolder(String keyName, ListIterable<String> key, Values<CoreInstance> values)
+    {
+        PropertyLayout currentLayout = this.layout;
+        int slot = (currentLayout == null) ? PropertyLayout.NO_SLOT : currentLayout.getOrAddSlot(keyName);
+        if (slot == PropertyLayout.NO_SLOT)
+        {
+            if (this.state == null)
+            {
+                // read without locking, as the state has a layout
+                this.state = ConcurrentHashMap.newMap();
+            }
+            this.state.put(keyName, new ValueHolder(null, (key == null) ? null : key.toImmutable(), values));
+        }
+        else
+        {
+            ValueHolder valueHolder = new ValueHolder(null, currentLayout.internRealKey(slot, key), values);
+            AtomicReferenceArray<ValueHolder> currentSlots = this.slots;
+            int length = (currentSlots == null) ? 0 : currentSlots.length();
+            if (slot < length)
+            {
+                currentSlots.set(slot, valueHolder);
+            }
+            else
+            {
+                // grow to fit the layout, and at least geometrically (the layout may still be growing)
+                int newLength = Math.max(slot + 1, Math.max(currentLayout.getSlotCount(), Math.min(length * 2, PropertyLayout.MAX_SLOTS)));
+                AtomicReferenceArray<ValueHolder> newSlots = new AtomicReferenceArray<>(newLength);
+                for (int i = 0; i < length; i++)
+                {
+                    newSlots.set(i, currentSlots.get(i));
+                }
+                newSlots.set(slot, valueHolder);
+                this.slots = newSlots;
+            }
+        }
     }
 }
@@ -24,7 +24,7 @@ import org.finos.legend.pure.m4.coreinstance.indexing.IndexSpecification;
 
 final class SingleValue<V extends CoreInstance> implements Values<V>
 {
-    private V value;
+    private volatile V value;
 
     SingleValue(V value)
     {
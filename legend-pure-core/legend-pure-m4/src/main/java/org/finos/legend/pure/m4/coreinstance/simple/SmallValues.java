@@ -27,7 +27,7 @@ final class SmallValues<V extends CoreInstance> implements Values<V>
 {
     private static final int MAX_SIZE = Values.INDEXING_THRESHOLD + Values.INDEXING_TOLERANCE;
 
-    private ImmutableList<V> values;
+    private volatile ImmutableList<V> values;
 
     SmallValues(ImmutableList<V> values)
     {
@@ -24,11 +24,12 @@ import org.finos.legend.pure.m4.coreinstance.indexing.IndexSpecification;
 
 public class ValueHolder
 {
-    private CoreInstance key;
-    private ImmutableList<String> realKey;
-    private Values<CoreInstance> values;
+    // Fields are volatile so that values can be read without locking (see SimpleCoreInstanceMutableState)
+    private volatile CoreInstance key;
+    private volatile ImmutableList<String> realKey;
+    private volatile Values<CoreInstance> values;
 
-    private ValueHolder(CoreInstance key, ImmutableList<String> realKey, Values<CoreInstance> values)
+    ValueHolder(CoreInstance key, ImmutableList<String> realKey, Values<CoreInstance> values)
     {
         this.key = key;
         this.realKey = realKey;
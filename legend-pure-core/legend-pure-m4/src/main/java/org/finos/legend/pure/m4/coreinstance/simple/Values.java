@@ -16,12 +16,13 @@ package org.finos.legend.pure.m4.coreinstance.simple;
 
 import org.eclipse.collections.api.list.ListIterable;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.coreinstance.indexing.AdaptiveIndexes;
 import org.finos.legend.pure.m4.coreinstance.indexing.IDConflictException;
 import org.finos.legend.pure.m4.coreinstance.indexing.IndexSpecification;
 
 public interface Values<V extends CoreInstance>
 {
-    int INDEXING_THRESHOLD = 9;
+    int INDEXING_THRESHOLD = AdaptiveIndexes.INDEXING_THRESHOLD;
     int INDEXING_TOLERANCE = 2;
 
     V getOneValue() throws OneValueException;
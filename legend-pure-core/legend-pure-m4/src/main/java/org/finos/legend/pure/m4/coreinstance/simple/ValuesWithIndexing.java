@@ -14,202 +14,126 @@
 
 package org.finos.legend.pure.m4.coreinstance.simple;
 
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.api.map.MutableMap;
-import org.eclipse.collections.impl.factory.Lists;
-import org.eclipse.collections.impl.factory.Maps;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.coreinstance.indexing.AdaptiveIndexes;
 import org.finos.legend.pure.m4.coreinstance.indexing.IDConflictException;
-import org.finos.legend.pure.m4.coreinstance.indexing.IDIndex;
-import org.finos.legend.pure.m4.coreinstance.indexing.Index;
 import org.finos.legend.pure.m4.coreinstance.indexing.IndexSpecification;
 
+/**
+ * Values with adaptively built indexes (see {@link AdaptiveIndexes}). Values and indexes are updated in place,
+ * so all access is synchronized on this object. Readers of the values get an immutable snapshot, which is
+ * cached until the next write, so that they can iterate without holding the lock. Index lookups also return
+ * immutable copies.
+ */
 final class ValuesWithIndexing<V extends CoreInstance> implements Values<V>
 {
     private static final int MIN_SIZE = INDEXING_THRESHOLD - INDEXING_TOLERANCE;
 
     private final MutableList<V> values;
-    private MutableMap<IndexSpecification<?>, IDIndex<?, V>> idIndexes;
-    private MutableMap<IndexSpecification<?>, Index<?, V>> indexes;
+    private final AdaptiveIndexes<V> indexes;
+    private ImmutableList<V> snapshot;
 
     ValuesWithIndexing(MutableList<V> values)
+    {
+        this(values, new AdaptiveIndexes<>());
+    }
+
+    private ValuesWithIndexing(MutableList<V> values, AdaptiveIndexes<V> indexes)
     {
         this.values = values;
+        this.indexes = indexes;
     }
 
     @Override
-    public V getOneValue() throws OneValueException
+    public synchronized V getOneValue() throws OneValueException
     {
         throw new OneValueException(this.values.size());
     }
 
     @Override
-    public ListIterable<V> getValues()
+    public synchronized ListIterable<V> getValues()
     {
-        return this.values.asUnmodifiable();
+        if (this.snapshot == null)
+        {
+            this.snapshot = this.values.toImmutable();
+        }
+        return this.snapshot;
     }
 
     @Override
-    public <K> V getValueByIDIndex(IndexSpecification<K> indexSpec, K key) throws IDConflictException
+    public synchronized <K> V getValueByIDIndex(IndexSpecification<K> indexSpec, K key) throws IDConflictException
     {
-        if (this.idIndexes == null)
-        {
-            this.idIndexes = Maps.mutable.empty();
-        }
-        IDIndex<?, V> idIndex = this.idIndexes.get(indexSpec);
-        if (idIndex == null)
-        {
-            idIndex = IDIndex.newIDIndex(indexSpec, this.values);
-            this.idIndexes.put(indexSpec, idIndex);
-        }
-        return idIndex.get(key);
+        return this.indexes.getValueByIDIndex(indexSpec, key, this.values);
     }
 
     @Override
-    public <K> ListIterable<V> getValuesByIndex(IndexSpecification<K> indexSpec, K key)
+    public synchronized <K> ListIterable<V> getValuesByIndex(IndexSpecification<K> indexSpec, K key)
     {
-        if (this.indexes == null)
-        {
-            this.indexes = Maps.mutable.empty();
-        }
-        Index<?, V> index = this.indexes.get(indexSpec);
-        if (index == null)
-        {
-            index = Index.newIndex(indexSpec, this.values);
-            this.indexes.put(indexSpec, index);
-        }
-        return index.get(key);
+        return this.indexes.getValuesByIndex(indexSpec, key, this.values).toImmutable();
     }
 
     @Override
-    public int size()
+    public synchronized int size()
     {
         return this.values.size();
     }
 
     @Override
-    public Values<V> addValue(V value)
+    public synchronized Values<V> addValue(V value)
     {
         this.values.add(value);
-        addToIndexes(value);
+        this.snapshot = null;
+        this.indexes.addValue(value);
         return this;
     }
 
     @Override
-    public Values<V> addValues(ListIterable<V> values)
+    public synchronized Values<V> addValues(ListIterable<V> values)
     {
         this.values.addAllIterable(values);
-        addToIndexes(values);
+        this.snapshot = null;
+        this.indexes.addValues(values);
         return this;
     }
 
     @Override
-    public Values<V> removeValue(V value)
+    public synchronized Values<V> removeValue(V value)
     {
         if (this.values.remove(value))
         {
+            this.snapshot = null;
             if (this.values.size() < MIN_SIZE)
             {
                 return new SmallValues<>(this.values.toImmutable());
             }
-            removeFromIndexes(value);
+            this.indexes.removeValue(value);
         }
         return this;
     }
 
     @Override
-    public void setValue(int offset, V value)
+    public synchronized void setValue(int offset, V value)
     {
         V oldValue = this.values.set(offset, value);
         if (oldValue != value)
         {
-            removeFromIndexes(oldValue);
-            addToIndexes(value);
+            this.snapshot = null;
+            this.indexes.replaceValue(oldValue, value);
         }
     }
 
     @Override
-    public Values<V> copy()
+    public synchronized Values<V> copy()
     {
-        return new ValuesWithIndexing<>(this.values.toList());
+        // indexes are carried over, so that copying for a write does not lose them
+        return new ValuesWithIndexing<>(this.values.toList(), this.indexes.copy());
     }
 
-    private void addToIndexes(V value)
+    synchronized boolean isIndexed(IndexSpecification<?> indexSpec)
     {
-        if (this.idIndexes != null)
-        {
-            MutableList<IDIndex<?, V>> invalidIdIndexes = Lists.mutable.empty();
-            for (IDIndex<?, V> idIndex : this.idIndexes.valuesView())
-            {
-                try
-                {
-                    idIndex.add(value);
-                }
-                catch (IDConflictException e)
-                {
-                    invalidIdIndexes.add(idIndex);
-                }
-            }
-            for (IDIndex<?, V> invalidIdIndex : invalidIdIndexes)
-            {
-                this.idIndexes.remove(invalidIdIndex.getSpecification());
-            }
-        }
-        if (this.indexes != null)
-        {
-            for (Index<?, V> index : this.indexes.valuesView())
-            {
-                index.add(value);
-            }
-        }
-    }
-
-    private void addToIndexes(Iterable<? extends V> values)
-    {
-        if (this.idIndexes != null)
-        {
-            MutableList<IDIndex<?, V>> invalidIdIndexes = Lists.mutable.empty();
-            for (IDIndex<?, V> idIndex : this.idIndexes.valuesView())
-            {
-                try
-                {
-                    idIndex.add(values);
-                }
-                catch (IDConflictException e)
-                {
-                    invalidIdIndexes.add(idIndex);
-                }
-            }
-            for (IDIndex<?, V> invalidIdIndex : invalidIdIndexes)
-            {
-                this.idIndexes.remove(invalidIdIndex.getSpecification());
-            }
-        }
-        if (this.indexes != null)
-        {
-            for (Index<?, V> index : this.indexes.valuesView())
-            {
-                index.add(values);
-            }
-        }
-    }
-
-    private void removeFromIndexes(V value)
-    {
-        if (this.idIndexes != null)
-        {
-            for (IDIndex<?, V> idIndex : this.idIndexes.valuesView())
-            {
-                idIndex.remove(value);
-            }
-        }
-        if (this.indexes != null)
-        {
-            for (Index<?, V> index : this.indexes.valuesView())
-            {
-                index.remove(value);
-            }
-        }
+        return this.indexes.isIndexed(indexSpec);
     }
 }
@@ -176,6 +176,87 @@ public interface Reader extends Closeable
      */
     void skipLongArray();
 
+    /**
+     * Read an int value written as an unsigned LEB128 variable length value (see {@link Writer#writeVarInt}).
+     *
+     * @return int value
+     */
+    default int readVarInt()
+    {
+        int result = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7)
+        {
+            byte b = readByte();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0)
+            {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Malformed variable length int");
+    }
+
+    /**
+     * Read an int value written as a zig-zag encoded variable length value (see {@link Writer#writeSignedVarInt}).
+     *
+     * @return int value
+     */
+    default int readSignedVarInt()
+    {
+        int i = readVarInt();
+        return (i >>> 1) ^ -(i & 1);
+    }
+
+    /**
+     * Skip a variable length int value, signed or unsigned.
+     */
+    default void skipVarInt()
+    {
+        for (int shift = 0; shift < Integer.SIZE; shift += 7)
+        {
+            if (readByte() >= 0)
+            {
+                return;
+            }
+        }
+        throw new IllegalStateException("Malformed variable length int");
+    }
+
+    /**
+     * Read a long value written as an unsigned LEB128 variable length value (see {@link Writer#writeVarLong}).
+     *
+     * @return long value
+     */
+    default long readVarLong()
+    {
+        long result = 0L;
+        for (int shift = 0; shift < Long.SIZE; shift += 7)
+        {
+            byte b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+            {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Malformed variable length long");
+    }
+
+    /**
+     * Skip a variable length long value.
+     */
+    default void skipVarLong()
+    {
+        for (int shift = 0; shift < Long.SIZE; shift += 7)
+        {
+            if (readByte() >= 0)
+            {
+                return;
+            }
+        }
+        throw new IllegalStateException("Malformed variable length long");
+    }
+
     /**
      * Read a float value.
      *
@@ -43,6 +43,48 @@ public interface Writer extends Closeable
 
     void writeLongArray(long[] longs);
 
+    /**
+     * Write an int value as an unsigned LEB128 variable length value: 7 bits per byte, with the high bit set on
+     * all but the last byte. Small non-negative values take fewer than 4 bytes, while negative values take 5.
+     *
+     * @param i int value
+     */
+    default void writeVarInt(int i)
+    {
+        while ((i & ~0x7F) != 0)
+        {
+            writeByte((byte) ((i & 0x7F) | 0x80));
+            i >>>= 7;
+        }
+        writeByte((byte) i);
+    }
+
+    /**
+     * Write an int value as a zig-zag encoded variable length value, so that values of small magnitude take
+     * few bytes whatever their sign.
+     *
+     * @param i int value
+     */
+    default void writeSignedVarInt(int i)
+    {
+        writeVarInt((i << 1) ^ (i >> 31));
+    }
+
+    /**
+     * Write a long value as an unsigned LEB128 variable length value.
+     *
+     * @param l long value
+     */
+    default void writeVarLong(long l)
+    {
+        while ((l & ~0x7FL) != 0L)
+        {
+            writeByte((byte) ((l & 0x7F) | 0x80));
+            l >>>= 7;
+        }
+        writeByte((byte) l);
+    }
+
     void writeFloat(float f);
 
     void writeFloatArray(float[] floats);
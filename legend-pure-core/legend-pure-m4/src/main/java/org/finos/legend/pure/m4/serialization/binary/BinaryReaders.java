@@ -20,6 +20,7 @@ import org.finos.legend.pure.m4.serialization.Reader;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 
 public class BinaryReaders
 {
@@ -66,4 +67,26 @@ public class BinaryReaders
     {
         return new ByteListBinaryReader(bytes);
     }
+
+    /**
+     * Get a reader for a file, which reads the file by mapping it into memory rather than by copying it into
+     * the heap. Files larger than 2GB are supported.
+     *
+     * @param path file path
+     * @return reader for the file
+     */
+    public static Reader newMappedBinaryReader(Path path)
+    {
+        return newBinaryReader(MappedFile.map(path), true);
+    }
+
+    public static Reader newBinaryReader(MappedFile file)
+    {
+        return newBinaryReader(file, false);
+    }
+
+    public static Reader newBinaryReader(MappedFile file, boolean closeFileOnClose)
+    {
+        return new MappedFileBinaryReader(file, closeFileOnClose);
+    }
 }
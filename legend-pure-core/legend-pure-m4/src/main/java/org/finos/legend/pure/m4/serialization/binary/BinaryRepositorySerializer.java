@@ -39,15 +39,42 @@ import org.finos.legend.pure.m4.serialization.Writer;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
+/**
+ * Serializes a {@link ModelRepository} to a binary format, and builds one back from it.
+ * <p>
+ * Two versions of the format are supported. Version 1 writes fixed width ints and length-prefixed strings,
+ * and starts with the repository id counter. Version 2 (the default) starts with a negative marker int, which a
+ * version 1 id counter can never be, followed by the version. It then writes ints as LEB128 variable length
+ * values, delta encodes node ids and source coordinates, and writes each distinct string once in a dictionary
+ * which the rest of the data refers to by index. {@link #build} accepts either version.
+ */
 public class BinaryRepositorySerializer
 {
+    public static final int VERSION_1 = 1;
+    public static final int VERSION_2 = 2;
+    public static final int CURRENT_VERSION = VERSION_2;
+
+    private static final int VERSION_MARKER = 0xFFFF5052;
+
     private final Writer writer;
+    private final int version;
 
-    public BinaryRepositorySerializer(Writer writer)
+    public BinaryRepositorySerializer(Writer writer, int version)
     {
+        if ((version != VERSION_1) && (version != VERSION_2))
+        {
+            throw new IllegalArgumentException("Unsupported version: " + version);
+        }
         this.writer = writer;
+        this.version = version;
+    }
+
+    public BinaryRepositorySerializer(Writer writer)
+    {
+        this(writer, CURRENT_VERSION);
     }
 
     public BinaryRepositorySerializer(OutputStream stream)
@@ -58,19 +85,39 @@ public class BinaryRepositorySerializer
     // Serialize
 
     public void serialize(ModelRepository repository)
+    {
+        if (this.version == VERSION_1)
+        {
+            serializeV1(repository);
+        }
+        else
+        {
+            serializeV2(repository);
+        }
+    }
+
+    private void serializeV1(ModelRepository repository)
     {
         // Prepare for serialization
-        MutableIntObjectMap<byte[]> serializedNodesById = IntObjectMaps.mutable.empty();
-        MutableSet<CoreInstance> doneSet = Sets.mutable.empty();
-        MutableIntObjectMap<ListIterable<String>> keys = IntObjectMaps.mutable.empty();
         MutableObjectIntMap<String> idsByFile = ObjectIntMaps.mutable.empty();
-
-        MutableStack<CoreInstance> stack = Stacks.mutable.empty();
-        for (CoreInstance instance : repository.getTopLevels())
+        MutableIntObjectMap<ListIterable<String>> keys = IntObjectMaps.mutable.empty();
+        MutableIntObjectMap<byte[]> serializedNodesById = serializeNodes(repository, keys, (writer, node) ->
         {
-            stack.push(instance);
-            serializeNode(serializedNodesById, keys, idsByFile, stack, doneSet);
-        }
+            writer.writeInt(node.getSyntheticId());
+            writer.writeInt(node.getClassifier().getSyntheticId());
+            writer.writeString(node.getName());
+            writer.writeInt(node.getCompileStates().toBitSet());
+            serializeSourceInformation(writer, node.getSourceInformation(), idsByFile);
+
+            writer.writeInt(node.getKeys().size());
+            node.getKeys().forEach(key ->
+            {
+                writer.writeInt(node.getKeyByName(key).getSyntheticId());
+                ListIterable<? extends CoreInstance> values = node.getValueForMetaPropertyToMany(key);
+                writer.writeInt(values.size());
+                values.forEach(value -> writer.writeInt(value.getSyntheticId()));
+            });
+        });
 
         // Write id counters
         this.writer.writeInt(repository.getIdCounter());
@@ -82,15 +129,7 @@ public class BinaryRepositorySerializer
         this.writer.writeStringArray(fileNames);
 
         // Write top level nodes
-        RichIterable<CoreInstance> topLevels = repository.getTopLevels();
-        int[] topLevelIds = new int[topLevels.size()];
-        int i = 0;
-        for (CoreInstance topLevel : topLevels)
-        {
-            topLevelIds[i++] = topLevel.getSyntheticId();
-        }
-        Arrays.sort(topLevelIds);
-        this.writer.writeIntArray(topLevelIds);
+        this.writer.writeIntArray(getSortedTopLevelIds(repository));
 
         // Write all nodes
         this.writer.writeInt(serializedNodesById.size());
@@ -114,6 +153,119 @@ public class BinaryRepositorySerializer
         });
     }
 
+    private void serializeV2(ModelRepository repository)
+    {
+        // Prepare for serialization: strings are assigned dictionary ids as they are first encountered
+        MutableObjectIntMap<String> stringIds = ObjectIntMaps.mutable.empty();
+        MutableIntObjectMap<ListIterable<String>> keys = IntObjectMaps.mutable.empty();
+        MutableIntObjectMap<byte[]> serializedNodesById = serializeNodes(repository, keys, (writer, node) ->
+        {
+            // the node id is written with the node record, as a delta from the previous one
+            int id = node.getSyntheticId();
+            writer.writeVarInt(node.getClassifier().getSyntheticId());
+            writer.writeVarInt(getStringId(stringIds, node.getName()));
+            writer.writeVarInt(node.getCompileStates().toBitSet());
+            serializeSourceInformationV2(writer, node.getSourceInformation(), stringIds);
+
+            writer.writeVarInt(node.getKeys().size());
+            node.getKeys().forEach(key ->
+            {
+                writer.writeVarInt(node.getKeyByName(key).getSyntheticId());
+                ListIterable<? extends CoreInstance> values = node.getValueForMetaPropertyToMany(key);
+                writer.writeVarInt(values.size());
+                // values are often created close to their owner and to each other
+                int previous = id;
+                for (CoreInstance value : values)
+                {
+                    int valueId = value.getSyntheticId();
+                    writer.writeSignedVarInt(valueId - previous);
+                    previous = valueId;
+                }
+            });
+        });
+        int[] nodeIds = serializedNodesById.keySet().toSortedArray();
+        for (int nodeId : nodeIds)
+        {
+            ListIterable<String> realKeys = keys.get(nodeId);
+            if (realKeys != null)
+            {
+                realKeys.forEach(k -> getStringId(stringIds, k));
+            }
+        }
+
+        // Write version and id counters
+        this.writer.writeInt(VERSION_MARKER);
+        this.writer.writeVarInt(VERSION_2);
+        this.writer.writeVarInt(repository.getIdCounter());
+        this.writer.writeVarInt(repository.getAnonymousIdCounter());
+
+        // Write string dictionary
+        String[] strings = new String[stringIds.size()];
+        stringIds.forEachKeyValue((string, stringId) -> strings[stringId] = string);
+        this.writer.writeVarInt(strings.length);
+        for (String string : strings)
+        {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            this.writer.writeVarInt(bytes.length);
+            this.writer.writeBytes(bytes);
+        }
+
+        // Write top level nodes
+        int[] topLevelIds = getSortedTopLevelIds(repository);
+        this.writer.writeVarInt(topLevelIds.length);
+        writeSortedIds(this.writer, topLevelIds);
+
+        // Write all nodes, in id order so that ids can be written as deltas
+        this.writer.writeVarInt(nodeIds.length);
+        int previousId = 0;
+        for (int nodeId : nodeIds)
+        {
+            this.writer.writeVarInt(nodeId - previousId);
+            previousId = nodeId;
+            this.writer.writeBytes(serializedNodesById.get(nodeId));
+
+            // Add possible realKeyPath: 0 for none, otherwise the size plus 1
+            ListIterable<String> realKeys = keys.get(nodeId);
+            if (realKeys == null)
+            {
+                this.writer.writeVarInt(0);
+            }
+            else
+            {
+                this.writer.writeVarInt(realKeys.size() + 1);
+                realKeys.forEach(k -> this.writer.writeVarInt(stringIds.get(k)));
+            }
+        }
+    }
+
+    private static int[] getSortedTopLevelIds(ModelRepository repository)
+    {
+        RichIterable<CoreInstance> topLevels = repository.getTopLevels();
+        int[] topLevelIds = new int[topLevels.size()];
+        int i = 0;
+        for (CoreInstance topLevel : topLevels)
+        {
+            topLevelIds[i++] = topLevel.getSyntheticId();
+        }
+        Arrays.sort(topLevelIds);
+        return topLevelIds;
+    }
+
+    private static void writeSortedIds(Writer writer, int[] ids)
+    {
+        int previous = 0;
+        for (int id : ids)
+        {
+            writer.writeVarInt(id - previous);
+            previous = id;
+        }
+    }
+
+    private static int getStringId(MutableObjectIntMap<String> stringIds, String string)
+    {
+        return stringIds.getIfAbsentPut(string, stringIds.size());
+    }
+
     private static void serializeSourceInformation(Writer writer, SourceInformation sourceInformation, MutableObjectIntMap<String> idsByFile)
     {
         if (sourceInformation == null)
@@ -143,6 +295,25 @@ public class BinaryRepositorySerializer
         }
     }
 
+    private static void serializeSourceInformationV2(Writer writer, SourceInformation sourceInformation, MutableObjectIntMap<String> stringIds)
+    {
+        if (sourceInformation == null)
+        {
+            writer.writeVarInt(0);
+        }
+        else
+        {
+            // the file is written as its string id plus 1, and each coordinate relative to the previous one
+            writer.writeVarInt(getStringId(stringIds, sourceInformation.getSourceId()) + 1);
+            writer.writeVarInt(sourceInformation.getStartLine());
+            writer.writeVarInt(sourceInformation.getStartColumn());
+            writer.writeSignedVarInt(sourceInformation.getLine() - sourceInformation.getStartLine());
+            writer.writeSignedVarInt(sourceInformation.getColumn() - sourceInformation.getStartColumn());
+            writer.writeSignedVarInt(sourceInformation.getEndLine() - sourceInformation.getLine());
+            writer.writeSignedVarInt(sourceInformation.getEndColumn() - sourceInformation.getColumn());
+        }
+    }
+
     private static void push(CoreInstance node, MutableStack<CoreInstance> stack, MutableSet<CoreInstance> doneSet)
     {
         if (!doneSet.contains(node))
@@ -151,7 +322,20 @@ public class BinaryRepositorySerializer
         }
     }
 
-    private static void serializeNode(MutableIntObjectMap<byte[]> nodeSerializations, MutableIntObjectMap<ListIterable<String>> keys, MutableObjectIntMap<String> idsByFile, MutableStack<CoreInstance> stack, MutableSet<CoreInstance> doneSet)
+    private static MutableIntObjectMap<byte[]> serializeNodes(ModelRepository repository, MutableIntObjectMap<ListIterable<String>> keys, NodeEncoder encoder)
+    {
+        MutableIntObjectMap<byte[]> serializedNodesById = IntObjectMaps.mutable.empty();
+        MutableSet<CoreInstance> doneSet = Sets.mutable.empty();
+        MutableStack<CoreInstance> stack = Stacks.mutable.empty();
+        for (CoreInstance instance : repository.getTopLevels())
+        {
+            stack.push(instance);
+            serializeNode(serializedNodesById, keys, stack, doneSet, encoder);
+        }
+        return serializedNodesById;
+    }
+
+    private static void serializeNode(MutableIntObjectMap<byte[]> nodeSerializations, MutableIntObjectMap<ListIterable<String>> keys, MutableStack<CoreInstance> stack, MutableSet<CoreInstance> doneSet, NodeEncoder encoder)
     {
         ByteArrayOutputStream nodeBytes = new ByteArrayOutputStream();
         try (Writer writer = BinaryWriters.newBinaryWriter(nodeBytes))
@@ -163,29 +347,16 @@ public class BinaryRepositorySerializer
                 {
                     nodeBytes.reset();
                     push(node.getClassifier(), stack, doneSet);
-
-                    int id = node.getSyntheticId();
-                    writer.writeInt(id);
-                    writer.writeInt(node.getClassifier().getSyntheticId());
-                    writer.writeString(node.getName());
-                    writer.writeInt(node.getCompileStates().toBitSet());
-                    serializeSourceInformation(writer, node.getSourceInformation(), idsByFile);
-
-                    writer.writeInt(node.getKeys().size());
                     node.getKeys().forEach(key ->
                     {
                         CoreInstance keyCoreInstance = node.getKeyByName(key);
                         keys.put(keyCoreInstance.getSyntheticId(), node.getRealKeyByName(key));
                         push(keyCoreInstance, stack, doneSet);
-                        writer.writeInt(keyCoreInstance.getSyntheticId());
-                        ListIterable<? extends CoreInstance> values = node.getValueForMetaPropertyToMany(key);
-                        writer.writeInt(values.size());
-                        values.forEach(value ->
-                        {
-                            push(value, stack, doneSet);
-                            writer.writeInt(value.getSyntheticId());
-                        });
+                        node.getValueForMetaPropertyToMany(key).forEach(value -> push(value, stack, doneSet));
                     });
+
+                    int id = node.getSyntheticId();
+                    encoder.encode(writer, node);
                     if (nodeSerializations.containsKey(id))
                     {
                         throw new RuntimeException("ERROR");
@@ -196,6 +367,11 @@ public class BinaryRepositorySerializer
         }
     }
 
+    private interface NodeEncoder
+    {
+        void encode(Writer writer, CoreInstance node);
+    }
+
     // Build
 
     public static IntObjectMap<CoreInstance> build(byte[] data, ModelRepository repository)
@@ -241,36 +417,85 @@ public class BinaryRepositorySerializer
 
     public static IntObjectMap<CoreInstance> build(Reader reader, ModelRepository repository, MessageCallBack message, IntObjectMap<String> classifierIdToPath)
     {
-        // Read id counters
-        int idCounter = reader.readInt();
-        int anonymousIdCounter = reader.readInt();
+        // Read version and id counters: version 1 starts directly with the id counter
+        int version;
+        int idCounter;
+        int anonymousIdCounter;
+        int first = reader.readInt();
+        if (first == VERSION_MARKER)
+        {
+            version = reader.readVarInt();
+            if (version != VERSION_2)
+            {
+                throw new IllegalStateException("Unsupported version: " + version);
+            }
+            idCounter = reader.readVarInt();
+            anonymousIdCounter = reader.readVarInt();
+        }
+        else
+        {
+            version = VERSION_1;
+            idCounter = first;
+            anonymousIdCounter = reader.readInt();
+        }
         repository.setCounters(idCounter, anonymousIdCounter);
 
-        // Read source files by id
-        String[] filesById = reader.readStringArray();
+        // Read source files by id (version 1) or string dictionary (version 2)
+        String[] strings;
+        if (version == VERSION_1)
+        {
+            strings = reader.readStringArray();
+        }
+        else
+        {
+            strings = new String[reader.readVarInt()];
+            for (int i = 0; i < strings.length; i++)
+            {
+                strings[i] = new String(reader.readBytes(reader.readVarInt()), StandardCharsets.UTF_8);
+            }
+        }
 
         // Read top level ids
         MutableIntSet topLevelIds = IntSets.mutable.empty();
-        int topLevelCount = reader.readInt();
+        int topLevelCount = (version == VERSION_1) ? reader.readInt() : reader.readVarInt();
         if (message != null)
         {
             message.message("Reading '" + topLevelCount + "' top level ids");
         }
+        int previousTopLevelId = 0;
         for (int i = 0; i < topLevelCount; i++)
         {
-            topLevelIds.add(reader.readInt());
+            if (version == VERSION_1)
+            {
+                topLevelIds.add(reader.readInt());
+            }
+            else
+            {
+                previousTopLevelId += reader.readVarInt();
+                topLevelIds.add(previousTopLevelId);
+            }
         }
 
         // Build intermediate nodes
-        int nodeCount = reader.readInt();
+        int nodeCount = (version == VERSION_1) ? reader.readInt() : reader.readVarInt();
         if (message != null)
         {
             message.message("Loading from cache - Building '" + nodeCount + "' intermediate nodes");
         }
         MutableIntObjectMap<IntermediateNode> nodes = IntObjectMaps.mutable.ofInitialCapacity(nodeCount);
+        int previousNodeId = 0;
         for (int i = 0; i < nodeCount; i++)
         {
-            IntermediateNode intermediateNode = readNode(reader, filesById);
+            IntermediateNode intermediateNode;
+            if (version == VERSION_1)
+            {
+                intermediateNode = readNode(reader, strings);
+            }
+            else
+            {
+                previousNodeId += reader.readVarInt();
+                intermediateNode = readNodeV2(reader, previousNodeId, strings);
+            }
             nodes.put(intermediateNode.getId(), intermediateNode);
         }
 
@@ -433,4 +658,54 @@ public class BinaryRepositorySerializer
 
         return node;
     }
+
+    private static IntermediateNode readNodeV2(Reader reader, int id, String[] strings)
+    {
+        int classifierId = reader.readVarInt();
+        String name = strings[reader.readVarInt()];
+        int compileState = reader.readVarInt();
+        int potentialSourceInfo = reader.readVarInt();
+        SourceInformation sourceInformation = null;
+        if (potentialSourceInfo != 0)
+        {
+            int startLine = reader.readVarInt();
+            int startColumn = reader.readVarInt();
+            int line = startLine + reader.readSignedVarInt();
+            int column = startColumn + reader.readSignedVarInt();
+            int endLine = line + reader.readSignedVarInt();
+            int endColumn = column + reader.readSignedVarInt();
+            sourceInformation = new SourceInformation(strings[potentialSourceInfo - 1], startLine, startColumn, line, column, endLine, endColumn);
+        }
+        IntermediateNode node = new IntermediateNode(id, classifierId, name, compileState, sourceInformation);
+        int propertiesCount = reader.readVarInt();
+        for (int i = 0; i < propertiesCount; i++)
+        {
+            int propertyId = reader.readVarInt();
+            int[] valueIds = new int[reader.readVarInt()];
+            int previous = id;
+            for (int j = 0; j < valueIds.length; j++)
+            {
+                previous += reader.readSignedVarInt();
+                valueIds[j] = previous;
+            }
+            node.put(propertyId, IntLists.mutable.with(valueIds));
+        }
+
+        int realKeySize = reader.readVarInt() - 1;
+        if (realKeySize >= 0)
+        {
+            MutableList<String> realKey = Lists.mutable.withInitialCapacity(realKeySize);
+            for (int i = 0; i < realKeySize; i++)
+            {
+                realKey.add(strings[reader.readVarInt()]);
+            }
+            node.setRealKey(realKey);
+        }
+        else
+        {
+            node.setRealKey(Lists.immutable.empty());
+        }
+
+        return node;
+    }
 }
@@ -0,0 +1,227 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.serialization.binary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A read-only memory-mapped region of a file. As a single {@link MappedByteBuffer} is limited to 2GB, the
+ * region is mapped in chunks, so files of any size can be mapped. The mapping stays valid after the file is
+ * closed, until the buffers are garbage collected.
+ */
+public final class MappedFile implements Closeable
+{
+    /**
+     * Default maximum chunk size (1GB).
+     */
+    public static final int DEFAULT_MAX_CHUNK_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final boolean closeChannelOnClose;
+    private final long position;
+    private final long size;
+    private final int maxChunkSize;
+    private final MappedByteBuffer[] chunks;
+
+    private MappedFile(FileChannel channel, boolean closeChannelOnClose, long position, long size, int maxChunkSize) throws IOException
+    {
+        if (position < 0)
+        {
+            throw new IllegalArgumentException("Invalid position: " + position);
+        }
+        if (size < 0)
+        {
+            throw new IllegalArgumentException("Invalid size: " + size);
+        }
+        if (maxChunkSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid maximum chunk size: " + maxChunkSize);
+        }
+        this.channel = Objects.requireNonNull(channel, "channel may not be null");
+        this.closeChannelOnClose = closeChannelOnClose;
+        this.position = position;
+        this.size = size;
+        this.maxChunkSize = maxChunkSize;
+
+        long chunkCount = (size + maxChunkSize - 1) / maxChunkSize;
+        if (chunkCount > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Too many chunks (" + chunkCount + ") to map " + size + " bytes in chunks of " + maxChunkSize);
+        }
+        this.chunks = new MappedByteBuffer[(int) chunkCount];
+        for (int i = 0; i < this.chunks.length; i++)
+        {
+            long chunkStart = (long) i * maxChunkSize;
+            this.chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + chunkStart, Math.min(maxChunkSize, size - chunkStart));
+        }
+    }
+
+    /**
+     * The size of the mapped region.
+     *
+     * @return size in bytes
+     */
+    public long size()
+    {
+        return this.size;
+    }
+
+    int getChunkCount()
+    {
+        return this.chunks.length;
+    }
+
+    /**
+     * Get a new buffer for the given chunk, positioned at its start. The buffer is independent of those
+     * returned by other calls.
+     */
+    ByteBuffer getChunk(int index)
+    {
+        return this.chunks[index].duplicate();
+    }
+
+    /**
+     * Get a buffer over part of the mapped region, without copying where possible. The buffer is positioned at
+     * 0 with a limit of length.
+     *
+     * @param offset offset of the start of the part within the mapped region
+     * @param length length of the part
+     * @return buffer over the part
+     */
+    public ByteBuffer slice(long offset, int length)
+    {
+        if ((offset < 0) || (length < 0) || (offset + length > this.size))
+        {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", size: " + this.size);
+        }
+
+        if (length == 0)
+        {
+            return ByteBuffer.allocate(0);
+        }
+
+        int chunkIndex = (int) (offset / this.maxChunkSize);
+        int chunkOffset = (int) (offset % this.maxChunkSize);
+        if (chunkOffset + length <= this.maxChunkSize)
+        {
+            ByteBuffer buffer = this.chunks[chunkIndex].duplicate();
+            ((Buffer) buffer).position(chunkOffset);
+            ((Buffer) buffer).limit(chunkOffset + length);
+            return buffer.slice();
+        }
+
+        // the part spans chunks: map it on its own
+        try
+        {
+            return this.channel.map(FileChannel.MapMode.READ_ONLY, this.position + offset, length);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (this.closeChannelOnClose)
+        {
+            try
+            {
+                this.channel.close();
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Map the whole of a file.
+     *
+     * @param path file path
+     * @return mapped file
+     */
+    public static MappedFile map(Path path)
+    {
+        return map(path, DEFAULT_MAX_CHUNK_SIZE);
+    }
+
+    public static MappedFile map(Path path, int maxChunkSize)
+    {
+        FileChannel channel = null;
+        try
+        {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            return new MappedFile(channel, true, 0L, channel.size(), maxChunkSize);
+        }
+        catch (IOException e)
+        {
+            closeQuietly(channel, e);
+            throw new UncheckedIOException("Error mapping " + path, e);
+        }
+        catch (RuntimeException e)
+        {
+            closeQuietly(channel, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Map a region of a file channel. The channel is not closed when the mapped file is.
+     *
+     * @param channel      file channel
+     * @param position     start of the region
+     * @param size         size of the region
+     * @param maxChunkSize maximum size of each mapped chunk
+     * @return mapped file
+     */
+    public static MappedFile map(FileChannel channel, long position, long size, int maxChunkSize)
+    {
+        try
+        {
+            return new MappedFile(channel, false, position, size, maxChunkSize);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel, Exception e)
+    {
+        if (channel != null)
+        {
+            try
+            {
+                channel.close();
+            }
+            catch (IOException suppressed)
+            {
+                e.addSuppressed(suppressed);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.serialization.binary;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Reader over a {@link MappedFile}. Reads within a chunk go straight to the mapped buffer; only the rare
+ * values which span two chunks are assembled from their bytes.
+ */
+class MappedFileBinaryReader extends AbstractSimpleBinaryReader
+{
+    private final MappedFile file;
+    private final boolean closeFileOnClose;
+    private int chunkIndex = 0;
+    private ByteBuffer chunk;
+    private long remaining;
+
+    MappedFileBinaryReader(MappedFile file, boolean closeFileOnClose)
+    {
+        this.file = Objects.requireNonNull(file, "file may not be null");
+        this.closeFileOnClose = closeFileOnClose;
+        this.chunk = (file.getChunkCount() == 0) ? ByteBuffer.allocate(0) : file.getChunk(0);
+        this.remaining = file.size();
+    }
+
+    @Override
+    public synchronized byte readByte()
+    {
+        if (!nextChunkIfNeeded())
+        {
+            throw new UnexpectedEndException(Byte.BYTES, 0L);
+        }
+        this.remaining--;
+        return this.chunk.get();
+    }
+
+    @Override
+    public synchronized byte[] readBytes(byte[] bytes, int offset, int n)
+    {
+        checkByteArray(bytes, offset, n);
+        if (this.remaining < n)
+        {
+            throw new UnexpectedEndException(n, this.remaining);
+        }
+        int read = 0;
+        while (read < n)
+        {
+            nextChunkIfNeeded();
+            int toRead = Math.min(n - read, this.chunk.remaining());
+            this.chunk.get(bytes, offset + read, toRead);
+            read += toRead;
+        }
+        this.remaining -= n;
+        return bytes;
+    }
+
+    @Override
+    public synchronized void skipBytes(long n)
+    {
+        if (n <= 0)
+        {
+            return;
+        }
+        if (this.remaining < n)
+        {
+            throw new UnexpectedEndException(n, this.remaining);
+        }
+        long skipped = 0;
+        while (skipped < n)
+        {
+            nextChunkIfNeeded();
+            int toSkip = (int) Math.min(n - skipped, this.chunk.remaining());
+            ((Buffer) this.chunk).position(this.chunk.position() + toSkip);
+            skipped += toSkip;
+        }
+        this.remaining -= n;
+    }
+
+    @Override
+    public synchronized short readShort()
+    {
+        if (this.chunk.remaining() < Short.BYTES)
+        {
+            return super.readShort();
+        }
+        this.remaining -= Short.BYTES;
+        return this.chunk.getShort();
+    }
+
+    @Override
+    public synchronized int readInt()
+    {
+        if (this.chunk.remaining() < Integer.BYTES)
+        {
+            return super.readInt();
+        }
+        this.remaining -= Integer.BYTES;
+        return this.chunk.getInt();
+    }
+
+    @Override
+    public synchronized long readLong()
+    {
+        if (this.chunk.remaining() < Long.BYTES)
+        {
+            return super.readLong();
+        }
+        this.remaining -= Long.BYTES;
+        return this.chunk.getLong();
+    }
+
+    @Override
+    public synchronized float readFloat()
+    {
+        if (this.chunk.remaining() < Float.BYTES)
+        {
+            return super.readFloat();
+        }
+        this.remaining -= Float.BYTES;
+        return this.chunk.getFloat();
+    }
+
+    @Override
+    public synchronized double readDouble()
+    {
+        if (this.chunk.remaining() < Double.BYTES)
+        {
+            return super.readDouble();
+        }
+        this.remaining -= Double.BYTES;
+        return this.chunk.getDouble();
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (this.closeFileOnClose)
+        {
+            this.file.close();
+        }
+    }
+
+    // move on to the next chunk if the current one is exhausted; returns whether there is anything to read
+    private boolean nextChunkIfNeeded()
+    {
+        while (!this.chunk.hasRemaining())
+        {
+            if (this.chunkIndex + 1 >= this.file.getChunkCount())
+            {
+                return false;
+            }
+            this.chunk = this.file.getChunk(++this.chunkIndex);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.serialization.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A compression codec for serialized graphs. Each codec has an id, which is recorded in the header written by
+ * {@link CompressionCodecs#newCompressingStream} so that readers can find the codec to decompress with (see
+ * {@link CompressionCodecs#newDecompressingStream}).
+ * <p>
+ * Ids 0-63 are reserved for the built-in codecs (see {@link CompressionCodecs}). Other codecs may be made
+ * available to readers by registering them with {@link java.util.ServiceLoader}; they must then have a public
+ * no-argument constructor.
+ */
+public interface CompressionCodec
+{
+    /**
+     * Codec id, between 0 and 255.
+     *
+     * @return codec id
+     */
+    int getId();
+
+    /**
+     * Codec name, for messages.
+     *
+     * @return codec name
+     */
+    String getName();
+
+    /**
+     * Wrap a stream so that what is written to it is compressed. Closing the returned stream closes the
+     * underlying stream.
+     *
+     * @param stream stream to write compressed bytes to
+     * @return compressing stream
+     */
+    OutputStream newCompressingStream(OutputStream stream) throws IOException;
+
+    /**
+     * Wrap a stream of compressed bytes so that reading from it decompresses them. Closing the returned stream
+     * closes the underlying stream.
+     *
+     * @param stream stream to read compressed bytes from
+     * @return decompressing stream
+     */
+    InputStream newDecompressingStream(InputStream stream) throws IOException;
+}
@@ -0,0 +1,399 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.serialization.compression;
+
+import org.eclipse.collections.api.map.primitive.ImmutableIntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.ServiceLoader;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+public class CompressionCodecs
+{
+    /**
+     * Size of the header written by {@link #newCompressingStream}: a 4 byte magic number followed by the codec
+     * id.
+     */
+    public static final int HEADER_SIZE = 5;
+
+    private static final int MAGIC = 0x50435A01; // "PCZ" + format version 1
+    private static final int GZIP_MAGIC_1 = 0x1F;
+    private static final int GZIP_MAGIC_2 = 0x8B;
+    private static final int MAX_BUILT_IN_ID = 63;
+
+    /**
+     * No compression. Graphs written with this codec can be read from memory-mapped files, after the header.
+     */
+    public static final CompressionCodec NONE = new NoCompressionCodec();
+
+    /**
+     * GZIP, at the default compression level.
+     */
+    public static final CompressionCodec GZIP = new GZipCodec();
+
+    /**
+     * Raw deflate (without the GZIP header and trailer), at the default compression level.
+     */
+    public static final CompressionCodec DEFLATE = deflate(Deflater.DEFAULT_COMPRESSION);
+
+    /**
+     * A fast LZ77 codec, which compresses less than deflate but decompresses several times faster.
+     */
+    public static final CompressionCodec LZ = new LZCodec();
+
+    private static final int DEFLATE_ID = 2;
+
+    private static volatile ImmutableIntObjectMap<CompressionCodec> codecsById;
+
+    private CompressionCodecs()
+    {
+    }
+
+    /**
+     * Raw deflate at the given compression level (see {@link Deflater}). The level is only used for compressing,
+     * so all deflate codecs share the same id.
+     *
+     * @param level compression level, from 0 to 9 (or -1 for the default)
+     * @return deflate codec
+     */
+    public static CompressionCodec deflate(int level)
+    {
+        if ((level < -1) || (level > 9))
+        {
+            throw new IllegalArgumentException("Invalid deflate compression level: " + level);
+        }
+        return new DeflateCodec(level);
+    }
+
+    /**
+     * Get the codec with the given id, either built-in or registered with {@link ServiceLoader}.
+     *
+     * @param id codec id
+     * @return codec
+     * @throws IllegalArgumentException if there is no codec with the given id
+     */
+    public static CompressionCodec getCodec(int id)
+    {
+        CompressionCodec codec = getCodecsById().get(id);
+        if (codec == null)
+        {
+            throw new IllegalArgumentException("Unknown compression codec: " + id);
+        }
+        return codec;
+    }
+
+    /**
+     * Get a built-in codec by name: none, gzip, lz, deflate, or deflate-N where N is a compression level.
+     * Registered codecs are also found by their names.
+     *
+     * @param name codec name
+     * @return codec
+     * @throws IllegalArgumentException if there is no codec with the given name
+     */
+    public static CompressionCodec getCodec(String name)
+    {
+        String lowerName = name.toLowerCase();
+        if (lowerName.startsWith("deflate-"))
+        {
+            try
+            {
+                return deflate(Integer.parseInt(lowerName.substring("deflate-".length())));
+            }
+            catch (NumberFormatException e)
+            {
+                throw new IllegalArgumentException("Invalid deflate compression level: " + name, e);
+            }
+        }
+        CompressionCodec codec = getCodecsById().detect(c -> c.getName().equalsIgnoreCase(name));
+        if (codec == null)
+        {
+            throw new IllegalArgumentException("Unknown compression codec: " + name);
+        }
+        return codec;
+    }
+
+    /**
+     * Write the header identifying the codec to a stream, and wrap the stream so that what is written to it is
+     * compressed with the codec.
+     *
+     * @param stream stream to write to
+     * @param codec  compression codec
+     * @return compressing stream
+     */
+    public static OutputStream newCompressingStream(OutputStream stream, CompressionCodec codec) throws IOException
+    {
+        stream.write(MAGIC >>> 24);
+        stream.write(MAGIC >>> 16);
+        stream.write(MAGIC >>> 8);
+        stream.write(MAGIC);
+        stream.write(codec.getId());
+        return codec.newCompressingStream(stream);
+    }
+
+    /**
+     * Read the header written by {@link #newCompressingStream} from a stream, and wrap the stream so that it is
+     * decompressed with the codec named in the header. Streams without a header which start with the GZIP
+     * magic number are read as GZIP, for compatibility with streams written before codecs were recorded.
+     *
+     * @param stream stream to read from
+     * @return decompressing stream
+     */
+    public static InputStream newDecompressingStream(InputStream stream) throws IOException
+    {
+        PushbackInputStream pushbackStream = new PushbackInputStream(stream, 2);
+        int b1 = pushbackStream.read();
+        int b2 = pushbackStream.read();
+        if ((b1 == GZIP_MAGIC_1) && (b2 == GZIP_MAGIC_2))
+        {
+            pushbackStream.unread(new byte[]{(byte) b1, (byte) b2});
+            return GZIP.newDecompressingStream(pushbackStream);
+        }
+        int b3 = pushbackStream.read();
+        int b4 = pushbackStream.read();
+        int id = pushbackStream.read();
+        if ((b1 | b2 | b3 | b4 | id) < 0)
+        {
+            throw new EOFException("Missing compression header");
+        }
+        return getCodec(readHeader(b1, b2, b3, b4, id)).newDecompressingStream(pushbackStream);
+    }
+
+    /**
+     * Read the codec from the header written by {@link #newCompressingStream}. As with
+     * {@link #newDecompressingStream}, bytes without a header which start with the GZIP magic number are taken
+     * to be GZIP.
+     *
+     * @param header header bytes
+     * @return codec
+     */
+    public static CompressionCodec readCodec(byte[] header)
+    {
+        if ((header.length >= 2) && ((header[0] & 0xFF) == GZIP_MAGIC_1) && ((header[1] & 0xFF) == GZIP_MAGIC_2))
+        {
+            return GZIP;
+        }
+        if (header.length < HEADER_SIZE)
+        {
+            throw new IllegalArgumentException("Missing compression header");
+        }
+        return getCodec(readHeader(header[0] & 0xFF, header[1] & 0xFF, header[2] & 0xFF, header[3] & 0xFF, header[4] & 0xFF));
+    }
+
+    private static int readHeader(int b1, int b2, int b3, int b4, int id)
+    {
+        int magic = (b1 << 24) | (b2 << 16) | (b3 << 8) | b4;
+        if (magic != MAGIC)
+        {
+            throw new IllegalArgumentException(String.format("Invalid compression header: %08x", magic));
+        }
+        return id;
+    }
+
+    private static ImmutableIntObjectMap<CompressionCodec> getCodecsById()
+    {
+        ImmutableIntObjectMap<CompressionCodec> result = codecsById;
+        if (result == null)
+        {
+            synchronized (CompressionCodecs.class)
+            {
+                result = codecsById;
+                if (result == null)
+                {
+                    codecsById = result = loadCodecs();
+                }
+            }
+        }
+        return result;
+    }
+
+    private static ImmutableIntObjectMap<CompressionCodec> loadCodecs()
+    {
+        MutableIntObjectMap<CompressionCodec> codecs = IntObjectMaps.mutable.empty();
+        codecs.put(NONE.getId(), NONE);
+        codecs.put(GZIP.getId(), GZIP);
+        codecs.put(DEFLATE.getId(), DEFLATE);
+        codecs.put(LZ.getId(), LZ);
+        for (CompressionCodec codec : ServiceLoader.load(CompressionCodec.class))
+        {
+            int id = codec.getId();
+            if ((id <= MAX_BUILT_IN_ID) || (id > 255))
+            {
+                throw new IllegalStateException("Invalid id for compression codec " + codec.getName() + ": " + id);
+            }
+            CompressionCodec old = codecs.put(id, codec);
+            if (old != null)
+            {
+                throw new IllegalStateException("Conflicting compression codecs for id " + id + ": " + old.getName() + " and " + codec.getName());
+            }
+        }
+        return codecs.toImmutable();
+    }
+
+    private static class NoCompressionCodec implements CompressionCodec
+    {
+        @Override
+        public int getId()
+        {
+            return 0;
+        }
+
+        @Override
+        public String getName()
+        {
+            return "none";
+        }
+
+        @Override
+        public OutputStream newCompressingStream(OutputStream stream)
+        {
+            return stream;
+        }
+
+        @Override
+        public InputStream newDecompressingStream(InputStream stream)
+        {
+            return stream;
+        }
+    }
+
+    private static class GZipCodec implements CompressionCodec
+    {
+        @Override
+        public int getId()
+        {
+            return 1;
+        }
+
+        @Override
+        public String getName()
+        {
+            return "gzip";
+        }
+
+        @Override
+        public OutputStream newCompressingStream(OutputStream stream) throws IOException
+        {
+            return new GZIPOutputStream(stream);
+        }
+
+        @Override
+        public InputStream newDecompressingStream(InputStream stream) throws IOException
+        {
+            return new GZIPInputStream(stream);
+        }
+    }
+
+    private static class DeflateCodec implements CompressionCodec
+    {
+        private final int level;
+
+        private DeflateCodec(int level)
+        {
+            this.level = level;
+        }
+
+        @Override
+        public int getId()
+        {
+            return DEFLATE_ID;
+        }
+
+        @Override
+        public String getName()
+        {
+            return "deflate";
+        }
+
+        @Override
+        public OutputStream newCompressingStream(OutputStream stream)
+        {
+            Deflater deflater = new Deflater(this.level, true);
+            return new DeflaterOutputStream(stream, deflater)
+            {
+                @Override
+                public void close() throws IOException
+                {
+                    try
+                    {
+                        super.close();
+                    }
+                    finally
+                    {
+                        deflater.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InputStream newDecompressingStream(InputStream stream)
+        {
+            Inflater inflater = new Inflater(true);
+            return new InflaterInputStream(stream, inflater)
+            {
+                @Override
+                public void close() throws IOException
+                {
+                    try
+                    {
+                        super.close();
+                    }
+                    finally
+                    {
+                        inflater.end();
+                    }
+                }
+            };
+        }
+    }
+
+    private static class LZCodec implements CompressionCodec
+    {
+        @Override
+        public int getId()
+        {
+            return 3;
+        }
+
+        @Override
+        public String getName()
+        {
+            return "lz";
+        }
+
+        @Override
+        public OutputStream newCompressingStream(OutputStream stream)
+        {
+            return new LZOutputStream(stream);
+        }
+
+        @Override
+        public InputStream newDecompressingStream(InputStream stream)
+        {
+            return new LZInputStream(stream);
+        }
+    }
+}
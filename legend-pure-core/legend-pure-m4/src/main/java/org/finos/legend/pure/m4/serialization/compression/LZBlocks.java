@@ -0,0 +1,196 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.serialization.compression;
+
+import java.util.Arrays;
+
+/**
+ * LZ77 block compression, in the style of LZ4: a block is a sequence of literal runs each followed by a back
+ * reference (offset and length) into the bytes already decompressed. Each sequence starts with a token whose
+ * high nibble is the literal length and low nibble is the match length minus {@link #MIN_MATCH}; a nibble of 15
+ * is followed by further length bytes, each added to it, until a byte less than 255. The offset follows the
+ * literals as two little-endian bytes. The last sequence has literals only.
+ */
+class LZBlocks
+{
+    static final int MIN_MATCH = 4;
+    static final int MAX_OFFSET = 0xFFFF;
+    static final int HASH_BITS = 14;
+    static final int HASH_SIZE = 1 << HASH_BITS;
+
+    private static final int RUN_MASK = 0x0F;
+
+    private LZBlocks()
+    {
+    }
+
+    static int maxCompressedLength(int length)
+    {
+        return length + (length / 255) + 16;
+    }
+
+    /**
+     * Compress the first length bytes of source into target, which must have room for
+     * {@link #maxCompressedLength} bytes.
+     *
+     * @return compressed length
+     */
+    static int compress(byte[] source, int length, byte[] target, int[] hashTable)
+    {
+        Arrays.fill(hashTable, -1);
+        int anchor = 0;
+        int position = 0;
+        int targetPosition = 0;
+        int lastMatchStart = length - MIN_MATCH;
+        while (position <= lastMatchStart)
+        {
+            int sequence = readInt(source, position);
+            int hash = hash(sequence);
+            int reference = hashTable[hash];
+            hashTable[hash] = position;
+            if ((reference >= 0) && ((position - reference) <= MAX_OFFSET) && (readInt(source, reference) == sequence))
+            {
+                int matchLength = MIN_MATCH;
+                while (((position + matchLength) < length) && (source[reference + matchLength] == source[position + matchLength]))
+                {
+                    matchLength++;
+                }
+                targetPosition = writeSequence(source, anchor, position - anchor, position - reference, matchLength, target, targetPosition);
+                position += matchLength;
+                anchor = position;
+            }
+            else
+            {
+                position++;
+            }
+        }
+        return writeLastLiterals(source, anchor, length - anchor, target, targetPosition);
+    }
+
+    /**
+     * Decompress a block into target, which must have room for the decompressed bytes.
+     *
+     * @return decompressed length
+     */
+    static int decompress(byte[] source, int length, byte[] target)
+    {
+        int position = 0;
+        int targetPosition = 0;
+        while (position < length)
+        {
+            int token = source[position++] & 0xFF;
+
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK)
+            {
+                int b;
+                do
+                {
+                    b = source[position++] & 0xFF;
+                    literalLength += b;
+                }
+                while (b == 255);
+            }
+            System.arraycopy(source, position, target, targetPosition, literalLength);
+            position += literalLength;
+            targetPosition += literalLength;
+            if (position >= length)
+            {
+                break;
+            }
+
+            int offset = (source[position] & 0xFF) | ((source[position + 1] & 0xFF) << 8);
+            position += 2;
+            if ((offset == 0) || (offset > targetPosition))
+            {
+                throw new IllegalStateException("Invalid LZ block: offset " + offset + " at " + targetPosition);
+            }
+
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK)
+            {
+                int b;
+                do
+                {
+                    b = source[position++] & 0xFF;
+                    matchLength += b;
+                }
+                while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+
+            int matchStart = targetPosition - offset;
+            if (offset >= matchLength)
+            {
+                System.arraycopy(target, matchStart, target, targetPosition, matchLength);
+                targetPosition += matchLength;
+            }
+            else
+            {
+                // overlapping match: copy byte by byte so that the run repeats
+                for (int i = 0; i < matchLength; i++)
+                {
+                    target[targetPosition++] = target[matchStart + i];
+                }
+            }
+        }
+        return targetPosition;
+    }
+
+    private static int writeSequence(byte[] source, int literalStart, int literalLength, int offset, int matchLength, byte[] target, int targetPosition)
+    {
+        int matchRun = matchLength - MIN_MATCH;
+        target[targetPosition++] = (byte) ((Math.min(literalLength, RUN_MASK) << 4) | Math.min(matchRun, RUN_MASK));
+        targetPosition = writeRunLength(literalLength, target, targetPosition);
+        System.arraycopy(source, literalStart, target, targetPosition, literalLength);
+        targetPosition += literalLength;
+        target[targetPosition++] = (byte) offset;
+        target[targetPosition++] = (byte) (offset >>> 8);
+        return writeRunLength(matchRun, target, targetPosition);
+    }
+
+    private static int writeLastLiterals(byte[] source, int literalStart, int literalLength, byte[] target, int targetPosition)
+    {
+        target[targetPosition++] = (byte) (Math.min(literalLength, RUN_MASK) << 4);
+        targetPosition = writeRunLength(literalLength, target, targetPosition);
+        System.arraycopy(source, literalStart, target, targetPosition, literalLength);
+        return targetPosition + literalLength;
+    }
+
+    private static int writeRunLength(int length, byte[] target, int targetPosition)
+    {
+        if (length >= RUN_MASK)
+        {
+            int remaining = length - RUN_MASK;
+            while (remaining >= 255)
+            {
+                target[targetPosition++] = (byte) 255;
+                remaining -= 255;
+            }
+            target[targetPosition++] = (byte) remaining;
+        }
+        return targetPosition;
+    }
+
+    private static int readInt(byte[] bytes, int position)
+    {
+        return (bytes[position] & 0xFF) | ((bytes[position + 1] & 0xFF) << 8) | ((bytes[position + 2] & 0xFF) << 16) | (bytes[position + 3] << 24);
+    }
+
+    private static int hash(int sequence)
+    {
+        return (sequence * -1640531535) >>> (32 - HASH_BITS);
+    }
+}
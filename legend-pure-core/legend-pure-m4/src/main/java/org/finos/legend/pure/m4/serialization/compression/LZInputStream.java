@@ -0,0 +1,177 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.finos.legend.pure.m4.serialization.compression;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream which decompresses what was written by {@link LZOutputStream}.
+ */
+class LZInputStream extends FilterInputStream
+{
+    private final byte[] block = new byte[LZOutputStream.BLOCK_SIZE];
+    private final byte[] compressed = new byte[LZBlocks.maxCompressedLength(LZOutputStream.BLOCK_SIZE)];
+    private int size = 0;
+    private int position = 0;
+    private boolean finished = false;
+
+    LZInputStream(InputStream stream)
+    {
+        super(stream);
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        return ensureAvailable() ? (this.block[this.position++] & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException
+    {
+        if (length == 0)
+        {
+            return 0;
+        }
+        if (!ensureAvailable())
+        {
+            return -1;
+        }
+        int n = Math.min(length, this.size - this.position);
+        System.arraycopy(this.block, this.position, bytes, offset, n);
+        this.position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException
+    {
+        long skipped = 0;
+        while ((skipped < n) && ensureAvailable())
+        {
+            int toSkip = (int) Math.min(n - skipped, this.size - this.position);
+            this.position += toSkip;
+            skipped += toSkip;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available()
+    {
+        return this.size - this.position;
+    }
+
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit)
+    {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException
+    {
+        throw new IOException("mark/reset not supported");
+    }
+
+    private boolean ensureAvailable() throws IOException
+    {
+        while (this.position == this.size)
+        {
+            if (this.finished)
+            {
+                return false;
+            }
+            readBlock();
+        }
+        return true;
+    }
+
+    private void readBlock() throws IOException
+    {
+        int length = readInt();
+        if (length == 0)
+        {
+            this.finished = true;
+            this.size = 0;
+            this.position = 0;
+            return;
+        }
+        int compressedLength = readInt();
+        if ((length < 0) || (length > this.block.length) || (compressedLength < 0) || (compressedLength > this.compressed.length))
+        {
+            throw new IOException("Invalid LZ block header: length=" + length + ", compressed length=" + compressedLength);
+        }
+        if (compressedLength == 0)
+        {
+            readFully(this.block, length);
+        }
+        else
+        {
+            readFully(this.compressed, compressedLength);
+            int decompressedLength;
+            try
+            {
+                decompressedLength = LZBlocks.decompress(this.compressed, compressedLength, this.block);
+            }
+            catch (RuntimeException e)
+            {
+                throw new IOException("Invalid LZ block", e);
+            }
+            if (decompressedLength != length)
+            {
+                throw new IOException("Invalid LZ block: expected " + length + " bytes, got " + decompressedLength);
+            }
+        }
+        this.size = length;
+        this.position = 0;
+    }
+
+    private int readInt() throws IOException
+    {
+        int b1 = this.in.read();
+        int b2 = this.in.read();
+        int b3 = this.in.read();
+        int b4 = this.in.read();
+        if ((b1 | b2 | b3 | b4) < 0)
+        {
+            throw new EOFException("Unexpected end of LZ stream");
+        }
+        return (b1 << 24) | (b2 << 16) | (b3 << 8) | b4;
+    }
+
+    private void readFully(byte[] bytes, int length) throws IOException
+    {
+        int total = 0;
+        while (total < length)
+        {
+            int read = this.in.read(bytes, total, length - total);
+            if (read < 0)
+            {
+                throw new EOFException("Unexpected end of LZ stream");
+            }
+            total += read;
+        }
+    }
+}
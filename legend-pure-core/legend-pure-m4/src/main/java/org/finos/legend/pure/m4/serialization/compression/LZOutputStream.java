@@ -0,0 +1,134 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.finos.legend.pure.m4.serialization.compression;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Stream which compresses what is written to it in blocks (see {@link LZBlocks}). Each block is written as its
+ * decompressed length and its compressed length (or 0 if it is stored uncompressed, because compressing did not
+ * make it smaller), as big-endian ints, followed by its bytes. The stream ends with a decompressed length of 0.
+ */
+class LZOutputStream extends FilterOutputStream
+{
+    static final int BLOCK_SIZE = 1 << 16;
+
+    private final byte[] block = new byte[BLOCK_SIZE];
+    private final byte[] compressed = new byte[LZBlocks.maxCompressedLength(BLOCK_SIZE)];
+    private final int[] hashTable = new int[LZBlocks.HASH_SIZE];
+    private int size = 0;
+    private boolean closed = false;
+
+    LZOutputStream(OutputStream stream)
+    {
+        super(stream);
+    }
+
+    @Override
+    public void write(int b) throws IOException
+    {
+        checkOpen();
+        if (this.size == BLOCK_SIZE)
+        {
+            writeBlock();
+        }
+        this.block[this.size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException
+    {
+        checkOpen();
+        while (length > 0)
+        {
+            if (this.size == BLOCK_SIZE)
+            {
+                writeBlock();
+            }
+            int n = Math.min(length, BLOCK_SIZE - this.size);
+            System.arraycopy(bytes, offset, this.block, this.size, n);
+            this.size += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        checkOpen();
+        writeBlock();
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (!this.closed)
+        {
+            try
+            {
+                writeBlock();
+                writeInt(0);
+                this.out.flush();
+            }
+            finally
+            {
+                this.closed = true;
+                this.out.close();
+            }
+        }
+    }
+
+    private void writeBlock() throws IOException
+    {
+        if (this.size == 0)
+        {
+            return;
+        }
+        int compressedLength = LZBlocks.compress(this.block, this.size, this.compressed, this.hashTable);
+        writeInt(this.size);
+        if (compressedLength < this.size)
+        {
+            writeInt(compressedLength);
+            this.out.write(this.compressed, 0, compressedLength);
+        }
+        else
+        {
+            writeInt(0);
+            this.out.write(this.block, 0, this.size);
+        }
+        this.size = 0;
+    }
+
+    private void writeInt(int i) throws IOException
+    {
+        this.out.write(i >>> 24);
+        this.out.write(i >>> 16);
+        this.out.write(i >>> 8);
+        this.out.write(i);
+    }
+
+    private void checkOpen() throws IOException
+    {
+        if (this.closed)
+        {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -0,0 +1,265 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.tools;
+
+import java.util.function.Supplier;
+
+/**
+ * A value bound for the extent of an execution in the current thread, along the lines of
+ * {@code java.lang.ScopedValue}. The preferred way to bind a value is for the duration of a call, with
+ * {@link #runWhere} or {@link #callWhere}: the value is visible to everything the call does in the current
+ * thread (but not in other threads), and the previous binding is restored when the call returns. Where a
+ * binding cannot follow the structure of a call, {@link #bind} binds a value until the returned
+ * {@link Binding} is closed.
+ *
+ * <p>Unlike a bare {@link ThreadLocal}, no value is left behind in a thread once all the bindings in it are
+ * closed, so a value cannot leak into a later, unrelated execution in a pooled thread; and a binding can be
+ * closed from any thread, so that an execution which moves between threads cannot leave its value bound in
+ * the thread it started in. Closing a binding always trims the stack of bindings of the thread which made
+ * it. Bindings are per thread, and so per virtual thread when running on virtual threads.
+ *
+ * <p>For code which predates scoped bindings, {@link #set} and {@link #remove} behave like the corresponding
+ * {@link ThreadLocal} methods, applied to the innermost open binding if there is one. Otherwise they set or
+ * remove a base value, which is below all bindings; {@link #remove} never removes a binding.
+ *
+ * @param <T> value type
+ */
+public final class ContextValue<T>
+{
+    private final ThreadLocal<FrameStack<T>> stacks = new ThreadLocal<>();
+
+    private ContextValue()
+    {
+    }
+
+    /**
+     * Whether a (non-null) value is bound in the current thread.
+     *
+     * @return whether a value is bound
+     */
+    public boolean isBound()
+    {
+        return get() != null;
+    }
+
+    /**
+     * Get the value bound in the current thread.
+     *
+     * @return bound value, or null if no value is bound
+     */
+    public T get()
+    {
+        FrameStack<T> stack = this.stacks.get();
+        Frame<T> frame = (stack == null) ? null : openFrame(stack.top);
+        return (frame == null) ? null : frame.value;
+    }
+
+    public T orElse(T other)
+    {
+        T value = get();
+        return (value == null) ? other : value;
+    }
+
+    /**
+     * Run the runnable with the value bound in the current thread.
+     *
+     * @param value    value to bind
+     * @param runnable runnable
+     */
+    public void runWhere(T value, Runnable runnable)
+    {
+        Binding binding = bind(value);
+        try
+        {
+            runnable.run();
+        }
+        finally
+        {
+            binding.close();
+        }
+    }
+
+    /**
+     * Call the supplier with the value bound in the current thread.
+     *
+     * @param value    value to bind
+     * @param supplier supplier
+     * @param <R>      result type
+     * @return result of the supplier
+     */
+    public <R> R callWhere(T value, Supplier<? extends R> supplier)
+    {
+        Binding binding = bind(value);
+        try
+        {
+            return supplier.get();
+        }
+        finally
+        {
+            binding.close();
+        }
+    }
+
+    /**
+     * Bind the value in the current thread until the returned binding is closed. It is strongly recommended
+     * that this be used with a {@code try}-with-resources statement.
+     *
+     * @param value value to bind
+     * @return binding
+     */
+    public Binding bind(T value)
+    {
+        FrameStack<T> stack = getOrCreateStack();
+        synchronized (stack)
+        {
+            Frame<T> frame = new Frame<>(this, stack, value, openFrame(stack.top), false);
+            stack.top = frame;
+            return frame;
+        }
+    }
+
+    /**
+     * Set the value in the current thread: the value of the innermost open binding if there is one, and
+     * otherwise a base value, which remains until {@link #remove} is called.
+     *
+     * @param value value
+     */
+    public void set(T value)
+    {
+        FrameStack<T> stack = getOrCreateStack();
+        synchronized (stack)
+        {
+            Frame<T> frame = openFrame(stack.top);
+            if (frame == null)
+            {
+                stack.top = new Frame<>(this, stack, value, null, true);
+            }
+            else
+            {
+                frame.value = value;
+            }
+        }
+    }
+
+    /**
+     * Remove the value in the current thread: clear the value of the innermost open binding if there is one,
+     * and otherwise remove the base value. Bindings remain until they are closed.
+     */
+    public void remove()
+    {
+        FrameStack<T> stack = this.stacks.get();
+        if (stack == null)
+        {
+            return;
+        }
+        synchronized (stack)
+        {
+            Frame<T> frame = openFrame(stack.top);
+            if ((frame != null) && !frame.base)
+            {
+                frame.value = null;
+                return;
+            }
+            // only the base frame (if any) is left
+            stack.top = null;
+        }
+        this.stacks.remove();
+    }
+
+    private FrameStack<T> getOrCreateStack()
+    {
+        FrameStack<T> stack = this.stacks.get();
+        if (stack == null)
+        {
+            stack = new FrameStack<>();
+            this.stacks.set(stack);
+        }
+        return stack;
+    }
+
+    // drop the closed frames from the top of the stack of the thread which made the binding
+    private void trim(FrameStack<T> stack)
+    {
+        boolean empty;
+        synchronized (stack)
+        {
+            stack.top = openFrame(stack.top);
+            empty = (stack.top == null);
+        }
+        // the thread local can only be removed by its own thread; in another thread, the empty stack holds no value
+        if (empty && (this.stacks.get() == stack))
+        {
+            this.stacks.remove();
+        }
+    }
+
+    private static <T> Frame<T> openFrame(Frame<T> frame)
+    {
+        Frame<T> current = frame;
+        while ((current != null) && current.closed)
+        {
+            current = current.previous;
+        }
+        return current;
+    }
+
+    public static <T> ContextValue<T> newContextValue()
+    {
+        return new ContextValue<>();
+    }
+
+    /**
+     * A binding of a {@link ContextValue}, which ends when it is closed.
+     */
+    public interface Binding extends AutoCloseable
+    {
+        @Override
+        void close();
+    }
+
+    private static class FrameStack<T>
+    {
+        private volatile Frame<T> top;
+    }
+
+    private static class Frame<T> implements Binding
+    {
+        private final ContextValue<T> contextValue;
+        private final FrameStack<T> stack;
+        private final Frame<T> previous;
+        private final boolean base;
+        private volatile boolean closed = false;
+        private volatile T value;
+
+        private Frame(ContextValue<T> contextValue, FrameStack<T> stack, T value, Frame<T> previous, boolean base)
+        {
+            this.contextValue = contextValue;
+            this.stack = stack;
+            this.value = value;
+            this.previous = previous;
+            this.base = base;
+        }
+
+        @Override
+        public void close()
+        {
+            if (!this.closed)
+            {
+                this.closed = true;
+                this.contextValue.trim(this.stack);
+            }
+        }
+    }
+}
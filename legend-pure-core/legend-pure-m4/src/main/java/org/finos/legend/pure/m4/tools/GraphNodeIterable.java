@@ -20,7 +20,6 @@ import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.set.MutableSet;
-import org.eclipse.collections.impl.set.mutable.SynchronizedMutableSet;
 import org.eclipse.collections.impl.utility.Iterate;
 import org.finos.legend.pure.m4.ModelRepository;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
@@ -31,6 +30,9 @@ import java.util.Collection;
 import java.util.Deque;
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -39,6 +41,11 @@ import java.util.function.Function;
  * An iterable that iterates through the nodes of a graph, starting from a given set of nodes and traversing to
  * connected nodes. The traversal of the graph can be controlled by providing a
  * {@link java.util.function.Function function} from nodes to {@link GraphWalkFilterResult GraphWalkFilterResults}.
+ *
+ * <p>The graph can also be walked in parallel, either with {@link #parallelStream()} or with
+ * {@link #forEachParallel}, which keeps splitting the frontier of the walk as it grows. In a parallel walk, the
+ * filters are called concurrently from multiple threads, and nodes are visited in no particular order; which
+ * nodes are visited, and which are accepted, is the same as in a sequential walk.
  */
 public class GraphNodeIterable extends AbstractLazySpliterable<CoreInstance>
 {
@@ -171,6 +178,47 @@ public class GraphNodeIterable extends AbstractLazySpliterable<CoreInstance>
         return new GraphNodeSpliterator(this.startingNodes, this.keyFilter, this.nodeFilter);
     }
 
+    /**
+     * Walk the graph in parallel in the given pool, passing each accepted node to the consumer. The consumer is
+     * called concurrently from the threads of the pool. Note that nodes are read in the threads of the pool,
+     * so any thread local state which reads depend on (such as a transaction) is not visible.
+     *
+     * @param consumer thread-safe consumer for accepted nodes
+     * @param pool     fork join pool
+     */
+    public void forEachParallel(Consumer<? super CoreInstance> consumer, ForkJoinPool pool)
+    {
+        if (this.startingNodes.notEmpty())
+        {
+            walkParallel(this.startingNodes, this.keyFilter, this.nodeFilter, consumer, pool);
+        }
+    }
+
+    /**
+     * Walk the graph in parallel in the given pool, and collect the accepted nodes in a set. See
+     * {@link #forEachParallel}.
+     *
+     * @param pool fork join pool
+     * @return accepted nodes
+     */
+    public MutableSet<CoreInstance> toSetParallel(ForkJoinPool pool)
+    {
+        if (this.startingNodes.isEmpty())
+        {
+            return Sets.mutable.empty();
+        }
+        if (this.nodeFilter == null)
+        {
+            return walkParallel(this.startingNodes, this.keyFilter, null, n ->
+            {
+                // Do nothing: collect instances by side effect
+            }, pool);
+        }
+        MutableSet<CoreInstance> result = ConcurrentHashSet.newSet();
+        walkParallel(this.startingNodes, this.keyFilter, this.nodeFilter, result::add, pool);
+        return result;
+    }
+
     @Deprecated
     public static GraphNodeIterable fromNode(CoreInstance startingNode)
     {
@@ -247,6 +295,19 @@ public class GraphNodeIterable extends AbstractLazySpliterable<CoreInstance>
                computeClosure(startingNodes, keyFilter, nodeFilter, Sets.mutable.empty());
     }
 
+    public static MutableSet<CoreInstance> allInstancesFromRepository(ModelRepository repository, ForkJoinPool pool)
+    {
+        return builder().withStartingNodes(repository.getTopLevels()).build().toSetParallel(pool);
+    }
+
+    // returns the visited set
+    private static MutableSet<CoreInstance> walkParallel(Iterable<? extends CoreInstance> startingNodes, BiPredicate<? super CoreInstance, ? super String> keyFilter, Function<? super CoreInstance, ? extends GraphWalkFilterResult> nodeFilter, Consumer<? super CoreInstance> consumer, ForkJoinPool pool)
+    {
+        MutableSet<CoreInstance> visited = ConcurrentHashSet.newSet();
+        pool.invoke(new ParallelGraphWalk(Iterate.addAllTo(startingNodes, new ArrayDeque<>()), visited, (keyFilter == null) ? (n, k) -> true : keyFilter, nodeFilter, consumer));
+        return visited;
+    }
+
     private static MutableSet<CoreInstance> computeClosure(Iterable<? extends CoreInstance> startingNodes, BiPredicate<? super CoreInstance, ? super String> keyFilter)
     {
         GraphNodeSpliterator spliterator = new GraphNodeSpliterator(startingNodes, keyFilter, null);
@@ -266,7 +327,11 @@ public class GraphNodeIterable extends AbstractLazySpliterable<CoreInstance>
 
     private static class GraphNodeSpliterator implements Spliterator<CoreInstance>
     {
+        // maximum number of nodes to visit in trySplit to get a frontier which can be split
+        private static final int MAX_SPLIT_EXPANSION = 1024;
+
         private final Deque<CoreInstance> deque;
+        private final Deque<CoreInstance> accepted;
         private MutableSet<CoreInstance> visited;
         private final BiPredicate<? super CoreInstance, ? super String> keyFilter;
         private final Function<? super CoreInstance, ? extends GraphWalkFilterResult> nodeFilter;
@@ -274,6 +339,7 @@ public class GraphNodeIterable extends AbstractLazySpliterable<CoreInstance>
         private GraphNodeSpliterator(Deque<CoreInstance> deque, MutableSet<CoreInstance> visited, BiPredicate<? super CoreInstance, ? super String> keyFilter, Function<? super CoreInstance, ? extends GraphWalkFilterResult> nodeFilter)
         {
             this.deque = deque;
+            this.accepted = new ArrayDeque<>();
             this.visited = visited;
             this.keyFilter = (keyFilter == null) ? (n, k) -> true : keyFilter;
             this.nodeFilter = nodeFilter;
@@ -287,33 +353,19 @@ public class GraphNodeIterable extends AbstractLazySpliterable<CoreInstance>
         @Override
         public boolean tryAdvance(Consumer<? super CoreInstance> action)
         {
+            // nodes accepted while expanding the frontier for a split come first
+            if (!this.accepted.isEmpty())
+            {
+                action.accept(this.accepted.pollFirst());
+                return true;
+            }
             while (!this.deque.isEmpty())
             {
                 CoreInstance node = this.deque.pollFirst();
-                if (this.visited.add(node))
+                if (visit(node, this.deque, this.visited, this.keyFilter, this.nodeFilter))
                 {
-                    GraphWalkFilterResult filterResult = filterNode(node);
-                    if (filterResult.shouldContinue())
-                    {
-                        node.getKeys().forEach(key ->
-                        {
-                            if (this.keyFilter.test(node, key))
-                            {
-                                node.getValueForMetaPropertyToMany(key).forEach(v ->
-                                {
-                                    if (!this.visited.contains(v))
-                                    {
-                                        this.deque.addLast(v);
-                                    }
-                                });
-                            }
-                        });
-                    }
-                    if (filterResult.shouldAccept())
-                    {
-                        action.accept(node);
-                        return true;
-                    }
+                    action.accept(node);
+                    return true;
                 }
             }
             return false;
@@ -322,15 +374,31 @@ public class GraphNodeIterable extends AbstractLazySpliterable<CoreInstance>
         @Override
         public Spliterator<CoreInstance> trySplit()
         {
-            if (this.deque.size() < 2)
+            if (this.deque.isEmpty())
             {
                 return null;
             }
 
-            // If we are going to split, we need to make sure the visited set is synchronized
-            if (!(this.visited instanceof SynchronizedMutableSet))
+            // If we are going to split, we need to make sure the visited set is concurrent
+            if (!(this.visited instanceof ConcurrentHashSet))
+            {
+                MutableSet<CoreInstance> concurrentVisited = ConcurrentHashSet.newSet(Math.max(16, this.visited.size() * 2));
+                concurrentVisited.addAll(this.visited);
+                this.visited = concurrentVisited;
+            }
+
+            // A walk typically starts from a few nodes, so expand the frontier until there is something to split
+            for (int i = 0; (i < MAX_SPLIT_EXPANSION) && (this.deque.size() == 1); i++)
+            {
+                CoreInstance node = this.deque.pollFirst();
+                if (visit(node, this.deque, this.visited, this.keyFilter, this.nodeFilter))
+                {
+                    this.accepted.addLast(node);
+                }
+            }
+            if (this.deque.size() < 2)
             {
-                this.visited = SynchronizedMutableSet.of(this.visited, this.visited);
+                return null;
             }
             return new GraphNodeSpliterator(splitDeque(this.deque), this.visited, this.keyFilter, this.nodeFilter);
         }
@@ -338,13 +406,17 @@ public class GraphNodeIterable extends AbstractLazySpliterable<CoreInstance>
         @Override
         public long estimateSize()
         {
-            return this.deque.isEmpty() ? 0L : Long.MAX_VALUE;
+            return (this.deque.isEmpty() && this.accepted.isEmpty()) ? 0L : Long.MAX_VALUE;
         }
 
         @Override
         public long getExactSizeIfKnown()
         {
-            return this.deque.isEmpty() ? 0L : -1L;
+            if (this.deque.isEmpty())
+            {
+                return this.accepted.size();
+            }
+            return -1L;
         }
 
         @Override
@@ -352,18 +424,96 @@ public class GraphNodeIterable extends AbstractLazySpliterable<CoreInstance>
         {
             return NONNULL | DISTINCT;
         }
+    }
+
+    /**
+     * Visit a node, if it has not been visited yet: add the nodes to continue the walk with to the deque, and
+     * return whether the node is accepted.
+     */
+    private static boolean visit(CoreInstance node, Deque<CoreInstance> deque, MutableSet<CoreInstance> visited, BiPredicate<? super CoreInstance, ? super String> keyFilter, Function<? super CoreInstance, ? extends GraphWalkFilterResult> nodeFilter)
+    {
+        if (!visited.add(node))
+        {
+            return false;
+        }
+        GraphWalkFilterResult filterResult = filterNode(node, nodeFilter);
+        if (filterResult.shouldContinue())
+        {
+            node.getKeys().forEach(key ->
+            {
+                if (keyFilter.test(node, key))
+                {
+                    node.getValueForMetaPropertyToMany(key).forEach(v ->
+                    {
+                        if (!visited.contains(v))
+                        {
+                            deque.addLast(v);
+                        }
+                    });
+                }
+            });
+        }
+        return filterResult.shouldAccept();
+    }
+
+    private static GraphWalkFilterResult filterNode(CoreInstance node, Function<? super CoreInstance, ? extends GraphWalkFilterResult> nodeFilter)
+    {
+        if (nodeFilter != null)
+        {
+            GraphWalkFilterResult result = nodeFilter.apply(node);
+            if (result != null)
+            {
+                return result;
+            }
+        }
+        return GraphWalkFilterResult.ACCEPT_AND_CONTINUE;
+    }
+
+    /**
+     * Parallel walk of the graph from a frontier of nodes. Whenever the frontier grows large enough, and the
+     * pool could use more work, half of it is forked off as a new walk. All the walks share one concurrent
+     * visited set, so that each node is visited once.
+     */
+    private static class ParallelGraphWalk extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private static final int FORK_THRESHOLD = 64;
+
+        private final Deque<CoreInstance> deque;
+        private final MutableSet<CoreInstance> visited;
+        private final BiPredicate<? super CoreInstance, ? super String> keyFilter;
+        private final Function<? super CoreInstance, ? extends GraphWalkFilterResult> nodeFilter;
+        private final Consumer<? super CoreInstance> consumer;
+
+        private ParallelGraphWalk(Deque<CoreInstance> deque, MutableSet<CoreInstance> visited, BiPredicate<? super CoreInstance, ? super String> keyFilter, Function<? super CoreInstance, ? extends GraphWalkFilterResult> nodeFilter, Consumer<? super CoreInstance> consumer)
+        {
+            this.deque = deque;
+            this.visited = visited;
+            this.keyFilter = keyFilter;
+            this.nodeFilter = nodeFilter;
+            this.consumer = consumer;
+        }
 
-        private GraphWalkFilterResult filterNode(CoreInstance node)
+        @Override
+        protected void compute()
         {
-            if (this.nodeFilter != null)
+            MutableList<ParallelGraphWalk> forked = Lists.mutable.empty();
+            while (!this.deque.isEmpty())
             {
-                GraphWalkFilterResult result = this.nodeFilter.apply(node);
-                if (result != null)
+                CoreInstance node = this.deque.pollFirst();
+                if (visit(node, this.deque, this.visited, this.keyFilter, this.nodeFilter))
+                {
+                    this.consumer.accept(node);
+                }
+                if ((this.deque.size() >= FORK_THRESHOLD) && (getSurplusQueuedTaskCount() <= 2))
                 {
-                    return result;
+                    ParallelGraphWalk walk = new ParallelGraphWalk(splitDeque(this.deque), this.visited, this.keyFilter, this.nodeFilter, this.consumer);
+                    walk.fork();
+                    forked.add(walk);
                 }
             }
-            return GraphWalkFilterResult.ACCEPT_AND_CONTINUE;
+            forked.forEach(ForkJoinTask::join);
         }
     }
 
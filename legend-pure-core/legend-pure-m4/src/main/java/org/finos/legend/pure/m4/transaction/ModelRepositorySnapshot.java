@@ -0,0 +1,72 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.transaction;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A snapshot of a committed version of a model repository, open in a particular thread: specifically, the
+ * thread in which it was opened (see {@link ModelRepositoryVersions#openSnapshot()}). So long as it is open,
+ * reads in that thread which are not in a transaction see the model as of that version, even if transactions
+ * are committed in the meantime.
+ *
+ * <p>It is strongly recommended that this be used with a {@code try}-with-resources statement to ensure that
+ * it is closed properly, as the states replaced since its version are kept until it is. A snapshot left open
+ * is eventually released (see {@link ModelRepositoryVersions}), after which it is expired and reads in its
+ * thread see the latest committed version.
+ */
+public final class ModelRepositorySnapshot implements AutoCloseable
+{
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final ModelRepositoryVersions versions;
+    private final long threadId;
+    private final ModelRepositoryVersions.PinnedVersion pinned;
+
+    ModelRepositorySnapshot(ModelRepositoryVersions versions, long threadId, ModelRepositoryVersions.PinnedVersion pinned)
+    {
+        this.versions = versions;
+        this.threadId = threadId;
+        this.pinned = pinned;
+    }
+
+    public long getVersion()
+    {
+        return this.pinned.getVersion();
+    }
+
+    /**
+     * Whether the snapshot was released without being closed, because it timed out or its thread terminated.
+     *
+     * @return whether the snapshot is expired
+     */
+    public boolean isExpired()
+    {
+        return this.pinned.isExpired();
+    }
+
+    public boolean isClosed()
+    {
+        return this.closed.get();
+    }
+
+    @Override
+    public void close()
+    {
+        if (this.closed.compareAndSet(false, true))
+        {
+            this.versions.closeSnapshot(this.threadId, this.pinned);
+        }
+    }
+}
@@ -28,6 +28,7 @@ public class ModelRepositoryTransaction extends Transaction
 {
     private final MutableSet<CoreInstance> newInstances = ConcurrentHashSet.newSet();
     private final ConcurrentMutableMap<CoreInstance, Object> modifiedInstanceStates = ConcurrentHashMap.newMap();
+    private final ConcurrentMutableMap<CoreInstance, Object> committedInstanceStates = ConcurrentHashMap.newMap();
     private final ConcurrentMutableMap<String, CoreInstance> topLevels = ConcurrentHashMap.newMap();
 
     private final ModelRepository modelRepository;
@@ -58,6 +59,24 @@ public class ModelRepositoryTransaction extends Transaction
         this.modifiedInstanceStates.putIfAbsent(coreInstance, state);
     }
 
+    /**
+     * Register an instance as modified in the transaction, with both its state in the transaction and its
+     * committed state. When the transaction is committed, the committed state is kept for readers which are
+     * still reading an earlier version of the model (see {@link ModelRepositoryVersions}).
+     *
+     * @param coreInstance   modified instance
+     * @param committedState committed state of the instance
+     * @param state          state of the instance in the transaction
+     */
+    public void registerModified(CoreInstance coreInstance, Object committedState, Object state)
+    {
+        checkOpen();
+        if ((this.modifiedInstanceStates.putIfAbsent(coreInstance, state) == null) && (committedState != null))
+        {
+            this.committedInstanceStates.put(coreInstance, committedState);
+        }
+    }
+
     public boolean isRegistered(CoreInstance coreInstance)
     {
         return this.newInstances.contains(coreInstance) || this.modifiedInstanceStates.containsKey(coreInstance);
@@ -91,8 +110,28 @@ public class ModelRepositoryTransaction extends Transaction
     @Override
     protected void doCommit()
     {
-        this.modelRepository.commitTransactionTopLevels(this);
-        this.modifiedInstanceStates.forEachKey(instance -> instance.commit(this));
+        // the new version is only published once all top levels and instances are committed, so that each read
+        // outside the transaction sees either all or none of its changes (reads spanning the end of the commit
+        // only see a single version if they are in a snapshot)
+        ModelRepositoryVersions versions = this.modelRepository.getVersions();
+        versions.beginCommit();
+        try
+        {
+            this.modelRepository.commitTransactionTopLevels(this);
+            this.modifiedInstanceStates.forEachKey(instance ->
+            {
+                Object committedState = this.committedInstanceStates.get(instance);
+                if (committedState != null)
+                {
+                    versions.recordReplacedState(instance, committedState);
+                }
+                instance.commit(this);
+            });
+        }
+        finally
+        {
+            versions.endCommit();
+        }
         if (this.transactionObserver != null)
         {
             this.transactionObserver.added(this.newInstances.asUnmodifiable());
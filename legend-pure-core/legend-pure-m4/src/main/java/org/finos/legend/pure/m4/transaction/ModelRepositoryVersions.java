@@ -0,0 +1,426 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.transaction;
+
+import org.eclipse.collections.api.map.ConcurrentMutableMap;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Committed versions of a model repository. Each commit of a {@link ModelRepositoryTransaction} publishes a
+ * new version: each read outside the transaction sees the state of the previous version until the whole
+ * commit is done, and then that of the new one. This holds for each read on its own: without a snapshot,
+ * successive reads may see different versions if a commit ends between them, so a reader can see some
+ * instances as of one version and others as of the next. A reader which needs a consistent view across
+ * reads can pin the current version in its thread with a {@link ModelRepositorySnapshot}, in which case it
+ * goes on seeing that version until the snapshot is closed, however many commits happen in the meantime.
+ *
+ * <p>To do this, the state an instance had before a commit is kept, together with the version which replaced
+ * it, until no reader can need it anymore: that is, until the commit is done if no snapshot is open, and
+ * otherwise until the oldest open snapshot is closed. Likewise for top level elements added by a commit. When
+ * there is no such history, reads go straight to the current state.
+ *
+ * <p>So that a snapshot which is never closed does not keep the history forever, a snapshot is released when
+ * a commit ends if its thread has terminated, or if it has been open longer than the snapshot timeout (see
+ * {@link #setSnapshotTimeout}; by default that of the system property {@value #SNAPSHOT_TIMEOUT_PROPERTY}, in
+ * milliseconds, or 30 minutes). Reads in the thread of a released snapshot see the latest committed version,
+ * and the snapshot reports itself expired (see {@link ModelRepositorySnapshot#isExpired()}). Released
+ * snapshots are counted by {@link #getExpiredSnapshotCount()}, so leaks can be detected.
+ */
+public class ModelRepositoryVersions
+{
+    public static final String SNAPSHOT_TIMEOUT_PROPERTY = "pure.repository.snapshotTimeout";
+
+    private static final long NOT_COMMITTING = -1L;
+
+    private final ConcurrentMutableMap<CoreInstance, ReplacedState> replacedStates = ConcurrentHashMap.newMap();
+    private final ConcurrentMutableMap<String, Long> addedTopLevels = ConcurrentHashMap.newMap();
+    private final ConcurrentMutableMap<Long, PinnedVersion> pinnedVersionsByThreadId = ConcurrentHashMap.newMap();
+    private volatile long committedVersion = 0L;
+    private volatile long committingVersion = NOT_COMMITTING;
+    private volatile boolean hasHistory = false;
+    private final AtomicLong modifications = new AtomicLong();
+    // set by writes outside transactions, and folded into the modification count when it is read, so that
+    // writers only read this flag once it is set rather than contending on a counter
+    private volatile boolean nonTransactionalWrite = false;
+    private final AtomicLong expiredSnapshots = new AtomicLong();
+    private volatile long snapshotTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong(SNAPSHOT_TIMEOUT_PROPERTY, TimeUnit.MINUTES.toMillis(30)));
+
+    /**
+     * The latest committed version.
+     *
+     * @return committed version
+     */
+    public long getCommittedVersion()
+    {
+        return this.committedVersion;
+    }
+
+    /**
+     * The version read in the current thread: that of the thread's snapshot, if it has one open, and otherwise
+     * the latest committed version.
+     *
+     * @return read version
+     */
+    public long getReadVersion()
+    {
+        if (!this.pinnedVersionsByThreadId.isEmpty())
+        {
+            Thread thread = Thread.currentThread();
+            PinnedVersion pinned = this.pinnedVersionsByThreadId.get(thread.getId());
+            if ((pinned != null) && (pinned.thread.get() == thread))
+            {
+                return pinned.version;
+            }
+        }
+        return this.committedVersion;
+    }
+
+    /**
+     * Open a snapshot of the latest committed version in the current thread. If the thread already has a
+     * snapshot open, the new one shares its version.
+     *
+     * @return snapshot
+     */
+    public synchronized ModelRepositorySnapshot openSnapshot()
+    {
+        Thread thread = Thread.currentThread();
+        long threadId = thread.getId();
+        PinnedVersion pinned = this.pinnedVersionsByThreadId.get(threadId);
+        if ((pinned == null) || (pinned.thread.get() != thread))
+        {
+            // a thread id may be reused once its thread has terminated
+            pinned = new PinnedVersion(this.committedVersion, thread);
+            this.pinnedVersionsByThreadId.put(threadId, pinned);
+        }
+        pinned.count++;
+        return new ModelRepositorySnapshot(this, threadId, pinned);
+    }
+
+    /**
+     * Set how long a snapshot may stay open before it is released when a commit ends. A timeout of 0 or less
+     * means snapshots are only released when closed or when their thread terminates.
+     *
+     * @param timeout timeout
+     * @param unit    timeout unit
+     */
+    public void setSnapshotTimeout(long timeout, TimeUnit unit)
+    {
+        this.snapshotTimeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * Number of snapshots released without being closed, because their thread terminated or they timed out.
+     *
+     * @return expired snapshot count
+     */
+    public long getExpiredSnapshotCount()
+    {
+        return this.expiredSnapshots.get();
+    }
+
+    /**
+     * A count which changes whenever the committed state of the repository may change: it is incremented when
+     * a commit begins and when it ends, and when it is read after writes to persistent instances outside a
+     * transaction (see {@link #recordNonTransactionalWrite()}). To check that the repository was not modified
+     * while it was read, get the count before reading and pass it to {@link #isUnmodifiedSince} afterwards.
+     *
+     * @return modification count
+     */
+    public long getModificationCount()
+    {
+        return foldNonTransactionalWrites();
+    }
+
+    /**
+     * Whether the repository has not been modified since the given modification count was read, and no commit
+     * is in progress.
+     *
+     * @param modificationCount modification count read before
+     * @return whether the repository is unmodified since the count was read
+     */
+    public boolean isUnmodifiedSince(long modificationCount)
+    {
+        return (foldNonTransactionalWrites() == modificationCount) && (this.committingVersion == NOT_COMMITTING);
+    }
+
+    /**
+     * Record a write to the committed state of a persistent instance made outside a transaction.
+     */
+    public void recordNonTransactionalWrite()
+    {
+        if (!this.nonTransactionalWrite)
+        {
+            this.nonTransactionalWrite = true;
+        }
+    }
+
+    private long foldNonTransactionalWrites()
+    {
+        if (this.nonTransactionalWrite)
+        {
+            // concurrent readers may both count the same writes, which only makes the count change more
+            this.nonTransactionalWrite = false;
+            return this.modifications.incrementAndGet();
+        }
+        return this.modifications.get();
+    }
+
+    public int getOpenSnapshotCount()
+    {
+        return this.pinnedVersionsByThreadId.size();
+    }
+
+    /**
+     * Get the state of an instance as of the version read in the current thread.
+     *
+     * <p>The current state must be read before calling this, as a commit records the state it replaces before
+     * it replaces it.
+     *
+     * @param instance     instance
+     * @param currentState current (committed) state of the instance
+     * @param <T>          state type
+     * @return state as of the read version
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getState(CoreInstance instance, T currentState)
+    {
+        if (!this.hasHistory)
+        {
+            return currentState;
+        }
+        ReplacedState replaced = this.replacedStates.get(instance);
+        if (replaced == null)
+        {
+            return currentState;
+        }
+        long version = getReadVersion();
+        Object state = currentState;
+        // the history is ordered from the most recently replaced state: the state to read is the one replaced
+        // by the earliest version later than the read version
+        for (ReplacedState s = replaced; (s != null) && (s.replacedBy > version); s = s.previous)
+        {
+            state = s.state;
+        }
+        return (T) state;
+    }
+
+    /**
+     * Whether a top level element is visible at the version read in the current thread.
+     *
+     * @param name top level element name
+     * @return whether the top level element is visible
+     */
+    public boolean isTopLevelVisible(String name)
+    {
+        if (!this.hasHistory)
+        {
+            return true;
+        }
+        Long addedBy = this.addedTopLevels.get(name);
+        return (addedBy == null) || (addedBy <= getReadVersion());
+    }
+
+    public boolean hasHistory()
+    {
+        return this.hasHistory;
+    }
+
+    public synchronized void clear()
+    {
+        this.replacedStates.clear();
+        this.addedTopLevels.clear();
+        this.hasHistory = this.committingVersion != NOT_COMMITTING;
+    }
+
+    synchronized long beginCommit()
+    {
+        if (this.committingVersion != NOT_COMMITTING)
+        {
+            throw new IllegalStateException("Version " + this.committingVersion + " is already being committed");
+        }
+        long version = this.committedVersion + 1;
+        this.committingVersion = version;
+        this.modifications.incrementAndGet();
+        return version;
+    }
+
+    /**
+     * Record the state an instance had before the version being committed. This must be called before the
+     * instance's state is replaced.
+     *
+     * @param instance       instance
+     * @param committedState state before the commit
+     */
+    synchronized void recordReplacedState(CoreInstance instance, Object committedState)
+    {
+        long version = checkCommitting();
+        this.hasHistory = true;
+        this.replacedStates.put(instance, new ReplacedState(committedState, version, this.replacedStates.get(instance)));
+    }
+
+    /**
+     * Record that a top level element is added by the version being committed, if a version is being
+     * committed. This must be called before the top level element is added.
+     *
+     * @param name top level element name
+     */
+    public synchronized void recordAddedTopLevel(String name)
+    {
+        if (this.committingVersion != NOT_COMMITTING)
+        {
+            this.hasHistory = true;
+            this.addedTopLevels.put(name, this.committingVersion);
+        }
+    }
+
+    /**
+     * Publish the version being committed. This is done even if the commit fails, as the states it has already
+     * replaced cannot be restored.
+     */
+    synchronized void endCommit()
+    {
+        this.committedVersion = checkCommitting();
+        this.modifications.incrementAndGet();
+        this.committingVersion = NOT_COMMITTING;
+        expireSnapshots();
+        prune();
+    }
+
+    synchronized void closeSnapshot(long threadId, PinnedVersion pinned)
+    {
+        // an expired snapshot has already been released, and its thread may have opened a new one since
+        if ((this.pinnedVersionsByThreadId.get(threadId) == pinned) && (--pinned.count <= 0))
+        {
+            this.pinnedVersionsByThreadId.remove(threadId);
+            prune();
+        }
+    }
+
+    private void expireSnapshots()
+    {
+        long timeout = this.snapshotTimeoutNanos;
+        long now = System.nanoTime();
+        this.pinnedVersionsByThreadId.forEachKeyValue((threadId, pinned) ->
+        {
+            Thread thread = pinned.thread.get();
+            if ((thread == null) || !thread.isAlive() || ((timeout > 0) && ((now - pinned.openedAt) > timeout)))
+            {
+                pinned.expired = true;
+                this.pinnedVersionsByThreadId.remove(threadId, pinned);
+                this.expiredSnapshots.incrementAndGet();
+            }
+        });
+    }
+
+    private long checkCommitting()
+    {
+        long version = this.committingVersion;
+        if (version == NOT_COMMITTING)
+        {
+            throw new IllegalStateException("No version is being committed");
+        }
+        return version;
+    }
+
+    // drop the history which no reader can need: that replaced by versions up to the oldest read version
+    private void prune()
+    {
+        if (!this.hasHistory)
+        {
+            return;
+        }
+
+        long oldestReadVersion = this.committedVersion;
+        for (PinnedVersion pinned : this.pinnedVersionsByThreadId.values())
+        {
+            oldestReadVersion = Math.min(oldestReadVersion, pinned.version);
+        }
+        long oldest = oldestReadVersion;
+        this.replacedStates.forEachKeyValue((instance, replaced) ->
+        {
+            ReplacedState pruned = replaced.pruneUpTo(oldest);
+            if (pruned == null)
+            {
+                this.replacedStates.remove(instance);
+            }
+            else if (pruned != replaced)
+            {
+                this.replacedStates.put(instance, pruned);
+            }
+        });
+        this.addedTopLevels.forEachKeyValue((name, addedBy) ->
+        {
+            if (addedBy <= oldest)
+            {
+                this.addedTopLevels.remove(name);
+            }
+        });
+        this.hasHistory = (this.committingVersion != NOT_COMMITTING) || this.replacedStates.notEmpty() || this.addedTopLevels.notEmpty();
+    }
+
+    static class PinnedVersion
+    {
+        private final long version;
+        private final WeakReference<Thread> thread;
+        private final long openedAt = System.nanoTime();
+        private int count = 0;
+        private volatile boolean expired = false;
+
+        private PinnedVersion(long version, Thread thread)
+        {
+            this.version = version;
+            this.thread = new WeakReference<>(thread);
+        }
+
+        long getVersion()
+        {
+            return this.version;
+        }
+
+        boolean isExpired()
+        {
+            return this.expired;
+        }
+    }
+
+    private static class ReplacedState
+    {
+        private final Object state;
+        private final long replacedBy;
+        private final ReplacedState previous;
+
+        private ReplacedState(Object state, long replacedBy, ReplacedState previous)
+        {
+            this.state = state;
+            this.replacedBy = replacedBy;
+            this.previous = previous;
+        }
+
+        private ReplacedState pruneUpTo(long version)
+        {
+            if (this.replacedBy <= version)
+            {
+                return null;
+            }
+            ReplacedState prunedPrevious = (this.previous == null) ? null : this.previous.pruneUpTo(version);
+            return (prunedPrevious == this.previous) ? this : new ReplacedState(this.state, this.replacedBy, prunedPrevious);
+        }
+    }
+}
@@ -14,41 +14,41 @@
 
 package org.finos.legend.pure.m4.transaction.framework;
 
-import org.eclipse.collections.api.map.ConcurrentMutableMap;
-import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
-import org.eclipse.collections.impl.factory.primitive.LongIntMaps;
-import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.finos.legend.pure.m4.tools.ConcurrentHashSet;
+import org.finos.legend.pure.m4.tools.ContextValue;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 public abstract class TransactionManager<T extends Transaction>
 {
     private final AtomicReference<T> committableTransaction = new AtomicReference<>();
-    private ConcurrentMutableMap<T, MutableLongIntMap> transactions = ConcurrentHashMap.newMap();
-    private ConcurrentMutableMap<Long, T> transactionsByThreadId = ConcurrentHashMap.newMap();
+    private volatile MutableSet<T> transactions = ConcurrentHashSet.newSet();
+    private final ContextValue<ThreadTransaction<T>> threadTransaction = ContextValue.newContextValue();
 
     public void clear()
     {
         // Get existing transactions
-        ConcurrentMutableMap<T, MutableLongIntMap> previousTransactions = this.transactions;
+        MutableSet<T> previousTransactions = this.transactions;
 
         // Clear state
-        this.transactions = ConcurrentHashMap.newMap();
-        this.transactionsByThreadId = ConcurrentHashMap.newMap();
+        this.transactions = ConcurrentHashSet.newSet();
         this.committableTransaction.set(null);
 
         // Invalidate any transactions from previous state
-        previousTransactions.forEachKey(Transaction::invalidateIfOpen);
+        previousTransactions.forEach(Transaction::invalidateIfOpen);
     }
 
     public T getThreadLocalTransaction()
     {
-        return this.transactionsByThreadId.isEmpty() ? null : this.transactionsByThreadId.get(Thread.currentThread().getId());
+        ThreadTransaction<T> current = this.threadTransaction.get();
+        return ((current != null) && isActive(current)) ? current.transaction : null;
     }
 
     public boolean isRegistered(Transaction transaction)
     {
-        return this.transactions.containsKey(transaction);
+        return this.transactions.contains(transaction);
     }
 
     public T newTransaction(boolean committable)
@@ -92,51 +92,31 @@ public abstract class TransactionManager<T extends Transaction>
             throw new IllegalArgumentException("transaction belongs to a different manager");
         }
         T t = (T) transaction;
-        MutableLongIntMap threads = this.transactions.get(t);
-        if (threads == null)
+        if (!isRegistered(t))
         {
             throw new IllegalStateException("Unknown transaction: " + t);
         }
-        synchronized (threads)
+        ThreadTransaction<T> current = this.threadTransaction.get();
+        if ((current != null) && isActive(current))
         {
-            if (!this.transactions.containsKey(t))
+            if (current.transaction != t)
             {
-                throw new IllegalStateException("Unknown transaction: " + t);
+                Thread thread = Thread.currentThread();
+                throw new IllegalStateException("A different transaction is already registered for thread \"" + thread.getName() + "\" (id " + thread.getId() + ")");
             }
-            Thread thread = Thread.currentThread();
-            long threadId = thread.getId();
-            T current = this.transactionsByThreadId.putIfAbsent(threadId, t);
-            if ((current != null) && (current != t))
-            {
-                throw new IllegalStateException("A different transaction is already registered for thread \"" + thread.getName() + "\" (id " + threadId + ")");
-            }
-            threads.addToValue(threadId, 1);
-            return new ManagerThreadLocalTransactionContext(threadId, t);
+            current.openCount.incrementAndGet();
+            return new ManagerThreadLocalTransactionContext(current);
         }
+        ThreadTransaction<T> threadTransaction = new ThreadTransaction<>(t);
+        threadTransaction.binding = this.threadTransaction.bind(threadTransaction);
+        return new ManagerThreadLocalTransactionContext(threadTransaction);
     }
 
-    private void removeThreadLocalTransaction(long threadId, T transaction)
+    // a transaction stops being open in a thread when all its contexts in the thread are closed, or when it is
+    // deregistered (i.e., committed, rolled back, or invalidated), whichever comes first
+    private boolean isActive(ThreadTransaction<T> threadTransaction)
     {
-        T current = this.transactionsByThreadId.get(threadId);
-        if (current == transaction)
-        {
-            MutableLongIntMap threads = this.transactions.get(transaction);
-            if (threads == null)
-            {
-                // this shouldn't happen, but just in case ...
-                this.transactionsByThreadId.remove(threadId, transaction);
-                return;
-            }
-            synchronized (threads)
-            {
-                int count = threads.addToValue(threadId, -1);
-                if (count <= 0)
-                {
-                    this.transactionsByThreadId.remove(threadId, transaction);
-                    threads.remove(threadId);
-                }
-            }
-        }
+        return (threadTransaction.openCount.get() > 0) && (threadTransaction.transaction.isOpen() || isRegistered(threadTransaction.transaction));
     }
 
     private void registerTransaction(T transaction)
@@ -152,8 +132,7 @@ public abstract class TransactionManager<T extends Transaction>
                 throw new IllegalStateException("Cannot register a new committable transaction");
             }
         }
-        MutableLongIntMap previous = this.transactions.putIfAbsent(transaction, LongIntMaps.mutable.empty());
-        if (previous != null)
+        if (!this.transactions.add(transaction))
         {
             throw new IllegalStateException("Transaction has already been registered");
         }
@@ -162,38 +141,46 @@ public abstract class TransactionManager<T extends Transaction>
     @SuppressWarnings("unchecked")
     protected boolean deregisterTransaction(Transaction transaction)
     {
-        MutableLongIntMap threads = this.transactions.remove(transaction);
-        if (threads == null)
+        if (!this.transactions.remove(transaction))
         {
             return false;
         }
-        synchronized (threads)
+        transaction.invalidateIfOpen();
+        if (transaction.isCommittable())
         {
-            transaction.invalidateIfOpen();
-            threads.forEachKey(threadId -> this.transactionsByThreadId.remove(threadId, transaction));
-            if (transaction.isCommittable())
-            {
-                this.committableTransaction.compareAndSet((T) transaction, null);
-            }
-            return true;
+            this.committableTransaction.compareAndSet((T) transaction, null);
         }
+        return true;
     }
 
-    private class ManagerThreadLocalTransactionContext extends ThreadLocalTransactionContext
+    private static class ThreadTransaction<T extends Transaction>
     {
-        private final long threadId;
         private final T transaction;
+        private final AtomicInteger openCount = new AtomicInteger(1);
+        private volatile ContextValue.Binding binding;
 
-        private ManagerThreadLocalTransactionContext(long threadId, T transaction)
+        private ThreadTransaction(T transaction)
         {
-            this.threadId = threadId;
             this.transaction = transaction;
         }
+    }
+
+    private static class ManagerThreadLocalTransactionContext extends ThreadLocalTransactionContext
+    {
+        private final ThreadTransaction<?> threadTransaction;
+
+        private ManagerThreadLocalTransactionContext(ThreadTransaction<?> threadTransaction)
+        {
+            this.threadTransaction = threadTransaction;
+        }
 
         @Override
         protected void doClose()
         {
-            removeThreadLocalTransaction(this.threadId, this.transaction);
+            if (this.threadTransaction.openCount.decrementAndGet() == 0)
+            {
+                this.threadTransaction.binding.close();
+            }
         }
     }
 }
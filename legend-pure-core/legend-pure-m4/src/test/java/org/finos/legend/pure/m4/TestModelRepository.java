@@ -14,9 +14,17 @@
 
 package org.finos.legend.pure.m4;
 
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.coreinstance.primitive.PrimitiveInterner;
+import org.finos.legend.pure.m4.coreinstance.primitive.date.DateFunctions;
+import org.finos.legend.pure.m4.coreinstance.simple.SimpleCoreInstanceFactory;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.math.BigDecimal;
+
 public class TestModelRepository
 {
     @Test
@@ -37,4 +45,88 @@ public class TestModelRepository
         Assert.assertFalse(ModelRepository.isAnonymousInstanceName("@_1234a"));
         Assert.assertFalse(ModelRepository.isAnonymousInstanceName("@_1_5_67"));
     }
+
+    @Test
+    public void testTopLevelLoader()
+    {
+        ModelRepository repository = new ModelRepository();
+        CoreInstance loaded = repository.newUnknownTypeCoreInstance("Loaded", null);
+        MutableList<String> requested = Lists.mutable.empty();
+        repository.setTopLevelLoader(name ->
+        {
+            requested.add(name);
+            if ("Loaded".equals(name))
+            {
+                repository.addTopLevel(loaded);
+                return true;
+            }
+            return false;
+        });
+
+        Assert.assertNull(repository.getTopLevel("Unknown"));
+        Assert.assertSame(loaded, repository.getTopLevel("Loaded"));
+        Assert.assertSame(loaded, repository.getTopLevel("Loaded"));
+        Assert.assertEquals(Lists.mutable.with("Unknown", "Loaded"), requested);
+
+        repository.setTopLevelLoader(null);
+        Assert.assertNull(repository.getTopLevel("Unknown"));
+        Assert.assertEquals(2, requested.size());
+    }
+
+    @Test
+    public void testPersistentPrimitiveInterning()
+    {
+        ModelRepository repository = new ModelRepository();
+        Assert.assertSame(repository.newStringCoreInstance_cached("abc"), repository.newStringCoreInstance_cached("abc"));
+        Assert.assertSame(repository.newStringCoreInstance_cached("abc"), repository.newStringCoreInstance("abc"));
+        Assert.assertSame(repository.newFloatCoreInstance("1.5"), repository.newFloatCoreInstance("1.5f"));
+        Assert.assertNotSame(repository.newFloatCoreInstance("1.5"), repository.newFloatCoreInstance("1.50"));
+        Assert.assertSame(repository.newDecimalCoreInstance("1.5d"), repository.newDecimalCoreInstance(new BigDecimal("1.5")));
+        Assert.assertSame(repository.newDateCoreInstance("2020-01-01"), repository.newDateCoreInstance("2020-01-01"));
+        Assert.assertSame(repository.newDateTimeCoreInstance("2020-01-01T01:02:03"), repository.newDateTimeCoreInstance(DateFunctions.parsePureDate("2020-01-01T01:02:03")));
+
+        CoreInstance floatInstance = repository.newFloatCoreInstance("2.5");
+        CoreInstance decimalInstance = repository.newDecimalCoreInstance("2.5");
+        Assert.assertNotSame(floatInstance, decimalInstance);
+        Assert.assertEquals(ModelRepository.FLOAT_TYPE_NAME, floatInstance.getClassifier().getName());
+        Assert.assertEquals(ModelRepository.DECIMAL_TYPE_NAME, decimalInstance.getClassifier().getName());
+
+        PrimitiveInterner<?, ?> stringInterner = repository.getPrimitiveInterners().detect(i -> ModelRepository.STRING_TYPE_NAME.equals(i.getName()));
+        Assert.assertEquals(PrimitiveInterner.ReferenceType.STRONG, stringInterner.getReferenceType());
+        Assert.assertEquals(1, stringInterner.getMissCount());
+        Assert.assertEquals(3, stringInterner.getHitCount());
+
+        repository.clear();
+        repository.getPrimitiveInterners().forEach(i -> Assert.assertEquals(i.getName(), 0, i.size()));
+    }
+
+    @Test
+    public void testEphemeralPrimitiveInterning()
+    {
+        ModelRepository notInterned = new ModelRepository(new SimpleCoreInstanceFactory(), PrimitiveInterner.ReferenceType.STRONG, PrimitiveInterner.UNBOUNDED, PrimitiveInterner.DISABLED, 1000);
+        Assert.assertNotSame(notInterned.newStringCoreInstance("abc"), notInterned.newStringCoreInstance("abc"));
+        Assert.assertNotSame(notInterned.newFloatCoreInstance(new BigDecimal("1.5")), notInterned.newFloatCoreInstance(new BigDecimal("1.5")));
+
+        ModelRepository interned = new ModelRepository(new SimpleCoreInstanceFactory(), PrimitiveInterner.ReferenceType.STRONG, PrimitiveInterner.UNBOUNDED, 100, 1000);
+        CoreInstance ephemeral = interned.newStringCoreInstance("abc");
+        Assert.assertSame(ephemeral, interned.newStringCoreInstance("abc"));
+        Assert.assertNotSame(ephemeral, interned.newStringCoreInstance_cached("abc"));
+        Assert.assertSame(interned.newStringCoreInstance_cached("abc"), interned.newStringCoreInstance("abc"));
+    }
+
+    @Test
+    public void testBoundedPrimitiveInterning()
+    {
+        ModelRepository repository = new ModelRepository(new SimpleCoreInstanceFactory(), PrimitiveInterner.ReferenceType.STRONG, 100, PrimitiveInterner.DISABLED, 10);
+        for (int i = 0; i < 1000; i++)
+        {
+            repository.newStringCoreInstance_cached("string" + i);
+        }
+        PrimitiveInterner<?, ?> stringInterner = repository.getPrimitiveInterners().detect(i -> ModelRepository.STRING_TYPE_NAME.equals(i.getName()));
+        Assert.assertTrue(stringInterner.toString(), stringInterner.size() <= 100);
+        Assert.assertEquals(stringInterner.toString(), 1000 - stringInterner.size(), stringInterner.getEvictionCount());
+
+        Assert.assertSame(repository.newIntegerCoreInstance(10), repository.newIntegerCoreInstance(10));
+        Assert.assertNotSame(repository.newIntegerCoreInstance(11), repository.newIntegerCoreInstance(11));
+    }
 }
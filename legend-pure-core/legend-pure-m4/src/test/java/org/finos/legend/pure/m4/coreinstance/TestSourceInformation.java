@@ -19,6 +19,61 @@ import org.junit.Test;
 
 public class TestSourceInformation
 {
+    @Test
+    public void testPositions()
+    {
+        assertPositions("/test/source.pure", 1, 2, 3, 4, 5, 6);
+        assertPositions("/test/source.pure", -1, -1, 10, 12, -1, -1);
+        assertPositions("/test/source.pure", 0, 0, 0, 0, 0, 0);
+        assertPositions(null, 1, 1, 1, 1, 1, 1);
+
+        assertPositions("/test/source.pure", 131_070, 32_766, 131_070, 32_766, 131_070, 32_766);
+
+        // values which cannot be packed
+        assertPositions("/test/source.pure", 131_071, 1, 131_071, 1, 131_071, 1);
+        assertPositions("/test/source.pure", 1, 32_767, 1, 32_767, 1, 32_767);
+        assertPositions("/test/source.pure", 1, 2, 3, 4_000_000, 5, 6);
+        assertPositions("/test/source.pure", 8_000_000, 2, 8_000_000, 4, 8_000_001, 6);
+        assertPositions("/test/source.pure", -2, -3, 1, 1, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertPositions("/test/source.pure", Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE);
+    }
+
+    @Test
+    public void testEquals()
+    {
+        SourceInformation sourceInfo = new SourceInformation("/test/source.pure", 1, 2, 3, 4, 5, 6);
+        Assert.assertEquals(sourceInfo, new SourceInformation(new String("/test/source.pure"), 1, 2, 3, 4, 5, 6));
+        Assert.assertEquals(sourceInfo.hashCode(), new SourceInformation(new String("/test/source.pure"), 1, 2, 3, 4, 5, 6).hashCode());
+        Assert.assertNotEquals(sourceInfo, new SourceInformation("/test/other.pure", 1, 2, 3, 4, 5, 6));
+        Assert.assertNotEquals(sourceInfo, new SourceInformation("/test/source.pure", 1, 2, 3, 4, 5, 7));
+        Assert.assertNotEquals(sourceInfo, new SourceInformation("/test/source.pure", 2, 1, 3, 4, 5, 6));
+
+        SourceInformation overflowSourceInfo = new SourceInformation("/test/source.pure", 1, 2, 3, 4, 5, 2_000_000);
+        Assert.assertEquals(overflowSourceInfo, new SourceInformation("/test/source.pure", 1, 2, 3, 4, 5, 2_000_000));
+        Assert.assertNotEquals(overflowSourceInfo, new SourceInformation("/test/source.pure", 1, 2, 3, 4, 5, 2_000_001));
+        Assert.assertNotEquals(overflowSourceInfo, sourceInfo);
+    }
+
+    @Test
+    public void testSourceIdIsShared()
+    {
+        SourceInformation sourceInfo1 = new SourceInformation(new String("/test/source.pure"), 1, 2, 3, 4, 5, 6);
+        SourceInformation sourceInfo2 = new SourceInformation(new String("/test/source.pure"), 7, 8, 9, 10, 11, 12);
+        Assert.assertSame(sourceInfo1.getSourceId(), sourceInfo2.getSourceId());
+    }
+
+    private void assertPositions(String sourceId, int startLine, int startColumn, int line, int column, int endLine, int endColumn)
+    {
+        SourceInformation sourceInfo = new SourceInformation(sourceId, startLine, startColumn, line, column, endLine, endColumn);
+        Assert.assertEquals(sourceId, sourceInfo.getSourceId());
+        Assert.assertEquals(startLine, sourceInfo.getStartLine());
+        Assert.assertEquals(startColumn, sourceInfo.getStartColumn());
+        Assert.assertEquals(line, sourceInfo.getLine());
+        Assert.assertEquals(column, sourceInfo.getColumn());
+        Assert.assertEquals(endLine, sourceInfo.getEndLine());
+        Assert.assertEquals(endColumn, sourceInfo.getEndColumn());
+    }
+
     @Test
     public void testComparePositions()
     {
@@ -0,0 +1,174 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.coreinstance.indexing;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+import org.finos.legend.pure.m4.ModelRepository;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestAdaptiveIndexes
+{
+    private static final IndexSpecification<String> NAME_SPEC = IndexSpecifications.getCoreInstanceNameIndexSpec();
+
+    private final ModelRepository repository = new ModelRepository();
+
+    @Test
+    public void testIndexBuiltAfterRepeatedLookups() throws Exception
+    {
+        MutableList<CoreInstance> values = newValues(100);
+        AdaptiveIndexes<CoreInstance> indexes = new AdaptiveIndexes<>();
+
+        for (int i = 1; i < AdaptiveIndexes.LOOKUPS_BEFORE_INDEXING; i++)
+        {
+            Assert.assertSame(values.get(i), indexes.getValueByIDIndex(NAME_SPEC, "value" + i, values));
+            Assert.assertFalse(indexes.isIndexed(NAME_SPEC));
+        }
+        Assert.assertSame(values.get(50), indexes.getValueByIDIndex(NAME_SPEC, "value50", values));
+        Assert.assertTrue(indexes.isIndexed(NAME_SPEC));
+        Assert.assertNull(indexes.getValueByIDIndex(NAME_SPEC, "other", values));
+    }
+
+    @Test
+    public void testIndexUpdatedIncrementally() throws Exception
+    {
+        MutableList<CoreInstance> values = newValues(100);
+        AdaptiveIndexes<CoreInstance> indexes = buildIndexes(values);
+
+        CoreInstance added = this.repository.newUnknownTypeCoreInstance("added", null);
+        values.add(added);
+        indexes.addValue(added);
+        CoreInstance removed = values.remove(10);
+        indexes.removeValue(removed);
+        CoreInstance replacement = this.repository.newUnknownTypeCoreInstance("replacement", null);
+        CoreInstance replaced = values.set(20, replacement);
+        indexes.replaceValue(replaced, replacement);
+
+        Assert.assertTrue(indexes.isIndexed(NAME_SPEC));
+        Assert.assertSame(added, indexes.getValueByIDIndex(NAME_SPEC, "added", values));
+        Assert.assertSame(replacement, indexes.getValueByIDIndex(NAME_SPEC, "replacement", values));
+        Assert.assertNull(indexes.getValueByIDIndex(NAME_SPEC, removed.getName(), values));
+        Assert.assertNull(indexes.getValueByIDIndex(NAME_SPEC, replaced.getName(), values));
+        Assert.assertEquals(Lists.mutable.with(added), indexes.getValuesByIndex(NAME_SPEC, "added", values));
+    }
+
+    @Test
+    public void testUnusedIndexDropped() throws Exception
+    {
+        MutableList<CoreInstance> values = newValues(20);
+        AdaptiveIndexes<CoreInstance> indexes = buildIndexes(values);
+
+        // more updates than there were values without a lookup: no longer worth maintaining
+        for (int i = 0; i <= 20; i++)
+        {
+            CoreInstance value = this.repository.newUnknownTypeCoreInstance("new" + i, null);
+            values.add(value);
+            indexes.addValue(value);
+        }
+        Assert.assertFalse(indexes.isIndexed(NAME_SPEC));
+        Assert.assertSame(values.get(30), indexes.getValueByIDIndex(NAME_SPEC, values.get(30).getName(), values));
+    }
+
+    @Test
+    public void testIDConflict() throws Exception
+    {
+        MutableList<CoreInstance> values = newValues(20);
+        AdaptiveIndexes<CoreInstance> indexes = buildIndexes(values);
+
+        CoreInstance duplicate = this.repository.newUnknownTypeCoreInstance("value5", null);
+        values.add(duplicate);
+        indexes.addValue(duplicate);
+        Assert.assertFalse(indexes.isIndexed(NAME_SPEC));
+        try
+        {
+            indexes.getValueByIDIndex(NAME_SPEC, "value5", values);
+            Assert.fail("Expected ID conflict");
+        }
+        catch (IDConflictException e)
+        {
+            Assert.assertEquals("value5", e.getId());
+        }
+        Assert.assertEquals(Lists.mutable.with(values.get(5), duplicate), indexes.getValuesByIndex(NAME_SPEC, "value5", values));
+    }
+
+    @Test
+    public void testIDConflictBeforeIndexing() throws Exception
+    {
+        MutableList<CoreInstance> values = newValues(20);
+        values.add(this.repository.newUnknownTypeCoreInstance("value5", null));
+        AdaptiveIndexes<CoreInstance> indexes = new AdaptiveIndexes<>();
+        // scans report a conflict on any id, like the index built afterwards
+        for (int i = 0; i <= AdaptiveIndexes.LOOKUPS_BEFORE_INDEXING; i++)
+        {
+            try
+            {
+                indexes.getValueByIDIndex(NAME_SPEC, "value0", values);
+                Assert.fail("Expected ID conflict");
+            }
+            catch (IDConflictException e)
+            {
+                Assert.assertEquals("value5", e.getId());
+            }
+        }
+        Assert.assertFalse(indexes.isIndexed(NAME_SPEC));
+    }
+
+    @Test
+    public void testCopyAndReset() throws Exception
+    {
+        MutableList<CoreInstance> values = newValues(50);
+        AdaptiveIndexes<CoreInstance> indexes = buildIndexes(values);
+
+        MutableList<CoreInstance> copiedValues = values.toList();
+        AdaptiveIndexes<CoreInstance> copy = indexes.copy();
+        Assert.assertTrue(copy.isIndexed(NAME_SPEC));
+
+        CoreInstance added = this.repository.newUnknownTypeCoreInstance("added", null);
+        copiedValues.add(added);
+        copy.addValue(added);
+        Assert.assertSame(added, copy.getValueByIDIndex(NAME_SPEC, "added", copiedValues));
+        Assert.assertNull(indexes.getValueByIDIndex(NAME_SPEC, "added", values));
+
+        // after a reset, an index in use is rebuilt on its next lookup
+        indexes.reset();
+        Assert.assertFalse(indexes.isIndexed(NAME_SPEC));
+        MutableList<CoreInstance> newValues = newValues(30);
+        Assert.assertSame(newValues.get(25), indexes.getValueByIDIndex(NAME_SPEC, "value25", newValues));
+        Assert.assertTrue(indexes.isIndexed(NAME_SPEC));
+    }
+
+    private AdaptiveIndexes<CoreInstance> buildIndexes(MutableList<CoreInstance> values) throws IDConflictException
+    {
+        AdaptiveIndexes<CoreInstance> indexes = new AdaptiveIndexes<>();
+        for (int i = 0; i < AdaptiveIndexes.LOOKUPS_BEFORE_INDEXING; i++)
+        {
+            indexes.getValueByIDIndex(NAME_SPEC, "value0", values);
+        }
+        Assert.assertTrue(indexes.isIndexed(NAME_SPEC));
+        return indexes;
+    }
+
+    private MutableList<CoreInstance> newValues(int count)
+    {
+        MutableList<CoreInstance> values = Lists.mutable.ofInitialCapacity(count);
+        for (int i = 0; i < count; i++)
+        {
+            values.add(this.repository.newUnknownTypeCoreInstance("value" + i, null));
+        }
+        return values;
+    }
+}
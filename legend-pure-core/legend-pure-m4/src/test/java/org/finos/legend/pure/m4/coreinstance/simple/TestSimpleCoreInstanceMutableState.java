@@ -0,0 +1,286 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.coreinstance.simple;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.finos.legend.pure.m4.ModelRepository;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.coreinstance.indexing.IndexSpecification;
+import org.finos.legend.pure.m4.coreinstance.indexing.IndexSpecifications;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TestSimpleCoreInstanceMutableState
+{
+    private static final ImmutableList<String> ONE_KEY = Lists.immutable.with("Root", "children", "Class", "properties", "one");
+    private static final ImmutableList<String> MANY_KEY = Lists.immutable.with("Root", "children", "Class", "properties", "many");
+
+    private final ModelRepository repository = new ModelRepository();
+
+    @Test
+    public void testReadsAndWrites() throws Exception
+    {
+        SimpleCoreInstanceMutableState state = new SimpleCoreInstanceMutableState();
+        Assert.assertFalse(state.hasValuesDefined("one"));
+        Assert.assertNull(state.getValues("one"));
+        Assert.assertNull(state.getRealKeyByName("one"));
+
+        CoreInstance one = this.repository.newIntegerCoreInstance(1);
+        state.setValues(ONE_KEY, one);
+        Assert.assertTrue(state.hasValuesDefined("one"));
+        Assert.assertSame(one, state.getOneValue("one"));
+        Assert.assertEquals(ONE_KEY, state.getRealKeyByName("one"));
+
+        for (int i = 0; i < 20; i++)
+        {
+            state.addValue(MANY_KEY, this.repository.newIntegerCoreInstance(i));
+        }
+        Assert.assertEquals(20, state.getValues("many").size());
+        Assert.assertEquals(MANY_KEY, state.getRealKeyByName("many"));
+        Assert.assertEquals(Lists.mutable.with("one", "many").toSortedList(), state.getKeys().toSortedList());
+
+        SimpleCoreInstanceMutableState copy = state.copy();
+        state.removeKey("many");
+        Assert.assertNull(state.getValues("many"));
+        Assert.assertEquals(20, copy.getValues("many").size());
+    }
+
+    @Test
+    public void testIndexedValuesAreSnapshots()
+    {
+        SimpleCoreInstanceMutableState state = new SimpleCoreInstanceMutableState();
+        for (int i = 0; i < 20; i++)
+        {
+            state.addValue(MANY_KEY, this.repository.newIntegerCoreInstance(i));
+        }
+        ListIterable<CoreInstance> values = state.getValues("many");
+        Assert.assertSame(values, state.getValues("many"));
+
+        IndexSpecification<String> nameSpec = IndexSpecifications.getCoreInstanceNameIndexSpec();
+        ListIterable<CoreInstance> byName = state.getValueInValueForMetaPropertyToManyByIndex("many", nameSpec, "5");
+        Assert.assertEquals(1, byName.size());
+
+        state.addValue(MANY_KEY, this.repository.newIntegerCoreInstance(20));
+        state.addValue(MANY_KEY, this.repository.newIntegerCoreInstance(5));
+        Assert.assertEquals(20, values.size());
+        Assert.assertEquals(22, state.getValues("many").size());
+        Assert.assertEquals(1, byName.size());
+        Assert.assertEquals(2, state.getValueInValueForMetaPropertyToManyByIndex("many", nameSpec, "5").size());
+    }
+
+    @Test
+    public void testSlotStorage() throws Exception
+    {
+        PropertyLayout layout = new PropertyLayout();
+        SimpleCoreInstanceMutableState state1 = new SimpleCoreInstanceMutableState(layout);
+        SimpleCoreInstanceMutableState state2 = new SimpleCoreInstanceMutableState(layout);
+
+        CoreInstance one = this.repository.newIntegerCoreInstance(1);
+        state1.setValues(ONE_KEY, one);
+        state1.addValue(MANY_KEY, one);
+        state2.setValues(Lists.mutable.withAll(MANY_KEY), one);
+        Assert.assertEquals(2, layout.getSlotCount());
+        Assert.assertEquals(0, layout.getSlot("one"));
+        Assert.assertEquals(1, layout.getSlot("many"));
+
+        Assert.assertSame(one, state1.getOneValue("one"));
+        Assert.assertSame(one, state2.getOneValue("many"));
+        Assert.assertFalse(state2.hasValuesDefined("one"));
+        Assert.assertNull(state2.getValues("one"));
+        Assert.assertEquals(Lists.mutable.with("many"), state2.getKeys().toList());
+        Assert.assertSame(state1.getRealKeyByName("many"), state2.getRealKeyByName("many"));
+
+        SimpleCoreInstanceMutableState copy = state1.copy();
+        state1.removeKey("one");
+        Assert.assertNull(state1.getValues("one"));
+        Assert.assertEquals(Lists.mutable.with("many"), state1.getKeys().toList());
+        Assert.assertSame(one, copy.getOneValue("one"));
+        Assert.assertEquals(Lists.mutable.with("one", "many").toSortedList(), copy.getKeys().toSortedList());
+    }
+
+    @Test
+    public void testSlotStorageOverflow() throws Exception
+    {
+        PropertyLayout layout = new PropertyLayout();
+        SimpleCoreInstanceMutableState state = new SimpleCoreInstanceMutableState(layout);
+        int keyCount = PropertyLayout.MAX_SLOTS + 10;
+        for (int i = 0; i < keyCount; i++)
+        {
+            state.setValues(Lists.immutable.with("Root", "children", "Class", "properties", "key" + i), this.repository.newIntegerCoreInstance(i));
+        }
+        Assert.assertEquals(PropertyLayout.MAX_SLOTS, layout.getSlotCount());
+        Assert.assertEquals(PropertyLayout.NO_SLOT, layout.getSlot("key" + (keyCount - 1)));
+        Assert.assertEquals(keyCount, state.getKeys().size());
+        for (int i = 0; i < keyCount; i++)
+        {
+            Assert.assertEquals(String.valueOf(i), state.getOneValue("key" + i).getName());
+        }
+
+        state.removeKey("key" + (keyCount - 1));
+        Assert.assertNull(state.getValues("key" + (keyCount - 1)));
+        Assert.assertEquals(keyCount - 1, state.getKeys().size());
+    }
+
+    @Test
+    public void testSlotStorageInstances()
+    {
+        ModelRepository slotRepository = new ModelRepository();
+        slotRepository.getPropertyLayouts().setSlotStorageEnabled(true);
+        CoreInstance classifier = slotRepository.newUnknownTypeCoreInstance("MyClass", null);
+        CoreInstance instance1 = slotRepository.newCoreInstance("instance1", classifier, null);
+        CoreInstance instance2 = slotRepository.newUnknownTypeCoreInstance("instance2", null);
+        instance2.setClassifier(classifier);
+        instance1.setKeyValues(ONE_KEY, Lists.immutable.with(slotRepository.newIntegerCoreInstance(1)));
+        instance2.setKeyValues(ONE_KEY, Lists.immutable.with(slotRepository.newIntegerCoreInstance(2)));
+        Assert.assertEquals(1, slotRepository.getPropertyLayouts().size());
+        Assert.assertEquals("1", instance1.getValueForMetaPropertyToOne("one").getName());
+        Assert.assertEquals("2", instance2.getValueForMetaPropertyToOne("one").getName());
+        Assert.assertEquals(ONE_KEY, instance2.getRealKeyByName("one"));
+
+        slotRepository.clear();
+        Assert.assertEquals(0, slotRepository.getPropertyLayouts().size());
+    }
+
+    @Test
+    public void testSlotStorageGrowsWithLayout() throws Exception
+    {
+        PropertyLayout layout = new PropertyLayout();
+        SimpleCoreInstanceMutableState state1 = new SimpleCoreInstanceMutableState(layout);
+        SimpleCoreInstanceMutableState state2 = new SimpleCoreInstanceMutableState(layout);
+        int keyCount = PropertyLayout.MAX_SLOTS;
+        for (int i = 0; i < keyCount; i++)
+        {
+            state1.setValues(Lists.immutable.with("Root", "children", "Class", "properties", "key" + i), this.repository.newIntegerCoreInstance(i));
+        }
+        // keys set in reverse order, so the first one added needs the whole layout
+        for (int i = keyCount - 1; i >= 0; i--)
+        {
+            state2.setValues(Lists.immutable.with("Root", "children", "Class", "properties", "key" + i), this.repository.newIntegerCoreInstance(-i));
+        }
+        Assert.assertEquals(keyCount, layout.getSlotCount());
+        for (int i = 0; i < keyCount; i++)
+        {
+            Assert.assertEquals(String.valueOf(i), state1.getOneValue("key" + i).getName());
+            Assert.assertEquals(String.valueOf(-i), state2.getOneValue("key" + i).getName());
+        }
+        Assert.assertEquals(keyCount, state1.getKeys().size());
+        Assert.assertEquals(keyCount, state2.getKeys().size());
+    }
+
+    @Test
+    public void testLayoutReleasedWithClassifier() throws Exception
+    {
+        PropertyLayouts layouts = new PropertyLayouts();
+        layouts.setSlotStorageEnabled(true);
+        CoreInstance classifier = this.repository.newUnknownTypeCoreInstance("MyClass", null);
+        Assert.assertSame(layouts.getLayout(classifier), layouts.getLayout(classifier));
+        WeakReference<CoreInstance> ref = new WeakReference<>(newLayoutClassifier(layouts));
+        Assert.assertEquals(2, layouts.size());
+        for (int i = 0; (i < 20) && ((ref.get() != null) || (layouts.size() > 1)); i++)
+        {
+            System.gc();
+            Thread.sleep(10L);
+        }
+        Assert.assertNull(ref.get());
+        Assert.assertEquals(1, layouts.size());
+        Assert.assertNotNull(layouts.getLayout(classifier));
+    }
+
+    private CoreInstance newLayoutClassifier(PropertyLayouts layouts)
+    {
+        CoreInstance classifier = this.repository.newUnknownTypeCoreInstance("OtherClass", null);
+        Assert.assertNotNull(layouts.getLayout(classifier));
+        return classifier;
+    }
+
+    @Test
+    public void testConcurrentReadsDuringWrites() throws Exception
+    {
+        testConcurrentReadsDuringWrites(new SimpleCoreInstanceMutableState());
+    }
+
+    @Test
+    public void testConcurrentReadsDuringWritesWithSlotStorage() throws Exception
+    {
+        testConcurrentReadsDuringWrites(new SimpleCoreInstanceMutableState(new PropertyLayout()));
+    }
+
+    private void testConcurrentReadsDuringWrites(SimpleCoreInstanceMutableState state) throws Exception
+    {
+        int valueCount = 1000;
+        CoreInstance[] values = new CoreInstance[valueCount];
+        for (int i = 0; i < valueCount; i++)
+        {
+            values[i] = this.repository.newIntegerCoreInstance(i);
+        }
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            MutableList<Future<Integer>> readers = Lists.mutable.empty();
+            for (int i = 0; i < 7; i++)
+            {
+                readers.add(executor.submit(() ->
+                {
+                    int maxSize = 0;
+                    while (!done.get())
+                    {
+                        if (state.hasValuesDefined("one"))
+                        {
+                            Assert.assertNotNull(state.getOneValue("one"));
+                            Assert.assertEquals(ONE_KEY, state.getRealKeyByName("one"));
+                        }
+                        ListIterable<CoreInstance> many = state.getValues("many");
+                        if (many != null)
+                        {
+                            Assert.assertEquals(MANY_KEY, state.getRealKeyByName("many"));
+                            maxSize = Math.max(maxSize, many.size());
+                        }
+                    }
+                    return maxSize;
+                }));
+            }
+
+            for (int i = 0; i < valueCount; i++)
+            {
+                state.setValues(ONE_KEY, values[i]);
+                state.addValue(MANY_KEY, values[i]);
+            }
+            done.set(true);
+
+            for (Future<Integer> reader : readers)
+            {
+                Assert.assertTrue(reader.get(30, TimeUnit.SECONDS) <= valueCount);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        Assert.assertSame(values[valueCount - 1], state.getOneValue("one"));
+        Assert.assertEquals(Lists.mutable.with(values), state.getValues("many"));
+    }
+}
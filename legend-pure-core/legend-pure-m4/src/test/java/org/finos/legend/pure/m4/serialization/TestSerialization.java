@@ -16,12 +16,15 @@ package org.finos.legend.pure.m4.serialization;
 
 import org.finos.legend.pure.m4.ModelRepository;
 import org.finos.legend.pure.m4.serialization.binary.BinaryRepositorySerializer;
+import org.finos.legend.pure.m4.serialization.binary.BinaryWriters;
 import org.finos.legend.pure.m4.serialization.grammar.M4Parser;
 import org.finos.legend.pure.m4.statelistener.M4StateListener;
 import org.finos.legend.pure.m4.statelistener.VoidM4StateListener;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+
 public class TestSerialization
 {
     @Test
@@ -152,4 +155,99 @@ public class TestSerialization
                             "                String instance PrimitiveType",newRepository.getTopLevel("Element").print("", 10));
 
     }
+
+    @Test
+    public void testSerialVersion1()
+    {
+        testSerialVersion(BinaryRepositorySerializer.VERSION_1);
+    }
+
+    @Test
+    public void testSerialVersion2()
+    {
+        testSerialVersion(BinaryRepositorySerializer.VERSION_2);
+    }
+
+    @Test
+    public void testSerialDefaultVersion()
+    {
+        ModelRepository repository = newVersionTestRepository();
+        Assert.assertArrayEquals(serialize(repository, BinaryRepositorySerializer.CURRENT_VERSION), repository.serialize());
+    }
+
+    @Test
+    public void testVersion2IsSmaller()
+    {
+        ModelRepository repository = newVersionTestRepository();
+        byte[] version1 = serialize(repository, BinaryRepositorySerializer.VERSION_1);
+        byte[] version2 = serialize(repository, BinaryRepositorySerializer.VERSION_2);
+        Assert.assertTrue(version1.length + " <= " + version2.length, version2.length < version1.length);
+    }
+
+    private void testSerialVersion(int version)
+    {
+        M4StateListener listener = new VoidM4StateListener();
+        ModelRepository repository = newVersionTestRepository();
+        repository.validate(listener);
+
+        ModelRepository newRepository = new ModelRepository();
+        BinaryRepositorySerializer.build(serialize(repository, version), newRepository);
+        newRepository.validate(listener);
+
+        Assert.assertEquals(repository.getTopLevels().size(), newRepository.getTopLevels().size());
+        repository.getTopLevels().forEach(topLevel -> Assert.assertEquals(topLevel.print("", 10), newRepository.getTopLevel(topLevel.getName()).print("", 10)));
+    }
+
+    private static ModelRepository newVersionTestRepository()
+    {
+        ModelRepository repository = new ModelRepository(370);
+        new M4Parser().parse("^Class Class ?[a/b/c/file.txt:1,3,1,9,45,89]?\n" +
+                             "{\n" +
+                             "    Class.properties[properties] :\n" +
+                             "        [\n" +
+                             "            ^Property properties ?[a/b/c/file.txt:2,5,2,15,2,20]?\n" +
+                             "            {\n" +
+                             "                Property.properties[type] : Property\n" +
+                             "            }\n" +
+                             "        ]\n" +
+                             "}\n" +
+                             "\n" +
+                             "^Class PrimitiveType ?[a/b/c/file.txt:4,3,4,9,4,20]?\n" +
+                             "{\n" +
+                             "}\n" +
+                             "\n" +
+                             "^PrimitiveType String ?[a/b/c/file.txt:6,3,6,9,6,20]?\n" +
+                             "{\n" +
+                             "}\n" +
+                             "\n" +
+                             "^Class Property ?[a/b/c/file.txt:8,3,8,9,8,20]?\n" +
+                             "{\n" +
+                             "    Class.properties[properties] :\n" +
+                             "        [\n" +
+                             "            ^Property type ?[a/b/c/file.txt:9,5,9,15,9,20]?\n" +
+                             "            {\n" +
+                             "                Property.properties[type] : Class\n" +
+                             "            }\n" +
+                             "        ]\n" +
+                             "}\n" +
+                             "\n" +
+                             "^Class Element ?[a/b/c/file.txt:11,3,11,9,11,20]?\n" +
+                             "{\n" +
+                             "    Class.properties[properties] :\n" +
+                             "        [\n" +
+                             "            ^Property name ?[a/b/c/file.txt:12,5,12,15,12,20]?\n" +
+                             "            {\n" +
+                             "                Property.properties[type] : String\n" +
+                             "            }\n" +
+                             "        ]\n" +
+                             "}\n", repository, new VoidM4StateListener());
+        return repository;
+    }
+
+    private static byte[] serialize(ModelRepository repository, int version)
+    {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        new BinaryRepositorySerializer(BinaryWriters.newBinaryWriter(stream), version).serialize(repository);
+        return stream.toByteArray();
+    }
 }
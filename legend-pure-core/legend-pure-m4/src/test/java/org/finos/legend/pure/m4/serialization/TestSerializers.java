@@ -312,6 +312,87 @@ public abstract class TestSerializers
         }
     }
 
+    @Test
+    public void testWriteReadVarInt() throws IOException
+    {
+        for (int expected : new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1, 10, 127, 128, 16383, 16384, -234987973, 34298735})
+        {
+            WriterReader writerReader = newWriterReader();
+            try (Writer writer = writerReader.getWriter())
+            {
+                writer.writeVarInt(expected);
+                writer.writeSignedVarInt(expected);
+            }
+            try (Reader reader = writerReader.getReader())
+            {
+                Assert.assertEquals(expected, reader.readVarInt());
+                Assert.assertEquals(expected, reader.readSignedVarInt());
+            }
+        }
+    }
+
+    @Test
+    public void testWriteSkipVarInt() throws IOException
+    {
+        int expected = 17;
+        for (int toSkip : new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1, 10, 127, 128, -234987973, 34298735})
+        {
+            WriterReader writerReader = newWriterReader();
+            try (Writer writer = writerReader.getWriter())
+            {
+                writer.writeVarInt(toSkip);
+                writer.writeSignedVarInt(toSkip);
+                writer.writeVarInt(expected);
+            }
+            try (Reader reader = writerReader.getReader())
+            {
+                reader.skipVarInt();
+                reader.skipVarInt();
+                Assert.assertEquals(expected, reader.readVarInt());
+            }
+        }
+    }
+
+    @Test
+    public void testVarIntSize() throws IOException
+    {
+        int[] values = {0, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1};
+        int[] expectedSizes = {1, 1, 2, 2, 3, 5, 5};
+        for (int i = 0; i < values.length; i++)
+        {
+            WriterReader writerReader = newWriterReader();
+            try (Writer writer = writerReader.getWriter())
+            {
+                writer.writeVarInt(values[i]);
+                writer.writeByte((byte) 5);
+            }
+            try (Reader reader = writerReader.getReader())
+            {
+                reader.skipBytes(expectedSizes[i]);
+                Assert.assertEquals(Integer.toString(values[i]), 5, reader.readByte());
+            }
+        }
+    }
+
+    @Test
+    public void testWriteReadVarLong() throws IOException
+    {
+        for (long expected : new long[]{Long.MIN_VALUE, Long.MAX_VALUE, 0L, -1L, 10L, 127L, 128L, -2349879738487L, 342987353947592L})
+        {
+            WriterReader writerReader = newWriterReader();
+            try (Writer writer = writerReader.getWriter())
+            {
+                writer.writeVarLong(expected);
+                writer.writeVarLong(expected);
+            }
+            try (Reader reader = writerReader.getReader())
+            {
+                reader.skipVarLong();
+                Assert.assertEquals(expected, reader.readVarLong());
+            }
+        }
+    }
+
     @Test
     public void testWriteReadLong() throws IOException
     {
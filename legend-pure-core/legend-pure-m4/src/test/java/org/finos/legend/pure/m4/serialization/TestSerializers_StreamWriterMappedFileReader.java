@@ -0,0 +1,86 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.serialization;
+
+import org.finos.legend.pure.m4.serialization.binary.BinaryReaders;
+import org.finos.legend.pure.m4.serialization.binary.BinaryWriters;
+import org.finos.legend.pure.m4.serialization.binary.MappedFile;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TestSerializers_StreamWriterMappedFileReader extends TestSerializers
+{
+    // small chunks, so that values span chunks
+    private static final int CHUNK_SIZE = 5;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Override
+    protected WriterReader newWriterReader() throws IOException
+    {
+        Path tmpFile = this.tempFolder.newFile().toPath();
+        return new WriterReader()
+        {
+            @Override
+            public Writer getWriter() throws IOException
+            {
+                return BinaryWriters.newBinaryWriter(Files.newOutputStream(tmpFile));
+            }
+
+            @Override
+            public Reader getReader()
+            {
+                return BinaryReaders.newBinaryReader(MappedFile.map(tmpFile, CHUNK_SIZE), true);
+            }
+        };
+    }
+
+    @Test
+    public void testSlice() throws IOException
+    {
+        byte[] bytes = new byte[23];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = (byte) i;
+        }
+        Path tmpFile = this.tempFolder.newFile().toPath();
+        Files.write(tmpFile, bytes);
+
+        try (MappedFile file = MappedFile.map(tmpFile, CHUNK_SIZE))
+        {
+            Assert.assertEquals(bytes.length, file.size());
+            for (int offset = 0; offset < bytes.length; offset++)
+            {
+                for (int length = 0; offset + length <= bytes.length; length++)
+                {
+                    ByteBuffer slice = file.slice(offset, length);
+                    Assert.assertEquals(length, slice.remaining());
+                    for (int i = 0; i < length; i++)
+                    {
+                        Assert.assertEquals(bytes[offset + i], slice.get());
+                    }
+                }
+            }
+        }
+    }
+}
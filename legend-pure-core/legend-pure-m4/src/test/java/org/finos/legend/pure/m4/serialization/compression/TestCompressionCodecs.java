@@ -0,0 +1,167 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package org.finos.legend.pure.m4.serialization.compression;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+public class TestCompressionCodecs
+{
+    private static final CompressionCodec[] CODECS = {CompressionCodecs.NONE, CompressionCodecs.GZIP, CompressionCodecs.DEFLATE, CompressionCodecs.deflate(1), CompressionCodecs.LZ};
+
+    @Test
+    public void testRoundTrip() throws IOException
+    {
+        for (byte[] bytes : new byte[][]{new byte[0], new byte[]{1}, new byte[]{1, 2, 3, 4, 5}, compressibleBytes(1_000), compressibleBytes(300_000), randomBytes(200_000), repeatedBytes(150_000)})
+        {
+            for (CompressionCodec codec : CODECS)
+            {
+                Assert.assertArrayEquals(codec.getName() + " " + bytes.length, bytes, decompress(compress(bytes, codec)));
+            }
+        }
+    }
+
+    @Test
+    public void testLZCompresses() throws IOException
+    {
+        byte[] bytes = compressibleBytes(300_000);
+        byte[] compressed = compress(bytes, CompressionCodecs.LZ);
+        Assert.assertTrue(compressed.length + " >= " + bytes.length, compressed.length < (bytes.length / 2));
+
+        // incompressible blocks are stored, so cost little more than the block headers
+        byte[] random = randomBytes(200_000);
+        Assert.assertTrue(compress(random, CompressionCodecs.LZ).length < (random.length + 64));
+    }
+
+    @Test
+    public void testCodecLookup()
+    {
+        for (CompressionCodec codec : new CompressionCodec[]{CompressionCodecs.NONE, CompressionCodecs.GZIP, CompressionCodecs.DEFLATE, CompressionCodecs.LZ})
+        {
+            Assert.assertSame(codec, CompressionCodecs.getCodec(codec.getId()));
+            Assert.assertSame(codec, CompressionCodecs.getCodec(codec.getName()));
+        }
+        Assert.assertEquals(CompressionCodecs.DEFLATE.getId(), CompressionCodecs.getCodec("deflate-9").getId());
+
+        IllegalArgumentException e = Assert.assertThrows(IllegalArgumentException.class, () -> CompressionCodecs.getCodec(200));
+        Assert.assertEquals("Unknown compression codec: 200", e.getMessage());
+        Assert.assertThrows(IllegalArgumentException.class, () -> CompressionCodecs.getCodec("not a codec"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> CompressionCodecs.deflate(10));
+    }
+
+    @Test
+    public void testReadCodecFromHeader() throws IOException
+    {
+        for (CompressionCodec codec : CODECS)
+        {
+            Assert.assertEquals(codec.getName(), codec.getId(), CompressionCodecs.readCodec(compress(new byte[]{1, 2, 3}, codec)).getId());
+        }
+        Assert.assertThrows(IllegalArgumentException.class, () -> CompressionCodecs.readCodec(new byte[]{1, 2, 3, 4, 5}));
+    }
+
+    @Test
+    public void testReadLegacyGZip() throws IOException
+    {
+        byte[] bytes = compressibleBytes(10_000);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(stream))
+        {
+            gzip.write(bytes);
+        }
+        Assert.assertArrayEquals(bytes, decompress(stream.toByteArray()));
+        Assert.assertSame(CompressionCodecs.GZIP, CompressionCodecs.readCodec(stream.toByteArray()));
+    }
+
+    @Test
+    public void testTruncatedLZ() throws IOException
+    {
+        byte[] compressed = compress(compressibleBytes(100_000), CompressionCodecs.LZ);
+        byte[] truncated = new byte[compressed.length / 2];
+        System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+        Assert.assertThrows(IOException.class, () -> decompress(truncated));
+    }
+
+    private static byte[] compress(byte[] bytes, CompressionCodec codec) throws IOException
+    {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (OutputStream compressing = CompressionCodecs.newCompressingStream(stream, codec))
+        {
+            // write in uneven pieces, to cross block boundaries
+            int offset = 0;
+            int piece = 1;
+            while (offset < bytes.length)
+            {
+                int length = Math.min(piece, bytes.length - offset);
+                compressing.write(bytes, offset, length);
+                offset += length;
+                piece = (piece * 3) + 1;
+            }
+        }
+        return stream.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] bytes) throws IOException
+    {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (InputStream decompressing = CompressionCodecs.newDecompressingStream(new ByteArrayInputStream(bytes)))
+        {
+            byte[] buffer = new byte[1000];
+            int read;
+            while ((read = decompressing.read(buffer)) != -1)
+            {
+                stream.write(buffer, 0, read);
+            }
+        }
+        return stream.toByteArray();
+    }
+
+    private static byte[] compressibleBytes(int length)
+    {
+        StringBuilder builder = new StringBuilder(length);
+        Random random = new Random(length);
+        while (builder.length() < length)
+        {
+            builder.append("meta::pure::functions::collection::").append(random.nextInt(100)).append(';');
+        }
+        return builder.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] randomBytes(int length)
+    {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] repeatedBytes(int length)
+    {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+        {
+            bytes[i] = (byte) (i % 3);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,194 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.tools;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TestContextValue
+{
+    private final ContextValue<String> value = ContextValue.newContextValue();
+
+    @Test
+    public void testRunWhere()
+    {
+        Assert.assertFalse(this.value.isBound());
+        Assert.assertNull(this.value.get());
+        Assert.assertEquals("default", this.value.orElse("default"));
+
+        this.value.runWhere("outer", () ->
+        {
+            Assert.assertEquals("outer", this.value.get());
+            Assert.assertEquals("inner", this.value.callWhere("inner", this.value::get));
+            Assert.assertEquals("outer", this.value.get());
+        });
+        Assert.assertFalse(this.value.isBound());
+    }
+
+    @Test
+    public void testRunWhereRestoresAfterException()
+    {
+        try
+        {
+            this.value.runWhere("value", () ->
+            {
+                throw new IllegalStateException("failure");
+            });
+            Assert.fail("Expected exception");
+        }
+        catch (IllegalStateException e)
+        {
+            Assert.assertEquals("failure", e.getMessage());
+        }
+        Assert.assertFalse(this.value.isBound());
+    }
+
+    @Test
+    public void testBindingsClosedOutOfOrder()
+    {
+        ContextValue.Binding outer = this.value.bind("outer");
+        ContextValue.Binding inner = this.value.bind("inner");
+        Assert.assertEquals("inner", this.value.get());
+
+        outer.close();
+        Assert.assertEquals("inner", this.value.get());
+        inner.close();
+        Assert.assertFalse(this.value.isBound());
+
+        // closing again has no effect
+        inner.close();
+        Assert.assertFalse(this.value.isBound());
+    }
+
+    @Test
+    public void testBindingClosedInOtherThread() throws Exception
+    {
+        ContextValue.Binding binding = this.value.bind("value");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Assert.assertNull(executor.submit(this.value::get).get(30, TimeUnit.SECONDS));
+            executor.submit(binding::close).get(30, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        Assert.assertFalse(this.value.isBound());
+    }
+
+    @Test
+    public void testBindingClosedInOtherThreadReleasesValue() throws Exception
+    {
+        ContextValue<Object> objectValue = ContextValue.newContextValue();
+        WeakReference<Object> ref = bindAndCloseInOtherThread(objectValue);
+        for (int i = 0; (i < 20) && (ref.get() != null); i++)
+        {
+            System.gc();
+            Thread.sleep(10L);
+        }
+        Assert.assertNull(ref.get());
+        Assert.assertFalse(objectValue.isBound());
+    }
+
+    private static WeakReference<Object> bindAndCloseInOtherThread(ContextValue<Object> objectValue) throws Exception
+    {
+        Object bound = new Object();
+        ContextValue.Binding binding = objectValue.bind(bound);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            executor.submit(binding::close).get(30, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        return new WeakReference<>(bound);
+    }
+
+    @Test
+    public void testRemoveDoesNotRemoveBinding()
+    {
+        this.value.runWhere("bound", () ->
+        {
+            this.value.remove();
+            Assert.assertNull(this.value.get());
+            this.value.set("reset");
+            Assert.assertEquals("reset", this.value.get());
+        });
+        // the value set inside the binding does not leak out as a base value
+        Assert.assertFalse(this.value.isBound());
+    }
+
+    @Test
+    public void testSetAndRemove()
+    {
+        this.value.set("base");
+        Assert.assertEquals("base", this.value.get());
+        this.value.runWhere("bound", () ->
+        {
+            this.value.set("reset");
+            Assert.assertEquals("reset", this.value.get());
+            this.value.remove();
+            Assert.assertNull(this.value.get());
+        });
+        Assert.assertEquals("base", this.value.get());
+        this.value.remove();
+        Assert.assertFalse(this.value.isBound());
+    }
+
+    @Test
+    public void testConcurrentExecutions() throws Exception
+    {
+        int executionCount = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try
+        {
+            MutableList<Future<Boolean>> results = Lists.mutable.ofInitialCapacity(executionCount);
+            for (int i = 0; i < executionCount; i++)
+            {
+                String execution = "execution" + i;
+                results.add(executor.submit(() ->
+                {
+                    boolean valid = this.value.callWhere(execution, () ->
+                    {
+                        Thread.yield();
+                        boolean nestedValid = this.value.callWhere("nested", () -> "nested".equals(this.value.get()));
+                        return nestedValid && execution.equals(this.value.get());
+                    });
+                    // nothing is left behind in the pooled thread
+                    return valid && !this.value.isBound();
+                }));
+            }
+            for (Future<Boolean> result : results)
+            {
+                Assert.assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
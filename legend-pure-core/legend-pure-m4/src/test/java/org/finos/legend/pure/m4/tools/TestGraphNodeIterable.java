@@ -0,0 +1,128 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.tools;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.set.MutableSet;
+import org.finos.legend.pure.m4.ModelRepository;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class TestGraphNodeIterable
+{
+    private static final ImmutableList<String> CHILDREN_KEY = Lists.immutable.with("Root", "children", "Node", "properties", "children");
+    private static final ImmutableList<String> LINK_KEY = Lists.immutable.with("Root", "children", "Node", "properties", "link");
+
+    private static ForkJoinPool pool;
+    private static ModelRepository repository;
+    private static CoreInstance root;
+    private static int nodeCount;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        pool = new ForkJoinPool(4);
+        repository = new ModelRepository();
+
+        // a tree with extra links across it, so that nodes are reachable along several paths
+        MutableList<CoreInstance> nodes = Lists.mutable.empty();
+        root = repository.newUnknownTypeCoreInstance("root", null);
+        repository.addTopLevel(root);
+        nodes.add(root);
+        for (int i = 1; i < 5000; i++)
+        {
+            CoreInstance node = repository.newUnknownTypeCoreInstance("node" + i, null);
+            nodes.get((i - 1) / 4).addKeyValue(CHILDREN_KEY, node);
+            nodes.add(node);
+        }
+        for (int i = 0; i < nodes.size(); i += 7)
+        {
+            nodes.get(i).addKeyValue(LINK_KEY, nodes.get((i * 31) % nodes.size()));
+        }
+        nodeCount = nodes.size();
+    }
+
+    @AfterClass
+    public static void tearDown()
+    {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testParallelWalkVisitsAllNodes()
+    {
+        GraphNodeIterable iterable = GraphNodeIterable.builder().withStartingNode(root).build();
+        MutableSet<CoreInstance> expected = iterable.toSet();
+        Assert.assertEquals(nodeCount, expected.size());
+
+        Assert.assertEquals(expected, iterable.toSetParallel(pool));
+        Assert.assertEquals(expected, Sets.mutable.withAll(pool.submit(() -> iterable.parallelStream().collect(Collectors.toList())).join()));
+        Assert.assertEquals(expected.size(), iterable.parallelStream().count());
+
+        MutableSet<CoreInstance> consumed = ConcurrentHashSet.newSet();
+        iterable.forEachParallel(n -> Assert.assertTrue(consumed.add(n)), pool);
+        Assert.assertEquals(expected, consumed);
+    }
+
+    @Test
+    public void testParallelWalkWithFilters()
+    {
+        Function<CoreInstance, GraphWalkFilterResult> nodeFilter = n ->
+        {
+            int hash = n.getName().hashCode();
+            return GraphWalkFilterResult.get((hash % 2) == 0, (hash % 5) != 0);
+        };
+        GraphNodeIterable iterable = GraphNodeIterable.builder()
+                .withStartingNode(root)
+                .withKeyFilter((n, k) -> !"link".equals(k))
+                .withNodeFilter(nodeFilter)
+                .build();
+        MutableSet<CoreInstance> expected = iterable.toSet();
+        Assert.assertEquals(expected, iterable.toSetParallel(pool));
+        Assert.assertEquals(expected, Sets.mutable.withAll(iterable.parallelStream().collect(Collectors.toList())));
+        Assert.assertEquals(expected.size(), iterable.parallelStream().count());
+    }
+
+    @Test
+    public void testParallelWalkFromRepository()
+    {
+        Assert.assertEquals(GraphNodeIterable.allInstancesFromRepository(repository), GraphNodeIterable.allInstancesFromRepository(repository, pool));
+    }
+
+    @Test
+    public void testSplitSingleStartingNode()
+    {
+        GraphNodeIterable iterable = GraphNodeIterable.builder().withStartingNode(root).build();
+        Spliterator<CoreInstance> spliterator = iterable.spliterator();
+        Spliterator<CoreInstance> split = spliterator.trySplit();
+        Assert.assertNotNull(split);
+
+        MutableSet<CoreInstance> nodes = Sets.mutable.empty();
+        split.forEachRemaining(n -> Assert.assertTrue(nodes.add(n)));
+        spliterator.forEachRemaining(n -> Assert.assertTrue(nodes.add(n)));
+        Assert.assertEquals(iterable.toSet(), nodes);
+    }
+}
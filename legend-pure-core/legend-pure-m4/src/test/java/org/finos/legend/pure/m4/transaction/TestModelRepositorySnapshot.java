@@ -0,0 +1,255 @@
+// Copyright 2026 Goldman Sachs
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.finos.legend.pure.m4.transaction;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.finos.legend.pure.m4.ModelRepository;
+import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.transaction.framework.ThreadLocalTransactionContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TestModelRepositorySnapshot
+{
+    private static final ImmutableList<String> VALUE_KEY = Lists.immutable.with("Root", "children", "Element", "properties", "value");
+
+    private final ModelRepository repository = new ModelRepository();
+
+    @Test
+    public void testCommitPublishesNewVersion()
+    {
+        CoreInstance element = newTopLevel("element", 1);
+        Assert.assertEquals(0L, this.repository.getVersions().getCommittedVersion());
+
+        commit(() ->
+        {
+            setValue(element, 2);
+            newTopLevel("other", 3);
+        });
+        Assert.assertEquals(1L, this.repository.getVersions().getCommittedVersion());
+        Assert.assertEquals(2, getValue(element));
+        Assert.assertNotNull(this.repository.getTopLevel("other"));
+        Assert.assertFalse(this.repository.getVersions().hasHistory());
+    }
+
+    @Test
+    public void testModificationCount()
+    {
+        ModelRepositoryVersions versions = this.repository.getVersions();
+        CoreInstance element = newTopLevel("element", 1);
+        long count = versions.getModificationCount();
+        Assert.assertTrue(versions.isUnmodifiedSince(count));
+
+        setValue(element, 2);
+        Assert.assertFalse(versions.isUnmodifiedSince(count));
+
+        count = versions.getModificationCount();
+        Assert.assertTrue(versions.isUnmodifiedSince(count));
+        setValue(element, 3);
+        setValue(element, 4);
+        Assert.assertFalse(versions.isUnmodifiedSince(count));
+        Assert.assertFalse(versions.isUnmodifiedSince(count));
+
+        count = versions.getModificationCount();
+        commit(() -> setValue(element, 5));
+        Assert.assertFalse(versions.isUnmodifiedSince(count));
+    }
+
+    @Test
+    public void testSnapshotReads() throws Exception
+    {
+        CoreInstance element = newTopLevel("element", 1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            try (ModelRepositorySnapshot snapshot = this.repository.openSnapshot())
+            {
+                Assert.assertEquals(0L, snapshot.getVersion());
+
+                // commit twice in another thread, while the snapshot is open in this one
+                executor.submit(() -> commit(() ->
+                {
+                    setValue(element, 2);
+                    newTopLevel("other", 3);
+                })).get(30, TimeUnit.SECONDS);
+                executor.submit(() -> commit(() -> setValue(element, 4))).get(30, TimeUnit.SECONDS);
+                Assert.assertEquals(2L, this.repository.getVersions().getCommittedVersion());
+                Assert.assertTrue(this.repository.getVersions().hasHistory());
+
+                Assert.assertEquals(1, getValue(element));
+                Assert.assertNull(this.repository.getTopLevel("other"));
+                Assert.assertFalse(this.repository.getTopLevels().anySatisfy(topLevel -> "other".equals(topLevel.getName())));
+
+                // other threads see the latest version
+                Assert.assertEquals(Integer.valueOf(4), executor.submit(() -> getValue(element)).get(30, TimeUnit.SECONDS));
+                Assert.assertEquals(Boolean.TRUE, executor.submit(() -> this.repository.getTopLevel("other") != null).get(30, TimeUnit.SECONDS));
+
+                // a nested snapshot shares the version of the open one
+                try (ModelRepositorySnapshot nested = this.repository.openSnapshot())
+                {
+                    Assert.assertEquals(0L, nested.getVersion());
+                }
+                Assert.assertEquals(1, getValue(element));
+            }
+            Assert.assertEquals(0, this.repository.getVersions().getOpenSnapshotCount());
+            Assert.assertFalse(this.repository.getVersions().hasHistory());
+            Assert.assertEquals(4, getValue(element));
+            Assert.assertNotNull(this.repository.getTopLevel("other"));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSnapshotAfterCommit()
+    {
+        CoreInstance element = newTopLevel("element", 1);
+        try (ModelRepositorySnapshot first = this.repository.openSnapshot())
+        {
+            commit(() -> setValue(element, 2));
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try
+            {
+                // a snapshot opened after the commit in another thread sees the new version
+                Future<Integer> future = executor.submit(() ->
+                {
+                    try (ModelRepositorySnapshot second = this.repository.openSnapshot())
+                    {
+                        Assert.assertEquals(1L, second.getVersion());
+                        return getValue(element);
+                    }
+                });
+                Assert.assertEquals(Integer.valueOf(2), future.get(30, TimeUnit.SECONDS));
+            }
+            catch (Exception e)
+            {
+                throw new RuntimeException(e);
+            }
+            finally
+            {
+                executor.shutdownNow();
+            }
+            Assert.assertEquals(1, getValue(element));
+        }
+    }
+
+    @Test
+    public void testTransactionReadsItsOwnState()
+    {
+        CoreInstance element = newTopLevel("element", 1);
+        try (ModelRepositorySnapshot snapshot = this.repository.openSnapshot())
+        {
+            ModelRepositoryTransaction transaction = this.repository.newTransaction(true);
+            try (ThreadLocalTransactionContext ignore = transaction.openInCurrentThread())
+            {
+                setValue(element, 2);
+                Assert.assertEquals(2, getValue(element));
+            }
+            Assert.assertEquals(1, getValue(element));
+            transaction.rollback();
+            Assert.assertEquals(1, getValue(element));
+            Assert.assertEquals(0L, snapshot.getVersion());
+        }
+        Assert.assertEquals(1, getValue(element));
+        Assert.assertEquals(0L, this.repository.getVersions().getCommittedVersion());
+    }
+
+    @Test
+    public void testSnapshotTimesOut() throws Exception
+    {
+        CoreInstance element = newTopLevel("element", 1);
+        this.repository.getVersions().setSnapshotTimeout(1, TimeUnit.MILLISECONDS);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ModelRepositorySnapshot snapshot = this.repository.openSnapshot())
+        {
+            Thread.sleep(10L);
+            executor.submit(() -> commit(() -> setValue(element, 2))).get(30, TimeUnit.SECONDS);
+            Assert.assertTrue(snapshot.isExpired());
+            Assert.assertEquals(1L, this.repository.getVersions().getExpiredSnapshotCount());
+            Assert.assertEquals(0, this.repository.getVersions().getOpenSnapshotCount());
+            Assert.assertFalse(this.repository.getVersions().hasHistory());
+            Assert.assertEquals(2, getValue(element));
+
+            // closing the expired snapshot does not release a newer one
+            this.repository.getVersions().setSnapshotTimeout(0, TimeUnit.MILLISECONDS);
+            try (ModelRepositorySnapshot newer = this.repository.openSnapshot())
+            {
+                snapshot.close();
+                Assert.assertEquals(1, this.repository.getVersions().getOpenSnapshotCount());
+                Assert.assertEquals(1L, newer.getVersion());
+                Assert.assertFalse(newer.isExpired());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(0, this.repository.getVersions().getOpenSnapshotCount());
+    }
+
+    @Test
+    public void testSnapshotOfTerminatedThreadIsReleased() throws Exception
+    {
+        CoreInstance element = newTopLevel("element", 1);
+        this.repository.getVersions().setSnapshotTimeout(0, TimeUnit.MILLISECONDS);
+        ModelRepositorySnapshot[] leaked = new ModelRepositorySnapshot[1];
+        Thread thread = new Thread(() -> leaked[0] = this.repository.openSnapshot());
+        thread.start();
+        thread.join(30_000L);
+        Assert.assertEquals(1, this.repository.getVersions().getOpenSnapshotCount());
+
+        commit(() -> setValue(element, 2));
+        Assert.assertTrue(leaked[0].isExpired());
+        Assert.assertEquals(0, this.repository.getVersions().getOpenSnapshotCount());
+        Assert.assertFalse(this.repository.getVersions().hasHistory());
+        Assert.assertEquals(1L, this.repository.getVersions().getExpiredSnapshotCount());
+    }
+
+    private void commit(Runnable runnable)
+    {
+        ModelRepositoryTransaction transaction = this.repository.newTransaction(true);
+        try (ThreadLocalTransactionContext ignore = transaction.openInCurrentThread())
+        {
+            runnable.run();
+        }
+        transaction.commit();
+    }
+
+    private CoreInstance newTopLevel(String name, int value)
+    {
+        CoreInstance element = this.repository.newUnknownTypeCoreInstance(name, null);
+        setValue(element, value);
+        this.repository.addTopLevel(element);
+        return element;
+    }
+
+    private void setValue(CoreInstance element, int value)
+    {
+        element.setKeyValues(VALUE_KEY, Lists.immutable.with(this.repository.newIntegerCoreInstance(value)));
+    }
+
+    private int getValue(CoreInstance element)
+    {
+        return Integer.parseInt(element.getValueForMetaPropertyToOne("value").getName());
+    }
+}
@@ -14,6 +14,8 @@
 
 package org.finos.legend.pure.m4.transaction;
 
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
 import org.finos.legend.pure.m4.transaction.framework.ThreadLocalTransactionContext;
 import org.finos.legend.pure.m4.transaction.framework.Transaction;
 import org.finos.legend.pure.m4.transaction.framework.TransactionManager;
@@ -21,6 +23,10 @@ import org.finos.legend.pure.m4.transaction.framework.TransactionStateException;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TestTransaction
@@ -296,6 +302,73 @@ public class TestTransaction
         transaction.rollback();
     }
 
+    @Test
+    public void testTransactionNotOpenAfterCommitInOpenContext()
+    {
+        StubTransaction transaction = this.manager.newTransaction(true);
+        try (ThreadLocalTransactionContext ignore = transaction.openInCurrentThread())
+        {
+            Assert.assertSame(transaction, this.manager.getThreadLocalTransaction());
+            transaction.commit();
+            Assert.assertNull(this.manager.getThreadLocalTransaction());
+
+            // a new transaction can be opened in the thread, even though the context is still open
+            StubTransaction transaction2 = this.manager.newTransaction(false);
+            try (ThreadLocalTransactionContext ignore2 = transaction2.openInCurrentThread())
+            {
+                Assert.assertSame(transaction2, this.manager.getThreadLocalTransaction());
+            }
+        }
+        Assert.assertNull(this.manager.getThreadLocalTransaction());
+    }
+
+    @Test
+    public void testManyConcurrentTransactions() throws Exception
+    {
+        int executionCount = 10_000;
+        ExecutorService executor = newExecutorService();
+        try
+        {
+            MutableList<Future<Boolean>> results = Lists.mutable.ofInitialCapacity(executionCount);
+            for (int i = 0; i < executionCount; i++)
+            {
+                results.add(executor.submit(() ->
+                {
+                    StubTransaction transaction = this.manager.newTransaction(false);
+                    boolean valid;
+                    try (ThreadLocalTransactionContext ignore = transaction.openInCurrentThread())
+                    {
+                        Thread.yield();
+                        valid = (this.manager.getThreadLocalTransaction() == transaction);
+                    }
+                    transaction.rollback();
+                    return valid && (this.manager.getThreadLocalTransaction() == null);
+                }));
+            }
+            for (Future<Boolean> result : results)
+            {
+                Assert.assertTrue(result.get(60, TimeUnit.SECONDS));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    // one virtual thread per execution where the JVM supports it, and otherwise a large pool of platform threads
+    private static ExecutorService newExecutorService()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            return Executors.newFixedThreadPool(64);
+        }
+    }
+
     private static class StubTransaction extends Transaction
     {
         private StubTransaction(TransactionManager<?> transactionManager, boolean committable)
@@ -24,6 +24,7 @@ import org.finos.legend.pure.m3.exception.PureExecutionException;
 import org.finos.legend.pure.m3.navigation.M3Properties;
 import org.finos.legend.pure.m3.navigation.ProcessorSupport;
 import org.finos.legend.pure.m4.coreinstance.CoreInstance;
+import org.finos.legend.pure.m4.tools.ContextValue;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.IdBuilder;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.support.coreinstance.ReflectiveCoreInstance;
 import org.finos.legend.pure.runtime.java.compiled.generation.processors.type.MetadataJavaPaths;
@@ -34,7 +35,7 @@ public final class MetadataEager implements Metadata
 {
     private final MetamodelByClassifier metamodelByClassifier = new MetamodelByClassifier();
 
-    private final ThreadLocal<MetamodelByClassifier> added = new ThreadLocal<>();
+    private final ContextValue<MetamodelByClassifier> added = ContextValue.newContextValue();
 
     @Override
     public void startTransaction()
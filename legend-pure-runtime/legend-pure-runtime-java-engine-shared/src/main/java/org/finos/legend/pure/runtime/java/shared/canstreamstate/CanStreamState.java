@@ -14,9 +14,13 @@
 
 package org.finos.legend.pure.runtime.java.shared.canstreamstate;
 
+import org.finos.legend.pure.m4.tools.ContextValue;
+
+import java.util.function.Supplier;
+
 public class CanStreamState
 {
-    private static final ThreadLocal<Boolean> canStream = new ThreadLocal<>();
+    private static final ContextValue<Boolean> canStream = ContextValue.newContextValue();
 
     public static void setCanStream(boolean stream)
     {
@@ -30,12 +34,35 @@ public class CanStreamState
 
     public static boolean canStream()
     {
-        Boolean streams = canStream.get();
-        return streams == null ? false : streams;
+        return canStream.orElse(false);
     }
 
     public static void clearCanStream()
     {
         canStream.remove();
     }
+
+    /**
+     * Run the runnable with streaming allowed or not, as specified, restoring the previous setting afterwards.
+     *
+     * @param stream   whether streaming is allowed
+     * @param runnable runnable
+     */
+    public static void runWithCanStream(boolean stream, Runnable runnable)
+    {
+        canStream.runWhere(stream, runnable);
+    }
+
+    /**
+     * Call the supplier with streaming allowed or not, as specified, restoring the previous setting afterwards.
+     *
+     * @param stream   whether streaming is allowed
+     * @param supplier supplier
+     * @param <T>      result type
+     * @return result of the supplier
+     */
+    public static <T> T callWithCanStream(boolean stream, Supplier<? extends T> supplier)
+    {
+        return canStream.callWhere(stream, supplier);
+    }
 }